@@ -0,0 +1,44 @@
+#!/bin/bash
+# 요청을 받을 준비가 될 때까지 걸린 시간 측정 (CI: .github/workflows/startup-time.yml)
+#
+# 사용법: scripts/measure-startup.sh <이름> <실행 명령...>
+#   scripts/measure-startup.sh jar java -jar target/print-management-api-1.0.0.jar
+# 결과: "<이름> <ms>" 를 표준 출력과 $STARTUP_RESULT_FILE(지정 시)에 기록
+set -euo pipefail
+
+NAME="$1"
+shift
+URL="${STARTUP_PROBE_URL:-http://localhost:8080/actuator/health/readiness}"
+TIMEOUT_SECONDS="${STARTUP_TIMEOUT_SECONDS:-180}"
+LOG_FILE="${STARTUP_LOG_DIR:-.}/startup-${NAME}.log"
+
+started=$(date +%s%N)
+"$@" > "$LOG_FILE" 2>&1 &
+pid=$!
+trap 'kill "$pid" 2>/dev/null || true; wait "$pid" 2>/dev/null || true' EXIT
+
+# readiness 가 200(UP)을 돌려줄 때 요청 처리 가능으로 판단 (503 은 아직 준비 중)
+code=000
+while true; do
+    code=$(curl -s -o /dev/null -w '%{http_code}' "$URL" || true)
+    if [ "$code" = "200" ]; then
+        break
+    fi
+    if ! kill -0 "$pid" 2>/dev/null; then
+        echo "❌ ${NAME}: 기동 중 종료됨 (로그: ${LOG_FILE})" >&2
+        tail -50 "$LOG_FILE" >&2
+        exit 1
+    fi
+    if [ $(( ($(date +%s%N) - started) / 1000000000 )) -ge "$TIMEOUT_SECONDS" ]; then
+        echo "❌ ${NAME}: ${TIMEOUT_SECONDS}초 안에 준비되지 않음 (마지막 응답 ${code}, 로그: ${LOG_FILE})" >&2
+        tail -50 "$LOG_FILE" >&2
+        exit 1
+    fi
+    sleep 0.05
+done
+
+elapsed_ms=$(( ($(date +%s%N) - started) / 1000000 ))
+echo "${NAME} ${elapsed_ms}"
+if [ -n "${STARTUP_RESULT_FILE:-}" ]; then
+    echo "${NAME} ${elapsed_ms}" >> "$STARTUP_RESULT_FILE"
+fi
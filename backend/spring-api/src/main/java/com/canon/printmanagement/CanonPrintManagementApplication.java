@@ -2,6 +2,7 @@ package com.canon.printmanagement;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -23,8 +24,15 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @EnableJpaAuditing
 public class CanonPrintManagementApplication {
 
+    // 기동 단계 기록 최대 개수 (CANON_STARTUP_REPORT=true 일 때만 기록)
+    private static final int STARTUP_STEP_CAPACITY = 20_000;
+
     public static void main(String[] args) {
-        SpringApplication.run(CanonPrintManagementApplication.class, args);
+        SpringApplication application = new SpringApplication(CanonPrintManagementApplication.class);
+        if (Boolean.parseBoolean(System.getProperty("canon.startup.report", System.getenv("CANON_STARTUP_REPORT")))) {
+            application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+        }
+        application.run(args);
         
         System.out.println("""
             
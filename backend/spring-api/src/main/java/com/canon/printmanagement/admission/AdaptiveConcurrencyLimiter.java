@@ -0,0 +1,120 @@
+package com.canon.printmanagement.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 지연 시간 기반 적응형 동시 실행 제한 (AIMD)
+ *
+ * 처리 완료된 요청의 지연 시간을 구간(window)별로 평균 내어
+ * - 평균이 목표 지연 시간을 넘으면 한도를 backoff 비율로 줄이고
+ * - 목표 이내이면서 구간 중 한도까지 찼던 적이 있으면 1 늘린다.
+ * 한도는 [minLimit, maxLimit] 범위에서 움직인다.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF = 0.75;
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final long MAX_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    private volatile int limit;
+    private volatile int inFlight;
+    private volatile long averageLatencyNanos;
+
+    // 현재 구간 통계
+    private long windowStart = System.nanoTime();
+    private long windowLatencySum;
+    private int windowSamples;
+    private boolean windowSaturated;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long targetLatencyMillis) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+    }
+
+    /**
+     * 실행 슬롯 획득
+     *
+     * @param cap         외부 상한 (연결 예산 등, 한도보다 작으면 이 값 적용)
+     * @param maxWaitNanos 대기 허용 시간 (0 이면 대기 없이 판정)
+     */
+    public boolean tryAcquire(int cap, long maxWaitNanos) throws InterruptedException {
+        long remaining = maxWaitNanos;
+        lock.lock();
+        try {
+            while (inFlight >= Math.min(limit, cap)) {
+                windowSaturated = true;
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            inFlight++;
+            if (inFlight >= limit) {
+                windowSaturated = true;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 실행 슬롯 반환 + 지연 시간 반영
+     */
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            inFlight--;
+            record(latencyNanos);
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(long latencyNanos) {
+        windowLatencySum += latencyNanos;
+        windowSamples++;
+
+        long now = System.nanoTime();
+        if (windowSamples < Math.max(MIN_WINDOW_SAMPLES, limit) && now - windowStart < MAX_WINDOW_NANOS) {
+            return;
+        }
+
+        long average = windowLatencySum / windowSamples;
+        averageLatencyNanos = average;
+        if (average > targetLatencyNanos) {
+            limit = Math.max(minLimit, (int) (limit * BACKOFF));
+        } else if (windowSaturated) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+
+        windowStart = now;
+        windowLatencySum = 0;
+        windowSamples = 0;
+        windowSaturated = inFlight >= limit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public long getAverageLatencyNanos() {
+        return averageLatencyNanos;
+    }
+}
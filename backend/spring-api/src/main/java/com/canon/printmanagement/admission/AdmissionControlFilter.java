@@ -0,0 +1,135 @@
+package com.canon.printmanagement.admission;
+
+import com.canon.printmanagement.service.AdmissionControlService;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 요청 수락 제어 필터
+ *
+ * 요청 부류(RouteClass)별 토큰 버킷 → 동시 실행 한도 순으로 확인하고,
+ * 통과하지 못하면 대기열에 쌓지 않고 429 + Retry-After 로 응답한다.
+ * 스트리밍 응답(비동기 처리)은 응답이 끝날 때 슬롯을 반환한다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdmissionControlService admissionControlService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !admissionControlService.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        FilterChain filterChain
+    ) throws ServletException, IOException {
+        RouteClass routeClass = RouteClass.classify(request);
+
+        long waitNanos = admissionControlService.tryConsumeToken(routeClass);
+        if (waitNanos > 0) {
+            reject(response, routeClass, AdmissionControlService.toRetryAfterSeconds(waitNanos), "요청률 한도 초과");
+            return;
+        }
+
+        boolean acquired;
+        try {
+            acquired = admissionControlService.tryAcquire(routeClass);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            reject(response, routeClass, admissionControlService.retryAfterSeconds(routeClass), "동시 실행 한도 초과");
+            return;
+        }
+
+        long started = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(routeClass, started));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                admissionControlService.release(routeClass, System.nanoTime() - started);
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response, RouteClass routeClass, long retryAfterSeconds, String reason)
+        throws IOException {
+        log.debug("요청 거절 ({}): {}, Retry-After {}초", routeClass, reason, retryAfterSeconds);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"status\":429,\"error\":\"Too Many Requests\",\"routeClass\":\""
+            + routeClass + "\",\"message\":\"" + reason + "\"}");
+    }
+
+    /**
+     * 비동기 응답 종료 시 슬롯 반환 (완료/오류/시간 초과 중 한 번만)
+     */
+    private final class ReleaseOnComplete implements AsyncListener {
+        private final RouteClass routeClass;
+        private final long started;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnComplete(RouteClass routeClass, long started) {
+            this.routeClass = routeClass;
+            this.started = started;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                admissionControlService.release(routeClass, System.nanoTime() - started);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
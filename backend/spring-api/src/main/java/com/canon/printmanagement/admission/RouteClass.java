@@ -0,0 +1,38 @@
+package com.canon.printmanagement.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * 요청 분류 (부류별 동시 실행/요청률 제한)
+ *
+ * INGEST    - 프린트 서버의 출력 작업 수집/출력 승인 (최우선, 한도 초과 시 잠시 대기)
+ * ANALYTICS - 통계/분석/시뮬레이션 등 큰 집계 쿼리 (한도 초과 시 즉시 429)
+ * DEFAULT   - 그 외 조회/관리 API
+ */
+public enum RouteClass {
+    INGEST, ANALYTICS, DEFAULT;
+
+    private static final String PRINT_JOBS = "/api/v1/print-jobs";
+    private static final String PRINT_AUTHORIZATIONS = "/api/v1/print-authorizations";
+
+    public static RouteClass classify(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI();
+
+        if ("POST".equals(method) && (isCollection(path, PRINT_JOBS) || isCollection(path, PRINT_AUTHORIZATIONS))) {
+            return INGEST;
+        }
+        if (path.startsWith("/api/v1/analytics/")
+            || path.startsWith(PRINT_JOBS + "/stats")
+            || path.startsWith(PRINT_JOBS + "/approx/")
+            || path.startsWith(PRINT_JOBS + "/percentiles")
+            || path.startsWith(PRINT_JOBS + "/policy-simulation")) {
+            return ANALYTICS;
+        }
+        return DEFAULT;
+    }
+
+    private static boolean isCollection(String path, String collection) {
+        return collection.equals(path) || (collection + "/").equals(path);
+    }
+}
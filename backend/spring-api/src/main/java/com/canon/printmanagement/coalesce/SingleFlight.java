@@ -0,0 +1,117 @@
+package com.canon.printmanagement.coalesce;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키의 동시 계산을 하나로 합치는 single-flight
+ *
+ * 키마다 먼저 들어온 호출(leader)만 호출 스레드에서 계산하고, 그동안 들어온 호출(follower)은
+ * 같은 결과를 기다린다. 계산이 끝나면 키를 비우므로 결과 재사용(캐시)은 호출 측 책임이다.
+ * 성공한 결과는 staleKey 별 마지막 값으로 보관해 두고, follower 가 waitMillis 안에 결과를 받지 못하거나
+ * 계산이 실패하면 그 값(stale)으로 응답한다. stale 값이 없으면 끝까지 기다리거나 예외를 그대로 전달한다.
+ * staleKey 는 key 보다 넓게 잡을 수 있다 (예: 종료 시각이 "지금"인 조회는 시각과 무관하게 같은 staleKey).
+ */
+public final class SingleFlight<K, V> {
+
+    public enum Outcome {
+        LEADER,     // 직접 계산
+        COALESCED,  // 진행 중 계산 결과 공유
+        STALE       // 대기 초과/실패로 이전 결과 응답
+    }
+
+    public record Result<V>(V value, Outcome outcome) {
+    }
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final Cache<K, V> lastValues;
+
+    public SingleFlight(Cache<K, V> lastValues) {
+        this.lastValues = lastValues;
+    }
+
+    public Result<V> execute(K key, K staleKey, Supplier<V> loader, long waitMillis) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = calls.putIfAbsent(key, call);
+        if (inFlight == null) {
+            return lead(key, staleKey, call, loader);
+        }
+        return follow(key, staleKey, inFlight, waitMillis);
+    }
+
+    private Result<V> lead(K key, K staleKey, CompletableFuture<V> call, Supplier<V> loader) {
+        try {
+            V value = loader.get();
+            if (value != null) {
+                lastValues.put(staleKey, value);
+            }
+            call.complete(value);
+            return new Result<>(value, Outcome.LEADER);
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+            V stale = lastValues.getIfPresent(staleKey);
+            if (stale != null) {
+                return new Result<>(stale, Outcome.STALE);
+            }
+            throw e;
+        } catch (Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    private Result<V> follow(K key, K staleKey, CompletableFuture<V> inFlight, long waitMillis) {
+        try {
+            return new Result<>(inFlight.get(waitMillis, TimeUnit.MILLISECONDS), Outcome.COALESCED);
+        } catch (TimeoutException e) {
+            V stale = lastValues.getIfPresent(staleKey);
+            if (stale != null) {
+                return new Result<>(stale, Outcome.STALE);
+            }
+            // 새로 계산하면 부하만 늘어나므로 진행 중인 계산을 계속 기다림
+            return await(key, staleKey, inFlight);
+        } catch (ExecutionException e) {
+            return failed(staleKey, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("계산 대기 중 인터럽트: " + key, e);
+        }
+    }
+
+    private Result<V> await(K key, K staleKey, CompletableFuture<V> inFlight) {
+        try {
+            return new Result<>(inFlight.get(), Outcome.COALESCED);
+        } catch (ExecutionException e) {
+            return failed(staleKey, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("계산 대기 중 인터럽트: " + key, e);
+        }
+    }
+
+    private Result<V> failed(K staleKey, ExecutionException e) {
+        V stale = lastValues.getIfPresent(staleKey);
+        if (stale != null) {
+            return new Result<>(stale, Outcome.STALE);
+        }
+        if (e.getCause() instanceof RuntimeException cause) {
+            throw cause;
+        }
+        if (e.getCause() instanceof Error cause) {
+            throw cause;
+        }
+        throw new IllegalStateException(e.getCause());
+    }
+
+    public int inFlight() {
+        return calls.size();
+    }
+}
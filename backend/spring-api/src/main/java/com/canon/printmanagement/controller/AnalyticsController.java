@@ -0,0 +1,47 @@
+package com.canon.printmanagement.controller;
+
+import com.canon.printmanagement.dto.AnalyticsQueryRequest;
+import com.canon.printmanagement.service.AnalyticsQueryPlanner;
+import com.canon.printmanagement.service.AnalyticsQueryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * 다차원 분석 API Controller
+ *
+ * 차원/필터/측정값 조합으로 출력 통계를 조회 (쿼리별 @Query 추가 불필요)
+ */
+@RestController
+@RequestMapping("/api/v1/analytics")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Analytics", description = "다차원 분석 쿼리 API")
+public class AnalyticsController {
+
+    private final AnalyticsQueryService analyticsQueryService;
+
+    /**
+     * 다차원 분석 쿼리
+     */
+    @PostMapping("/query")
+    @Operation(summary = "다차원 분석 쿼리",
+        description = "group-by 차원(DEPARTMENT, USER, PRINTER, PAPER_SIZE, DAY, HOUR, POLICY), 필터, "
+            + "측정값(JOBS, PAGES, COLOR_PAGES, COST, SAVINGS)을 지정. 가능한 경우 일별 집계 뷰를 사용")
+    public ResponseEntity<StreamingResponseBody> query(@RequestBody AnalyticsQueryRequest request) {
+        log.info("🧮 분석 쿼리 요청: 차원 {}, 측정값 {}, {} ~ {}",
+            request.getDimensions(), request.getMeasures(), request.getStartDate(), request.getEndDate());
+
+        AnalyticsQueryPlanner.Plan plan = analyticsQueryService.plan(request);
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .header("X-Query-Source", plan.getSource())
+            .body(analyticsQueryService.stream(plan));
+    }
+}
@@ -0,0 +1,57 @@
+package com.canon.printmanagement.controller;
+
+import com.canon.printmanagement.dto.PrintAuthorizationRequest;
+import com.canon.printmanagement.dto.PrintAuthorizationResponse;
+import com.canon.printmanagement.service.PrintAuthorizationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * 출력 승인 API Controller
+ *
+ * 프린트 서버가 출력 전에 할당량/승인 정책을 실시간으로 확인
+ */
+@RestController
+@RequestMapping("/api/v1/print-authorizations")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Print Authorizations", description = "출력 승인 API")
+public class PrintAuthorizationController {
+
+    private final PrintAuthorizationService printAuthorizationService;
+
+    /**
+     * 출력 승인 요청
+     *
+     * ALLOW/CONVERT 는 할당량을 예약하며, 같은 printerId + jobId 작업이 수집되면 확정된다.
+     */
+    @PostMapping
+    @Operation(summary = "출력 승인", description = "할당량 예약 후 ALLOW / CONVERT(흑백·양면 변환) / DENY 판정. "
+        + "예약은 같은 jobId 출력 작업 수집 시 확정되고, 수집되지 않으면 만료")
+    public ResponseEntity<PrintAuthorizationResponse> authorize(@RequestBody PrintAuthorizationRequest request) {
+        log.info("🔐 출력 승인 요청: 프린터 {}, jobId {}, {}페이지 (컬러 {})",
+            request.getPrinterId(), request.getJobId(), request.getPageCount(), request.getColorPageCount());
+
+        return ResponseEntity.ok(printAuthorizationService.authorize(request));
+    }
+
+    /**
+     * 출력 승인 취소 (예약 해제)
+     */
+    @DeleteMapping("/{reservationId}")
+    @Operation(summary = "출력 승인 취소", description = "출력하지 않은 작업의 할당량 예약 해제")
+    public ResponseEntity<Void> release(@PathVariable UUID reservationId) {
+        log.info("↩️  출력 승인 취소: {}", reservationId);
+
+        if (!printAuthorizationService.release(reservationId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,10 +1,20 @@
 package com.canon.printmanagement.controller;
 
 import com.canon.printmanagement.dto.DepartmentPrintStatistics;
+import com.canon.printmanagement.dto.DistinctCountEstimate;
+import com.canon.printmanagement.dto.HeavyHitterResponse;
+import com.canon.printmanagement.dto.PercentileStatistics;
+import com.canon.printmanagement.dto.PolicySimulationRequest;
+import com.canon.printmanagement.dto.PolicySimulationResponse;
 import com.canon.printmanagement.dto.PrintStatisticsResponse;
 import com.canon.printmanagement.entity.PrintJob;
+import com.canon.printmanagement.exception.DuplicatePrintJobException;
+import com.canon.printmanagement.replica.ReadStaleness;
 import com.canon.printmanagement.service.CostOptimizationService;
+import com.canon.printmanagement.service.PolicySimulationService;
+import com.canon.printmanagement.service.PrintDistributionService;
 import com.canon.printmanagement.service.PrintJobService;
+import com.canon.printmanagement.service.PrintSketchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,6 +25,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -29,6 +40,7 @@ import java.util.Map;
  */
 @RestController
 @RequestMapping("/api/v1/print-jobs")
+@ReadStaleness("${canon.replica.staleness.statistics-ms:30000}")
 @RequiredArgsConstructor
 @Slf4j
 @Tag(name = "Print Jobs", description = "출력 작업 관리 API")
@@ -36,6 +48,9 @@ public class PrintJobController {
 
     private final PrintJobService printJobService;
     private final CostOptimizationService costOptimizationService;
+    private final PrintSketchService printSketchService;
+    private final PrintDistributionService printDistributionService;
+    private final PolicySimulationService policySimulationService;
 
     /**
      * 전체 출력 통계 조회
@@ -133,6 +148,82 @@ public class PrintJobController {
         return ResponseEntity.ok(statistics);
     }
 
+    /**
+     * 부서별 고유 사용자/프린터 수 (근사)
+     */
+    @GetMapping("/approx/distinct")
+    @Operation(summary = "고유 사용자/프린터 수 (근사)", description = "일별 HyperLogLog 스케치 병합으로 부서별 고유 사용자/프린터 수 추정")
+    public ResponseEntity<List<DistinctCountEstimate>> getDistinctEstimates(
+        @RequestParam(required = false) Long departmentId,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate
+    ) {
+        if (startDate == null) {
+            startDate = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
+        }
+        if (endDate == null) {
+            endDate = LocalDateTime.now();
+        }
+
+        log.info("🔢 고유 사용자/프린터 수 추정 요청: 부서 {}, {} ~ {}", departmentId, startDate, endDate);
+
+        return ResponseEntity.ok(printSketchService.estimateDistinct(
+            departmentId, startDate.toLocalDate(), endDate.toLocalDate()
+        ));
+    }
+
+    /**
+     * 사용자/프린터 Top-K (근사)
+     */
+    @GetMapping("/approx/top")
+    @Operation(summary = "Top-K 사용자/프린터 (근사)", description = "일별 Space-Saving 스케치 병합으로 페이지/비용 상위 사용자 또는 프린터 추정")
+    public ResponseEntity<List<HeavyHitterResponse>> getTopK(
+        @Parameter(description = "USER | PRINTER") @RequestParam(defaultValue = "USER") String dimension,
+        @Parameter(description = "PAGES | COST") @RequestParam(defaultValue = "PAGES") String measure,
+        @RequestParam(required = false) Long departmentId,
+        @RequestParam(defaultValue = "20") int limit,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate
+    ) {
+        if (startDate == null) {
+            startDate = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
+        }
+        if (endDate == null) {
+            endDate = LocalDateTime.now();
+        }
+
+        log.info("🏆 Top-{} {} ({}) 요청: 부서 {}, {} ~ {}", limit, dimension, measure, departmentId, startDate, endDate);
+
+        return ResponseEntity.ok(printSketchService.topK(
+            dimension, measure, departmentId, startDate.toLocalDate(), endDate.toLocalDate(), limit
+        ));
+    }
+
+    /**
+     * 작업당 페이지/파일 크기/비용 분위수
+     */
+    @GetMapping("/percentiles")
+    @Operation(summary = "분위수 통계", description = "부서/프린터별 작업당 페이지 수, 파일 크기, 비용의 p50/p95/p99 (t-digest)")
+    public ResponseEntity<List<PercentileStatistics>> getPercentiles(
+        @Parameter(description = "DEPARTMENT | PRINTER") @RequestParam(defaultValue = "DEPARTMENT") String scope,
+        @Parameter(description = "부서/프린터 ID (없으면 전체)") @RequestParam(required = false) Long scopeId,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate
+    ) {
+        if (startDate == null) {
+            startDate = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
+        }
+        if (endDate == null) {
+            endDate = LocalDateTime.now();
+        }
+
+        log.info("📐 분위수 통계 요청: {} {}, {} ~ {}", scope, scopeId, startDate, endDate);
+
+        return ResponseEntity.ok(printDistributionService.getPercentiles(
+            scope, scopeId, startDate.toLocalDate(), endDate.toLocalDate()
+        ));
+    }
+
     /**
      * 비용 분석
      */
@@ -163,6 +254,7 @@ public class PrintJobController {
      * 출력 작업 목록 조회 (페이징)
      */
     @GetMapping
+    @ReadStaleness("${canon.replica.staleness.job-list-ms:5000}")
     @Operation(summary = "출력 작업 목록", description = "출력 작업 이력 조회 (페이징)")
     public ResponseEntity<Page<PrintJob>> getPrintJobs(
         @RequestParam(required = false) Long departmentId,
@@ -193,18 +285,47 @@ public class PrintJobController {
     }
 
     /**
-     * 출력 작업 생성 (테스트용)
+     * 비용 절감 정책 시뮬레이션 (what-if)
+     */
+    @PostMapping("/policy-simulation")
+    @Operation(summary = "정책 시뮬레이션",
+        description = "과거 출력 작업을 대체 정책 설정으로 재평가하여 시나리오별/부서별 절감액과 현재 설정 대비 차이를 계산 (저장 없음)")
+    public ResponseEntity<PolicySimulationResponse> simulatePolicies(@RequestBody PolicySimulationRequest request) {
+        log.info("🧪 정책 시뮬레이션 요청: 시나리오 {}개, {} ~ {}",
+            request.getScenarios() != null ? request.getScenarios().size() : 0,
+            request.getStartDate(), request.getEndDate());
+
+        return ResponseEntity.ok(policySimulationService.simulate(request));
+    }
+
+    /**
+     * 출력 작업 생성
+     *
+     * 같은 프린터의 같은 jobId 재전송은 저장하지 않고 409 + 기존 작업으로 응답
      */
     @PostMapping
-    @Operation(summary = "출력 작업 생성", description = "새로운 출력 작업 등록 (테스트/시뮬레이션용)")
+    @Operation(summary = "출력 작업 생성", description = "새로운 출력 작업 등록 (중복 jobId 는 409 와 기존 작업 반환)")
     public ResponseEntity<PrintJob> createPrintJob(@RequestBody PrintJob printJob) {
         log.info("🖨️  출력 작업 생성 요청: {}", printJob.getDocumentName());
 
         // 비용 절감 정책 적용
         costOptimizationService.applyPolicies(printJob);
 
-        // 출력 작업 저장
-        PrintJob savedJob = printJobService.createPrintJob(printJob);
+        // 출력 작업 저장 (중복 수집 확인)
+        PrintJob savedJob;
+        try {
+            savedJob = printJobService.createPrintJob(printJob);
+        } catch (DuplicatePrintJobException e) {
+            log.warn("⚠️  중복 출력 작업 수신: 프린터 {}, jobId {} (기존 작업 {})",
+                e.getPrinterId(), e.getJobId(), e.getExistingPrintJobId());
+
+            PrintJob existingJob = e.getExistingPrintJobId() != null
+                ? printJobService.getPrintJob(e.getExistingPrintJobId()).orElse(null)
+                : null;
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header("X-Duplicate-Of", String.valueOf(e.getExistingPrintJobId()))
+                .body(existingJob);
+        }
 
         // 절감 효과 계산
         CostOptimizationService.CostSavingsReport savings = 
@@ -1,17 +1,35 @@
 package com.canon.printmanagement.controller;
 
+import com.canon.printmanagement.dto.HeartbeatResponse;
+import com.canon.printmanagement.dto.MeterReconciliationDay;
+import com.canon.printmanagement.dto.MeterReconciliationItem;
+import com.canon.printmanagement.dto.OfflinePrinterItem;
+import com.canon.printmanagement.dto.PrinterHeartbeat;
+import com.canon.printmanagement.dto.PrinterHeatmapResponse;
+import com.canon.printmanagement.dto.PrinterImportResponse;
+import com.canon.printmanagement.dto.PrinterRecommendation;
 import com.canon.printmanagement.dto.PrinterStatusResponse;
+import com.canon.printmanagement.dto.SupplyForecastResponse;
 import com.canon.printmanagement.entity.Printer;
 import com.canon.printmanagement.entity.PrinterStatus;
 import com.canon.printmanagement.repository.PrinterRepository;
 import com.canon.printmanagement.repository.PrinterStatusRepository;
+import com.canon.printmanagement.service.MeterReconciliationService;
+import com.canon.printmanagement.service.PrinterHeartbeatService;
+import com.canon.printmanagement.service.PrinterHeatmapService;
+import com.canon.printmanagement.service.PrinterImportService;
+import com.canon.printmanagement.service.PrinterQueryService;
+import com.canon.printmanagement.service.PrinterRecommendationService;
+import com.canon.printmanagement.service.SupplyForecastService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -31,22 +49,25 @@ public class PrinterController {
 
     private final PrinterRepository printerRepository;
     private final PrinterStatusRepository printerStatusRepository;
+    private final SupplyForecastService supplyForecastService;
+    private final PrinterQueryService printerQueryService;
+    private final MeterReconciliationService meterReconciliationService;
+    private final PrinterImportService printerImportService;
+    private final PrinterHeatmapService printerHeatmapService;
+    private final PrinterRecommendationService printerRecommendationService;
+    private final PrinterHeartbeatService printerHeartbeatService;
 
     /**
      * 프린터 목록 조회
      */
     @GetMapping
     @Operation(summary = "프린터 목록", description = "등록된 모든 프린터 조회")
-    public ResponseEntity<List<Printer>> getAllPrinters(
+    public ResponseEntity<StreamingResponseBody> getAllPrinters(
         @RequestParam(required = false) Boolean activeOnly
     ) {
         log.info("🖨️  프린터 목록 조회 (활성만: {})", activeOnly);
 
-        List<Printer> printers = activeOnly != null && activeOnly 
-            ? printerRepository.findByIsActiveTrue()
-            : printerRepository.findAll();
-
-        return ResponseEntity.ok(printers);
+        return json(printerQueryService.streamPrinters(Boolean.TRUE.equals(activeOnly)));
     }
 
     /**
@@ -80,7 +101,7 @@ public class PrinterController {
      */
     @GetMapping("/{id}/status-history")
     @Operation(summary = "프린터 상태 이력", description = "프린터 상태 변화 이력 조회")
-    public ResponseEntity<List<PrinterStatus>> getPrinterStatusHistory(
+    public ResponseEntity<StreamingResponseBody> getPrinterStatusHistory(
         @PathVariable Long id,
         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate
@@ -94,10 +115,7 @@ public class PrinterController {
 
         log.info("📈 프린터 상태 이력 조회: {}, {} ~ {}", id, startDate, endDate);
 
-        List<PrinterStatus> history = printerStatusRepository
-            .findByPrinterIdAndTimestampBetweenOrderByTimestampDesc(id, startDate, endDate);
-
-        return ResponseEntity.ok(history);
+        return json(printerQueryService.streamStatusHistory(id, startDate, endDate));
     }
 
     /**
@@ -105,16 +123,12 @@ public class PrinterController {
      */
     @GetMapping("/alerts/low-toner")
     @Operation(summary = "토너 부족 프린터", description = "토너 잔량이 임계값 이하인 프린터 목록")
-    public ResponseEntity<List<PrinterStatus>> getPrintersWithLowToner(
+    public ResponseEntity<StreamingResponseBody> getPrintersWithLowToner(
         @RequestParam(defaultValue = "15") Integer threshold
     ) {
         log.info("⚠️  토너 부족 프린터 조회 (임계값: {}%)", threshold);
 
-        List<PrinterStatus> printers = printerStatusRepository.findPrintersWithLowToner(
-            threshold, LocalDateTime.now().minusMinutes(30)
-        );
-
-        return ResponseEntity.ok(printers);
+        return json(printerQueryService.streamLowToner(threshold, LocalDateTime.now().minusMinutes(30)));
     }
 
     /**
@@ -122,16 +136,12 @@ public class PrinterController {
      */
     @GetMapping("/alerts/low-paper")
     @Operation(summary = "용지 부족 프린터", description = "용지 잔량이 임계값 이하인 프린터 목록")
-    public ResponseEntity<List<PrinterStatus>> getPrintersWithLowPaper(
+    public ResponseEntity<StreamingResponseBody> getPrintersWithLowPaper(
         @RequestParam(defaultValue = "20") Integer threshold
     ) {
         log.info("⚠️  용지 부족 프린터 조회 (임계값: {}%)", threshold);
 
-        List<PrinterStatus> printers = printerStatusRepository.findPrintersWithLowPaper(
-            threshold, LocalDateTime.now().minusMinutes(30)
-        );
-
-        return ResponseEntity.ok(printers);
+        return json(printerQueryService.streamLowPaper(threshold, LocalDateTime.now().minusMinutes(30)));
     }
 
     /**
@@ -139,14 +149,112 @@ public class PrinterController {
      */
     @GetMapping("/alerts/errors")
     @Operation(summary = "오류 발생 프린터", description = "오류/경고 상태인 프린터 목록")
-    public ResponseEntity<List<PrinterStatus>> getPrintersWithErrors() {
+    public ResponseEntity<StreamingResponseBody> getPrintersWithErrors() {
         log.info("🚨 오류 발생 프린터 조회");
 
-        List<PrinterStatus> printers = printerStatusRepository.findPrintersWithErrors(
-            LocalDateTime.now().minusMinutes(30)
-        );
+        return json(printerQueryService.streamErrors(LocalDateTime.now().minusMinutes(30)));
+    }
+
+    /**
+     * 소모품 소진 예측 (프린터별)
+     */
+    @GetMapping("/{id}/supply-forecast")
+    @Operation(summary = "소모품 소진 예측", description = "색상별 토너/용지 소모율과 소진 예상일")
+    public ResponseEntity<List<SupplyForecastResponse>> getSupplyForecast(@PathVariable Long id) {
+        log.info("🔮 소모품 소진 예측 조회: {}", id);
 
-        return ResponseEntity.ok(printers);
+        return ResponseEntity.ok(supplyForecastService.getForecasts(id));
+    }
+
+    /**
+     * 소진 임박 소모품 조회 (전체 장비)
+     */
+    @GetMapping("/alerts/depletion-forecast")
+    @Operation(summary = "소진 임박 소모품", description = "N일 이내 소진 예상 토너/용지 목록 (임박 순)")
+    public ResponseEntity<List<SupplyForecastResponse>> getDepletionForecast(
+        @RequestParam(defaultValue = "7") Integer withinDays
+    ) {
+        log.info("⏳ 소진 임박 소모품 조회 ({}일 이내)", withinDays);
+
+        return ResponseEntity.ok(supplyForecastService.getDepletingWithin(withinDays));
+    }
+
+    /**
+     * 미터 ↔ 출력 작업 대사 (프린터별 일별)
+     */
+    @GetMapping("/{id}/meter-reconciliation")
+    @Operation(summary = "미터 대사", description = "일별 SNMP 미터 증가량과 기록된 출력 작업 페이지 비교")
+    public ResponseEntity<List<MeterReconciliationDay>> getMeterReconciliation(
+        @PathVariable Long id,
+        @RequestParam(defaultValue = "30") Integer days
+    ) {
+        log.info("🧾 미터 대사 조회: {} (최근 {}일)", id, days);
+
+        return ResponseEntity.ok(meterReconciliationService.getDays(id, days));
+    }
+
+    /**
+     * 미기록 출력이 많은 프린터 (전체 장비)
+     */
+    @GetMapping("/alerts/meter-discrepancies")
+    @Operation(summary = "미기록 출력 프린터",
+        description = "최근 N일 미터 증가량이 기록된 출력 작업보다 많은 프린터 (미기록 페이지 순, 직접 복사 등)")
+    public ResponseEntity<List<MeterReconciliationItem>> getMeterDiscrepancies(
+        @RequestParam(defaultValue = "30") Integer days,
+        @RequestParam(defaultValue = "1") Long minUnbilledPages,
+        @RequestParam(defaultValue = "100") Integer limit
+    ) {
+        log.info("🧾 미기록 출력 프린터 조회 (최근 {}일, {}페이지 이상)", days, minUnbilledPages);
+
+        return ResponseEntity.ok(meterReconciliationService.getDiscrepancies(days, minUnbilledPages, limit));
+    }
+
+    /**
+     * 오프라인 프린터 (heartbeat 기준)
+     */
+    @GetMapping("/alerts/offline")
+    @Operation(summary = "오프라인 프린터", description = "마지막 heartbeat 이후 N분이 지났거나 수신 이력이 없는 프린터")
+    public ResponseEntity<List<OfflinePrinterItem>> getOfflinePrinters(
+        @RequestParam(defaultValue = "10") Integer minutes
+    ) {
+        log.info("📴 오프라인 프린터 조회 ({}분 이상 미수신)", minutes);
+
+        return ResponseEntity.ok(printerHeartbeatService.findOffline(minutes));
+    }
+
+    /**
+     * 사용률 히트맵 (요일 × 시간)
+     */
+    @GetMapping("/heatmap")
+    @Operation(summary = "사용률 히트맵", description = "최근 N주 요일×시간별 작업/페이지 수 "
+        + "(printerId, departmentId, location 중 하나, 모두 없으면 전체 장비)")
+    public ResponseEntity<PrinterHeatmapResponse> getHeatmap(
+        @RequestParam(required = false) Long printerId,
+        @RequestParam(required = false) Long departmentId,
+        @RequestParam(required = false) String location,
+        @RequestParam(defaultValue = "12") Integer weeks
+    ) {
+        log.info("🗓️ 사용률 히트맵 조회: 프린터 {}, 부서 {}, 위치 {} (최근 {}주)", printerId, departmentId, location, weeks);
+
+        return ResponseEntity.ok(printerHeatmapService.getHeatmap(printerId, departmentId, location, weeks));
+    }
+
+    /**
+     * 한가한 프린터 추천 (같은 건물, 부하 순)
+     */
+    @GetMapping("/recommendations")
+    @Operation(summary = "프린터 추천", description = "사용자 또는 위치 기준 같은 건물의 사용 가능한 프린터를 "
+        + "최근 작업량·상태·층 차이 순으로 추천 (color, a3 는 필요한 기능)")
+    public ResponseEntity<List<PrinterRecommendation>> getRecommendations(
+        @RequestParam(required = false) Long userId,
+        @RequestParam(required = false) String location,
+        @RequestParam(defaultValue = "false") Boolean color,
+        @RequestParam(defaultValue = "false") Boolean a3,
+        @RequestParam(defaultValue = "5") Integer limit
+    ) {
+        log.debug("🧭 프린터 추천: 사용자 {}, 위치 {}", userId, location);
+
+        return ResponseEntity.ok(printerRecommendationService.recommend(userId, location, color, a3, limit));
     }
 
     /**
@@ -173,6 +281,30 @@ public class PrinterController {
         return ResponseEntity.ok(savedPrinter);
     }
 
+    /**
+     * 프린터 일괄 등록/갱신
+     */
+    @PostMapping("/import")
+    @Operation(summary = "프린터 일괄 등록", description = "serialNumber 기준 일괄 등록/갱신 (전체 검증 후 반영). "
+        + "신규/변경/동일 건수 반환")
+    public ResponseEntity<PrinterImportResponse> importPrinters(@RequestBody List<Printer> printers) {
+        log.info("📦 프린터 일괄 등록: {}대", printers != null ? printers.size() : 0);
+
+        return ResponseEntity.ok(printerImportService.importPrinters(printers));
+    }
+
+    /**
+     * heartbeat 일괄 수신 (모니터링 에이전트)
+     */
+    @PostMapping("/heartbeats")
+    @Operation(summary = "heartbeat 수신", description = "(printerId 또는 ipAddress, seenAt) 묶음 수신. "
+        + "lastSeenAt 은 주기적으로 일괄 반영")
+    public ResponseEntity<HeartbeatResponse> receiveHeartbeats(@RequestBody List<PrinterHeartbeat> heartbeats) {
+        log.debug("💓 heartbeat 수신: {}건", heartbeats != null ? heartbeats.size() : 0);
+
+        return ResponseEntity.ok(printerHeartbeatService.accept(heartbeats));
+    }
+
     /**
      * 프린터 수정
      */
@@ -209,4 +341,10 @@ public class PrinterController {
             })
             .orElse(ResponseEntity.notFound().build());
     }
+
+    private static ResponseEntity<StreamingResponseBody> json(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
+    }
 }
@@ -0,0 +1,32 @@
+package com.canon.printmanagement.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 다차원 분석 쿼리 요청 DTO
+ *
+ * dimensions: DEPARTMENT, USER, PRINTER, PAPER_SIZE, DAY, HOUR, POLICY
+ * measures:   JOBS, PAGES, COLOR_PAGES, COST, SAVINGS
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsQueryRequest {
+
+    private List<String> dimensions;
+    private List<String> measures;
+
+    private LocalDateTime startDate;
+    private LocalDateTime endDate; // 미포함 (exclusive)
+
+    // 필터 (비어 있으면 전체)
+    private List<Long> departmentIds;
+    private List<Long> userIds;
+    private List<Long> printerIds;
+    private List<String> paperSizes;
+    private List<String> policies;
+}
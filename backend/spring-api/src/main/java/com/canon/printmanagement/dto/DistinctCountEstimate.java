@@ -0,0 +1,19 @@
+package com.canon.printmanagement.dto;
+
+import lombok.*;
+
+/**
+ * 부서별 고유 사용자/프린터 수 추정 DTO (HyperLogLog)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DistinctCountEstimate {
+
+    private Long departmentId; // null = 전체
+    private Long distinctUsers;
+    private Long distinctPrinters;
+    private Double relativeStandardError;
+}
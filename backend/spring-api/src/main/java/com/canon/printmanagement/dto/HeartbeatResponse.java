@@ -0,0 +1,18 @@
+package com.canon.printmanagement.dto;
+
+import lombok.*;
+
+/**
+ * heartbeat 일괄 수신 결과 DTO
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HeartbeatResponse {
+
+    private Integer received;
+    private Integer accepted;
+    private Integer unknown;    // 등록되지 않았거나 비활성인 프린터
+}
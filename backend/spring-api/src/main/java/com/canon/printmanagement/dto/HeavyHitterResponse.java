@@ -0,0 +1,22 @@
+package com.canon.printmanagement.dto;
+
+import lombok.*;
+
+/**
+ * Top-K 추정 결과 DTO (Space-Saving)
+ *
+ * 실제값은 [value - maxError, value] 범위
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HeavyHitterResponse {
+
+    private String dimension; // USER, PRINTER
+    private String measure;   // PAGES, COST
+    private Long id;
+    private Double value;
+    private Double maxError;
+}
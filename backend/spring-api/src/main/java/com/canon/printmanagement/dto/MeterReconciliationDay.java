@@ -0,0 +1,19 @@
+package com.canon.printmanagement.dto;
+
+import java.time.LocalDate;
+
+/**
+ * 프린터 1대의 일별 미터 대사 결과
+ */
+public record MeterReconciliationDay(
+    LocalDate day,
+    long meterPages,
+    long meterColorPages,
+    long jobPages,
+    long jobColorPages,
+    long unbilledPages,
+    long unbilledColorPages,
+    int intervals,
+    int meterResets
+) {
+}
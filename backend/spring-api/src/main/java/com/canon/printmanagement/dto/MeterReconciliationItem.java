@@ -0,0 +1,24 @@
+package com.canon.printmanagement.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 프린터별 미터 대사 결과 (미터 증가량 - 기록된 출력 작업 = 미기록 페이지)
+ *
+ * 미기록 페이지는 출력 서버를 거치지 않은 복사/팩스 수신 출력 등으로 추정한다.
+ */
+public record MeterReconciliationItem(
+    Long printerId,
+    String printerName,
+    String location,
+    long meterPages,
+    long meterColorPages,
+    long jobPages,
+    long jobColorPages,
+    long unbilledPages,
+    long unbilledColorPages,
+    long intervals,
+    long meterResets,
+    LocalDateTime lastReadingAt
+) {
+}
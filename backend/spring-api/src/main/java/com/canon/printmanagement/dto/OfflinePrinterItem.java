@@ -0,0 +1,17 @@
+package com.canon.printmanagement.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 오프라인 프린터 항목 (마지막 heartbeat 이후 임계 시간 초과)
+ *
+ * @param lastSeenAt 한 번도 수신하지 못했으면 null
+ */
+public record OfflinePrinterItem(
+    Long printerId,
+    String name,
+    String ipAddress,
+    String location,
+    LocalDateTime lastSeenAt
+) {
+}
@@ -0,0 +1,26 @@
+package com.canon.printmanagement.dto;
+
+import lombok.*;
+
+/**
+ * 분위수 통계 DTO (t-digest 추정)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PercentileStatistics {
+
+    private String scope;   // DEPARTMENT, PRINTER
+    private Long scopeId;
+    private String metric;  // PAGES, FILE_SIZE_KB, COST
+
+    private Long count;
+    private Double mean;
+    private Double min;
+    private Double max;
+    private Double p50;
+    private Double p95;
+    private Double p99;
+}
@@ -0,0 +1,43 @@
+package com.canon.printmanagement.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 비용 절감 정책 시뮬레이션 요청 DTO
+ *
+ * 시나리오별로 지정하지 않은 설정은 현재 운영 설정(canon.policy.*)을 사용
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PolicySimulationRequest {
+
+    private LocalDateTime startDate;
+    private LocalDateTime endDate; // 미포함 (exclusive)
+
+    private List<Scenario> scenarios;
+
+    /**
+     * 정책 시나리오
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Scenario {
+
+        private String name;
+
+        private Boolean autoConvertColorToBw;
+        private Boolean forceDuplex;
+        private Double colorImageThreshold;
+
+        // 시나리오를 적용할 부서 (비어 있으면 전체, 그 외 부서는 현재 설정 유지)
+        private List<Long> departmentIds;
+    }
+}
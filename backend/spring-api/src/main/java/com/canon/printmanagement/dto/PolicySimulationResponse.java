@@ -0,0 +1,72 @@
+package com.canon.printmanagement.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 비용 절감 정책 시뮬레이션 응답 DTO
+ *
+ * 절감액 차이(delta)는 같은 기간을 현재 운영 설정으로 재실행한 결과(baseline) 대비 값
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PolicySimulationResponse {
+
+    private LocalDateTime periodStart;
+    private LocalDateTime periodEnd;
+
+    private Long jobsReplayed;
+    private Long estimatedColorJobs; // 흑백 변환 작업 중 저장된 절감액이 없어 원본 컬러 페이지 수를 추정한 작업 수
+    private Long elapsedMs;
+
+    private ScenarioResult baseline;
+    private List<ScenarioResult> scenarios;
+
+    /**
+     * 시나리오별 결과
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ScenarioResult {
+
+        private String name;
+        private Boolean autoConvertColorToBw;
+        private Boolean forceDuplex;
+        private Double colorImageThreshold;
+        private List<Long> departmentIds;
+
+        private BigDecimal totalSavings;
+        private BigDecimal savingsDelta;
+
+        private List<DepartmentResult> departments;
+    }
+
+    /**
+     * 부서별 결과
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class DepartmentResult {
+
+        private Long departmentId;
+        private Long totalJobs;
+        private Long colorConvertedCount;
+        private Long duplexEnforcedCount;
+
+        private BigDecimal colorSavings;
+        private BigDecimal duplexSavings;
+        private BigDecimal totalSavings;
+        private BigDecimal savingsDelta;
+    }
+}
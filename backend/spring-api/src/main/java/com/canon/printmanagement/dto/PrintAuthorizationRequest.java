@@ -0,0 +1,25 @@
+package com.canon.printmanagement.dto;
+
+import lombok.*;
+
+/**
+ * 출력 승인 요청 DTO (프린트 서버가 작업을 내보내기 전에 호출)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrintAuthorizationRequest {
+
+    private Long printerId;
+    private String jobId;
+    private Long userId;
+    private Long departmentId;
+
+    private Integer pageCount;
+    private Integer colorPageCount;
+    private Integer copies;
+    private Boolean isDuplex;
+    private String paperSize;
+}
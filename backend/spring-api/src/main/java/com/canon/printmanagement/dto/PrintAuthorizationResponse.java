@@ -0,0 +1,39 @@
+package com.canon.printmanagement.dto;
+
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 출력 승인 응답 DTO
+ *
+ * ALLOW   - 요청대로 출력
+ * CONVERT - convertToBw / forceDuplex 를 적용해서 출력
+ * DENY    - 출력 거부 (reason: QUOTA_EXCEEDED, APPROVAL_REQUIRED)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrintAuthorizationResponse {
+
+    private Decision decision;
+    private String reason;
+
+    // ALLOW/CONVERT 시 예약 (작업 수집 시 printerId + jobId 로 확정, expiresAt 이 지나면 해제)
+    private UUID reservationId;
+    private LocalDateTime expiresAt;
+
+    private Boolean convertToBw;
+    private Boolean forceDuplex;
+
+    private Long reservedPages;
+    private Long reservedColorPages;
+    private BigDecimal reservedCost;
+
+    public enum Decision {
+        ALLOW, CONVERT, DENY
+    }
+}
@@ -0,0 +1,19 @@
+package com.canon.printmanagement.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 프린터 heartbeat DTO (모니터링 에이전트가 일괄 전송, printerId 또는 ipAddress 중 하나)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrinterHeartbeat {
+
+    private Long printerId;
+    private String ipAddress;
+    private LocalDateTime seenAt; // 없으면 수신 시각
+}
@@ -0,0 +1,33 @@
+package com.canon.printmanagement.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+
+/**
+ * 프린터 사용률 히트맵 응답 DTO (요일 × 시간)
+ *
+ * jobs/pages 는 [요일][시간] 7×24 배열 (0 = 월요일, 0시), pages 는 부수 포함
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrinterHeatmapResponse {
+
+    private String scope;      // PRINTER, DEPARTMENT, LOCATION, FLEET
+    private Long scopeId;      // 프린터/부서 ID
+    private String location;
+    private Integer printerCount; // LOCATION 범위의 프린터 수
+
+    private Integer weeks;
+    private LocalDate since;   // 집계 시작 주 (월요일)
+
+    private long[][] jobs;
+    private long[][] pages;
+
+    private Long totalJobs;
+    private Long totalPages;
+    private Integer peakDayOfWeek; // 작업이 가장 많은 칸 (1 = 월요일)
+    private Integer peakHour;
+}
@@ -0,0 +1,22 @@
+package com.canon.printmanagement.dto;
+
+import lombok.*;
+
+/**
+ * 프린터 일괄 등록/갱신 결과 DTO
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrinterImportResponse {
+
+    private Integer received;   // 요청 장비 수
+    private Integer created;    // 신규 등록
+    private Integer updated;    // 기존 장비 변경
+    private Integer unchanged;  // 기존과 같아 변경 없음
+
+    private Integer batches;    // 커밋 단위 수
+    private Long durationMs;
+}
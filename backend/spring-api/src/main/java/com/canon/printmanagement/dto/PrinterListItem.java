@@ -0,0 +1,23 @@
+package com.canon.printmanagement.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 프린터 목록 항목 (읽기 전용 프로젝션, SNMP 접속 정보 제외)
+ */
+public record PrinterListItem(
+    Long id,
+    String name,
+    String serialNumber,
+    String ipAddress,
+    String macAddress,
+    Long modelId,
+    String location,
+    Long departmentId,
+    LocalDateTime installationDate,
+    Boolean isActive,
+    LocalDateTime lastSeenAt,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {
+}
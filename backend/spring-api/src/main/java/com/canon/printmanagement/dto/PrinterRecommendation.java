@@ -0,0 +1,35 @@
+package com.canon.printmanagement.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 추천 프린터 DTO (score 가 낮을수록 한가하고 가까움)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrinterRecommendation {
+
+    private Long printerId;
+    private String name;
+    private String location;
+    private String building;
+    private Integer floor;
+    private Integer floorDistance;
+
+    private Boolean color;
+    private Boolean a3;
+
+    private String status;
+    private Integer tonerLevel;      // 최저 토너 잔량 (%)
+    private Integer paperLevel;      // 용지 잔량 (%)
+    private LocalDateTime statusAt;
+    private Double jobsPerMinute;    // 최근 작업 유입률
+
+    private Double score;
+    private List<String> warnings;   // LOW_PAPER, LOW_TONER, WARNING, STALE_STATUS
+}
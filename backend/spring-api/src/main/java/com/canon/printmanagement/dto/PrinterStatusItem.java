@@ -0,0 +1,22 @@
+package com.canon.printmanagement.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 프린터 상태 샘플 항목 (읽기 전용 프로젝션)
+ */
+public record PrinterStatusItem(
+    Long printerId,
+    LocalDateTime timestamp,
+    String status,
+    Integer tonerLevelBlack,
+    Integer tonerLevelCyan,
+    Integer tonerLevelMagenta,
+    Integer tonerLevelYellow,
+    Integer paperLevel,
+    String errorCode,
+    String errorMessage,
+    Long totalPageCount,
+    Long colorPageCount
+) {
+}
@@ -0,0 +1,29 @@
+package com.canon.printmanagement.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 소모품(토너/용지) 소진 예측 응답 DTO
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SupplyForecastResponse {
+
+    private Long printerId;
+    private String supply; // BLACK, CYAN, MAGENTA, YELLOW, PAPER
+
+    private Integer currentLevel;      // 현재 잔량 (%)
+    private Double consumptionPerDay;  // 일 평균 소모량 (%/일)
+    private Double levelPerKPages;     // 1,000페이지당 소모량 (%)
+    private Double pagesPerDay;        // 일 평균 출력 페이지 수
+
+    private Double daysUntilEmpty;
+    private LocalDateTime estimatedEmptyAt;
+
+    private Integer sampleCount;
+    private LocalDateTime lastSampleAt;
+}
@@ -0,0 +1,42 @@
+package com.canon.printmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 부서/일별 출력 스케치 엔티티
+ *
+ * HyperLogLog + Space-Saving 스케치를 직렬화하여 저장 (DepartmentDaySketch)
+ */
+@Entity
+@Table(name = "department_sketches")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@IdClass(DepartmentSketchId.class)
+public class DepartmentSketch {
+
+    @Id
+    @Column(name = "department_id", nullable = false)
+    private Long departmentId;
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false, columnDefinition = "BYTEA")
+    private byte[] payload;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+}
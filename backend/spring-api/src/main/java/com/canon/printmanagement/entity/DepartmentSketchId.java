@@ -0,0 +1,18 @@
+package com.canon.printmanagement.entity;
+
+import lombok.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * DepartmentSketch 복합키 클래스
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class DepartmentSketchId implements Serializable {
+    private Long departmentId;
+    private LocalDate day;
+}
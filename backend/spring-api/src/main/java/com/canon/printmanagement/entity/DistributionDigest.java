@@ -0,0 +1,46 @@
+package com.canon.printmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 일별 분포 스케치 엔티티 (부서/프린터 단위 t-digest)
+ *
+ * 작업당 페이지 수, 파일 크기, 비용 t-digest를 직렬화하여 저장 (JobDistributionSketch)
+ */
+@Entity
+@Table(name = "distribution_digests")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@IdClass(DistributionDigestId.class)
+public class DistributionDigest {
+
+    @Id
+    @Column(nullable = false, length = 20)
+    private String scope; // DEPARTMENT, PRINTER
+
+    @Id
+    @Column(name = "scope_id", nullable = false)
+    private Long scopeId;
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false, columnDefinition = "BYTEA")
+    private byte[] payload;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,19 @@
+package com.canon.printmanagement.entity;
+
+import lombok.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * DistributionDigest 복합키 클래스
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class DistributionDigestId implements Serializable {
+    private String scope;
+    private Long scopeId;
+    private LocalDate day;
+}
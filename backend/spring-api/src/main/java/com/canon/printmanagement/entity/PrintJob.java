@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @Table(name = "print_jobs", indexes = {
     @Index(name = "idx_print_jobs_user_id", columnList = "user_id, timestamp"),
     @Index(name = "idx_print_jobs_department_id", columnList = "department_id, timestamp"),
-    @Index(name = "idx_print_jobs_printer_id", columnList = "printer_id, timestamp")
+    @Index(name = "idx_print_jobs_printer_id", columnList = "printer_id, timestamp"),
+    @Index(name = "idx_print_jobs_printer_job_id", columnList = "printer_id, job_id, timestamp")
 })
 @Getter
 @Setter
@@ -87,6 +88,12 @@ public class PrintJob {
     @Column(name = "policy_applied", length = 100)
     private String policyApplied;
 
+    @Column(name = "color_savings", precision = 10, scale = 2)
+    private BigDecimal colorSavings; // 컬러→흑백 변환 절감액
+
+    @Column(name = "duplex_savings", precision = 10, scale = 2)
+    private BigDecimal duplexSavings; // 양면 강제 절감액
+
     @PrePersist
     public void prePersist() {
         if (timestamp == null) {
@@ -0,0 +1,36 @@
+package com.canon.printmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * 출력 작업 중복 방지 키 엔티티
+ *
+ * print_jobs 는 hypertable 이라 (printer_id, job_id) 유니크 제약을 걸 수 없으므로
+ * 별도 테이블의 기본키로 중복 수집 기간(window) 동안 유일성을 보장
+ */
+@Entity
+@Table(name = "print_job_keys")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@IdClass(PrintJobKeyId.class)
+public class PrintJobKey {
+
+    @Id
+    @Column(name = "printer_id", nullable = false)
+    private Long printerId;
+
+    @Id
+    @Column(name = "job_id", nullable = false, length = 100)
+    private String jobId;
+
+    @Column(name = "print_job_id", nullable = false)
+    private Long printJobId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,17 @@
+package com.canon.printmanagement.entity;
+
+import lombok.*;
+import java.io.Serializable;
+
+/**
+ * PrintJobKey 복합키 클래스
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class PrintJobKeyId implements Serializable {
+    private Long printerId;
+    private String jobId;
+}
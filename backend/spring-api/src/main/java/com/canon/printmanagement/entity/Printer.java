@@ -1,5 +1,6 @@
 package com.canon.printmanagement.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -44,6 +45,8 @@ public class Printer {
     @Column(name = "installation_date")
     private LocalDateTime installationDate;
 
+    // 등록/수정 요청으로만 받고 응답에는 포함하지 않음
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(name = "snmp_community", length = 100)
     private String snmpCommunity = "public";
 
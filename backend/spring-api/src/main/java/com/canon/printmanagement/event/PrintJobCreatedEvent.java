@@ -0,0 +1,18 @@
+package com.canon.printmanagement.event;
+
+import com.canon.printmanagement.entity.PrintJob;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 출력 작업 저장 이벤트
+ *
+ * PrintJobService.createPrintJob 트랜잭션 안에서 발행되며,
+ * 집계/스케치 등 수집 경로 후속 처리는 커밋 이후 이 이벤트를 구독한다.
+ */
+@Getter
+@AllArgsConstructor
+public class PrintJobCreatedEvent {
+
+    private final PrintJob printJob;
+}
@@ -0,0 +1,23 @@
+package com.canon.printmanagement.exception;
+
+import lombok.Getter;
+
+/**
+ * 중복 출력 작업 예외
+ *
+ * 같은 프린터에서 같은 jobId 가 중복 수집 기간 내에 다시 수집된 경우
+ */
+@Getter
+public class DuplicatePrintJobException extends RuntimeException {
+
+    private final Long printerId;
+    private final String jobId;
+    private final Long existingPrintJobId;
+
+    public DuplicatePrintJobException(Long printerId, String jobId, Long existingPrintJobId) {
+        super("중복 출력 작업: 프린터 " + printerId + ", jobId " + jobId);
+        this.printerId = printerId;
+        this.jobId = jobId;
+        this.existingPrintJobId = existingPrintJobId;
+    }
+}
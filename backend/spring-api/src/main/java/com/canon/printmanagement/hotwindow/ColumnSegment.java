@@ -0,0 +1,137 @@
+package com.canon.printmanagement.hotwindow;
+
+/**
+ * 고정 크기 컬럼 세그먼트 (append-only)
+ *
+ * 행 하나 = 81바이트:
+ * id/timestamp/printerId/userId/departmentId(8×5) + page/color/bw(4×3) + copies(2)
+ * + paperSize/policy 사전 코드(1×2) + 플래그(1) + 비용/컬러 절감/양면 절감(0.01원 단위 long, 8×3)
+ *
+ * 쓰기는 PrintJobColumnStore 잠금 안에서 한 스레드만 수행하고, 컬럼을 채운 뒤
+ * volatile size 를 증가시켜 읽기 스레드에 공개한다 (읽기는 잠금 없음).
+ */
+public class ColumnSegment {
+
+    public static final int BYTES_PER_ROW = 81;
+
+    static final byte FLAG_DUPLEX = 1;
+    static final byte FLAG_COLOR_CONVERTED = 1 << 1;
+    static final byte FLAG_DUPLEX_ENFORCED = 1 << 2;
+
+    /**
+     * 그룹 기준 컬럼
+     */
+    public enum GroupBy {
+        NONE, DEPARTMENT, USER, PRINTER
+    }
+
+    private final long[] ids;
+    private final long[] timestamps; // epoch millis (UTC 기준 LocalDateTime)
+    private final long[] printerIds;
+    private final long[] userIds;
+    private final long[] departmentIds;
+    private final int[] pageCounts;
+    private final int[] colorPageCounts;
+    private final int[] bwPageCounts;
+    private final short[] copies;
+    private final byte[] paperSizes;
+    private final byte[] policies;
+    private final byte[] flags;
+    private final long[] costCents;
+    private final long[] colorSavingsCents;
+    private final long[] duplexSavingsCents;
+
+    private volatile int size;
+    private volatile long minTimestamp = Long.MAX_VALUE;
+    private volatile long maxTimestamp = Long.MIN_VALUE;
+
+    ColumnSegment(int capacity) {
+        ids = new long[capacity];
+        timestamps = new long[capacity];
+        printerIds = new long[capacity];
+        userIds = new long[capacity];
+        departmentIds = new long[capacity];
+        pageCounts = new int[capacity];
+        colorPageCounts = new int[capacity];
+        bwPageCounts = new int[capacity];
+        copies = new short[capacity];
+        paperSizes = new byte[capacity];
+        policies = new byte[capacity];
+        flags = new byte[capacity];
+        costCents = new long[capacity];
+        colorSavingsCents = new long[capacity];
+        duplexSavingsCents = new long[capacity];
+    }
+
+    boolean isFull() {
+        return size == ids.length;
+    }
+
+    int capacity() {
+        return ids.length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long maxTimestamp() {
+        return maxTimestamp;
+    }
+
+    void append(JobRow row, byte paperSizeCode, byte policyCode) {
+        int i = size;
+        ids[i] = row.id;
+        timestamps[i] = row.timestamp;
+        printerIds[i] = row.printerId;
+        userIds[i] = row.userId;
+        departmentIds[i] = row.departmentId;
+        pageCounts[i] = row.pageCount;
+        colorPageCounts[i] = row.colorPageCount;
+        bwPageCounts[i] = row.bwPageCount;
+        copies[i] = (short) row.copies;
+        paperSizes[i] = paperSizeCode;
+        policies[i] = policyCode;
+        flags[i] = (byte) ((row.duplex ? FLAG_DUPLEX : 0)
+            | (row.colorConverted ? FLAG_COLOR_CONVERTED : 0)
+            | (row.duplexEnforced ? FLAG_DUPLEX_ENFORCED : 0));
+        costCents[i] = row.costCents;
+        colorSavingsCents[i] = row.colorSavingsCents;
+        duplexSavingsCents[i] = row.duplexSavingsCents;
+
+        minTimestamp = Math.min(minTimestamp, row.timestamp);
+        maxTimestamp = Math.max(maxTimestamp, row.timestamp);
+        size = i + 1; // 공개
+    }
+
+    /**
+     * [from, to] 구간 행을 그룹별로 누적
+     *
+     * @param departmentId 부서 필터 (null 이면 전체)
+     */
+    void scan(long from, long to, Long departmentId, GroupBy groupBy, GroupTotals out) {
+        int n = size;
+        if (n == 0 || maxTimestamp < from || minTimestamp > to) {
+            return;
+        }
+
+        long[] keyColumn = switch (groupBy) {
+            case DEPARTMENT -> departmentIds;
+            case USER -> userIds;
+            case PRINTER -> printerIds;
+            case NONE -> null;
+        };
+        boolean filterDepartment = departmentId != null;
+        long department = filterDepartment ? departmentId : 0L;
+
+        for (int i = 0; i < n; i++) {
+            long ts = timestamps[i];
+            if (ts < from || ts > to || (filterDepartment && departmentIds[i] != department)) {
+                continue;
+            }
+            out.add(keyColumn != null ? keyColumn[i] : 0L,
+                pageCounts[i], colorPageCounts[i], bwPageCounts[i], costCents[i],
+                colorSavingsCents[i], duplexSavingsCents[i], flags[i]);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.canon.printmanagement.hotwindow;
+
+/**
+ * long 키 → 측정값 누적 테이블 (open addressing)
+ *
+ * 행마다 Long 박싱/HashMap 엔트리를 만들지 않도록 키와 측정값을 기본형 배열에 보관한다.
+ */
+public class GroupTotals {
+
+    public static final int JOBS = 0;
+    public static final int PAGES = 1;
+    public static final int COLOR_PAGES = 2;
+    public static final int BW_PAGES = 3;
+    public static final int COST_CENTS = 4;
+    public static final int COLOR_CONVERTED = 5;
+    public static final int DUPLEX_ENFORCED = 6;
+    public static final int COLOR_SAVINGS_CENTS = 7;
+    public static final int DUPLEX_SAVINGS_CENTS = 8;
+    public static final int MEASURES = 9;
+
+    private long[] keys;
+    private boolean[] used;
+    private long[] values;
+    private int size;
+
+    public GroupTotals() {
+        this(16);
+    }
+
+    private GroupTotals(int capacity) {
+        keys = new long[capacity];
+        used = new boolean[capacity];
+        values = new long[capacity * MEASURES];
+    }
+
+    /**
+     * 행 1건 누적
+     */
+    public void add(long key, int pages, int colorPages, int bwPages, long costCents,
+                    long colorSavingsCents, long duplexSavingsCents, byte flags) {
+        int base = slot(key) * MEASURES;
+        values[base + JOBS]++;
+        values[base + PAGES] += pages;
+        values[base + COLOR_PAGES] += colorPages;
+        values[base + BW_PAGES] += bwPages;
+        values[base + COST_CENTS] += costCents;
+        values[base + COLOR_SAVINGS_CENTS] += colorSavingsCents;
+        values[base + DUPLEX_SAVINGS_CENTS] += duplexSavingsCents;
+        if ((flags & ColumnSegment.FLAG_COLOR_CONVERTED) != 0) {
+            values[base + COLOR_CONVERTED]++;
+        }
+        if ((flags & ColumnSegment.FLAG_DUPLEX_ENFORCED) != 0) {
+            values[base + DUPLEX_ENFORCED]++;
+        }
+    }
+
+    public GroupTotals merge(GroupTotals other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (!other.used[i]) {
+                continue;
+            }
+            int base = slot(other.keys[i]) * MEASURES;
+            int otherBase = i * MEASURES;
+            for (int m = 0; m < MEASURES; m++) {
+                values[base + m] += other.values[otherBase + m];
+            }
+        }
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 그룹별 측정값 순회 (measures 배열은 재사용되므로 복사해서 보관할 것)
+     */
+    public void forEach(GroupConsumer consumer) {
+        long[] measures = new long[MEASURES];
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                System.arraycopy(values, i * MEASURES, measures, 0, MEASURES);
+                consumer.accept(keys[i], measures);
+            }
+        }
+    }
+
+    /**
+     * 키 하나의 측정값 (없으면 0)
+     */
+    public long[] get(long key) {
+        long[] measures = new long[MEASURES];
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                System.arraycopy(values, i * MEASURES, measures, 0, MEASURES);
+                break;
+            }
+        }
+        return measures;
+    }
+
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (used[i]) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+            return slot(key);
+        }
+        used[i] = true;
+        keys[i] = key;
+        size++;
+        return i;
+    }
+
+    private void grow() {
+        GroupTotals larger = new GroupTotals(keys.length * 2);
+        larger.merge(this);
+        keys = larger.keys;
+        used = larger.used;
+        values = larger.values;
+        size = larger.size;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @FunctionalInterface
+    public interface GroupConsumer {
+        void accept(long key, long[] measures);
+    }
+}
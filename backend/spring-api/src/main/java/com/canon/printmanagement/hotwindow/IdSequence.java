@@ -0,0 +1,31 @@
+package com.canon.printmanagement.hotwindow;
+
+/**
+ * 샤드의 print_jobs ID 시퀀스 (shard-init.sh: INCREMENT BY 샤드 수, 샤드 i 는 i+1 부터)
+ *
+ * 샤드 i 가 발급할 수 있는 ID 는 i+1, i+1+N, i+1+2N ... 뿐이므로 빈 ID 추적은 이 간격으로만 한다.
+ * 샤딩하지 않으면 간격 1 (모든 양수 ID).
+ */
+public record IdSequence(int stride, long first) {
+
+    public static IdSequence ofShard(int shard, int shardCount) {
+        return new IdSequence(shardCount, shard + 1L);
+    }
+
+    /**
+     * after 보다 큰 첫 발급 가능 ID
+     */
+    public long next(long after) {
+        if (after < first) {
+            return first;
+        }
+        return after + stride - Math.floorMod(after - first, (long) stride);
+    }
+
+    /**
+     * from 초과 ID 중 몇 번째인지 (from 초과 첫 발급 가능 ID 가 0)
+     */
+    public int indexAfter(long from, long id) {
+        return (int) ((id - next(from)) / stride);
+    }
+}
@@ -0,0 +1,25 @@
+package com.canon.printmanagement.hotwindow;
+
+/**
+ * 컬럼 저장소 적재용 행 (엔티티/ResultSet → 기본형 변환 결과)
+ */
+public class JobRow {
+
+    public long id;
+    public long timestamp;
+    public long printerId;
+    public long userId;
+    public long departmentId;
+    public int pageCount;
+    public int colorPageCount;
+    public int bwPageCount;
+    public int copies;
+    public String paperSize;
+    public String policyApplied;
+    public boolean duplex;
+    public boolean colorConverted;
+    public boolean duplexEnforced;
+    public long costCents;
+    public long colorSavingsCents;
+    public long duplexSavingsCents;
+}
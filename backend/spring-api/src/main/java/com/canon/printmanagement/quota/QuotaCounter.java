@@ -0,0 +1,120 @@
+package com.canon.printmanagement.quota;
+
+import java.time.LocalDate;
+
+/**
+ * 할당량 한 건의 메모리 카운터 (quotas 행)
+ *
+ * 사용 가능 여부는 확정 사용량(committed) + 예약량(reserved) 기준으로 판단한다.
+ * DB 조건부 UPDATE 전에 명백히 넘치는 후보를 거르는 용도이며, 동기화는 호출자(PrintAuthorizationService)가 담당한다.
+ */
+public final class QuotaCounter {
+
+    private static final long UNLIMITED = Long.MAX_VALUE;
+
+    private final long quotaId;
+    private final String entityType;
+    private final long entityId;
+
+    private long maxPages = UNLIMITED;
+    private long maxColorPages = UNLIMITED;
+    private long maxCost = UNLIMITED;
+    private LocalDate resetDate;
+
+    private long committedPages;
+    private long committedColorPages;
+    private long committedCost;
+
+    private long reservedPages;
+    private long reservedColorPages;
+    private long reservedCost;
+
+    public QuotaCounter(long quotaId, String entityType, long entityId) {
+        this.quotaId = quotaId;
+        this.entityType = entityType;
+        this.entityId = entityId;
+    }
+
+    public long getQuotaId() {
+        return quotaId;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public long getEntityId() {
+        return entityId;
+    }
+
+    public LocalDate getResetDate() {
+        return resetDate;
+    }
+
+    /**
+     * 한도 (null 이면 제한 없음)
+     */
+    public void setLimits(Long maxPages, Long maxColorPages, Long maxCost, LocalDate resetDate) {
+        this.maxPages = maxPages != null ? maxPages : UNLIMITED;
+        this.maxColorPages = maxColorPages != null ? maxColorPages : UNLIMITED;
+        this.maxCost = maxCost != null ? maxCost : UNLIMITED;
+        this.resetDate = resetDate;
+    }
+
+    /**
+     * 확정 사용량 (DB quotas.current_*)
+     */
+    public void setCommitted(long pages, long colorPages, long cost) {
+        this.committedPages = pages;
+        this.committedColorPages = colorPages;
+        this.committedCost = cost;
+    }
+
+    /**
+     * 예약량 (DB quotas.reserved_*, 모든 인스턴스의 예약 합계)
+     */
+    public void setReserved(long pages, long colorPages, long cost) {
+        this.reservedPages = pages;
+        this.reservedColorPages = colorPages;
+        this.reservedCost = cost;
+    }
+
+    public boolean fits(Usage usage) {
+        return committedPages + reservedPages + usage.pages() <= maxPages
+            && committedColorPages + reservedColorPages + usage.colorPages() <= maxColorPages
+            && committedCost + reservedCost + usage.cost() <= maxCost;
+    }
+
+    public void reserve(Usage usage) {
+        reservedPages += usage.pages();
+        reservedColorPages += usage.colorPages();
+        reservedCost += usage.cost();
+    }
+
+    public void release(Usage usage) {
+        reservedPages = Math.max(0, reservedPages - usage.pages());
+        reservedColorPages = Math.max(0, reservedColorPages - usage.colorPages());
+        reservedCost = Math.max(0, reservedCost - usage.cost());
+    }
+
+    public void commit(Usage usage) {
+        committedPages += usage.pages();
+        committedColorPages += usage.colorPages();
+        committedCost += usage.cost();
+    }
+
+    /**
+     * 남은 사용량 (제한 없는 항목은 Long.MAX_VALUE)
+     */
+    public Usage remaining() {
+        return new Usage(
+            remaining(maxPages, committedPages + reservedPages),
+            remaining(maxColorPages, committedColorPages + reservedColorPages),
+            remaining(maxCost, committedCost + reservedCost)
+        );
+    }
+
+    private static long remaining(long max, long used) {
+        return max == UNLIMITED ? UNLIMITED : Math.max(0, max - used);
+    }
+}
@@ -0,0 +1,35 @@
+package com.canon.printmanagement.quota;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 출력 승인 예약 (print_authorizations 의 RESERVED 행)
+ */
+@Getter
+@RequiredArgsConstructor
+public final class Reservation {
+
+    private final UUID id;
+    private final long printerId;
+    private final String jobId;
+    private final long departmentId;
+    private final long userId;
+    private final List<QuotaCounter> counters;
+    private final Usage usage;
+    private final boolean convertToBw;
+    private final boolean forceDuplex;
+    private final LocalDateTime expiresAt;
+
+    public String key() {
+        return keyOf(printerId, jobId);
+    }
+
+    public static String keyOf(long printerId, String jobId) {
+        return printerId + ":" + jobId;
+    }
+}
@@ -0,0 +1,9 @@
+package com.canon.printmanagement.quota;
+
+/**
+ * 할당량 사용량 (페이지 수는 부수 포함, 비용은 0.01원 단위)
+ */
+public record Usage(long pages, long colorPages, long cost) {
+
+    public static final Usage ZERO = new Usage(0, 0, 0);
+}
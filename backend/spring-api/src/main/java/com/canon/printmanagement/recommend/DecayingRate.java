@@ -0,0 +1,45 @@
+package com.canon.printmanagement.recommend;
+
+/**
+ * 지수 감쇠 이벤트 비율 (최근 작업일수록 가중치가 큰 분당 작업 수)
+ *
+ * 이벤트마다 1 을 더하고 시간이 지나면 e^(-t/tau) 로 줄어든다.
+ * 누적값 / tau 가 최근 약 tau 동안의 평균 비율이다.
+ */
+public class DecayingRate {
+
+    private final double tauNanos;
+
+    private double value;
+    private long updatedAt;
+
+    public DecayingRate(double tauSeconds) {
+        this.tauNanos = tauSeconds * 1_000_000_000d;
+        this.updatedAt = System.nanoTime();
+    }
+
+    public synchronized void add(long nowNanos) {
+        value = decayed(nowNanos) + 1;
+        updatedAt = nowNanos;
+    }
+
+    /**
+     * atNanos 시점의 누적값으로 교체 (DB 에서 합산한 e^(-경과/tau) 합 등)
+     */
+    public synchronized void reset(double value, long atNanos) {
+        this.value = value;
+        this.updatedAt = atNanos;
+    }
+
+    /**
+     * 분당 이벤트 수
+     */
+    public synchronized double perMinute(long nowNanos) {
+        return decayed(nowNanos) / tauNanos * 60_000_000_000d;
+    }
+
+    private double decayed(long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - updatedAt);
+        return value * Math.exp(-elapsed / tauNanos);
+    }
+}
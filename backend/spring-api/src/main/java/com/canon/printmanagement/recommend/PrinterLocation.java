@@ -0,0 +1,44 @@
+package com.canon.printmanagement.recommend;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Printer.location 에서 추출한 건물/층 ("본사 3층 개발실" → 본사, 3)
+ *
+ * 층 표기는 "3층", "3F", 지하는 "B1", "B1F", "지하 1층" (음수). 영문자·숫자에 붙은 표기("Lab3F", "AB1")는
+ * 층으로 보지 않는다. 층 표기가 없으면 floor 는 null 이고 위치 문자열 전체를 건물로 본다.
+ */
+public record PrinterLocation(String building, Integer floor) {
+
+    // 1: "B" (층/F 생략 가능), 2: 그 층수, 3: "지하" 표기, 4: 층수
+    private static final Pattern FLOOR = Pattern.compile(
+        "(?i)(?<![A-Za-z0-9])(?:(B)(\\d{1,3})(?:\\s*(?:층|F))?|(지하\\s*)?(\\d{1,3})\\s*(?:층|F))(?![A-Za-z0-9])");
+
+    public static PrinterLocation parse(String location) {
+        if (location == null || location.isBlank()) {
+            return new PrinterLocation("", null);
+        }
+        String trimmed = location.trim();
+        Matcher matcher = FLOOR.matcher(trimmed);
+        if (!matcher.find()) {
+            return new PrinterLocation(trimmed, null);
+        }
+        String building = trimmed.substring(0, matcher.start()).trim();
+        if (matcher.group(1) != null) {
+            return new PrinterLocation(building, -Integer.parseInt(matcher.group(2)));
+        }
+        int floor = Integer.parseInt(matcher.group(4));
+        return new PrinterLocation(building, matcher.group(3) != null ? -floor : floor);
+    }
+
+    /**
+     * 층 차이 (어느 한쪽이라도 층을 모르면 unknown)
+     */
+    public int floorDistance(PrinterLocation other, int unknown) {
+        if (floor == null || other.floor == null) {
+            return unknown;
+        }
+        return Math.abs(floor - other.floor);
+    }
+}
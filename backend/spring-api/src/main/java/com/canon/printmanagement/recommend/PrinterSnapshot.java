@@ -0,0 +1,24 @@
+package com.canon.printmanagement.recommend;
+
+import java.time.LocalDateTime;
+
+/**
+ * 추천 인덱스의 프린터 항목 (기준 정보 + 최신 상태, 갱신 주기마다 새로 만듦)
+ *
+ * @param tonerLevel 색상 토너 중 최저 잔량 (흑백 모델은 검정)
+ */
+public record PrinterSnapshot(
+    long printerId,
+    String name,
+    String location,
+    PrinterLocation parsedLocation,
+    Long departmentId,
+    boolean color,
+    boolean a3,
+    String status,
+    Integer tonerLevel,
+    Integer paperLevel,
+    String errorCode,
+    LocalDateTime statusAt
+) {
+}
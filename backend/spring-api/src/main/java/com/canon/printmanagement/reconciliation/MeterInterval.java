@@ -0,0 +1,24 @@
+package com.canon.printmanagement.reconciliation;
+
+import java.time.LocalDateTime;
+
+/**
+ * 미터 판독값 두 개 사이 구간의 미터 증가량과 기록된 출력 작업 합계
+ *
+ * meterReset 이면 카운터가 줄어든 구간(장비 교체/초기화)이라 미터 증가량은 0 으로 둔다.
+ */
+public record MeterInterval(
+    long printerId,
+    LocalDateTime from,
+    LocalDateTime to,
+    long meterPages,
+    long meterColorPages,
+    long jobPages,
+    long jobColorPages,
+    boolean meterReset
+) {
+
+    public long unbilledPages() {
+        return meterReset ? 0 : meterPages - jobPages;
+    }
+}
@@ -0,0 +1,139 @@
+package com.canon.printmanagement.reconciliation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 프린터 1대의 한 번의 대사 실행 구간 (미터 판독값 + 출력 작업 병합)
+ *
+ * 판독값 r0..rn-1 은 시간순으로 추가되고, 출력 작업은 샤드마다 (printer_id, timestamp) 순으로 흘러 들어온다.
+ * 작업 t 는 (r[k-1], r[k]] 에 해당하는 구간 k 에 더해지고, 마지막 판독 이후 작업은 다음 실행으로 넘긴다(pending).
+ * 샤드마다 작업 스트림이 다시 시작되므로 beginStream() 으로 병합 위치를 되돌린다.
+ * 스레드 안전하지 않음 (대사 실행 스레드 전용)
+ */
+public final class PrinterMeterTrack {
+
+    private final long printerId;
+
+    // 직전 실행의 마지막 판독값 (없으면 첫 판독값이 기준점)
+    private LocalDateTime baselineAt;
+    private long baselineTotal;
+    private long baselineColor;
+
+    private final List<LocalDateTime> readingAt = new ArrayList<>();
+    private final List<long[]> readingCounts = new ArrayList<>();
+
+    // 구간별 작업 합계 (인덱스 n = 마지막 판독 이후)
+    private long[] jobPages = new long[1];
+    private long[] jobColorPages = new long[1];
+    private long droppedJobPages;
+    private int position;
+
+    public PrinterMeterTrack(long printerId) {
+        this.printerId = printerId;
+    }
+
+    public long getPrinterId() {
+        return printerId;
+    }
+
+    /**
+     * 직전 실행 상태 (마지막 판독값과 그 이후 작업 합계)
+     */
+    public void restore(LocalDateTime lastReadingAt, long lastTotal, long lastColor, long pendingPages, long pendingColorPages) {
+        baselineAt = lastReadingAt;
+        baselineTotal = lastTotal;
+        baselineColor = lastColor;
+        jobPages[0] = pendingPages;
+        jobColorPages[0] = pendingColorPages;
+    }
+
+    /**
+     * 미터 판독값 추가 (시간순, 작업 병합 전에 모두 추가)
+     */
+    public void addReading(LocalDateTime timestamp, long totalPages, long colorPages) {
+        readingAt.add(timestamp);
+        readingCounts.add(new long[] {totalPages, colorPages});
+        if (readingAt.size() >= jobPages.length) {
+            jobPages = Arrays.copyOf(jobPages, jobPages.length * 2);
+            jobColorPages = Arrays.copyOf(jobColorPages, jobColorPages.length * 2);
+        }
+    }
+
+    public void beginStream() {
+        position = 0;
+    }
+
+    /**
+     * 출력 작업 병합 (같은 스트림 안에서 시간순)
+     */
+    public void addJob(LocalDateTime timestamp, long pages, long colorPages) {
+        while (position < readingAt.size() && timestamp.isAfter(readingAt.get(position))) {
+            position++;
+        }
+        if (position == 0 && baselineAt == null && !readingAt.isEmpty()) {
+            // 기준 판독값 이전 작업은 비교 대상 없음
+            droppedJobPages += pages;
+            return;
+        }
+        jobPages[position] += pages;
+        jobColorPages[position] += colorPages;
+    }
+
+    public boolean hasBaseline() {
+        return baselineAt != null || !readingAt.isEmpty();
+    }
+
+    public long getDroppedJobPages() {
+        return droppedJobPages;
+    }
+
+    /**
+     * 판독값 사이 구간 목록 (기준점이 없던 첫 판독값은 구간을 만들지 않음)
+     */
+    public List<MeterInterval> intervals() {
+        List<MeterInterval> intervals = new ArrayList<>(readingAt.size());
+        LocalDateTime previousAt = baselineAt;
+        long previousTotal = baselineTotal;
+        long previousColor = baselineColor;
+        for (int i = 0; i < readingAt.size(); i++) {
+            long total = readingCounts.get(i)[0];
+            long color = readingCounts.get(i)[1];
+            if (previousAt != null) {
+                // 카운터가 줄었으면 장비 교체/초기화 - 차이를 계산하지 않음
+                boolean reset = total < previousTotal || color < previousColor;
+                intervals.add(new MeterInterval(printerId, previousAt, readingAt.get(i),
+                    reset ? 0 : total - previousTotal,
+                    reset ? 0 : color - previousColor,
+                    jobPages[i], jobColorPages[i], reset));
+            }
+            previousAt = readingAt.get(i);
+            previousTotal = total;
+            previousColor = color;
+        }
+        return intervals;
+    }
+
+    // 다음 실행으로 넘길 상태
+    public LocalDateTime lastReadingAt() {
+        return readingAt.isEmpty() ? baselineAt : readingAt.get(readingAt.size() - 1);
+    }
+
+    public long lastTotal() {
+        return readingCounts.isEmpty() ? baselineTotal : readingCounts.get(readingCounts.size() - 1)[0];
+    }
+
+    public long lastColor() {
+        return readingCounts.isEmpty() ? baselineColor : readingCounts.get(readingCounts.size() - 1)[1];
+    }
+
+    public long pendingPages() {
+        return jobPages[readingAt.size()];
+    }
+
+    public long pendingColorPages() {
+        return jobColorPages[readingAt.size()];
+    }
+}
@@ -0,0 +1,75 @@
+package com.canon.printmanagement.replica;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 요청의 읽기 일관성 범위 (ThreadLocal)
+ *
+ * - maxLagMs: 이 요청에서 허용하는 복제 지연 (null 이면 기본값)
+ * - primaryPinned: 요청 중 쓰기가 있었으면 이후 읽기도 주 DB 에서 (read-your-writes)
+ * 요청 범위 밖(스케줄러, 비동기 스레드)에서는 고정 없이 기본값을 사용한다.
+ */
+public final class ReadConsistency {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private ReadConsistency() {
+    }
+
+    public static void begin(Long maxLagMs) {
+        CURRENT.set(new Scope(maxLagMs));
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static Long maxLagMs() {
+        Scope scope = CURRENT.get();
+        return scope != null ? scope.maxLagMs : null;
+    }
+
+    public static void pinPrimary() {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.primaryPinned = true;
+        }
+    }
+
+    public static boolean isPrimaryPinned() {
+        Scope scope = CURRENT.get();
+        return scope != null && scope.primaryPinned;
+    }
+
+    /**
+     * 현재 범위를 다른 스레드에서도 적용 (scatter-gather 작업 스레드용)
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> action) {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return action;
+        }
+        return () -> {
+            Scope previous = CURRENT.get();
+            CURRENT.set(scope);
+            try {
+                return action.get();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    private static final class Scope {
+        private final Long maxLagMs;
+        private volatile boolean primaryPinned;
+
+        private Scope(Long maxLagMs) {
+            this.maxLagMs = maxLagMs;
+        }
+    }
+}
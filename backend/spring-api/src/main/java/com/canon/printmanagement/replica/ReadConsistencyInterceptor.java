@@ -0,0 +1,45 @@
+package com.canon.printmanagement.replica;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * 요청마다 읽기 일관성 범위 설정 (@ReadStaleness 허용 지연, 쓰기 이후 주 DB 고정)
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadConsistencyInterceptor implements AsyncHandlerInterceptor {
+
+    private final Environment environment;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long maxLagMs = null;
+        if (handler instanceof HandlerMethod method) {
+            ReadStaleness staleness = method.getMethodAnnotation(ReadStaleness.class);
+            if (staleness == null) {
+                staleness = method.getBeanType().getAnnotation(ReadStaleness.class);
+            }
+            if (staleness != null) {
+                maxLagMs = Long.parseLong(environment.resolveRequiredPlaceholders(staleness.value()).trim());
+            }
+        }
+        ReadConsistency.begin(maxLagMs);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadConsistency.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadConsistency.end();
+    }
+}
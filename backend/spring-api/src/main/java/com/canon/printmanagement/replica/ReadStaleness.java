@@ -0,0 +1,21 @@
+package com.canon.printmanagement.replica;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 엔드포인트별 읽기 복제본 허용 지연 (ms, ${...} 설정값 사용 가능)
+ *
+ * 지정하지 않은 엔드포인트는 canon.replica.default-max-lag-ms 를 사용하고,
+ * 0 이면 읽기 전용 트랜잭션도 항상 주 DB 에서 읽는다.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadStaleness {
+
+    String value();
+}
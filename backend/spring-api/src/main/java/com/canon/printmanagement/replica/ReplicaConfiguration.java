@@ -0,0 +1,74 @@
+package com.canon.printmanagement.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 읽기 복제본 DataSource 구성 (canon.replica.enabled=true, 샤딩 미사용 시)
+ *
+ * spring.datasource.* 를 주 DB 로, canon.replica.endpoints 를 읽기 복제본으로 묶는다.
+ * 샤딩 사용 시에는 ShardingConfiguration 이 샤드별로 같은 라우팅을 구성한다.
+ */
+@Configuration
+@ConditionalOnExpression("${canon.replica.enabled:false} and !${canon.sharding.enabled:false}")
+@Slf4j
+public class ReplicaConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        HikariDataSource primaryDataSource,
+        ReplicaProperties properties,
+        ReplicaLagMonitor monitor
+    ) {
+        if (properties.getEndpoints().isEmpty()) {
+            throw new IllegalStateException("canon.replica.endpoints 가 비어 있습니다");
+        }
+        return new LazyConnectionDataSourceProxy(
+            new ReplicaRoutingDataSource(primaryDataSource, replicaPools("replica", properties.getEndpoints()), monitor));
+    }
+
+    /**
+     * 복제본별 HikariCP 풀 (이름: {prefix}-{번호})
+     */
+    public static Map<String, DataSource> replicaPools(String prefix, List<ReplicaProperties.Endpoint> endpoints) {
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        for (int i = 0; i < endpoints.size(); i++) {
+            ReplicaProperties.Endpoint endpoint = endpoints.get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(endpoint.getUrl())
+                .username(endpoint.getUsername())
+                .password(endpoint.getPassword())
+                .build();
+            String name = prefix + "-" + i;
+            dataSource.setPoolName(name);
+            dataSource.setMaximumPoolSize(endpoint.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            pools.put(name, dataSource);
+            log.info("읽기 복제본 {}: {}", name, endpoint.getUrl());
+        }
+        return pools;
+    }
+}
@@ -0,0 +1,141 @@
+package com.canon.printmanagement.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 읽기 복제본 지연 측정 (canon.replica.lag-check-interval-ms 주기)
+ *
+ * 주 DB 의 현재 WAL 위치(pg_current_wal_lsn)를 측정마다 기록해 두고 복제본의 재생 위치(pg_last_wal_replay_lsn)와 비교한다.
+ * - 측정 시작 시 주 DB 위치까지 재생했으면 0
+ * - 아니면 재생 위치 이하였던 마지막 관측 시각부터 지금까지 (그 이전 커밋은 모두 보이므로 측정 주기 단위의 상한)
+ * 복제본이 받은 WAL 만 비교하면 WAL 수신이 끊긴 복제본이 0 으로 보이므로 주 DB 기준으로 잰다.
+ * 기동 직후 한 번도 따라잡은 적이 없거나 연결/조회 실패 시 지연을 무한대로 두어 해당 복제본으로 읽기를 보내지 않는다.
+ * - canon.replica.lag{replica}: 측정 지연(ms)
+ * - canon.replica.reads{route}: 읽기 전용 트랜잭션 라우팅 결과
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String PRIMARY_LSN_SQL = "SELECT pg_current_wal_lsn() - '0/0'::pg_lsn";
+    // 복구 중이 아니면(복제본이 아님) -1
+    private static final String REPLAY_LSN_SQL = """
+        SELECT CASE
+                   WHEN NOT pg_is_in_recovery() THEN -1
+                   ELSE COALESCE(pg_last_wal_replay_lsn() - '0/0'::pg_lsn, 0)
+               END
+        """;
+    // 재생 위치가 멈춘 동안 쌓이는 관측값 상한 (기본 주기 1초면 약 1시간)
+    private static final int MAX_PENDING_LSNS = 3600;
+
+    /**
+     * 읽기 전용 트랜잭션 라우팅 결과
+     */
+    public enum Route {
+        REPLICA,
+        PRIMARY_PINNED,   // 같은 요청에서 쓰기 이후
+        PRIMARY_STRICT,   // 허용 지연 0
+        PRIMARY_LAGGING   // 허용 범위 안의 복제본 없음
+    }
+
+    private final ReplicaProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final List<ReplicaRoutingDataSource.Replica> replicas = new CopyOnWriteArrayList<>();
+    private final Map<Route, Counter> reads = new EnumMap<>(Route.class);
+
+    @PostConstruct
+    public void init() {
+        for (Route route : Route.values()) {
+            reads.put(route, Counter.builder("canon.replica.reads")
+                .tag("route", route.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry));
+        }
+    }
+
+    void register(ReplicaRoutingDataSource.Replica replica) {
+        replicas.add(replica);
+        Gauge.builder("canon.replica.lag", replica,
+                r -> r.getLagMs() == Long.MAX_VALUE ? Double.NaN : r.getLagMs())
+            .tag("replica", replica.getName())
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+        log.info("읽기 복제본 등록: {}", replica.getName());
+    }
+
+    void recordRead(Route route) {
+        reads.get(route).increment();
+    }
+
+    public long getDefaultMaxLagMs() {
+        return properties.getDefaultMaxLagMs();
+    }
+
+    public List<ReplicaRoutingDataSource.Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Scheduled(fixedDelayString = "${canon.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        for (ReplicaRoutingDataSource.Replica replica : replicas) {
+            long previous = replica.getLagMs();
+            try {
+                replica.setLagMs(measure(replica));
+                if (previous == Long.MAX_VALUE && replica.getLagMs() != Long.MAX_VALUE) {
+                    log.info("읽기 복제본 {} 사용 가능: 지연 {}ms", replica.getName(), replica.getLagMs());
+                }
+            } catch (Exception e) {
+                replica.setLagMs(Long.MAX_VALUE);
+                if (previous != Long.MAX_VALUE) {
+                    log.warn("읽기 복제본 {} 지연 측정 실패 - 주 DB 로 읽기: {}", replica.getName(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private long measure(ReplicaRoutingDataSource.Replica replica) {
+        // 주 DB 위치를 먼저 읽어야 복제본이 그 위치 이상이면 측정 시작 시점의 주 DB 만큼 최신임이 보장됨
+        long observedAt = System.nanoTime();
+        Long primaryLsn = replica.getPrimaryJdbcTemplate().queryForObject(PRIMARY_LSN_SQL, Long.class);
+        Long replayLsn = replica.getJdbcTemplate().queryForObject(REPLAY_LSN_SQL, Long.class);
+        if (primaryLsn == null || replayLsn == null) {
+            return Long.MAX_VALUE;
+        }
+        if (replayLsn < 0) {
+            return 0L;
+        }
+
+        ArrayDeque<long[]> pending = replica.getPendingPrimaryLsns();
+        if (pending.isEmpty() || pending.peekLast()[0] < primaryLsn) {
+            pending.addLast(new long[] {primaryLsn, observedAt});
+        }
+        while (!pending.isEmpty() && pending.peekFirst()[0] <= replayLsn) {
+            replica.setCaughtUpToNanos(pending.pollFirst()[1]);
+        }
+        while (pending.size() > MAX_PENDING_LSNS) {
+            pending.pollFirst();
+        }
+
+        if (pending.isEmpty()) {
+            return 0L;
+        }
+        Long caughtUpTo = replica.getCaughtUpToNanos();
+        return caughtUpTo != null ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - caughtUpTo) : Long.MAX_VALUE;
+    }
+}
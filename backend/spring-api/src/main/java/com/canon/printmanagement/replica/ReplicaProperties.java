@@ -0,0 +1,40 @@
+package com.canon.printmanagement.replica;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기 복제본 설정 (canon.replica.*)
+ *
+ * canon.replica.endpoints[0].url=jdbc:postgresql://replica-1:5432/canon_print_management
+ * 샤딩 사용 시에는 canon.sharding.shards[i].replicas[j].* 로 샤드별 복제본을 지정한다.
+ */
+@Component
+@ConfigurationProperties(prefix = "canon.replica")
+@Getter
+@Setter
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    // @ReadStaleness 가 없는 엔드포인트/요청 밖 읽기의 허용 지연
+    private long defaultMaxLagMs = 5000;
+
+    private long lagCheckIntervalMs = 1000;
+
+    @Getter
+    @Setter
+    public static class Endpoint {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,136 @@
+package com.canon.printmanagement.replica;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 주 DB / 읽기 복제본 라우팅 DataSource
+ *
+ * 읽기 전용 트랜잭션만 복제 지연이 허용 범위 안인 복제본으로 보내고(순환 선택),
+ * 쓰기 트랜잭션, 트랜잭션 밖 호출, 같은 요청에서 쓰기 이후의 읽기는 주 DB 를 사용한다.
+ * 트랜잭션 속성이 정해진 뒤 연결을 얻도록 LazyConnectionDataSourceProxy 안쪽에 두어야 한다.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final ReplicaLagMonitor monitor;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicaDataSources, ReplicaLagMonitor monitor) {
+        this.monitor = monitor;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        JdbcTemplate primaryJdbcTemplate = new JdbcTemplate(primary);
+        primaryJdbcTemplate.setQueryTimeout(1);
+        replicaDataSources.forEach((name, dataSource) -> {
+            targets.put(name, dataSource);
+            Replica replica = new Replica(name, dataSource, primaryJdbcTemplate);
+            replicas.add(replica);
+            monitor.register(replica);
+        });
+
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadConsistency.pinPrimary();
+            }
+            return PRIMARY;
+        }
+        if (ReadConsistency.isPrimaryPinned()) {
+            monitor.recordRead(ReplicaLagMonitor.Route.PRIMARY_PINNED);
+            return PRIMARY;
+        }
+
+        Long requested = ReadConsistency.maxLagMs();
+        long maxLagMs = requested != null ? requested : monitor.getDefaultMaxLagMs();
+        if (maxLagMs <= 0) {
+            monitor.recordRead(ReplicaLagMonitor.Route.PRIMARY_STRICT);
+            return PRIMARY;
+        }
+
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.lagMs <= maxLagMs) {
+                monitor.recordRead(ReplicaLagMonitor.Route.REPLICA);
+                return replica.name;
+            }
+        }
+        monitor.recordRead(ReplicaLagMonitor.Route.PRIMARY_LAGGING);
+        return PRIMARY;
+    }
+
+    /**
+     * 복제본과 최근 측정 지연 (측정 전/실패 시 Long.MAX_VALUE)
+     */
+    public static final class Replica {
+        private final String name;
+        private final JdbcTemplate jdbcTemplate;
+        private final JdbcTemplate primaryJdbcTemplate;
+        private volatile long lagMs = Long.MAX_VALUE;
+
+        // 지연 측정 상태 (ReplicaLagMonitor.check 스레드만 사용)
+        // 아직 재생하지 못한 주 DB LSN 관측값 {lsn, 관측 시각(nanoTime)}, 오래된 순
+        private final ArrayDeque<long[]> pendingPrimaryLsns = new ArrayDeque<>();
+        // 이 시각 이전 주 DB 커밋은 모두 재생됨 (없으면 아직 모름)
+        private Long caughtUpToNanos;
+
+        private Replica(String name, DataSource dataSource, JdbcTemplate primaryJdbcTemplate) {
+            this.name = name;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.jdbcTemplate.setQueryTimeout(1);
+            this.primaryJdbcTemplate = primaryJdbcTemplate;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getLagMs() {
+            return lagMs;
+        }
+
+        JdbcTemplate getJdbcTemplate() {
+            return jdbcTemplate;
+        }
+
+        JdbcTemplate getPrimaryJdbcTemplate() {
+            return primaryJdbcTemplate;
+        }
+
+        ArrayDeque<long[]> getPendingPrimaryLsns() {
+            return pendingPrimaryLsns;
+        }
+
+        Long getCaughtUpToNanos() {
+            return caughtUpToNanos;
+        }
+
+        void setCaughtUpToNanos(Long caughtUpToNanos) {
+            this.caughtUpToNanos = caughtUpToNanos;
+        }
+
+        void setLagMs(long lagMs) {
+            this.lagMs = lagMs;
+        }
+    }
+}
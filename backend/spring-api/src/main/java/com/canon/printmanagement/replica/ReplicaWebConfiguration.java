@@ -0,0 +1,18 @@
+package com.canon.printmanagement.replica;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class ReplicaWebConfiguration implements WebMvcConfigurer {
+
+    private final ReadConsistencyInterceptor readConsistencyInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(readConsistencyInterceptor).addPathPatterns("/api/**");
+    }
+}
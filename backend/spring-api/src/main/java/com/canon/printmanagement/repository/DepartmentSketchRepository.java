@@ -0,0 +1,54 @@
+package com.canon.printmanagement.repository;
+
+import com.canon.printmanagement.entity.DepartmentSketch;
+import com.canon.printmanagement.entity.DepartmentSketchId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 부서/일별 출력 스케치 Repository
+ */
+@Repository
+public interface DepartmentSketchRepository extends JpaRepository<DepartmentSketch, DepartmentSketchId> {
+
+    /**
+     * 기간 내 전체 부서 스케치
+     */
+    List<DepartmentSketch> findByDayBetween(LocalDate startDay, LocalDate endDay);
+
+    /**
+     * 기간 내 특정 부서 스케치
+     */
+    List<DepartmentSketch> findByDepartmentIdAndDayBetween(Long departmentId, LocalDate startDay, LocalDate endDay);
+
+    /**
+     * 스케치 등록 (이미 있으면 무시) - 등록된 행 수 반환
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO department_sketches (department_id, day, payload, updated_at)
+        VALUES (:departmentId, :day, :payload, CURRENT_TIMESTAMP)
+        ON CONFLICT (department_id, day) DO NOTHING
+        """, nativeQuery = true)
+    int insertIfAbsent(
+        @Param("departmentId") Long departmentId,
+        @Param("day") LocalDate day,
+        @Param("payload") byte[] payload
+    );
+
+    /**
+     * 병합을 위해 스케치 행 잠금 조회 (SELECT ... FOR UPDATE)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM DepartmentSketch s WHERE s.departmentId = :departmentId AND s.day = :day")
+    Optional<DepartmentSketch> findForUpdate(@Param("departmentId") Long departmentId, @Param("day") LocalDate day);
+}
@@ -0,0 +1,64 @@
+package com.canon.printmanagement.repository;
+
+import com.canon.printmanagement.entity.DistributionDigest;
+import com.canon.printmanagement.entity.DistributionDigestId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 일별 분포 스케치 Repository
+ */
+@Repository
+public interface DistributionDigestRepository extends JpaRepository<DistributionDigest, DistributionDigestId> {
+
+    /**
+     * 기간 내 범위(부서/프린터) 전체 스케치
+     */
+    List<DistributionDigest> findByScopeAndDayBetween(String scope, LocalDate startDay, LocalDate endDay);
+
+    /**
+     * 기간 내 특정 부서/프린터 스케치
+     */
+    List<DistributionDigest> findByScopeAndScopeIdAndDayBetween(
+        String scope, Long scopeId, LocalDate startDay, LocalDate endDay
+    );
+
+    /**
+     * digest 등록 (이미 있으면 무시) - 등록된 행 수 반환
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO distribution_digests (scope, scope_id, day, payload, updated_at)
+        VALUES (:scope, :scopeId, :day, :payload, CURRENT_TIMESTAMP)
+        ON CONFLICT (scope, scope_id, day) DO NOTHING
+        """, nativeQuery = true)
+    int insertIfAbsent(
+        @Param("scope") String scope,
+        @Param("scopeId") Long scopeId,
+        @Param("day") LocalDate day,
+        @Param("payload") byte[] payload
+    );
+
+    /**
+     * 병합을 위해 digest 행 잠금 조회 (SELECT ... FOR UPDATE)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT d FROM DistributionDigest d
+        WHERE d.scope = :scope AND d.scopeId = :scopeId AND d.day = :day
+        """)
+    Optional<DistributionDigest> findForUpdate(
+        @Param("scope") String scope,
+        @Param("scopeId") Long scopeId,
+        @Param("day") LocalDate day
+    );
+}
@@ -0,0 +1,58 @@
+package com.canon.printmanagement.repository;
+
+import com.canon.printmanagement.entity.PrintJobKey;
+import com.canon.printmanagement.entity.PrintJobKeyId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * 출력 작업 중복 방지 키 Repository
+ */
+@Repository
+public interface PrintJobKeyRepository extends JpaRepository<PrintJobKey, PrintJobKeyId> {
+
+    /**
+     * 키 등록 (이미 있으면 무시) - 등록된 행 수 반환
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO print_job_keys (printer_id, job_id, print_job_id, created_at)
+        VALUES (:printerId, :jobId, :printJobId, :createdAt)
+        ON CONFLICT (printer_id, job_id) DO NOTHING
+        """, nativeQuery = true)
+    int insertIfAbsent(
+        @Param("printerId") Long printerId,
+        @Param("jobId") String jobId,
+        @Param("printJobId") Long printJobId,
+        @Param("createdAt") LocalDateTime createdAt
+    );
+
+    /**
+     * 기존 출력 작업 ID 조회
+     */
+    @Query("""
+        SELECT k.printJobId FROM PrintJobKey k
+        WHERE k.printerId = :printerId AND k.jobId = :jobId
+        """)
+    Optional<Long> findPrintJobId(@Param("printerId") Long printerId, @Param("jobId") String jobId);
+
+    /**
+     * 기간 내 키 스트리밍 (Bloom filter 초기 적재용)
+     */
+    @Query("SELECT k FROM PrintJobKey k WHERE k.createdAt >= :since")
+    Stream<PrintJobKey> streamCreatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * 중복 방지 기간이 지난 키 삭제
+     */
+    @Modifying
+    @Query("DELETE FROM PrintJobKey k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
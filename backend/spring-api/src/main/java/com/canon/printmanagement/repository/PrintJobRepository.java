@@ -109,21 +109,27 @@ public interface PrintJobRepository extends JpaRepository<PrintJob, Long> {
     );
 
     /**
-     * 비용 절감 효과 분석
+     * 전체 출력 통계 및 비용 절감 효과 (작업 저장 시 단가표로 계산한 절감액 합계)
+     *
+     * 컬럼: totalJobs, totalPages, totalColorPages, totalBwPages, totalCost,
+     *       colorConvertedCount, duplexEnforcedCount, colorSavings, duplexSavings
      */
     @Query("""
         SELECT 
+            COUNT(pj.id) as totalJobs,
+            COALESCE(SUM(pj.pageCount), 0) as totalPages,
+            COALESCE(SUM(pj.colorPageCount), 0) as totalColorPages,
+            COALESCE(SUM(pj.bwPageCount), 0) as totalBwPages,
+            COALESCE(SUM(pj.totalCost), 0) as totalCost,
             COUNT(*) FILTER (WHERE pj.wasColorConverted = true) as colorConvertedCount,
             COUNT(*) FILTER (WHERE pj.wasDuplexEnforced = true) as duplexEnforcedCount,
-            SUM(CASE WHEN pj.wasColorConverted = true THEN (pj.colorPageCount * :colorCostDiff) ELSE 0 END) as colorSavings,
-            SUM(CASE WHEN pj.wasDuplexEnforced = true THEN (pj.pageCount * :duplexSavings) ELSE 0 END) as duplexSavings
+            COALESCE(SUM(pj.colorSavings), 0) as colorSavings,
+            COALESCE(SUM(pj.duplexSavings), 0) as duplexSavings
         FROM PrintJob pj
         WHERE pj.timestamp BETWEEN :startDate AND :endDate
         """)
-    Object[] getCostSavingsAnalysis(
+    Object[] getOverallStatistics(
         @Param("startDate") LocalDateTime startDate,
-        @Param("endDate") LocalDateTime endDate,
-        @Param("colorCostDiff") Double colorCostDiff,
-        @Param("duplexSavings") Double duplexSavings
+        @Param("endDate") LocalDateTime endDate
     );
 }
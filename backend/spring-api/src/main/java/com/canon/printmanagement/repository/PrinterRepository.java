@@ -1,12 +1,18 @@
 package com.canon.printmanagement.repository;
 
+import com.canon.printmanagement.dto.PrinterListItem;
 import com.canon.printmanagement.entity.Printer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 프린터 Repository
@@ -34,6 +40,21 @@ public interface PrinterRepository extends JpaRepository<Printer, Long> {
      */
     List<Printer> findByIsActiveTrue();
 
+    /**
+     * 프린터 목록 스트리밍 (SNMP 접속 정보 제외)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT new com.canon.printmanagement.dto.PrinterListItem(
+            p.id, p.name, p.serialNumber, p.ipAddress, p.macAddress, p.modelId, p.location,
+            p.departmentId, p.installationDate, p.isActive, p.lastSeenAt, p.createdAt, p.updatedAt
+        )
+        FROM Printer p
+        WHERE :activeOnly = false OR p.isActive = true
+        ORDER BY p.id
+        """)
+    Stream<PrinterListItem> streamAll(@Param("activeOnly") boolean activeOnly);
+
     /**
      * 모델별 프린터 조회
      */
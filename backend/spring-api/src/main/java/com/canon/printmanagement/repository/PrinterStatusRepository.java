@@ -1,15 +1,21 @@
 package com.canon.printmanagement.repository;
 
+import com.canon.printmanagement.dto.PrinterStatusItem;
 import com.canon.printmanagement.entity.PrinterStatus;
 import com.canon.printmanagement.entity.PrinterStatusId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 프린터 상태 Repository (TimescaleDB)
@@ -17,6 +23,9 @@ import java.util.Optional;
 @Repository
 public interface PrinterStatusRepository extends JpaRepository<PrinterStatus, PrinterStatusId> {
 
+    // 목록 스트리밍 시 한 번에 가져올 행 수
+    String STREAM_FETCH_SIZE = "500";
+
     /**
      * 프린터의 최신 상태 조회
      */
@@ -29,19 +38,37 @@ public interface PrinterStatusRepository extends JpaRepository<PrinterStatus, Pr
     Optional<PrinterStatus> findLatestByPrinterId(@Param("printerId") Long printerId);
 
     /**
-     * 프린터 상태 이력 조회
+     * 프린터 상태 이력 스트리밍 (최신순)
      */
-    List<PrinterStatus> findByPrinterIdAndTimestampBetweenOrderByTimestampDesc(
-        Long printerId,
-        LocalDateTime startDate,
-        LocalDateTime endDate
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("""
+        SELECT new com.canon.printmanagement.dto.PrinterStatusItem(
+            ps.printerId, ps.timestamp, ps.status,
+            ps.tonerLevelBlack, ps.tonerLevelCyan, ps.tonerLevelMagenta, ps.tonerLevelYellow,
+            ps.paperLevel, ps.errorCode, ps.errorMessage, ps.totalPageCount, ps.colorPageCount
+        )
+        FROM PrinterStatus ps
+        WHERE ps.printerId = :printerId
+        AND ps.timestamp BETWEEN :startDate AND :endDate
+        ORDER BY ps.timestamp DESC
+        """)
+    Stream<PrinterStatusItem> streamHistory(
+        @Param("printerId") Long printerId,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
     );
 
     /**
-     * 토너 부족 프린터 조회
+     * 토너 부족 프린터 스트리밍
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
     @Query("""
-        SELECT ps FROM PrinterStatus ps
+        SELECT new com.canon.printmanagement.dto.PrinterStatusItem(
+            ps.printerId, ps.timestamp, ps.status,
+            ps.tonerLevelBlack, ps.tonerLevelCyan, ps.tonerLevelMagenta, ps.tonerLevelYellow,
+            ps.paperLevel, ps.errorCode, ps.errorMessage, ps.totalPageCount, ps.colorPageCount
+        )
+        FROM PrinterStatus ps
         WHERE ps.timestamp >= :since
         AND (
             ps.tonerLevelBlack <= :threshold OR
@@ -55,16 +82,22 @@ public interface PrinterStatusRepository extends JpaRepository<PrinterStatus, Pr
             WHERE ps2.printerId = ps.printerId
         )
         """)
-    List<PrinterStatus> findPrintersWithLowToner(
+    Stream<PrinterStatusItem> streamPrintersWithLowToner(
         @Param("threshold") Integer threshold,
         @Param("since") LocalDateTime since
     );
 
     /**
-     * 오류 상태 프린터 조회
+     * 오류 상태 프린터 스트리밍
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
     @Query("""
-        SELECT ps FROM PrinterStatus ps
+        SELECT new com.canon.printmanagement.dto.PrinterStatusItem(
+            ps.printerId, ps.timestamp, ps.status,
+            ps.tonerLevelBlack, ps.tonerLevelCyan, ps.tonerLevelMagenta, ps.tonerLevelYellow,
+            ps.paperLevel, ps.errorCode, ps.errorMessage, ps.totalPageCount, ps.colorPageCount
+        )
+        FROM PrinterStatus ps
         WHERE ps.status IN ('ERROR', 'WARNING')
         AND ps.timestamp >= :since
         AND ps.timestamp = (
@@ -73,13 +106,19 @@ public interface PrinterStatusRepository extends JpaRepository<PrinterStatus, Pr
             WHERE ps2.printerId = ps.printerId
         )
         """)
-    List<PrinterStatus> findPrintersWithErrors(@Param("since") LocalDateTime since);
+    Stream<PrinterStatusItem> streamPrintersWithErrors(@Param("since") LocalDateTime since);
 
     /**
-     * 용지 부족 프린터 조회
+     * 용지 부족 프린터 스트리밍
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
     @Query("""
-        SELECT ps FROM PrinterStatus ps
+        SELECT new com.canon.printmanagement.dto.PrinterStatusItem(
+            ps.printerId, ps.timestamp, ps.status,
+            ps.tonerLevelBlack, ps.tonerLevelCyan, ps.tonerLevelMagenta, ps.tonerLevelYellow,
+            ps.paperLevel, ps.errorCode, ps.errorMessage, ps.totalPageCount, ps.colorPageCount
+        )
+        FROM PrinterStatus ps
         WHERE ps.paperLevel <= :threshold
         AND ps.timestamp >= :since
         AND ps.timestamp = (
@@ -88,8 +127,42 @@ public interface PrinterStatusRepository extends JpaRepository<PrinterStatus, Pr
             WHERE ps2.printerId = ps.printerId
         )
         """)
-    List<PrinterStatus> findPrintersWithLowPaper(
+    Stream<PrinterStatusItem> streamPrintersWithLowPaper(
         @Param("threshold") Integer threshold,
         @Param("since") LocalDateTime since
     );
+
+    /**
+     * 상태 샘플 순차 조회 (keyset 페이징)
+     *
+     * (timestamp, printerId) 순으로 마지막으로 읽은 위치 이후의 샘플만 조회
+     */
+    @Query("""
+        SELECT ps FROM PrinterStatus ps
+        WHERE ps.timestamp > :timestamp
+        OR (ps.timestamp = :timestamp AND ps.printerId > :printerId)
+        ORDER BY ps.timestamp ASC, ps.printerId ASC
+        """)
+    List<PrinterStatus> findSamplesAfter(
+        @Param("timestamp") LocalDateTime timestamp,
+        @Param("printerId") Long printerId,
+        Pageable pageable
+    );
+
+    /**
+     * 상태 샘플 순차 조회 (keyset 페이징, until 이하 샘플만)
+     */
+    @Query("""
+        SELECT ps FROM PrinterStatus ps
+        WHERE (ps.timestamp > :timestamp
+        OR (ps.timestamp = :timestamp AND ps.printerId > :printerId))
+        AND ps.timestamp <= :until
+        ORDER BY ps.timestamp ASC, ps.printerId ASC
+        """)
+    List<PrinterStatus> findSamplesBetween(
+        @Param("timestamp") LocalDateTime timestamp,
+        @Param("printerId") Long printerId,
+        @Param("until") LocalDateTime until,
+        Pageable pageable
+    );
 }
@@ -0,0 +1,45 @@
+package com.canon.printmanagement.rollup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 조회 구간 [from, to) 를 한 단계의 버킷으로 덮는 조각
+ */
+public record RollupSegment(RollupTier tier, LocalDateTime from, LocalDateTime to) {
+
+    /**
+     * [start, end) 를 가장 적은 버킷으로 덮는 조각 목록 (coarsest 보다 큰 단계는 사용하지 않음)
+     *
+     * 가운데는 월, 그 양쪽은 일, 가장자리는 시간 버킷. start/end 는 시간 경계여야 한다.
+     */
+    public static List<RollupSegment> cover(LocalDateTime start, LocalDateTime end, RollupTier coarsest) {
+        List<RollupSegment> segments = new ArrayList<>();
+        LocalDateTime dayStart = RollupTier.DAY.ceil(start);
+        LocalDateTime dayEnd = RollupTier.DAY.floor(end);
+        if (coarsest == RollupTier.HOUR || !dayStart.isBefore(dayEnd)) {
+            add(segments, RollupTier.HOUR, start, end);
+            return segments;
+        }
+
+        add(segments, RollupTier.HOUR, start, dayStart);
+        LocalDateTime monthStart = RollupTier.MONTH.ceil(dayStart);
+        LocalDateTime monthEnd = RollupTier.MONTH.floor(dayEnd);
+        if (coarsest == RollupTier.MONTH && monthStart.isBefore(monthEnd)) {
+            add(segments, RollupTier.DAY, dayStart, monthStart);
+            add(segments, RollupTier.MONTH, monthStart, monthEnd);
+            add(segments, RollupTier.DAY, monthEnd, dayEnd);
+        } else {
+            add(segments, RollupTier.DAY, dayStart, dayEnd);
+        }
+        add(segments, RollupTier.HOUR, dayEnd, end);
+        return segments;
+    }
+
+    private static void add(List<RollupSegment> segments, RollupTier tier, LocalDateTime from, LocalDateTime to) {
+        if (from.isBefore(to)) {
+            segments.add(new RollupSegment(tier, from, to));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.canon.printmanagement.rollup;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 출력 작업 롤업 단계 (시간 → 일 → 월)
+ *
+ * 시간/일 단계 행은 아직 다음 단계로 접히지 않은 증가분(pending_*)을 함께 가진다.
+ * 어느 버킷의 정확한 합계 = 해당 단계 값 + 그보다 세밀한 단계들의 같은 구간 pending 합.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RollupTier {
+    HOUR("print_job_rollups_hour", "hour"),
+    DAY("print_job_rollups_day", "day"),
+    MONTH("print_job_rollups_month", "month");
+
+    private final String table;
+    // date_trunc 단위
+    private final String unit;
+
+    public boolean hasPending() {
+        return this != MONTH;
+    }
+
+    public RollupTier coarser() {
+        return this == MONTH ? null : values()[ordinal() + 1];
+    }
+
+    public LocalDateTime floor(LocalDateTime time) {
+        return switch (this) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case MONTH -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        };
+    }
+
+    public LocalDateTime ceil(LocalDateTime time) {
+        LocalDateTime floor = floor(time);
+        if (floor.equals(time)) {
+            return time;
+        }
+        return switch (this) {
+            case HOUR -> floor.plusHours(1);
+            case DAY -> floor.plusDays(1);
+            case MONTH -> floor.plusMonths(1);
+        };
+    }
+}
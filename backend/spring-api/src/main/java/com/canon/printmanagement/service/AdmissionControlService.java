@@ -0,0 +1,181 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.admission.AdaptiveConcurrencyLimiter;
+import com.canon.printmanagement.admission.RouteClass;
+import com.canon.printmanagement.admission.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 수락 제어 서비스 (부하 차단)
+ *
+ * 월말처럼 통계 요청이 몰릴 때 집계 쿼리가 DB 연결 풀을 모두 점유해
+ * 출력 작업 수집(createPrintJob)이 시간 초과되는 것을 막는다.
+ * - 부류별 토큰 버킷(canon.admission.{class}.rate-per-second/burst)
+ * - 부류별 적응형 동시 실행 한도 (지연 시간이 목표를 넘으면 감소)
+ * - ANALYTICS 는 연결 예산에서 INGEST 예약분과 INGEST 실행 중 요청 수를 뺀 만큼만 사용
+ * - 한도/실행 중/평균 지연/토큰/거절 수를 canon.admission.* 메트릭으로 노출
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdmissionControlService {
+
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+
+    @Value("${canon.admission.enabled:true}")
+    private Boolean enabled;
+
+    // 통계/분석 요청과 수집 요청이 함께 쓰는 DB 연결 수 (HikariCP 최대 풀 크기)
+    @Value("${canon.admission.connection-budget:10}")
+    private Integer connectionBudget;
+
+    @Value("${canon.admission.ingest-reserved-connections:3}")
+    private Integer ingestReservedConnections;
+
+    private final Map<RouteClass, Lane> lanes = new EnumMap<>(RouteClass.class);
+
+    @PostConstruct
+    public void init() {
+        lanes.put(RouteClass.INGEST, lane(RouteClass.INGEST, 16, 4, 64, 500, 1000, 500, 2000));
+        lanes.put(RouteClass.ANALYTICS, lane(RouteClass.ANALYTICS, 4, 1, 8, 5, 20, 3000, 0));
+        lanes.put(RouteClass.DEFAULT, lane(RouteClass.DEFAULT, 32, 8, 128, 200, 400, 1000, 0));
+
+        log.info("요청 수락 제어 {}: 연결 예산 {}, 수집 예약 {}",
+            enabled ? "활성" : "비활성", connectionBudget, ingestReservedConnections);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 토큰 1개 사용
+     *
+     * @return 0 이면 통과, 양수면 다음 토큰까지 남은 시간(ns)
+     */
+    public long tryConsumeToken(RouteClass routeClass) {
+        Lane lane = lanes.get(routeClass);
+        long waitNanos = lane.bucket.tryAcquire();
+        if (waitNanos > 0) {
+            lane.rateRejected.increment();
+        }
+        return waitNanos;
+    }
+
+    /**
+     * 동시 실행 슬롯 획득 (INGEST 는 최대 max-wait-ms 대기, 그 외는 즉시 판정)
+     */
+    public boolean tryAcquire(RouteClass routeClass) throws InterruptedException {
+        Lane lane = lanes.get(routeClass);
+        boolean acquired = lane.limiter.tryAcquire(capOf(routeClass), lane.maxWaitNanos);
+        if (acquired) {
+            lane.accepted.increment();
+        } else {
+            lane.concurrencyRejected.increment();
+        }
+        return acquired;
+    }
+
+    public void release(RouteClass routeClass, long latencyNanos) {
+        Lane lane = lanes.get(routeClass);
+        lane.limiter.release(latencyNanos);
+        lane.latency.record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 동시 실행 한도로 거절할 때의 Retry-After (해당 부류 평균 지연 시간, 최소 1초)
+     */
+    public long retryAfterSeconds(RouteClass routeClass) {
+        return toRetryAfterSeconds(lanes.get(routeClass).limiter.getAverageLatencyNanos());
+    }
+
+    public static long toRetryAfterSeconds(long nanos) {
+        return Math.max(1, (long) Math.ceil(nanos / 1_000_000_000d));
+    }
+
+    // ANALYTICS 는 수집 요청이 쓰는 연결을 뺀 나머지 예산만 사용
+    private int capOf(RouteClass routeClass) {
+        if (routeClass != RouteClass.ANALYTICS) {
+            return Integer.MAX_VALUE;
+        }
+        int ingestInFlight = lanes.get(RouteClass.INGEST).limiter.getInFlight();
+        return connectionBudget - ingestReservedConnections - ingestInFlight;
+    }
+
+    private Lane lane(
+        RouteClass routeClass,
+        int initialLimit,
+        int minLimit,
+        int maxLimit,
+        double ratePerSecond,
+        double burst,
+        long targetLatencyMs,
+        long maxWaitMs
+    ) {
+        String prefix = "canon.admission." + routeClass.name().toLowerCase(Locale.ROOT) + ".";
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+            environment.getProperty(prefix + "initial-limit", Integer.class, initialLimit),
+            environment.getProperty(prefix + "min-limit", Integer.class, minLimit),
+            environment.getProperty(prefix + "max-limit", Integer.class, maxLimit),
+            environment.getProperty(prefix + "target-latency-ms", Long.class, targetLatencyMs)
+        );
+        TokenBucket bucket = new TokenBucket(
+            environment.getProperty(prefix + "rate-per-second", Double.class, ratePerSecond),
+            environment.getProperty(prefix + "burst", Double.class, burst)
+        );
+        long maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(
+            environment.getProperty(prefix + "max-wait-ms", Long.class, maxWaitMs));
+
+        String tag = routeClass.name();
+        Gauge.builder("canon.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+            .tag("class", tag).register(meterRegistry);
+        Gauge.builder("canon.admission.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+            .tag("class", tag).register(meterRegistry);
+        Gauge.builder("canon.admission.latency.average", limiter, l -> l.getAverageLatencyNanos() / 1_000_000d)
+            .tag("class", tag).baseUnit("milliseconds").register(meterRegistry);
+        Gauge.builder("canon.admission.tokens", bucket, TokenBucket::availableTokens)
+            .tag("class", tag).register(meterRegistry);
+
+        return new Lane(
+            limiter,
+            bucket,
+            maxWaitNanos,
+            Counter.builder("canon.admission.requests").tag("class", tag).tag("outcome", "accepted")
+                .register(meterRegistry),
+            Counter.builder("canon.admission.requests").tag("class", tag).tag("outcome", "rejected_rate")
+                .register(meterRegistry),
+            Counter.builder("canon.admission.requests").tag("class", tag).tag("outcome", "rejected_concurrency")
+                .register(meterRegistry),
+            Timer.builder("canon.admission.latency").tag("class", tag).register(meterRegistry)
+        );
+    }
+
+    /**
+     * 요청 부류별 제한기 묶음
+     */
+    @RequiredArgsConstructor
+    private static final class Lane {
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final TokenBucket bucket;
+        private final long maxWaitNanos;
+        private final Counter accepted;
+        private final Counter rateRejected;
+        private final Counter concurrencyRejected;
+        private final Timer latency;
+    }
+}
@@ -0,0 +1,260 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.dto.AnalyticsQueryRequest;
+import com.canon.printmanagement.rollup.RollupTier;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 다차원 분석 쿼리 플래너
+ *
+ * 요청된 차원/필터/측정값이 롤업(시간/일/월 버킷)으로 계산 가능하면 가장 적은 버킷 조합으로,
+ * 그다음 일별 연속 집계(print_jobs_daily), 아니면 원본 print_jobs 로 라우팅하여 파라미터 바인딩 SQL을 생성한다.
+ * 컬럼명은 enum 에 정의된 값만 사용하고, 사용자 입력은 모두 바인딩 파라미터로 전달한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AnalyticsQueryPlanner {
+
+    public static final String RAW_SOURCE = "print_jobs";
+    public static final String DAILY_SOURCE = "print_jobs_daily";
+    public static final String ROLLUP_SOURCE = "print_job_rollups";
+
+    private final PrintJobRollupService printJobRollupService;
+
+    @Value("${canon.analytics.max-dimensions:4}")
+    private Integer maxDimensions;
+
+    @Value("${canon.analytics.max-rows:10000}")
+    private Integer maxRows;
+
+    @Value("${canon.analytics.max-raw-range-days:93}")
+    private Integer maxRawRangeDays;
+
+    // 연속 집계 갱신 지연 (end_offset 1시간 + 갱신 주기 1시간)
+    @Value("${canon.analytics.daily-view-lag-hours:2}")
+    private Integer dailyViewLagHours;
+
+    /**
+     * 그룹 기준 차원 (원본 컬럼식, 일별 집계 컬럼식, 롤업 컬럼식 - null 이면 미지원)
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum Dimension {
+        DEPARTMENT("department_id", "department_id", "department_id"),
+        USER("user_id", "user_id", "user_id"),
+        PRINTER("printer_id", "printer_id", "printer_id"),
+        PAPER_SIZE("paper_size", null, null),
+        DAY("time_bucket('1 day', timestamp)", "day", "date_trunc('day', bucket)"),
+        HOUR("time_bucket('1 hour', timestamp)", null, "bucket"),
+        POLICY("policy_applied", null, null);
+
+        private final String rawExpression;
+        private final String dailyExpression;
+        private final String rollupExpression;
+    }
+
+    /**
+     * 측정값 (원본 집계식, 일별 집계식, 롤업 집계식)
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum Measure {
+        JOBS("COUNT(*)", "SUM(total_jobs)", "SUM(jobs)"),
+        PAGES("SUM(page_count)", "SUM(total_pages)", "SUM(pages)"),
+        COLOR_PAGES("SUM(color_page_count)", "SUM(total_color_pages)", "SUM(color_pages)"),
+        COST("SUM(total_cost)", "SUM(total_cost)", "SUM(cost)"),
+        // 작업 저장 시 단가표로 계산한 절감액 (CostOptimizationService.calculateSavings 와 동일)
+        SAVINGS("SUM(COALESCE(color_savings, 0) + COALESCE(duplex_savings, 0))",
+            "SUM(color_savings + duplex_savings)", "SUM(savings)");
+
+        private final String rawExpression;
+        private final String dailyExpression;
+        private final String rollupExpression;
+    }
+
+    /**
+     * 실행 계획
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Plan {
+        private final String source;
+        private final String sql;
+        private final MapSqlParameterSource parameters;
+        private final List<String> columns;
+        private final int maxRows;
+        // 앞쪽 columns 중 차원 컬럼 수 (나머지는 합산 가능한 측정값 - 샤드별 결과 병합에 사용)
+        private final int dimensionCount;
+        private final List<Long> departmentIds;
+    }
+
+    public Plan plan(AnalyticsQueryRequest request) {
+        List<Dimension> dimensions = parse(Dimension.class, request.getDimensions());
+        List<Measure> measures = parse(Measure.class, request.getMeasures());
+        if (measures.isEmpty()) {
+            measures = List.of(Measure.JOBS);
+        }
+        if (dimensions.size() > maxDimensions) {
+            throw badRequest("차원은 최대 " + maxDimensions + "개까지 지정할 수 있습니다");
+        }
+
+        LocalDateTime start = request.getStartDate();
+        LocalDateTime end = request.getEndDate();
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw badRequest("startDate < endDate 범위를 지정해야 합니다");
+        }
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+            .addValue("startDate", start)
+            .addValue("endDate", end)
+            .addValue("limit", maxRows + 1);
+
+        String rollup = canUseRollups(request, dimensions)
+            ? printJobRollupService.coverSql(start, end, coarsestTier(dimensions), parameters).orElse(null)
+            : null;
+        boolean daily = rollup == null && canUseDailyView(request, dimensions, measures);
+        if (rollup == null && !daily && Duration.between(start, end).toDays() > maxRawRangeDays) {
+            throw badRequest("원본 조회 기간은 최대 " + maxRawRangeDays + "일입니다 (일 단위 차원/측정값만 사용 시 제한 없음)");
+        }
+
+        List<String> columns = new ArrayList<>();
+        List<String> select = new ArrayList<>();
+        for (Dimension dimension : dimensions) {
+            String column = dimension.name().toLowerCase(Locale.ROOT);
+            select.add(expression(rollup != null, daily, dimension.getRollupExpression(),
+                dimension.getDailyExpression(), dimension.getRawExpression()) + " AS " + column);
+            columns.add(column);
+        }
+        for (Measure measure : measures) {
+            String column = measure.name().toLowerCase(Locale.ROOT);
+            select.add(expression(rollup != null, daily, measure.getRollupExpression(),
+                measure.getDailyExpression(), measure.getRawExpression()) + " AS " + column);
+            columns.add(column);
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(String.join(", ", select));
+        if (rollup != null) {
+            // 조각별 구간은 롤업 하위 쿼리 안에서 제한
+            sql.append(" FROM (").append(rollup).append(") rollups WHERE true");
+        } else {
+            sql.append(" FROM ").append(daily ? DAILY_SOURCE : RAW_SOURCE)
+                .append(daily ? " WHERE day >= :startDate AND day < :endDate" : " WHERE timestamp >= :startDate AND timestamp < :endDate");
+        }
+
+        appendFilter(sql, parameters, "department_id", "departmentIds", request.getDepartmentIds());
+        appendFilter(sql, parameters, "user_id", "userIds", request.getUserIds());
+        appendFilter(sql, parameters, "printer_id", "printerIds", request.getPrinterIds());
+        appendFilter(sql, parameters, "paper_size", "paperSizes", request.getPaperSizes());
+        appendFilter(sql, parameters, "policy_applied", "policies", request.getPolicies());
+
+        if (!dimensions.isEmpty()) {
+            String ordinals = ordinals(dimensions.size());
+            sql.append(" GROUP BY ").append(ordinals).append(" ORDER BY ").append(ordinals);
+        }
+        sql.append(" LIMIT :limit");
+
+        String source = rollup != null ? ROLLUP_SOURCE : daily ? DAILY_SOURCE : RAW_SOURCE;
+        return new Plan(source, sql.toString(), parameters, columns, maxRows,
+            dimensions.size(), request.getDepartmentIds());
+    }
+
+    /**
+     * 롤업으로 응답 가능 여부 (구간 경계/보관 기간은 PrintJobRollupService.coverSql 에서 확인)
+     * - 모든 차원이 롤업 컬럼(부서/사용자/프린터/일/시간)으로 표현 가능
+     * - 롤업에 없는 컬럼(용지 크기, 정책)으로 필터하지 않음
+     */
+    private boolean canUseRollups(AnalyticsQueryRequest request, List<Dimension> dimensions) {
+        return printJobRollupService.isEnabled()
+            && dimensions.stream().allMatch(d -> d.getRollupExpression() != null)
+            && isEmpty(request.getPaperSizes())
+            && isEmpty(request.getPolicies());
+    }
+
+    // 시간 차원이 있으면 그보다 큰 버킷은 쓸 수 없음
+    private static RollupTier coarsestTier(List<Dimension> dimensions) {
+        if (dimensions.contains(Dimension.HOUR)) {
+            return RollupTier.HOUR;
+        }
+        return dimensions.contains(Dimension.DAY) ? RollupTier.DAY : RollupTier.MONTH;
+    }
+
+    private static String expression(boolean rollup, boolean daily, String rollupExpression,
+                                     String dailyExpression, String rawExpression) {
+        return rollup ? rollupExpression : daily ? dailyExpression : rawExpression;
+    }
+
+    /**
+     * 일별 연속 집계로 응답 가능 여부
+     * - 모든 차원/측정값이 집계 뷰 컬럼으로 표현 가능
+     * - 집계 뷰에 없는 컬럼(용지 크기, 정책)으로 필터하지 않음
+     * - 기간이 일 경계에 맞고, 집계 뷰 갱신이 끝난 구간
+     */
+    private boolean canUseDailyView(AnalyticsQueryRequest request, List<Dimension> dimensions, List<Measure> measures) {
+        boolean columnsSupported = dimensions.stream().allMatch(d -> d.getDailyExpression() != null)
+            && measures.stream().allMatch(m -> m.getDailyExpression() != null)
+            && isEmpty(request.getPaperSizes())
+            && isEmpty(request.getPolicies());
+
+        boolean dayAligned = request.getStartDate().toLocalTime().equals(LocalTime.MIDNIGHT)
+            && request.getEndDate().toLocalTime().equals(LocalTime.MIDNIGHT);
+
+        boolean materialized = !request.getEndDate().isAfter(LocalDateTime.now().minusHours(dailyViewLagHours));
+
+        return columnsSupported && dayAligned && materialized;
+    }
+
+    private void appendFilter(StringBuilder sql, MapSqlParameterSource parameters,
+                              String column, String name, List<?> values) {
+        if (!isEmpty(values)) {
+            sql.append(" AND ").append(column).append(" IN (:").append(name).append(")");
+            parameters.addValue(name, values);
+        }
+    }
+
+    private <E extends Enum<E>> List<E> parse(Class<E> type, List<String> names) {
+        List<E> result = new ArrayList<>();
+        if (names == null) {
+            return result;
+        }
+        for (String name : names) {
+            try {
+                E value = Enum.valueOf(type, name.trim().toUpperCase(Locale.ROOT));
+                if (!result.contains(value)) {
+                    result.add(value);
+                }
+            } catch (IllegalArgumentException e) {
+                throw badRequest("지원하지 않는 " + type.getSimpleName() + ": " + name);
+            }
+        }
+        return result;
+    }
+
+    private static String ordinals(int count) {
+        StringBuilder ordinals = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            ordinals.append(i == 1 ? "" : ", ").append(i);
+        }
+        return ordinals.toString();
+    }
+
+    private static boolean isEmpty(List<?> values) {
+        return values == null || values.isEmpty();
+    }
+
+    private static ResponseStatusException badRequest(String message) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+    }
+}
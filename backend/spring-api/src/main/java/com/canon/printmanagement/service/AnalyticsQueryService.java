@@ -0,0 +1,273 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.dto.AnalyticsQueryRequest;
+import com.canon.printmanagement.shard.ShardContext;
+import com.canon.printmanagement.shard.ShardRouter;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 다차원 분석 쿼리 실행 서비스
+ *
+ * AnalyticsQueryPlanner 가 만든 SQL을 fetch size 단위 커서로 읽으면서
+ * 결과를 바로 JSON 으로 기록하므로 결과 크기와 관계없이 힙 사용량이 일정하다.
+ * 부서 샤딩 시 필터된 부서가 한 샤드에 모여 있으면 그 샤드에서 그대로 스트리밍하고,
+ * 아니면 샤드별 결과(각 최대 max-rows + 1행)를 차원 기준으로 병합하여 측정값을 합산한다.
+ * 스트리밍 중 오류가 나면 닫는 괄호를 쓰지 않고 응답을 중단하므로, 잘린 결과가 정상 JSON 으로 전달되지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsQueryService {
+
+    private final AnalyticsQueryPlanner analyticsQueryPlanner;
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final ShardRouter shardRouter;
+
+    @Value("${canon.analytics.query-timeout-seconds:15}")
+    private Integer queryTimeoutSeconds;
+
+    @Value("${canon.analytics.fetch-size:500}")
+    private Integer fetchSize;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        // PostgreSQL 은 트랜잭션(autocommit off) 안에서만 커서 단위 fetch 를 사용
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readOnlyTransaction.setTimeout(queryTimeoutSeconds);
+    }
+
+    /**
+     * 쿼리 계획 수립 (검증 오류는 스트리밍 시작 전에 400 응답)
+     */
+    public AnalyticsQueryPlanner.Plan plan(AnalyticsQueryRequest request) {
+        AnalyticsQueryPlanner.Plan plan = analyticsQueryPlanner.plan(request);
+        log.debug("분석 쿼리 계획: source={}, sql={}", plan.getSource(), plan.getSql());
+        return plan;
+    }
+
+    /**
+     * 결과 스트리밍
+     *
+     * {"source": "...", "columns": [...], "rows": [{...}, ...], "rowCount": n, "truncated": false}
+     */
+    public StreamingResponseBody stream(AnalyticsQueryPlanner.Plan plan) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+                // 오류 시 close() 가 배열/객체를 닫아 200 OK 의 잘린 JSON 이 되지 않도록 함
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                generator.writeStartObject();
+                generator.writeStringField("source", plan.getSource());
+                generator.writeArrayFieldStart("columns");
+                for (String column : plan.getColumns()) {
+                    generator.writeString(column);
+                }
+                generator.writeEndArray();
+                generator.writeArrayFieldStart("rows");
+
+                int[] rowCount = {0};
+                boolean[] truncated = {false};
+                Integer shard = singleShardOf(plan);
+                if (shard != null) {
+                    ShardContext.run(shard, () -> readOnlyTransaction.executeWithoutResult(status ->
+                        cursor(plan).query(plan.getSql(), plan.getParameters(), (ResultSet rs) -> {
+                            if (rowCount[0] >= plan.getMaxRows()) {
+                                truncated[0] = true; // 카디널리티 한도 초과분은 잘라냄
+                                return;
+                            }
+                            writeRow(generator, plan.getColumns(), rs);
+                            rowCount[0]++;
+                        })
+                    ));
+                } else {
+                    for (Object[] row : gather(plan)) {
+                        if (rowCount[0] >= plan.getMaxRows()) {
+                            truncated[0] = true;
+                            break;
+                        }
+                        writeRow(generator, plan.getColumns(), row);
+                        rowCount[0]++;
+                    }
+                }
+
+                generator.writeEndArray();
+                generator.writeNumberField("rowCount", rowCount[0]);
+                generator.writeBooleanField("truncated", truncated[0]);
+                generator.writeEndObject();
+            }
+        };
+    }
+
+    /**
+     * 커서 단위 fetch + 문장 최대 행 수 (max-rows + 1, 한도 초과 여부 판정용) 를 지정한 템플릿
+     */
+    private NamedParameterJdbcTemplate cursor(AnalyticsQueryPlanner.Plan plan) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setQueryTimeout(queryTimeoutSeconds);
+        template.setFetchSize(fetchSize);
+        template.setMaxRows(plan.getMaxRows() + 1);
+        return new NamedParameterJdbcTemplate(template);
+    }
+
+    /**
+     * 한 샤드로 응답 가능하면 그 샤드 (샤딩 비활성이면 항상 0번)
+     */
+    private Integer singleShardOf(AnalyticsQueryPlanner.Plan plan) {
+        if (!shardRouter.isEnabled()) {
+            return 0;
+        }
+        List<Long> departmentIds = plan.getDepartmentIds();
+        if (departmentIds == null || departmentIds.isEmpty()) {
+            return null;
+        }
+        int shard = shardRouter.shardOf(departmentIds.get(0));
+        for (Long departmentId : departmentIds) {
+            if (shardRouter.shardOf(departmentId) != shard) {
+                return null;
+            }
+        }
+        return shard;
+    }
+
+    /**
+     * 모든 샤드에서 실행 후 차원 값이 같은 행의 측정값을 합산 (차원 순 정렬)
+     *
+     * 샤드별 결과는 차원 순으로 정렬되어 있으므로, 전체 기준 앞쪽 max-rows + 1개 그룹은
+     * 각 샤드의 앞쪽 max-rows + 1행 안에 모두 들어 있다.
+     */
+    private List<Object[]> gather(AnalyticsQueryPlanner.Plan plan) {
+        int columnCount = plan.getColumns().size();
+        int dimensionCount = plan.getDimensionCount();
+        NamedParameterJdbcTemplate jdbcTemplate = cursor(plan);
+        List<List<Object[]>> shardRows = shardRouter.scatter(shard ->
+            jdbcTemplate.query(plan.getSql(), plan.getParameters(), (rs, rowNum) -> {
+                Object[] row = new Object[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    row[i] = rs.getObject(i + 1);
+                }
+                return row;
+            }));
+
+        Map<List<Object>, Object[]> merged = new TreeMap<>(AnalyticsQueryService::compareKeys);
+        for (List<Object[]> rows : shardRows) {
+            for (Object[] row : rows) {
+                merged.merge(Arrays.asList(row).subList(0, dimensionCount), row, (left, right) -> {
+                    for (int i = dimensionCount; i < columnCount; i++) {
+                        left[i] = add(left[i], right[i]);
+                    }
+                    return left;
+                });
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    // PostgreSQL ORDER BY 기본값과 같이 NULL 은 뒤로
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareKeys(List<Object> left, List<Object> right) {
+        for (int i = 0; i < left.size(); i++) {
+            Object l = left.get(i);
+            Object r = right.get(i);
+            if (l == null || r == null) {
+                if (l != r) {
+                    return l == null ? 1 : -1;
+                }
+                continue;
+            }
+            int compared = ((Comparable) l).compareTo(r);
+            if (compared != 0) {
+                return compared;
+            }
+        }
+        return 0;
+    }
+
+    private static Object add(Object left, Object right) {
+        if (left == null || right == null) {
+            return left != null ? left : right;
+        }
+        if (left instanceof BigDecimal || right instanceof BigDecimal) {
+            return toDecimal(left).add(toDecimal(right));
+        }
+        if (isFloatingPoint(left) || isFloatingPoint(right)) {
+            return ((Number) left).doubleValue() + ((Number) right).doubleValue();
+        }
+        return ((Number) left).longValue() + ((Number) right).longValue();
+    }
+
+    private static boolean isFloatingPoint(Object value) {
+        return value instanceof Double || value instanceof Float;
+    }
+
+    private static BigDecimal toDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return isFloatingPoint(value)
+            ? BigDecimal.valueOf(((Number) value).doubleValue())
+            : BigDecimal.valueOf(((Number) value).longValue());
+    }
+
+    private void writeRow(JsonGenerator generator, List<String> columns, ResultSet rs) throws SQLException {
+        Object[] row = new Object[columns.size()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = rs.getObject(i + 1);
+        }
+        writeRow(generator, columns, row);
+    }
+
+    private void writeRow(JsonGenerator generator, List<String> columns, Object[] row) {
+        try {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.size(); i++) {
+                generator.writeFieldName(columns.get(i));
+                Object value = row[i];
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else if (isFloatingPoint(value)) {
+                    generator.writeNumber(((Number) value).doubleValue());
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.longValue());
+                } else if (value instanceof Timestamp timestamp) {
+                    generator.writeString(timestamp.toLocalDateTime().toString());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.canon.printmanagement.service;
 
 import com.canon.printmanagement.entity.PrintJob;
+import com.canon.printmanagement.tariff.Tariff;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+
 /**
  * 비용 절감 정책 엔진
  * 
@@ -13,9 +17,12 @@ import org.springframework.stereotype.Service;
  * 3. 할당량 관리
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class CostOptimizationService {
 
+    private final TariffService tariffService;
+
     @Value("${canon.policy.auto-convert-color-to-bw:true}")
     private Boolean autoConvertColorToBw;
 
@@ -31,6 +38,10 @@ public class CostOptimizationService {
     public void applyPolicies(PrintJob printJob) {
         log.debug("비용 절감 정책 적용 시작: {}", printJob.getJobId());
 
+        // 절감액은 정책 엔진과 비용 계산(PrintJobService.calculateCost)만 기록
+        printJob.setColorSavings(BigDecimal.ZERO);
+        printJob.setDuplexSavings(BigDecimal.ZERO);
+
         // 1. 컬러 → 흑백 자동 변환 정책
         if (autoConvertColorToBw && shouldConvertColorToBw(printJob)) {
             applyColorToBwConversion(printJob);
@@ -52,21 +63,29 @@ public class CostOptimizationService {
      * - 예: 100페이지 중 컬러 5페이지 → 흑백 변환
      */
     private boolean shouldConvertColorToBw(PrintJob printJob) {
-        if (printJob.getColorPageCount() == null || printJob.getColorPageCount() == 0) {
+        if (printJob.getColorPageCount() == null) {
             return false;
         }
 
-        double colorRatio = (double) printJob.getColorPageCount() / printJob.getPageCount();
-        
-        if (colorRatio <= colorImageThreshold) {
+        if (isColorConversionCandidate(printJob.getColorPageCount(), printJob.getPageCount(), colorImageThreshold)) {
             log.info("컬러 비율 {}% ≤ {}% → 흑백 변환 대상", 
-                colorRatio * 100, colorImageThreshold * 100);
+                (double) printJob.getColorPageCount() / printJob.getPageCount() * 100, colorImageThreshold * 100);
             return true;
         }
 
         return false;
     }
 
+    /**
+     * 컬러 → 흑백 변환 판단 규칙 (정책 시뮬레이션과 공유)
+     */
+    static boolean isColorConversionCandidate(int colorPageCount, int pageCount, double threshold) {
+        if (colorPageCount == 0) {
+            return false;
+        }
+        return (double) colorPageCount / pageCount <= threshold;
+    }
+
     /**
      * 컬러 → 흑백 변환 적용
      */
@@ -79,27 +98,38 @@ public class CostOptimizationService {
         printJob.setWasColorConverted(true);
         printJob.setPolicyApplied("COLOR_TO_BW_AUTO_CONVERT");
 
-        log.info("✅ 컬러 → 흑백 자동 변환 적용: {}페이지 (약 {}원 절감)", 
-            colorPages, colorPages * 120); // 페이지당 120원 절감
+        // 절감액: 변환 페이지 × (컬러 단가 - 흑백 단가) × 부수
+        Tariff tariff = tariffService.tariffFor(printJob.getPrinterId(), printJob.getPaperSize());
+        BigDecimal savings = TariffService.toAmount(tariff.colorConversionSavings(colorPages, copiesOf(printJob)));
+        printJob.setColorSavings(savings);
+
+        log.info("✅ 컬러 → 흑백 자동 변환 적용: {}페이지 (약 {}원 절감)", colorPages, savings);
     }
 
     /**
      * 양면 출력 강제 여부 판단
      */
     private boolean shouldForceDuplex(PrintJob printJob) {
+        return isDuplexCandidate(
+            Boolean.TRUE.equals(printJob.getIsDuplex()), printJob.getPaperSize(), printJob.getPageCount());
+    }
+
+    /**
+     * 양면 출력 강제 판단 규칙 (정책 시뮬레이션과 공유)
+     */
+    static boolean isDuplexCandidate(boolean duplex, String paperSize, int pageCount) {
         // 이미 양면 출력이면 스킵
-        if (Boolean.TRUE.equals(printJob.getIsDuplex())) {
+        if (duplex) {
             return false;
         }
 
         // 용지 크기가 A3나 사진 용지면 제외
-        if ("A3".equalsIgnoreCase(printJob.getPaperSize()) || 
-            "PHOTO".equalsIgnoreCase(printJob.getPaperSize())) {
+        if ("A3".equalsIgnoreCase(paperSize) || "PHOTO".equalsIgnoreCase(paperSize)) {
             return false;
         }
 
         // 페이지 수가 2페이지 미만이면 제외
-        if (printJob.getPageCount() < 2) {
+        if (pageCount < 2) {
             return false;
         }
 
@@ -114,44 +144,52 @@ public class CostOptimizationService {
         printJob.setWasDuplexEnforced(true);
         printJob.setPolicyApplied("FORCE_DUPLEX");
 
+        // 절감액은 할인 전 비용이 정해지는 비용 계산 단계에서 기록
         int pageSavings = printJob.getPageCount() / 2;
-        log.info("✅ 양면 출력 강제 적용: {}페이지 절감 (약 {}원 절감)", 
-            pageSavings, pageSavings * 30);
+        log.info("✅ 양면 출력 강제 적용: {}페이지 절감", pageSavings);
+    }
+
+    public boolean isAutoConvertColorToBw() {
+        return autoConvertColorToBw;
+    }
+
+    public boolean isForceDuplex() {
+        return forceDuplex;
+    }
+
+    public double getColorImageThreshold() {
+        return colorImageThreshold;
     }
 
     /**
      * 비용 절감 효과 계산
+     *
+     * 저장 시 단가표로 계산해 둔 절감액(color_savings, duplex_savings)을 사용하므로
+     * 통계 쿼리(getOverallStatistics)의 합계와 같은 값이다.
      */
     public CostSavingsReport calculateSavings(PrintJob printJob) {
-        double colorSavings = 0;
-        double duplexSavings = 0;
-
-        if (Boolean.TRUE.equals(printJob.getWasColorConverted())) {
-            // 컬러 → 흑백: 페이지당 120원 절감
-            colorSavings = printJob.getBwPageCount() * 120.0;
-        }
-
-        if (Boolean.TRUE.equals(printJob.getWasDuplexEnforced())) {
-            // 양면 출력: 용지 50% 절감 (페이지당 30원)
-            int pageSavings = printJob.getPageCount() / 2;
-            duplexSavings = pageSavings * 30.0;
-        }
+        BigDecimal colorSavings = printJob.getColorSavings() != null ? printJob.getColorSavings() : BigDecimal.ZERO;
+        BigDecimal duplexSavings = printJob.getDuplexSavings() != null ? printJob.getDuplexSavings() : BigDecimal.ZERO;
 
         return CostSavingsReport.builder()
             .colorSavings(colorSavings)
             .duplexSavings(duplexSavings)
-            .totalSavings(colorSavings + duplexSavings)
+            .totalSavings(colorSavings.add(duplexSavings))
             .build();
     }
 
+    static int copiesOf(PrintJob printJob) {
+        return printJob.getCopies() != null && printJob.getCopies() > 0 ? printJob.getCopies() : 1;
+    }
+
     /**
      * 비용 절감 리포트
      */
     @lombok.Builder
     @lombok.Data
     public static class CostSavingsReport {
-        private double colorSavings;
-        private double duplexSavings;
-        private double totalSavings;
+        private BigDecimal colorSavings;
+        private BigDecimal duplexSavings;
+        private BigDecimal totalSavings;
     }
 }
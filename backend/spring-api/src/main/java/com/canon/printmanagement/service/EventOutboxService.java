@@ -0,0 +1,264 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.entity.PrintJob;
+import com.canon.printmanagement.shard.ShardContext;
+import com.canon.printmanagement.shard.ShardRouter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 이벤트 outbox 서비스 (출력 작업/알림 이벤트 → Redis Streams)
+ *
+ * 하위 시스템(과금, 알림, 데이터 웨어하우스)이 print_jobs/alerts 를 폴링하는 대신 구독할 수 있는 푸시 피드.
+ * - 기록: createPrintJob 이 작업 저장과 같은 트랜잭션(부서 샤드)에서 event_outbox 에 한 행 추가.
+ *   알림은 alerts INSERT/해제 트리거가 같은 트랜잭션에서 추가 (작성 주체와 무관)
+ * - 발행: 샤드마다 pg_try_advisory_xact_lock 을 잡은 인스턴스 하나가 아래 순서로 batch-size 행을 읽어
+ *   파이프라인 XADD 로 발행한 뒤 같은 트랜잭션에서 삭제. 발행 후 커밋 전에 실패하면 다음 실행에서
+ *   다시 발행되므로 전달은 at-least-once 이고, 소비자는 eventId(샤드-outbox id)로 중복을 거른다.
+ * - 순서: 프린터·부서마다 먼저 기록한 이벤트가 먼저 발행된다. 행마다 기록한 트랜잭션 id(txid)를 남기고,
+ *   진행 중인 트랜잭션 중 가장 오래된 것(pg_snapshot_xmin)보다 앞선 txid 의 행만 (txid, id) 순으로 발행한다.
+ *   그보다 앞선 트랜잭션은 모두 끝났으므로 이미 발행한 이벤트 앞에 새 행이 끼어들 수 없고,
+ *   샤드마다 한 인스턴스가 이 순서로만 발행하므로 같은 프린터·부서의 이벤트는 기록 순서대로 나간다
+ *   (id 만으로 정렬하면 늦게 커밋된 작은 id 가 큰 id 뒤에 발행될 수 있었다).
+ *   오래 열린 쓰기 트랜잭션이 있으면 그것이 끝날 때까지 뒤의 이벤트 발행이 늦어진다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EventOutboxService {
+
+    public static final String PRINT_JOB_STREAM = "print-jobs";
+    public static final String PRINT_JOB_CREATED = "PRINT_JOB_CREATED";
+
+    // pg_try_advisory_xact_lock 키 (샤드마다 한 인스턴스만 발행)
+    private static final long LOCK_KEY = 0x4F5554424FL;
+
+    private static final String INSERT_SQL = """
+        INSERT INTO event_outbox (stream, event_type, aggregate_id, printer_id, department_id, payload)
+        VALUES (?, ?, ?, ?, ?, ?::jsonb)
+        """;
+    // 진행 중인 트랜잭션보다 앞선 행만 트랜잭션 순 → 기록 순 (이후 더 앞선 행이 나타나지 않음)
+    private static final String BATCH_SQL = """
+        SELECT id, stream, event_type, aggregate_id, printer_id, department_id, payload::text AS payload, created_at
+        FROM event_outbox
+        WHERE txid < pg_snapshot_xmin(pg_current_snapshot())
+        ORDER BY txid, id
+        LIMIT ?
+        """;
+    private static final String DELETE_SQL = "DELETE FROM event_outbox WHERE id = ANY(?)";
+
+    private record OutboxRow(
+        long id,
+        String stream,
+        String eventType,
+        long aggregateId,
+        Long printerId,
+        Long departmentId,
+        String payload,
+        LocalDateTime createdAt
+    ) {
+    }
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final ShardRouter shardRouter;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${canon.outbox.relay-enabled:true}")
+    private Boolean relayEnabled;
+
+    @Value("${canon.outbox.stream-prefix:canon:events:}")
+    private String streamPrefix;
+
+    @Value("${canon.outbox.batch-size:500}")
+    private Integer batchSize;
+
+    // 한 번의 실행에서 샤드마다 처리할 최대 배치 수 (나머지는 다음 실행)
+    @Value("${canon.outbox.max-batches-per-run:20}")
+    private Integer maxBatchesPerRun;
+
+    // XADD MAXLEN ~ (소비자가 따라잡지 못하면 오래된 항목부터 잘림)
+    @Value("${canon.outbox.stream-max-length:1000000}")
+    private Long streamMaxLength;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate relayTransaction;
+    private Counter published;
+    private Counter failures;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        relayTransaction = new TransactionTemplate(transactionManager);
+        published = Counter.builder("canon.outbox.published").register(meterRegistry);
+        failures = Counter.builder("canon.outbox.failures").register(meterRegistry);
+    }
+
+    /**
+     * 출력 작업 생성 이벤트 기록 (createPrintJob 트랜잭션 안에서 호출, 같은 샤드 연결 사용)
+     */
+    public void recordPrintJobCreated(PrintJob printJob) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", printJob.getId());
+        payload.put("jobId", printJob.getJobId());
+        payload.put("printerId", printJob.getPrinterId());
+        payload.put("userId", printJob.getUserId());
+        payload.put("departmentId", printJob.getDepartmentId());
+        payload.put("timestamp", printJob.getTimestamp());
+        payload.put("pageCount", printJob.getPageCount());
+        payload.put("colorPageCount", printJob.getColorPageCount());
+        payload.put("bwPageCount", printJob.getBwPageCount());
+        payload.put("copies", printJob.getCopies());
+        payload.put("paperSize", printJob.getPaperSize());
+        payload.put("isDuplex", printJob.getIsDuplex());
+        payload.put("status", printJob.getStatus());
+        payload.put("totalCost", printJob.getTotalCost());
+        payload.put("policyApplied", printJob.getPolicyApplied());
+        payload.put("wasColorConverted", printJob.getWasColorConverted());
+        payload.put("wasDuplexEnforced", printJob.getWasDuplexEnforced());
+
+        jdbcTemplate.update(INSERT_SQL, PRINT_JOB_STREAM, PRINT_JOB_CREATED, printJob.getId(),
+            printJob.getPrinterId(), printJob.getDepartmentId(), toJson(payload));
+    }
+
+    /**
+     * outbox 발행 (기본 0.5초 주기)
+     */
+    @Scheduled(fixedDelayString = "${canon.outbox.relay-interval-ms:500}")
+    public void relay() {
+        if (!relayEnabled) {
+            return;
+        }
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            try {
+                int total = relayShard(shard);
+                if (total > 0) {
+                    log.debug("이벤트 발행: 샤드 {}, {}건", shard, total);
+                }
+            } catch (RuntimeException e) {
+                // 트랜잭션 롤백 - 행이 남아 다음 실행에서 다시 발행
+                failures.increment();
+                log.warn("이벤트 발행 실패 (샤드 {}): {}", shard, e.getMessage());
+            }
+        }
+    }
+
+    private int relayShard(int shard) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer count = ShardContext.call(shard, () -> relayTransaction.execute(status -> publishBatch(shard)));
+            if (count == null || count <= 0) {
+                break;
+            }
+            total += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 한 배치 발행 후 삭제
+     *
+     * @return 발행 건수 (다른 인스턴스가 발행 중이면 -1)
+     */
+    private int publishBatch(int shard) {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+        if (!Boolean.TRUE.equals(locked)) {
+            return -1;
+        }
+
+        List<OutboxRow> rows = jdbcTemplate.query(BATCH_SQL, (ResultSet rs, int rowNum) -> toRow(rs), batchSize);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        XAddOptions options = XAddOptions.maxlen(streamMaxLength).approximateTrimming(true);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (OutboxRow row : rows) {
+                connection.streamCommands().xAdd(toRecord(shard, row), options);
+            }
+            return null;
+        });
+
+        Long[] ids = rows.stream().map(OutboxRow::id).toArray(Long[]::new);
+        jdbcTemplate.update((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement(DELETE_SQL);
+            ps.setArray(1, con.createArrayOf("int8", ids));
+            return ps;
+        });
+        published.increment(rows.size());
+        return rows.size();
+    }
+
+    private MapRecord<byte[], byte[], byte[]> toRecord(int shard, OutboxRow row) {
+        Map<byte[], byte[]> fields = new LinkedHashMap<>();
+        fields.put(bytes("eventId"), bytes(shard + "-" + row.id()));
+        fields.put(bytes("type"), bytes(row.eventType()));
+        fields.put(bytes("aggregateId"), bytes(String.valueOf(row.aggregateId())));
+        if (row.printerId() != null) {
+            fields.put(bytes("printerId"), bytes(row.printerId().toString()));
+        }
+        if (row.departmentId() != null) {
+            fields.put(bytes("departmentId"), bytes(row.departmentId().toString()));
+        }
+        fields.put(bytes("createdAt"), bytes(row.createdAt().toString()));
+        fields.put(bytes("payload"), bytes(row.payload()));
+        return StreamRecords.newRecord().in(bytes(streamPrefix + row.stream())).ofMap(fields);
+    }
+
+    private static OutboxRow toRow(ResultSet rs) throws SQLException {
+        return new OutboxRow(
+            rs.getLong("id"),
+            rs.getString("stream"),
+            rs.getString("event_type"),
+            rs.getLong("aggregate_id"),
+            rs.getObject("printer_id", Long.class),
+            rs.getObject("department_id", Long.class),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toLocalDateTime()
+        );
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("이벤트 직렬화 실패", e);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
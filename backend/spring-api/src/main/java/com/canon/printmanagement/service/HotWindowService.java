@@ -0,0 +1,292 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.hotwindow.ColumnSegment;
+import com.canon.printmanagement.hotwindow.GroupTotals;
+import com.canon.printmanagement.hotwindow.IdSequence;
+import com.canon.printmanagement.hotwindow.JobRow;
+import com.canon.printmanagement.hotwindow.PrintJobColumnStore;
+import com.canon.printmanagement.shard.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 최근 출력 작업 Hot Window 서비스 (선택 기능, canon.hot-window.enabled)
+ *
+ * 최근 N일(기본 90일) 출력 작업을 기본형 컬럼 배열(PrintJobColumnStore)에 보관하여
+ * PrintJobService 의 기간 집계를 JPA 엔티티 로딩/SQL 없이 병렬 스캔으로 처리한다.
+ * - 기동 시 DB 에서 한 번 적재, 이후 tail-interval 마다 샤드별로 print_jobs 를 ID 순으로 이어 읽음
+ *   (다른 인스턴스가 저장한 작업도 반영되므로 모든 인스턴스가 같은 결과를 낸다)
+ * - BIGSERIAL ID 는 INSERT 시점에 발급되므로 더 작은 ID 가 나중에 커밋될 수 있다.
+ *   읽은 최대 ID 아래의 빈 ID 는 gap-timeout 동안 매 주기 다시 조회하고, 그 뒤에는 롤백된 것으로 본다.
+ *   기동 시 적재 범위의 마지막 gap-scan-ids 개 ID 도 같은 방식으로 추적한다 (적재 중 커밋된 작업).
+ *   샤딩 시 샤드 시퀀스는 샤드 수 간격으로 발급하므로 그 샤드가 발급할 수 있는 ID 만 추적한다 (IdSequence).
+ * - 1시간 주기로 기간이 지난 세그먼트 제거
+ * - 메모리: 작업 100만 건당 약 77MB (ColumnSegment.BYTES_PER_ROW = 81)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HotWindowService {
+
+    private static final String COLUMNS = """
+        id, timestamp, printer_id, user_id, department_id, page_count,
+        color_page_count, bw_page_count, copies, paper_size, policy_applied,
+        is_duplex, was_color_converted, was_duplex_enforced, total_cost,
+        color_savings, duplex_savings
+        """;
+    private static final String LOAD_SQL = """
+        SELECT %s
+        FROM print_jobs
+        WHERE timestamp >= ? AND id <= ?
+        """.formatted(COLUMNS);
+    private static final String TAIL_SQL = """
+        SELECT %s
+        FROM print_jobs
+        WHERE id > ? AND timestamp >= ?
+        ORDER BY id
+        LIMIT ?
+        """.formatted(COLUMNS);
+    private static final String GAP_SQL = """
+        SELECT %s
+        FROM print_jobs
+        WHERE id = ANY(?) AND timestamp >= ?
+        """.formatted(COLUMNS);
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final ShardRouter shardRouter;
+
+    @Value("${canon.hot-window.enabled:false}")
+    private Boolean enabled;
+
+    @Value("${canon.hot-window.days:90}")
+    private Integer windowDays;
+
+    @Value("${canon.hot-window.segment-capacity:65536}")
+    private Integer segmentCapacity;
+
+    @Value("${canon.hot-window.tail-batch-size:10000}")
+    private Integer tailBatchSize;
+
+    @Value("${canon.hot-window.gap-timeout-seconds:300}")
+    private Integer gapTimeoutSeconds;
+
+    @Value("${canon.hot-window.gap-scan-ids:10000}")
+    private Integer gapScanIds;
+
+    private PrintJobColumnStore store;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private volatile boolean ready;
+    private volatile LocalDateTime coveredFrom;
+
+    // 샤드별 이어 읽기 위치 (적재 스레드가 만든 뒤 tail 스케줄러만 사용)
+    private volatile ShardTail[] tails;
+
+    /**
+     * 샤드별 이어 읽기 위치
+     */
+    private static class ShardTail {
+
+        private final IdSequence sequence;
+        private long highWater;
+        // 아직 보이지 않은 ID → 처음 빈 것을 확인한 시각 (epoch millis)
+        private final TreeMap<Long, Long> gaps = new TreeMap<>();
+
+        private ShardTail(IdSequence sequence) {
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * 기동 후 백그라운드 적재
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        store = new PrintJobColumnStore(segmentCapacity);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(10_000);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        CompletableFuture.runAsync(this::load).exceptionally(e -> {
+            log.error("Hot Window 적재 실패 - DB 조회로 동작", e);
+            return null;
+        });
+    }
+
+    private void load() {
+        long started = System.currentTimeMillis();
+        LocalDateTime since = LocalDateTime.now().minusDays(windowDays);
+        int shardCount = shardRouter.shardCount();
+        ShardTail[] loaded = new ShardTail[shardCount];
+
+        // 샤드마다 스냅샷 최대 ID 까지 적재 (샤드별 ID 시퀀스는 서로 겹치지 않게 설정됨)
+        shardRouter.forEachShard(readOnly, shard -> {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM print_jobs", Long.class);
+            long snapshotMaxId = maxId != null ? maxId : 0L;
+            ShardTail tail = new ShardTail(IdSequence.ofShard(shard, shardCount));
+
+            // 마지막 gap-scan-ids 개 ID 중 적재되지 않은 ID 는 진행 중이던 트랜잭션일 수 있음
+            long recentFrom = Math.max(0, snapshotMaxId - (long) gapScanIds * tail.sequence.stride());
+            BitSet recent = new BitSet(gapScanIds);
+            jdbcTemplate.query(LOAD_SQL, (ResultSet rs) -> {
+                JobRow row = toRow(rs);
+                store.append(row);
+                if (row.id > recentFrom) {
+                    recent.set(tail.sequence.indexAfter(recentFrom, row.id));
+                }
+            }, Timestamp.valueOf(since), snapshotMaxId);
+
+            tail.highWater = snapshotMaxId;
+            long now = System.currentTimeMillis();
+            for (long id = tail.sequence.next(recentFrom); id <= snapshotMaxId; id = tail.sequence.next(id)) {
+                if (!recent.get(tail.sequence.indexAfter(recentFrom, id))) {
+                    tail.gaps.put(id, now);
+                }
+            }
+            loaded[shard] = tail;
+        });
+
+        tails = loaded;
+        coveredFrom = since;
+        ready = true;
+        log.info("Hot Window 적재 완료: {}건, {}MB, {}ms",
+            store.rowCount(), store.allocatedBytes() / (1024 * 1024), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * 샤드별 신규/늦게 커밋된 작업 반영 (기본 2초 주기)
+     */
+    @Scheduled(fixedDelayString = "${canon.hot-window.tail-interval-ms:2000}")
+    public void tail() {
+        if (!ready) {
+            return;
+        }
+        Timestamp since = Timestamp.valueOf(LocalDateTime.now().minusDays(windowDays));
+        try {
+            shardRouter.forEachShard(readOnly, shard -> tail(tails[shard], since));
+        } catch (RuntimeException e) {
+            log.warn("Hot Window 반영 실패: {}", e.getMessage());
+        }
+    }
+
+    private void tail(ShardTail state, Timestamp since) {
+        long now = System.currentTimeMillis();
+
+        // 1) 이전 주기에 비어 있던 ID (늦게 커밋된 트랜잭션), 오래된 빈 ID 는 롤백으로 보고 제외
+        state.gaps.values().removeIf(firstMissingAt -> now - firstMissingAt > gapTimeoutSeconds * 1000L);
+        if (!state.gaps.isEmpty()) {
+            Long[] ids = state.gaps.keySet().toArray(Long[]::new);
+            jdbcTemplate.query((Connection con) -> {
+                PreparedStatement ps = con.prepareStatement(GAP_SQL);
+                ps.setArray(1, con.createArrayOf("int8", ids));
+                ps.setTimestamp(2, since);
+                return ps;
+            }, (ResultSet rs) -> {
+                JobRow row = toRow(rs);
+                store.append(row);
+                state.gaps.remove(row.id);
+            });
+        }
+
+        // 2) 읽은 최대 ID 이후
+        List<JobRow> batch;
+        do {
+            batch = jdbcTemplate.query(TAIL_SQL, (rs, rowNum) -> toRow(rs), state.highWater, since, tailBatchSize);
+            for (JobRow row : batch) {
+                // 건너뛴 ID 는 아직 커밋되지 않았을 수 있음 (너무 큰 구간은 마지막 gap-scan-ids 개만)
+                long skippedFrom = Math.max(state.highWater, row.id - 1 - (long) gapScanIds * state.sequence.stride());
+                for (long id = state.sequence.next(skippedFrom); id < row.id; id = state.sequence.next(id)) {
+                    state.gaps.put(id, now);
+                }
+                store.append(row);
+                state.highWater = row.id;
+            }
+        } while (batch.size() == tailBatchSize);
+    }
+
+    /**
+     * 기간이 지난 세그먼트 제거 (1시간 주기)
+     */
+    @Scheduled(fixedDelayString = "${canon.hot-window.evict-interval-ms:3600000}")
+    public void evict() {
+        if (!ready) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(windowDays);
+        int evicted = store.evictBefore(toMillis(cutoff));
+        coveredFrom = cutoff;
+        if (evicted > 0) {
+            log.info("Hot Window 세그먼트 제거: {}건 (보관 {}건)", evicted, store.rowCount());
+        }
+    }
+
+    /**
+     * 시작 시점이 Hot Window 보관 구간 안인지
+     */
+    public boolean covers(LocalDateTime startDate) {
+        return ready && !startDate.isBefore(coveredFrom);
+    }
+
+    /**
+     * [startDate, endDate] 구간 그룹별 집계
+     */
+    public GroupTotals aggregate(
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        Long departmentId,
+        ColumnSegment.GroupBy groupBy
+    ) {
+        return store.aggregate(toMillis(startDate), toMillis(endDate), departmentId, groupBy);
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static JobRow toRow(ResultSet rs) throws SQLException {
+        JobRow row = new JobRow();
+        row.id = rs.getLong("id");
+        row.timestamp = toMillis(rs.getTimestamp("timestamp").toLocalDateTime());
+        row.printerId = rs.getLong("printer_id");
+        row.userId = rs.getLong("user_id");
+        row.departmentId = rs.getLong("department_id");
+        row.pageCount = rs.getInt("page_count");
+        row.colorPageCount = rs.getInt("color_page_count");
+        row.bwPageCount = rs.getInt("bw_page_count");
+        row.copies = rs.getInt("copies");
+        row.paperSize = rs.getString("paper_size");
+        row.policyApplied = rs.getString("policy_applied");
+        row.duplex = rs.getBoolean("is_duplex");
+        row.colorConverted = rs.getBoolean("was_color_converted");
+        row.duplexEnforced = rs.getBoolean("was_duplex_enforced");
+        row.costCents = TariffService.toMinor(rs.getBigDecimal("total_cost"));
+        row.colorSavingsCents = TariffService.toMinor(rs.getBigDecimal("color_savings"));
+        row.duplexSavingsCents = TariffService.toMinor(rs.getBigDecimal("duplex_savings"));
+        return row;
+    }
+}
@@ -0,0 +1,322 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.dto.MeterReconciliationDay;
+import com.canon.printmanagement.dto.MeterReconciliationItem;
+import com.canon.printmanagement.reconciliation.MeterInterval;
+import com.canon.printmanagement.reconciliation.PrinterMeterTrack;
+import com.canon.printmanagement.shard.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * 장비 미터 ↔ 출력 작업 대사 서비스
+ *
+ * printer_status 의 SNMP 누적 카운터(total_page_count, color_page_count) 증가량과
+ * 같은 구간 print_jobs 합계를 비교하여 출력 서버를 거치지 않은 출력(직접 복사 등)을 찾는다.
+ * - 실행마다 (직전 실행 끝, 지금 - settle-minutes] 구간의 판독값과 작업만 한 번씩 읽음
+ * - 두 스트림 모두 (printer_id, timestamp) 순이므로 프린터별 판독 구간에 작업을 순서대로 병합
+ * - 프린터별 마지막 판독값과 그 이후 작업 합계는 printer_meter_cursors 에 보관 (다음 실행의 기준점)
+ * - 결과는 프린터/일 단위(printer_meter_reconciliation)로 누적하여 조회는 일별 행 합산만 수행
+ * settle-minutes 보다 늦게 수집된 작업은 대사에 포함되지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MeterReconciliationService {
+
+    // pg_try_advisory_xact_lock 키 (여러 인스턴스 중 하나만 실행)
+    private static final long LOCK_KEY = 0x4D45544552L;
+
+    private static final String WATERMARK_SQL = "SELECT MAX(window_end) FROM meter_reconciliation_runs";
+    private static final String CURSORS_SQL = """
+        SELECT printer_id, last_reading_at, last_total_page_count, last_color_page_count,
+               pending_job_pages, pending_job_color_pages
+        FROM printer_meter_cursors
+        """;
+    private static final String READINGS_SQL = """
+        SELECT printer_id, timestamp, total_page_count, COALESCE(color_page_count, 0) AS color_page_count
+        FROM printer_status
+        WHERE timestamp > ? AND timestamp <= ? AND total_page_count IS NOT NULL
+        ORDER BY printer_id, timestamp
+        """;
+    private static final String JOBS_SQL = """
+        SELECT printer_id, timestamp,
+               page_count * COALESCE(copies, 1) AS pages,
+               COALESCE(color_page_count, 0) * COALESCE(copies, 1) AS color_pages
+        FROM print_jobs
+        WHERE timestamp > ? AND timestamp <= ? AND COALESCE(status, 'COMPLETED') = 'COMPLETED'
+        ORDER BY printer_id, timestamp
+        """;
+    private static final String UPSERT_DAY_SQL = """
+        INSERT INTO printer_meter_reconciliation (printer_id, day, meter_pages, meter_color_pages,
+            job_pages, job_color_pages, intervals, meter_resets, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT (printer_id, day) DO UPDATE SET
+            meter_pages = printer_meter_reconciliation.meter_pages + EXCLUDED.meter_pages,
+            meter_color_pages = printer_meter_reconciliation.meter_color_pages + EXCLUDED.meter_color_pages,
+            job_pages = printer_meter_reconciliation.job_pages + EXCLUDED.job_pages,
+            job_color_pages = printer_meter_reconciliation.job_color_pages + EXCLUDED.job_color_pages,
+            intervals = printer_meter_reconciliation.intervals + EXCLUDED.intervals,
+            meter_resets = printer_meter_reconciliation.meter_resets + EXCLUDED.meter_resets,
+            updated_at = EXCLUDED.updated_at
+        """;
+    private static final String UPSERT_CURSOR_SQL = """
+        INSERT INTO printer_meter_cursors (printer_id, last_reading_at, last_total_page_count,
+            last_color_page_count, pending_job_pages, pending_job_color_pages, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT (printer_id) DO UPDATE SET
+            last_reading_at = EXCLUDED.last_reading_at,
+            last_total_page_count = EXCLUDED.last_total_page_count,
+            last_color_page_count = EXCLUDED.last_color_page_count,
+            pending_job_pages = EXCLUDED.pending_job_pages,
+            pending_job_color_pages = EXCLUDED.pending_job_color_pages,
+            updated_at = EXCLUDED.updated_at
+        """;
+    private static final String INSERT_RUN_SQL = """
+        INSERT INTO meter_reconciliation_runs (window_start, window_end, readings, jobs, intervals,
+            unbilled_pages, duration_ms, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+    private static final String SUMMARY_SQL = """
+        SELECT r.printer_id, p.name, p.location,
+               SUM(r.meter_pages) AS meter_pages, SUM(r.meter_color_pages) AS meter_color_pages,
+               SUM(r.job_pages) AS job_pages, SUM(r.job_color_pages) AS job_color_pages,
+               SUM(r.meter_pages - r.job_pages) AS unbilled_pages,
+               SUM(r.meter_color_pages - r.job_color_pages) AS unbilled_color_pages,
+               SUM(r.intervals) AS intervals, SUM(r.meter_resets) AS meter_resets,
+               c.last_reading_at
+        FROM printer_meter_reconciliation r
+        JOIN printers p ON p.id = r.printer_id
+        LEFT JOIN printer_meter_cursors c ON c.printer_id = r.printer_id
+        WHERE r.day >= ?
+        GROUP BY r.printer_id, p.name, p.location, c.last_reading_at
+        HAVING SUM(r.meter_pages - r.job_pages) >= ?
+        ORDER BY unbilled_pages DESC
+        LIMIT ?
+        """;
+    private static final String DAYS_SQL = """
+        SELECT day, meter_pages, meter_color_pages, job_pages, job_color_pages, intervals, meter_resets
+        FROM printer_meter_reconciliation
+        WHERE printer_id = ? AND day >= ?
+        ORDER BY day
+        """;
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final ShardRouter shardRouter;
+
+    @Value("${canon.reconciliation.enabled:true}")
+    private Boolean enabled;
+
+    // 이보다 최근 구간은 작업 수집 지연을 고려해 다음 실행에서 처리
+    @Value("${canon.reconciliation.settle-minutes:15}")
+    private Integer settleMinutes;
+
+    // 첫 실행 시 대사 시작 시점 (지금 - N시간)
+    @Value("${canon.reconciliation.initial-lookback-hours:24}")
+    private Integer initialLookbackHours;
+
+    // 한 번의 실행이 처리하는 최대 구간 (장기 중단 후 메모리 제한)
+    @Value("${canon.reconciliation.max-window-hours:24}")
+    private Integer maxWindowHours;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate shardReadTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(10_000);
+
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        // 실행 트랜잭션(홈 샤드)을 잠시 멈추고 샤드별 작업을 읽음
+        shardReadTransaction = new TransactionTemplate(transactionManager);
+        shardReadTransaction.setReadOnly(true);
+        shardReadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 증분 대사 실행 (5분 주기)
+     */
+    @Scheduled(fixedDelayString = "${canon.reconciliation.interval-ms:300000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            shardRouter.onHome(() -> writeTransaction.execute(status -> {
+                Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+                if (Boolean.TRUE.equals(locked)) {
+                    run();
+                }
+                return null;
+            }));
+        } catch (RuntimeException e) {
+            log.error("미터 대사 실패", e);
+        }
+    }
+
+    // 실행 트랜잭션 안에서 호출 (잠금 보유)
+    private void run() {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+
+        Timestamp watermark = jdbcTemplate.queryForObject(WATERMARK_SQL, Timestamp.class);
+        LocalDateTime from = watermark != null ? watermark.toLocalDateTime() : now.minusHours(initialLookbackHours);
+        LocalDateTime upTo = now.minusMinutes(settleMinutes);
+        if (upTo.isAfter(from.plusHours(maxWindowHours))) {
+            upTo = from.plusHours(maxWindowHours);
+        }
+        if (!upTo.isAfter(from)) {
+            return;
+        }
+
+        Map<Long, PrinterMeterTrack> tracks = new HashMap<>();
+        jdbcTemplate.query(CURSORS_SQL, (ResultSet rs) -> {
+            PrinterMeterTrack track = new PrinterMeterTrack(rs.getLong("printer_id"));
+            track.restore(rs.getTimestamp("last_reading_at").toLocalDateTime(),
+                rs.getLong("last_total_page_count"), rs.getLong("last_color_page_count"),
+                rs.getLong("pending_job_pages"), rs.getLong("pending_job_color_pages"));
+            tracks.put(track.getPrinterId(), track);
+        });
+
+        long[] readings = {0};
+        jdbcTemplate.query(READINGS_SQL, (ResultSet rs) -> {
+            tracks.computeIfAbsent(rs.getLong("printer_id"), PrinterMeterTrack::new)
+                .addReading(rs.getTimestamp("timestamp").toLocalDateTime(),
+                    rs.getLong("total_page_count"), rs.getLong("color_page_count"));
+            readings[0]++;
+        }, Timestamp.valueOf(from), Timestamp.valueOf(upTo));
+
+        // 샤드마다 (printer_id, timestamp) 순 작업 스트림을 프린터별 판독 구간에 병합
+        long[] jobs = {0};
+        Timestamp jobsFrom = Timestamp.valueOf(from);
+        Timestamp jobsTo = Timestamp.valueOf(upTo);
+        shardRouter.forEachShard(shardReadTransaction, shard -> {
+            tracks.values().forEach(PrinterMeterTrack::beginStream);
+            PrinterMeterTrack[] current = {null};
+            jdbcTemplate.query(JOBS_SQL, (ResultSet rs) -> {
+                long printerId = rs.getLong("printer_id");
+                if (current[0] == null || current[0].getPrinterId() != printerId) {
+                    current[0] = tracks.get(printerId);
+                }
+                if (current[0] != null) {
+                    current[0].addJob(rs.getTimestamp("timestamp").toLocalDateTime(),
+                        rs.getLong("pages"), rs.getLong("color_pages"));
+                }
+                jobs[0]++;
+            }, jobsFrom, jobsTo);
+        });
+
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        Map<Long, Map<LocalDate, long[]>> days = new HashMap<>();
+        List<Object[]> cursorRows = new ArrayList<>();
+        int intervals = 0;
+        long unbilled = 0;
+        for (PrinterMeterTrack track : tracks.values()) {
+            if (!track.hasBaseline()) {
+                continue; // 미터 판독값이 없는 프린터
+            }
+            for (MeterInterval interval : track.intervals()) {
+                long[] totals = days.computeIfAbsent(track.getPrinterId(), id -> new TreeMap<>())
+                    .computeIfAbsent(interval.to().toLocalDate(), day -> new long[6]);
+                if (interval.meterReset()) {
+                    totals[5]++;
+                } else {
+                    totals[0] += interval.meterPages();
+                    totals[1] += interval.meterColorPages();
+                    totals[2] += interval.jobPages();
+                    totals[3] += interval.jobColorPages();
+                    unbilled += interval.unbilledPages();
+                }
+                totals[4]++;
+                intervals++;
+            }
+            cursorRows.add(new Object[] {
+                track.getPrinterId(), Timestamp.valueOf(track.lastReadingAt()), track.lastTotal(), track.lastColor(),
+                track.pendingPages(), track.pendingColorPages(), updatedAt
+            });
+        }
+
+        List<Object[]> dayRows = new ArrayList<>();
+        days.forEach((printerId, byDay) -> byDay.forEach((day, totals) -> dayRows.add(new Object[] {
+            printerId, day, totals[0], totals[1], totals[2], totals[3], (int) totals[4], (int) totals[5], updatedAt
+        })));
+        jdbcTemplate.batchUpdate(UPSERT_DAY_SQL, dayRows);
+        jdbcTemplate.batchUpdate(UPSERT_CURSOR_SQL, cursorRows);
+        long elapsed = System.currentTimeMillis() - started;
+        jdbcTemplate.update(INSERT_RUN_SQL, Timestamp.valueOf(from), Timestamp.valueOf(upTo),
+            readings[0], jobs[0], intervals, unbilled, elapsed, updatedAt);
+
+        log.info("미터 대사: {} ~ {}, 판독 {}건, 작업 {}건, 구간 {}개, 미기록 {}페이지 ({}ms)",
+            from, upTo, readings[0], jobs[0], intervals, unbilled, elapsed);
+    }
+
+    /**
+     * 미기록 페이지가 많은 프린터 (최근 N일)
+     */
+    public List<MeterReconciliationItem> getDiscrepancies(int days, long minUnbilledPages, int limit) {
+        LocalDate since = LocalDate.now().minusDays(days);
+        return readOnly(() -> jdbcTemplate.query(SUMMARY_SQL, (rs, rowNum) -> new MeterReconciliationItem(
+            rs.getLong("printer_id"),
+            rs.getString("name"),
+            rs.getString("location"),
+            rs.getLong("meter_pages"),
+            rs.getLong("meter_color_pages"),
+            rs.getLong("job_pages"),
+            rs.getLong("job_color_pages"),
+            rs.getLong("unbilled_pages"),
+            rs.getLong("unbilled_color_pages"),
+            rs.getLong("intervals"),
+            rs.getLong("meter_resets"),
+            rs.getTimestamp("last_reading_at") != null ? rs.getTimestamp("last_reading_at").toLocalDateTime() : null
+        ), since, minUnbilledPages, limit));
+    }
+
+    /**
+     * 프린터 1대의 일별 대사 결과 (최근 N일)
+     */
+    public List<MeterReconciliationDay> getDays(Long printerId, int days) {
+        LocalDate since = LocalDate.now().minusDays(days);
+        return readOnly(() -> jdbcTemplate.query(DAYS_SQL, (rs, rowNum) -> new MeterReconciliationDay(
+            rs.getDate("day").toLocalDate(),
+            rs.getLong("meter_pages"),
+            rs.getLong("meter_color_pages"),
+            rs.getLong("job_pages"),
+            rs.getLong("job_color_pages"),
+            rs.getLong("meter_pages") - rs.getLong("job_pages"),
+            rs.getLong("meter_color_pages") - rs.getLong("job_color_pages"),
+            rs.getInt("intervals"),
+            rs.getInt("meter_resets")
+        ), printerId, since));
+    }
+
+    private <T> T readOnly(Supplier<T> query) {
+        return shardRouter.onHome(() -> readOnlyTransaction.execute(status -> query.get()));
+    }
+}
@@ -0,0 +1,472 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.dto.PolicySimulationRequest;
+import com.canon.printmanagement.dto.PolicySimulationResponse;
+import com.canon.printmanagement.shard.ShardRouter;
+import com.canon.printmanagement.tariff.Tariff;
+import com.canon.printmanagement.tariff.TariffTable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 비용 절감 정책 시뮬레이션 서비스 (what-if)
+ *
+ * 과거 출력 작업을 CostOptimizationService 와 같은 판단 규칙으로 다시 평가하여
+ * 정책 설정 변경 시의 부서별 절감 효과를 계산한다. DB 에는 아무것도 쓰지 않는다.
+ * - 작업은 fetch size 커서로 한 번만 읽고, 청크 단위로 fork/join 풀에 분배
+ * - 각 작업은 모든 시나리오(+ 현재 설정 baseline)에 대해 한 번에 평가
+ * - 저장된 작업은 정책 적용 후 값이므로 요청 원본(양면 여부, 컬러 페이지 수)을 역산해서 재평가
+ * - 절감액은 저장 시와 같은 단가표(TariffService)로 계산
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PolicySimulationService {
+
+    private static final String REPLAY_SQL = """
+        SELECT printer_id, department_id, page_count, color_page_count, bw_page_count, copies,
+               is_duplex, paper_size, was_color_converted, was_duplex_enforced, color_savings
+        FROM print_jobs
+        WHERE timestamp >= ? AND timestamp < ?
+        """;
+
+    // 시나리오별 누적 측정값
+    private static final int JOBS = 0;
+    private static final int COLOR_CONVERTED = 1;
+    private static final int DUPLEX_ENFORCED = 2;
+    private static final int COLOR_SAVINGS_MINOR = 3;  // 0.01원 단위
+    private static final int DUPLEX_SAVINGS_MINOR = 4;
+    private static final int MEASURES = 5;
+
+    // 이 크기 이하 구간은 분할하지 않고 직접 평가
+    private static final int SPLIT_THRESHOLD = 4096;
+
+    private final CostOptimizationService costOptimizationService;
+    private final TariffService tariffService;
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final ShardRouter shardRouter;
+
+    @Value("${canon.simulation.max-scenarios:8}")
+    private Integer maxScenarios;
+
+    @Value("${canon.simulation.max-range-days:366}")
+    private Integer maxRangeDays;
+
+    @Value("${canon.simulation.chunk-size:65536}")
+    private Integer chunkSize;
+
+    @Value("${canon.simulation.parallelism:0}")
+    private Integer parallelism;
+
+    @Value("${canon.simulation.query-timeout-seconds:300}")
+    private Integer queryTimeoutSeconds;
+
+    private ForkJoinPool pool;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(10_000);
+        jdbcTemplate.setQueryTimeout(queryTimeoutSeconds);
+
+        // PostgreSQL 은 트랜잭션(autocommit off) 안에서만 커서 단위 fetch 를 사용
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 정책 시나리오 시뮬레이션
+     */
+    public PolicySimulationResponse simulate(PolicySimulationRequest request) {
+        validate(request);
+
+        // 0번 = 현재 운영 설정 (baseline)
+        List<PolicySimulationRequest.Scenario> scenarios = request.getScenarios();
+        Policy[] policies = new Policy[scenarios.size() + 1];
+        policies[0] = new Policy(
+            costOptimizationService.isAutoConvertColorToBw(),
+            costOptimizationService.isForceDuplex(),
+            costOptimizationService.getColorImageThreshold(),
+            null
+        );
+        for (int i = 0; i < scenarios.size(); i++) {
+            policies[i + 1] = resolve(scenarios.get(i), policies[0]);
+        }
+
+        long started = System.currentTimeMillis();
+        Replay replay = new Replay(policies, policies[0].threshold, tariffService.currentTable());
+        // 샤딩 시 샤드마다 차례로 읽어 같은 Replay 로 합산
+        shardRouter.forEachShard(readOnlyTransaction, shard -> jdbcTemplate.query(REPLAY_SQL, replay,
+            Timestamp.valueOf(request.getStartDate()), Timestamp.valueOf(request.getEndDate())));
+        Totals totals = replay.finish();
+        long elapsed = System.currentTimeMillis() - started;
+
+        log.info("정책 시뮬레이션 완료: 시나리오 {}개, 작업 {}건, {}ms",
+            scenarios.size(), replay.rows, elapsed);
+
+        PolicySimulationResponse.ScenarioResult baseline = toResult("current", policies, 0, totals);
+        List<PolicySimulationResponse.ScenarioResult> results = new ArrayList<>();
+        for (int i = 0; i < scenarios.size(); i++) {
+            String name = scenarios.get(i).getName() != null ? scenarios.get(i).getName() : "scenario-" + (i + 1);
+            results.add(toResult(name, policies, i + 1, totals));
+        }
+
+        return PolicySimulationResponse.builder()
+            .periodStart(request.getStartDate())
+            .periodEnd(request.getEndDate())
+            .jobsReplayed(replay.rows)
+            .estimatedColorJobs(replay.estimatedColorJobs)
+            .elapsedMs(elapsed)
+            .baseline(baseline)
+            .scenarios(results)
+            .build();
+    }
+
+    private void validate(PolicySimulationRequest request) {
+        if (request.getStartDate() == null || request.getEndDate() == null) {
+            throw badRequest("startDate, endDate 는 필수입니다");
+        }
+        if (!request.getStartDate().isBefore(request.getEndDate())) {
+            throw badRequest("startDate 는 endDate 보다 이전이어야 합니다");
+        }
+        if (Duration.between(request.getStartDate(), request.getEndDate()).toDays() > maxRangeDays) {
+            throw badRequest("시뮬레이션 기간은 최대 " + maxRangeDays + "일입니다");
+        }
+        if (request.getScenarios() == null || request.getScenarios().isEmpty()) {
+            throw badRequest("시나리오를 하나 이상 지정해야 합니다");
+        }
+        if (request.getScenarios().size() > maxScenarios) {
+            throw badRequest("시나리오는 최대 " + maxScenarios + "개입니다");
+        }
+        for (PolicySimulationRequest.Scenario scenario : request.getScenarios()) {
+            Double threshold = scenario.getColorImageThreshold();
+            if (threshold != null && (threshold < 0 || threshold > 1)) {
+                throw badRequest("colorImageThreshold 는 0 ~ 1 사이여야 합니다: " + threshold);
+            }
+        }
+    }
+
+    private static Policy resolve(PolicySimulationRequest.Scenario scenario, Policy current) {
+        long[] departments = null;
+        if (scenario.getDepartmentIds() != null && !scenario.getDepartmentIds().isEmpty()) {
+            departments = new TreeSet<>(scenario.getDepartmentIds()).stream().mapToLong(Long::longValue).toArray();
+        }
+        return new Policy(
+            scenario.getAutoConvertColorToBw() != null ? scenario.getAutoConvertColorToBw() : current.convert,
+            scenario.getForceDuplex() != null ? scenario.getForceDuplex() : current.duplex,
+            scenario.getColorImageThreshold() != null ? scenario.getColorImageThreshold() : current.threshold,
+            departments
+        );
+    }
+
+    private PolicySimulationResponse.ScenarioResult toResult(String name, Policy[] policies, int index, Totals totals) {
+        Policy policy = policies[index];
+        int base = index * MEASURES;
+        BigDecimal total = BigDecimal.ZERO;
+        BigDecimal delta = BigDecimal.ZERO;
+
+        List<PolicySimulationResponse.DepartmentResult> departments = new ArrayList<>();
+        List<Long> departmentIds = new ArrayList<>(totals.byDepartment.keySet());
+        departmentIds.sort(null);
+
+        for (Long departmentId : departmentIds) {
+            long[] measures = totals.byDepartment.get(departmentId);
+            BigDecimal colorSavings = TariffService.toAmount(measures[base + COLOR_SAVINGS_MINOR]);
+            BigDecimal duplexSavings = TariffService.toAmount(measures[base + DUPLEX_SAVINGS_MINOR]);
+            BigDecimal savings = colorSavings.add(duplexSavings);
+            BigDecimal baselineSavings = TariffService.toAmount(
+                measures[COLOR_SAVINGS_MINOR] + measures[DUPLEX_SAVINGS_MINOR]);
+
+            total = total.add(savings);
+            delta = delta.add(savings.subtract(baselineSavings));
+
+            departments.add(PolicySimulationResponse.DepartmentResult.builder()
+                .departmentId(departmentId)
+                .totalJobs(measures[base + JOBS])
+                .colorConvertedCount(measures[base + COLOR_CONVERTED])
+                .duplexEnforcedCount(measures[base + DUPLEX_ENFORCED])
+                .colorSavings(colorSavings)
+                .duplexSavings(duplexSavings)
+                .totalSavings(savings)
+                .savingsDelta(savings.subtract(baselineSavings))
+                .build());
+        }
+
+        return PolicySimulationResponse.ScenarioResult.builder()
+            .name(name)
+            .autoConvertColorToBw(policy.convert)
+            .forceDuplex(policy.duplex)
+            .colorImageThreshold(policy.threshold)
+            .departmentIds(policy.departments != null ? Arrays.stream(policy.departments).boxed().toList() : null)
+            .totalSavings(total)
+            .savingsDelta(delta)
+            .departments(departments)
+            .build();
+    }
+
+    private static ResponseStatusException badRequest(String message) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+    }
+
+    /**
+     * 시나리오 하나의 정책 설정
+     */
+    private static final class Policy {
+        final boolean convert;
+        final boolean duplex;
+        final double threshold;
+        final long[] departments; // 정렬됨, null 이면 전체
+
+        Policy(boolean convert, boolean duplex, double threshold, long[] departments) {
+            this.convert = convert;
+            this.duplex = duplex;
+            this.threshold = threshold;
+            this.departments = departments;
+        }
+
+        boolean appliesTo(long departmentId) {
+            return departments == null || Arrays.binarySearch(departments, departmentId) >= 0;
+        }
+    }
+
+    /**
+     * 요청 원본으로 역산한 작업 청크 (기본형 배열)
+     */
+    private static final class Chunk {
+        final long[] departmentIds;
+        final int[] pageCounts;
+        final int[] colorPageCounts;
+        final int[] bwPageCounts;
+        final int[] copies;
+        final boolean[] duplex;
+        final String[] paperSizes;
+        final Tariff[] tariffs;
+        int size;
+
+        Chunk(int capacity) {
+            departmentIds = new long[capacity];
+            pageCounts = new int[capacity];
+            colorPageCounts = new int[capacity];
+            bwPageCounts = new int[capacity];
+            copies = new int[capacity];
+            duplex = new boolean[capacity];
+            paperSizes = new String[capacity];
+            tariffs = new Tariff[capacity];
+        }
+
+        boolean isFull() {
+            return size == departmentIds.length;
+        }
+    }
+
+    /**
+     * 부서별 × 시나리오별 누적값
+     */
+    private static final class Totals {
+        final Map<Long, long[]> byDepartment = new HashMap<>();
+        final int width;
+
+        Totals(int scenarios) {
+            width = scenarios * MEASURES;
+        }
+
+        long[] of(long departmentId) {
+            return byDepartment.computeIfAbsent(departmentId, k -> new long[width]);
+        }
+
+        Totals merge(Totals other) {
+            other.byDepartment.forEach((departmentId, measures) -> {
+                long[] target = of(departmentId);
+                for (int i = 0; i < width; i++) {
+                    target[i] += measures[i];
+                }
+            });
+            return this;
+        }
+    }
+
+    /**
+     * 청크 구간 재평가 (fork/join)
+     */
+    private static final class ReplayTask extends RecursiveTask<Totals> {
+        private final Chunk chunk;
+        private final Policy[] policies;
+        private final int from;
+        private final int to;
+
+        ReplayTask(Chunk chunk, Policy[] policies, int from, int to) {
+            this.chunk = chunk;
+            this.policies = policies;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                ReplayTask left = new ReplayTask(chunk, policies, from, mid);
+                left.fork();
+                Totals right = new ReplayTask(chunk, policies, mid, to).compute();
+                return left.join().merge(right);
+            }
+
+            Totals totals = new Totals(policies.length);
+            for (int i = from; i < to; i++) {
+                long departmentId = chunk.departmentIds[i];
+                int pages = chunk.pageCounts[i];
+                int colorPages = chunk.colorPageCounts[i];
+                int copies = chunk.copies[i];
+                Tariff tariff = chunk.tariffs[i];
+                boolean duplexCandidate = CostOptimizationService.isDuplexCandidate(
+                    chunk.duplex[i], chunk.paperSizes[i], pages);
+                long[] measures = totals.of(departmentId);
+
+                // PrintJobService.calculateCost 와 같은 계산 (변환 시 컬러 페이지를 흑백 단가로)
+                long bwCost = tariff.bwCost(chunk.bwPageCounts[i], copies);
+                long colorCost = tariff.colorCost(colorPages, copies);
+                long convertedCost = tariff.bwCost(chunk.bwPageCounts[i] + colorPages, copies);
+
+                for (int p = 0; p < policies.length; p++) {
+                    Policy policy = policies[p].appliesTo(departmentId) ? policies[p] : policies[0];
+                    int base = p * MEASURES;
+                    measures[base + JOBS]++;
+
+                    boolean converted = policy.convert
+                        && CostOptimizationService.isColorConversionCandidate(colorPages, pages, policy.threshold);
+                    if (converted) {
+                        measures[base + COLOR_CONVERTED]++;
+                        measures[base + COLOR_SAVINGS_MINOR] += tariff.colorConversionSavings(colorPages, copies);
+                    }
+                    if (policy.duplex && duplexCandidate) {
+                        long grossCost = converted ? convertedCost : bwCost + colorCost;
+                        measures[base + DUPLEX_ENFORCED]++;
+                        measures[base + DUPLEX_SAVINGS_MINOR] += tariff.duplexDiscount(pages, copies, grossCost);
+                    }
+                }
+            }
+            return totals;
+        }
+    }
+
+    /**
+     * 커서로 읽은 행을 청크로 모아 풀에 제출 (동시에 처리 중인 청크 수 제한)
+     */
+    private final class Replay implements RowCallbackHandler {
+        private final Policy[] policies;
+        private final double liveThreshold;
+        private final TariffTable tariffTable;
+        private final int maxInFlight = pool.getParallelism() * 2;
+        private final Deque<ForkJoinTask<Totals>> inFlight = new ArrayDeque<>();
+        private Totals result;
+        private Chunk chunk;
+        long rows;
+        long estimatedColorJobs;
+
+        Replay(Policy[] policies, double liveThreshold, TariffTable tariffTable) {
+            this.policies = policies;
+            this.liveThreshold = liveThreshold;
+            this.tariffTable = tariffTable;
+            this.result = new Totals(policies.length);
+            this.chunk = new Chunk(chunkSize);
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            int i = chunk.size;
+            int pages = rs.getInt("page_count");
+            int colorPages = rs.getInt("color_page_count");
+            int bwPages = rs.getInt("bw_page_count");
+            int copies = Math.max(rs.getInt("copies"), 1);
+            String paperSize = rs.getString("paper_size");
+            Tariff tariff = tariffTable.lookup(rs.getLong("printer_id"), paperSize);
+
+            // 흑백 변환된 작업은 원본 컬러 페이지 수가 남지 않음 →
+            // 저장된 절감액에서 역산, 없으면 현재 임계값 이하였다는 것만 알 수 있으므로 그 상한으로 추정
+            if (rs.getBoolean("was_color_converted")) {
+                long savings = TariffService.toMinor(rs.getBigDecimal("color_savings"));
+                long perPage = tariff.colorConversionSavingsPerPage() * copies;
+                if (savings > 0 && perPage > 0) {
+                    colorPages = (int) Math.min(savings / perPage, bwPages);
+                } else {
+                    int estimate = Math.max(1, (int) Math.floor(pages * liveThreshold));
+                    colorPages = Math.min(estimate, Math.max(bwPages, 1));
+                    estimatedColorJobs++;
+                }
+                bwPages = Math.max(bwPages - colorPages, 0);
+            }
+
+            chunk.departmentIds[i] = rs.getLong("department_id");
+            chunk.pageCounts[i] = pages;
+            chunk.colorPageCounts[i] = colorPages;
+            chunk.bwPageCounts[i] = bwPages;
+            chunk.copies[i] = copies;
+            chunk.tariffs[i] = tariff;
+            chunk.duplex[i] = rs.getBoolean("is_duplex") && !rs.getBoolean("was_duplex_enforced");
+            chunk.paperSizes[i] = paperSize;
+            chunk.size = i + 1;
+            rows++;
+
+            if (chunk.isFull()) {
+                submit();
+                chunk = new Chunk(chunkSize);
+            }
+        }
+
+        private void submit() {
+            if (inFlight.size() >= maxInFlight) {
+                result.merge(inFlight.poll().join());
+            }
+            inFlight.add(pool.submit(new ReplayTask(chunk, policies, 0, chunk.size)));
+        }
+
+        Totals finish() {
+            if (chunk.size > 0) {
+                submit();
+            }
+            while (!inFlight.isEmpty()) {
+                result.merge(inFlight.poll().join());
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,791 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.dto.PrintAuthorizationRequest;
+import com.canon.printmanagement.dto.PrintAuthorizationResponse;
+import com.canon.printmanagement.entity.PrintJob;
+import com.canon.printmanagement.event.PrintJobCreatedEvent;
+import com.canon.printmanagement.quota.QuotaCounter;
+import com.canon.printmanagement.quota.Reservation;
+import com.canon.printmanagement.quota.Usage;
+import com.canon.printmanagement.repository.PrintJobKeyRepository;
+import com.canon.printmanagement.shard.ShardRouter;
+import com.canon.printmanagement.tariff.Tariff;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 실시간 출력 승인 서비스 (할당량 예약)
+ *
+ * 프린트 서버가 작업을 내보내기 전에 호출하면 할당량을 예약하고 출력 방식을 판정한다.
+ * - 판정 순서: 요청 그대로(운영 정책 적용) → 흑백 변환 → 흑백 + 양면 → 거부
+ * - 예약(reserve): 부서/사용자 할당량(quotas)의 확정(current_*) + 예약(reserved_*) 사용량이 한도를 넘지 않을 때만
+ *   홈 샤드에서 한 트랜잭션으로 quotas.reserved_* 증가 + print_authorizations 기록 (조건부 UPDATE 로 판정하므로
+ *   여러 인스턴스가 같은 할당량을 동시에 예약해도 한도를 넘지 않음)
+ * - 확정(commit): 같은 printerId + jobId 작업이 수집되면 예약 해제 (사용량은 저장 시 current_* 에 반영됨)
+ * - 만료(expire): reservation-ttl 안에 수집되지 않은 예약은 어느 인스턴스가 만들었든 해제
+ * 메모리 카운터는 DB 왕복 전에 명백히 넘치는 후보를 거르는 용도이며 sync-interval 마다 DB 값으로 교체한다.
+ * quotas.current_* 는 print_jobs 트리거(update_quota_on_print)가 올리며,
+ * 샤딩 시 0번 외 샤드에 저장된 작업은 저장 시 QuotaChargeService 가 홈 샤드에 반영한다.
+ * 수집 이벤트(AFTER_COMMIT)에서는 부서 샤드 연결이 아직 바인딩되어 있으므로 홈 샤드 조회/기록은 모두
+ * 새 트랜잭션(REQUIRES_NEW)으로 실행한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PrintAuthorizationService {
+
+    private static final String QUOTAS_SQL = """
+        SELECT id, entity_type, entity_id, period, max_pages, max_color_pages, max_cost,
+               current_pages, current_color_pages, current_cost,
+               reserved_pages, reserved_color_pages, reserved_cost, reset_date
+        FROM quotas
+        """;
+    private static final String APPROVAL_POLICIES_SQL = """
+        SELECT target_type, target_id, (config_json->>'color_page_threshold')::int AS threshold
+        FROM print_policies
+        WHERE policy_type = 'APPROVAL_REQUIRED' AND is_active = true
+        AND COALESCE((config_json->>'enabled')::boolean, true)
+        AND config_json ? 'color_page_threshold'
+        """;
+    // 여러 할당량을 항상 같은 순서로 잠가 동시 예약 간 교착을 피함
+    private static final String LOCK_QUOTAS_SQL = "SELECT id FROM quotas WHERE id = ANY(?) ORDER BY id FOR UPDATE";
+    private static final String RESERVE_QUOTAS_SQL = """
+        UPDATE quotas SET reserved_pages = reserved_pages + ?, reserved_color_pages = reserved_color_pages + ?,
+            reserved_cost = reserved_cost + ?
+        WHERE id = ANY(?)
+        AND (max_pages IS NULL OR current_pages + reserved_pages + ? <= max_pages)
+        AND (max_color_pages IS NULL OR current_color_pages + reserved_color_pages + ? <= max_color_pages)
+        AND (max_cost IS NULL OR current_cost + reserved_cost + ? <= max_cost)
+        """;
+    private static final String INSERT_SQL = """
+        INSERT INTO print_authorizations (id, printer_id, job_id, department_id, user_id,
+            department_quota_id, user_quota_id, pages, color_pages, cost,
+            convert_to_bw, force_duplex, status, expires_at, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 'RESERVED', ?, ?)
+        """;
+    // 예약 종료 + 할당량 예약량 반환 (종료한 예약 수)
+    private static final String COMPLETE_SQL = """
+        WITH done AS (
+            UPDATE print_authorizations SET status = ?, completed_at = ?
+            WHERE id = ? AND status = 'RESERVED'
+            RETURNING department_quota_id, user_quota_id, pages, color_pages, cost
+        ), released AS (
+            UPDATE quotas q SET reserved_pages = GREATEST(q.reserved_pages - d.pages, 0),
+                reserved_color_pages = GREATEST(q.reserved_color_pages - d.color_pages, 0),
+                reserved_cost = GREATEST(q.reserved_cost - d.cost, 0)
+            FROM done d
+            WHERE q.id IN (d.department_quota_id, d.user_quota_id)
+            RETURNING q.id
+        )
+        SELECT COUNT(*) FROM done
+        """;
+    // 모든 인스턴스의 만료 예약 종료 (할당량별로 합산해 반환)
+    private static final String EXPIRE_SQL = """
+        WITH done AS (
+            UPDATE print_authorizations SET status = 'EXPIRED', completed_at = ?
+            WHERE status = 'RESERVED' AND expires_at <= ?
+            RETURNING department_quota_id, user_quota_id, pages, color_pages, cost
+        ), per_quota AS (
+            SELECT quota_id, SUM(pages) AS pages, SUM(color_pages) AS color_pages, SUM(cost) AS cost
+            FROM done, LATERAL (VALUES (department_quota_id), (user_quota_id)) AS ids(quota_id)
+            WHERE quota_id IS NOT NULL
+            GROUP BY quota_id
+        ), released AS (
+            UPDATE quotas q SET reserved_pages = GREATEST(q.reserved_pages - p.pages, 0),
+                reserved_color_pages = GREATEST(q.reserved_color_pages - p.color_pages, 0),
+                reserved_cost = GREATEST(q.reserved_cost - p.cost, 0)
+            FROM per_quota p
+            WHERE q.id = p.quota_id
+            RETURNING q.id
+        )
+        SELECT COUNT(*) FROM done
+        """;
+    private static final String RESET_SQL = """
+        UPDATE quotas SET current_pages = 0, current_color_pages = 0, current_cost = 0,
+            reset_date = ?, updated_at = ?
+        WHERE id = ? AND reset_date = ?
+        """;
+    private static final String RESERVED_SQL = """
+        SELECT id, printer_id, job_id, department_id, user_id, department_quota_id, user_quota_id,
+               pages, color_pages, cost, convert_to_bw, force_duplex, expires_at
+        FROM print_authorizations
+        WHERE status = 'RESERVED'
+        """;
+    private static final String RESERVED_FOR_JOB_SQL = RESERVED_SQL + "AND printer_id = ? AND job_id = ?";
+    private static final String FIND_RESERVED_SQL = """
+        SELECT id FROM print_authorizations
+        WHERE printer_id = ? AND job_id = ? AND status = 'RESERVED'
+        """;
+    private static final String SETTLED_SQL = """
+        SELECT id FROM print_authorizations WHERE id = ANY(?) AND status <> 'RESERVED'
+        """;
+
+    /**
+     * quotas 행 (DB 조회 결과, 잠금 밖에서 읽고 카운터에는 잠금 안에서 반영)
+     */
+    private record QuotaRow(
+        long id,
+        String entityType,
+        long entityId,
+        Long maxPages,
+        Long maxColorPages,
+        Long maxCost,
+        LocalDate resetDate,
+        Usage current,
+        Usage reserved
+    ) {
+    }
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final TariffService tariffService;
+    private final CostOptimizationService costOptimizationService;
+    private final PrintJobKeyRepository printJobKeyRepository;
+    private final ShardRouter shardRouter;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${canon.authorization.reservation-ttl-seconds:600}")
+    private Long reservationTtlSeconds;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+
+    // 카운터/예약 맵 보호 (이 잠금 안에서는 DB 를 호출하지 않음)
+    private final Object counterLock = new Object();
+    private final Map<Long, QuotaCounter> countersById = new HashMap<>();
+    private final Map<String, List<QuotaCounter>> countersByEntity = new HashMap<>();
+    private final Map<UUID, Reservation> reservations = new HashMap<>();
+    private final Map<String, Reservation> reservationsByKey = new HashMap<>();
+
+    private volatile Map<Long, Integer> approvalThresholds = Map.of();
+    private volatile Integer globalApprovalThreshold;
+    private volatile boolean ready;
+
+    private final Map<PrintAuthorizationResponse.Decision, Counter> decisions =
+        new EnumMap<>(PrintAuthorizationResponse.Decision.class);
+    private Timer latency;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // 수집 트랜잭션 커밋 이후(AFTER_COMMIT)에도 별도 트랜잭션으로 기록
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        for (PrintAuthorizationResponse.Decision decision : PrintAuthorizationResponse.Decision.values()) {
+            decisions.put(decision, Counter.builder("canon.authorization.decisions")
+                .tag("decision", decision.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry));
+        }
+        latency = Timer.builder("canon.authorization.latency").register(meterRegistry);
+        Gauge.builder("canon.authorization.reservations", this, service -> service.activeReservations())
+            .register(meterRegistry);
+    }
+
+    /**
+     * 기동 시 할당량/정책 적재 및 RESERVED 예약 복구
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        loadApprovalPolicies();
+        List<QuotaRow> quotas = fetchQuotas();
+        synchronized (counterLock) {
+            applyQuotas(quotas);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int restored = 0;
+        int committed = 0;
+        int expired = 0;
+        List<Map<String, Object>> rows = shardRouter.onHome(() -> jdbcTemplate.queryForList(RESERVED_SQL));
+        for (Map<String, Object> row : rows) {
+            Reservation reservation;
+            synchronized (counterLock) {
+                reservation = toReservation(row);
+            }
+            if (!reservation.getExpiresAt().isAfter(now)) {
+                complete(reservation.getId(), "EXPIRED");
+                expired++;
+            } else if (isCollected(reservation)) {
+                // 수집 후 확정 전에 종료된 작업
+                complete(reservation.getId(), "COMMITTED");
+                committed++;
+            } else {
+                // 예약량은 quotas.reserved_* 에 이미 포함
+                synchronized (counterLock) {
+                    reservations.put(reservation.getId(), reservation);
+                    reservationsByKey.put(reservation.key(), reservation);
+                }
+                restored++;
+            }
+        }
+
+        quotas = fetchQuotas();
+        synchronized (counterLock) {
+            applyQuotas(quotas);
+        }
+        ready = true;
+        log.info("출력 승인 준비 완료: 할당량 {}건, 예약 복구 {}건 (확정 {}건, 만료 {}건)",
+            quotas.size(), restored, committed, expired);
+    }
+
+    /**
+     * 출력 승인 판정
+     */
+    public PrintAuthorizationResponse authorize(PrintAuthorizationRequest request) {
+        validate(request);
+        if (!ready) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "출력 승인 상태 복구 중입니다");
+        }
+
+        long started = System.nanoTime();
+        try {
+            PrintAuthorizationResponse response = decide(request);
+            decisions.get(response.getDecision()).increment();
+            return response;
+        } finally {
+            latency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private PrintAuthorizationResponse decide(PrintAuthorizationRequest request) {
+        int pages = request.getPageCount();
+        int color = request.getColorPageCount() != null ? request.getColorPageCount() : 0;
+        int copies = request.getCopies() != null && request.getCopies() > 0 ? request.getCopies() : 1;
+        boolean duplex = Boolean.TRUE.equals(request.getIsDuplex());
+        String paperSize = request.getPaperSize();
+        Tariff tariff = tariffService.tariffFor(request.getPrinterId(), paperSize);
+
+        // 운영 정책(canon.policy.*) 적용 결과가 첫 번째 후보
+        boolean convert = costOptimizationService.isAutoConvertColorToBw()
+            && CostOptimizationService.isColorConversionCandidate(color, pages, costOptimizationService.getColorImageThreshold());
+        boolean printDuplex = duplex || (costOptimizationService.isForceDuplex()
+            && CostOptimizationService.isDuplexCandidate(false, paperSize, pages));
+
+        Integer approvalThreshold = approvalThresholds.getOrDefault(request.getDepartmentId(), globalApprovalThreshold);
+        if (approvalThreshold != null && !convert && color >= approvalThreshold) {
+            return deny("APPROVAL_REQUIRED");
+        }
+
+        List<boolean[]> options = new ArrayList<>();
+        options.add(new boolean[] {convert, printDuplex});
+        if (!convert && color > 0) {
+            options.add(new boolean[] {true, printDuplex});
+        }
+        if (!printDuplex && CostOptimizationService.isDuplexCandidate(false, paperSize, pages)) {
+            options.add(new boolean[] {color > 0 || convert, true});
+        }
+
+        List<QuotaCounter> counters = new ArrayList<>();
+        synchronized (counterLock) {
+            Reservation existing = reservationsByKey.get(Reservation.keyOf(request.getPrinterId(), request.getJobId()));
+            if (existing != null) {
+                return toResponse(existing); // 같은 작업 재요청
+            }
+            counters.addAll(countersByEntity.getOrDefault(entityKey("DEPARTMENT", request.getDepartmentId()), List.of()));
+            counters.addAll(countersByEntity.getOrDefault(entityKey("USER", request.getUserId()), List.of()));
+        }
+
+        Reservation reservation = null;
+        try {
+            for (boolean[] option : options) {
+                int colorPages = option[0] ? 0 : color;
+                Usage usage = new Usage(pages, colorPages,
+                    tariff.netCost(pages - colorPages, colorPages, pages, copies, option[1]));
+                boolean fitsLocally;
+                synchronized (counterLock) {
+                    fitsLocally = counters.stream().allMatch(counter -> counter.fits(usage));
+                }
+                if (!fitsLocally) {
+                    continue;
+                }
+
+                Reservation candidate = new Reservation(UUID.randomUUID(), request.getPrinterId(), request.getJobId(),
+                    request.getDepartmentId(), request.getUserId(), List.copyOf(counters), usage,
+                    option[0], option[1] && !duplex, LocalDateTime.now().plusSeconds(reservationTtlSeconds));
+                if (reserve(candidate)) {
+                    reservation = candidate;
+                    break;
+                }
+            }
+        } catch (DuplicateKeyException e) {
+            // 같은 작업의 동시 요청 (다른 요청/인스턴스가 먼저 예약)
+            List<Map<String, Object>> rows = shardRouter.onHome(() -> jdbcTemplate.queryForList(
+                RESERVED_FOR_JOB_SQL, request.getPrinterId(), request.getJobId()));
+            if (!rows.isEmpty()) {
+                synchronized (counterLock) {
+                    return toResponse(toReservation(rows.get(0)));
+                }
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "같은 작업의 승인 요청이 처리 중입니다");
+        } catch (DataAccessException e) {
+            log.error("출력 승인 예약 기록 실패: 프린터 {}, jobId {}", request.getPrinterId(), request.getJobId(), e);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "출력 승인 예약을 기록하지 못했습니다");
+        }
+        if (reservation == null) {
+            return deny("QUOTA_EXCEEDED");
+        }
+
+        synchronized (counterLock) {
+            Reservation reserved = reservation;
+            reservation.getCounters().forEach(counter -> counter.reserve(reserved.getUsage()));
+            reservations.put(reservation.getId(), reservation);
+            reservationsByKey.put(reservation.key(), reservation);
+        }
+
+        log.debug("출력 승인: 프린터 {}, jobId {} → 흑백 {}, 양면 {}",
+            request.getPrinterId(), request.getJobId(), reservation.isConvertToBw(), reservation.isForceDuplex());
+        return toResponse(reservation);
+    }
+
+    /**
+     * 예약 취소 (프린트 서버에서 작업 취소)
+     */
+    public boolean release(UUID reservationId) {
+        Reservation reservation;
+        synchronized (counterLock) {
+            reservation = reservations.get(reservationId);
+            if (reservation != null) {
+                removeLocal(reservation);
+            }
+        }
+        // 다른 인스턴스가 만든 예약은 DB 상태만 변경 (해당 인스턴스가 sync 에서 해제)
+        return complete(reservationId, "RELEASED") > 0 || reservation != null;
+    }
+
+    /**
+     * 출력 작업 수집 시 예약 확정 (사용량은 저장 시 트리거 또는 QuotaChargeService 가 이미 반영)
+     */
+    @TransactionalEventListener
+    public void onPrintJobCreated(PrintJobCreatedEvent event) {
+        PrintJob printJob = event.getPrintJob();
+        // quotas 트리거와 같은 기준 (페이지는 부수 미포함, 비용은 부수 포함)
+        Usage actual = new Usage(
+            valueOf(printJob.getPageCount()),
+            valueOf(printJob.getColorPageCount()),
+            TariffService.toMinor(printJob.getTotalCost())
+        );
+        long departmentId = printJob.getDepartmentId();
+        long userId = printJob.getUserId();
+
+        Reservation reservation;
+        synchronized (counterLock) {
+            reservation = reservationsByKey.get(Reservation.keyOf(printJob.getPrinterId(), printJob.getJobId()));
+        }
+
+        try {
+            // 다른 인스턴스가 만든 예약
+            UUID reservationId = reservation != null ? reservation.getId()
+                : shardRouter.onHome(() -> writeTransaction.execute(status -> jdbcTemplate.query(
+                    FIND_RESERVED_SQL, rs -> rs.next() ? (UUID) rs.getObject("id") : null,
+                    printJob.getPrinterId(), printJob.getJobId())));
+
+            if (reservationId != null) {
+                complete(reservationId, "COMMITTED");
+            }
+        } catch (DataAccessException e) {
+            // 작업은 이미 저장됨 - 예약은 만료 시 해제, 사용량은 다음 sync 에서 DB 기준으로 다시 맞춤
+            log.error("출력 승인 예약 확정 실패: 작업 {}", printJob.getId(), e);
+        }
+
+        synchronized (counterLock) {
+            if (reservation != null) {
+                removeLocal(reservation);
+            }
+            countersByEntity.getOrDefault(entityKey("DEPARTMENT", departmentId), List.of())
+                .forEach(counter -> counter.commit(actual));
+            countersByEntity.getOrDefault(entityKey("USER", userId), List.of())
+                .forEach(counter -> counter.commit(actual));
+        }
+    }
+
+    /**
+     * 만료된 예약 해제 (이 인스턴스의 메모리 + 모든 인스턴스의 DB 예약)
+     */
+    @Scheduled(fixedDelayString = "${canon.authorization.expire-interval-ms:10000}")
+    public void expire() {
+        if (!ready) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (counterLock) {
+            for (Reservation reservation : List.copyOf(reservations.values())) {
+                if (!reservation.getExpiresAt().isAfter(now)) {
+                    removeLocal(reservation);
+                }
+            }
+        }
+        try {
+            Timestamp at = Timestamp.valueOf(now);
+            Integer expired = shardRouter.onHome(() -> writeTransaction.execute(status ->
+                jdbcTemplate.queryForObject(EXPIRE_SQL, Integer.class, at, at)));
+            if (expired != null && expired > 0) {
+                log.info("출력 승인 예약 만료: {}건", expired);
+            }
+        } catch (DataAccessException e) {
+            // 다음 주기에 다시 만료 처리
+            log.error("만료 예약 기록 실패", e);
+        }
+    }
+
+    /**
+     * DB 와 다시 맞추기: 한도/확정·예약 사용량, 기간 초기화, 다른 인스턴스가 확정/취소한 예약
+     *
+     * DB 는 잠금 없이 읽고 메모리 반영만 counterLock 안에서 한다 (판정을 막지 않음).
+     */
+    @Scheduled(fixedDelayString = "${canon.authorization.sync-interval-ms:2000}")
+    public void sync() {
+        if (!ready) {
+            return;
+        }
+        try {
+            loadApprovalPolicies();
+            List<QuotaRow> quotas = fetchQuotas();
+
+            List<UUID> localIds;
+            synchronized (counterLock) {
+                localIds = List.copyOf(reservations.keySet());
+            }
+            List<UUID> settled = localIds.isEmpty() ? List.of() : shardRouter.onHome(() -> jdbcTemplate.execute(connection -> {
+                Array ids = connection.createArrayOf("uuid", localIds.toArray());
+                try (var statement = connection.prepareStatement(SETTLED_SQL)) {
+                    statement.setArray(1, ids);
+                    List<UUID> result = new ArrayList<>();
+                    try (var rs = statement.executeQuery()) {
+                        while (rs.next()) {
+                            result.add((UUID) rs.getObject(1));
+                        }
+                    }
+                    return result;
+                }
+            }));
+
+            synchronized (counterLock) {
+                for (UUID id : settled) {
+                    Reservation reservation = reservations.get(id);
+                    if (reservation != null) {
+                        removeLocal(reservation);
+                    }
+                }
+                // 조회 이후 이 인스턴스가 만든 예약은 다음 sync 까지 빠질 수 있음 (판정은 DB 조건부 UPDATE 기준)
+                applyQuotas(quotas);
+            }
+        } catch (DataAccessException e) {
+            log.warn("출력 승인 상태 동기화 실패: {}", e.getMessage());
+        }
+    }
+
+    public int activeReservations() {
+        synchronized (counterLock) {
+            return reservations.size();
+        }
+    }
+
+    /**
+     * quotas 조회 (기간이 지난 할당량은 초기화 후 0 으로 반환)
+     */
+    private List<QuotaRow> fetchQuotas() {
+        LocalDate today = LocalDate.now();
+        List<QuotaRow> quotas = new ArrayList<>();
+        List<Map<String, Object>> rows = shardRouter.onHome(() -> jdbcTemplate.queryForList(QUOTAS_SQL));
+        for (Map<String, Object> row : rows) {
+            long quotaId = ((Number) row.get("id")).longValue();
+
+            LocalDate resetDate = ((java.sql.Date) row.get("reset_date")).toLocalDate();
+            boolean reset = !today.isBefore(resetDate);
+            if (reset) {
+                LocalDate previous = resetDate;
+                LocalDate next = nextResetDate(resetDate, (String) row.get("period"), today);
+                shardRouter.onHome(() -> jdbcTemplate.update(RESET_SQL,
+                    next, Timestamp.valueOf(LocalDateTime.now()), quotaId, previous));
+                log.info("할당량 {} 기간 초기화: 다음 초기화 {}", quotaId, next);
+                resetDate = next;
+            }
+
+            quotas.add(new QuotaRow(
+                quotaId,
+                (String) row.get("entity_type"),
+                ((Number) row.get("entity_id")).longValue(),
+                toLong(row.get("max_pages")),
+                toLong(row.get("max_color_pages")),
+                row.get("max_cost") != null ? TariffService.toMinor((BigDecimal) row.get("max_cost")) : null,
+                resetDate,
+                reset ? Usage.ZERO : new Usage(
+                    valueOf(toLong(row.get("current_pages"))),
+                    valueOf(toLong(row.get("current_color_pages"))),
+                    TariffService.toMinor((BigDecimal) row.get("current_cost"))
+                ),
+                new Usage(
+                    valueOf(toLong(row.get("reserved_pages"))),
+                    valueOf(toLong(row.get("reserved_color_pages"))),
+                    TariffService.toMinor((BigDecimal) row.get("reserved_cost"))
+                )
+            ));
+        }
+        return quotas;
+    }
+
+    // 호출자는 counterLock 보유
+    private void applyQuotas(List<QuotaRow> quotas) {
+        Set<Long> seen = new HashSet<>();
+        for (QuotaRow row : quotas) {
+            seen.add(row.id());
+            QuotaCounter counter = countersById.get(row.id());
+            if (counter == null) {
+                counter = new QuotaCounter(row.id(), row.entityType(), row.entityId());
+                countersById.put(row.id(), counter);
+                countersByEntity.computeIfAbsent(entityKey(row.entityType(), row.entityId()), k -> new ArrayList<>())
+                    .add(counter);
+            }
+            counter.setLimits(row.maxPages(), row.maxColorPages(), row.maxCost(), row.resetDate());
+            counter.setCommitted(row.current().pages(), row.current().colorPages(), row.current().cost());
+            counter.setReserved(row.reserved().pages(), row.reserved().colorPages(), row.reserved().cost());
+        }
+
+        // 삭제된 할당량은 더 이상 판정에 쓰지 않음
+        countersById.keySet().retainAll(seen);
+        countersByEntity.values().forEach(list -> list.removeIf(counter -> !seen.contains(counter.getQuotaId())));
+    }
+
+    private void loadApprovalPolicies() {
+        Map<Long, Integer> thresholds = new HashMap<>();
+        Integer[] global = {null};
+        shardRouter.onHome(() -> {
+            jdbcTemplate.query(APPROVAL_POLICIES_SQL, rs -> {
+                int threshold = rs.getInt("threshold");
+                long targetId = rs.getLong("target_id");
+                if ("GLOBAL".equals(rs.getString("target_type"))) {
+                    global[0] = global[0] != null ? Math.min(global[0], threshold) : threshold;
+                } else if ("DEPARTMENT".equals(rs.getString("target_type")) && !rs.wasNull()) {
+                    thresholds.merge(targetId, threshold, Math::min);
+                }
+            });
+            return null;
+        });
+        approvalThresholds = thresholds;
+        globalApprovalThreshold = global[0];
+    }
+
+    /**
+     * 홈 샤드에서 할당량 예약량 증가 + 예약 기록 (한도를 넘는 할당량이 하나라도 있으면 롤백하고 false)
+     */
+    private boolean reserve(Reservation reservation) {
+        Long[] quotaIds = reservation.getCounters().stream()
+            .map(QuotaCounter::getQuotaId)
+            .sorted()
+            .toArray(Long[]::new);
+        Usage usage = reservation.getUsage();
+        BigDecimal cost = TariffService.toAmount(usage.cost());
+
+        Boolean reserved = shardRouter.onHome(() -> writeTransaction.execute(status -> {
+            if (quotaIds.length > 0) {
+                jdbcTemplate.query((Connection con) -> {
+                    PreparedStatement ps = con.prepareStatement(LOCK_QUOTAS_SQL);
+                    ps.setArray(1, con.createArrayOf("int8", quotaIds));
+                    return ps;
+                }, (ResultSet rs) -> {
+                });
+                int updated = jdbcTemplate.update((Connection con) -> {
+                    PreparedStatement ps = con.prepareStatement(RESERVE_QUOTAS_SQL);
+                    ps.setLong(1, usage.pages());
+                    ps.setLong(2, usage.colorPages());
+                    ps.setBigDecimal(3, cost);
+                    ps.setArray(4, con.createArrayOf("int8", quotaIds));
+                    ps.setLong(5, usage.pages());
+                    ps.setLong(6, usage.colorPages());
+                    ps.setBigDecimal(7, cost);
+                    return ps;
+                });
+                if (updated < quotaIds.length) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+            }
+            jdbcTemplate.update(INSERT_SQL,
+                reservation.getId(),
+                reservation.getPrinterId(),
+                reservation.getJobId(),
+                reservation.getDepartmentId(),
+                reservation.getUserId(),
+                quotaIdOf(reservation.getCounters(), "DEPARTMENT"),
+                quotaIdOf(reservation.getCounters(), "USER"),
+                usage.pages(),
+                usage.colorPages(),
+                cost,
+                reservation.isConvertToBw(),
+                reservation.isForceDuplex(),
+                Timestamp.valueOf(reservation.getExpiresAt()),
+                Timestamp.valueOf(LocalDateTime.now())
+            );
+            return true;
+        }));
+        return Boolean.TRUE.equals(reserved);
+    }
+
+    private int complete(UUID reservationId, String status) {
+        Integer completed = shardRouter.onHome(() -> writeTransaction.execute(tx -> jdbcTemplate.queryForObject(
+            COMPLETE_SQL, Integer.class, status, Timestamp.valueOf(LocalDateTime.now()), reservationId)));
+        return completed != null ? completed : 0;
+    }
+
+    // 호출자는 counterLock 보유
+    private void removeLocal(Reservation reservation) {
+        if (reservations.remove(reservation.getId()) != null) {
+            reservationsByKey.remove(reservation.key());
+            reservation.getCounters().forEach(counter -> counter.release(reservation.getUsage()));
+        }
+    }
+
+    private boolean isCollected(Reservation reservation) {
+        return shardRouter.onDepartment(reservation.getDepartmentId(),
+            () -> printJobKeyRepository.findPrintJobId(reservation.getPrinterId(), reservation.getJobId()).isPresent());
+    }
+
+    private Reservation toReservation(Map<String, Object> row) {
+        return new Reservation(
+            (UUID) row.get("id"),
+            ((Number) row.get("printer_id")).longValue(),
+            (String) row.get("job_id"),
+            ((Number) row.get("department_id")).longValue(),
+            ((Number) row.get("user_id")).longValue(),
+            countersOf(row),
+            new Usage(
+                ((Number) row.get("pages")).longValue(),
+                ((Number) row.get("color_pages")).longValue(),
+                TariffService.toMinor((BigDecimal) row.get("cost"))
+            ),
+            Boolean.TRUE.equals(row.get("convert_to_bw")),
+            Boolean.TRUE.equals(row.get("force_duplex")),
+            ((Timestamp) row.get("expires_at")).toLocalDateTime()
+        );
+    }
+
+    private List<QuotaCounter> countersOf(Map<String, Object> row) {
+        List<QuotaCounter> counters = new ArrayList<>();
+        for (String column : List.of("department_quota_id", "user_quota_id")) {
+            Long quotaId = toLong(row.get(column));
+            QuotaCounter counter = quotaId != null ? countersById.get(quotaId) : null;
+            if (counter != null) {
+                counters.add(counter);
+            }
+        }
+        return counters;
+    }
+
+    private PrintAuthorizationResponse toResponse(Reservation reservation) {
+        boolean converted = reservation.isConvertToBw() || reservation.isForceDuplex();
+        return PrintAuthorizationResponse.builder()
+            .decision(converted ? PrintAuthorizationResponse.Decision.CONVERT : PrintAuthorizationResponse.Decision.ALLOW)
+            .reservationId(reservation.getId())
+            .expiresAt(reservation.getExpiresAt())
+            .convertToBw(reservation.isConvertToBw())
+            .forceDuplex(reservation.isForceDuplex())
+            .reservedPages(reservation.getUsage().pages())
+            .reservedColorPages(reservation.getUsage().colorPages())
+            .reservedCost(TariffService.toAmount(reservation.getUsage().cost()))
+            .build();
+    }
+
+    private static PrintAuthorizationResponse deny(String reason) {
+        return PrintAuthorizationResponse.builder()
+            .decision(PrintAuthorizationResponse.Decision.DENY)
+            .reason(reason)
+            .convertToBw(false)
+            .forceDuplex(false)
+            .build();
+    }
+
+    private static void validate(PrintAuthorizationRequest request) {
+        if (request.getPrinterId() == null || request.getJobId() == null
+            || request.getUserId() == null || request.getDepartmentId() == null) {
+            throw badRequest("printerId, jobId, userId, departmentId 는 필수입니다");
+        }
+        if (request.getPageCount() == null || request.getPageCount() < 1) {
+            throw badRequest("pageCount 는 1 이상이어야 합니다");
+        }
+        int color = request.getColorPageCount() != null ? request.getColorPageCount() : 0;
+        if (color < 0 || color > request.getPageCount()) {
+            throw badRequest("colorPageCount 는 0 ~ pageCount 범위여야 합니다");
+        }
+    }
+
+    private static ResponseStatusException badRequest(String message) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+    }
+
+    private static LocalDate nextResetDate(LocalDate resetDate, String period, LocalDate today) {
+        LocalDate next = resetDate;
+        while (!today.isBefore(next)) {
+            next = switch (period != null ? period : "MONTHLY") {
+                case "DAILY" -> next.plusDays(1);
+                case "WEEKLY" -> next.plusWeeks(1);
+                default -> next.plusMonths(1);
+            };
+        }
+        return next;
+    }
+
+    private static Long quotaIdOf(List<QuotaCounter> counters, String entityType) {
+        return counters.stream()
+            .filter(counter -> counter.getEntityType().equals(entityType))
+            .map(QuotaCounter::getQuotaId)
+            .findFirst()
+            .orElse(null);
+    }
+
+    private static String entityKey(String entityType, Long entityId) {
+        return entityType + ":" + entityId;
+    }
+
+    private static Long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private static int valueOf(Integer value) {
+        return value != null ? value : 0;
+    }
+}
@@ -0,0 +1,186 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.dto.PercentileStatistics;
+import com.canon.printmanagement.entity.DistributionDigest;
+import com.canon.printmanagement.entity.DistributionDigestId;
+import com.canon.printmanagement.entity.PrintJob;
+import com.canon.printmanagement.event.PrintJobCreatedEvent;
+import com.canon.printmanagement.repository.DistributionDigestRepository;
+import com.canon.printmanagement.shard.ShardRouter;
+import com.canon.printmanagement.sketch.JobDistributionSketch;
+import com.canon.printmanagement.sketch.TDigest;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 분포(분위수) 통계 서비스
+ *
+ * (일, 부서) / (일, 프린터) 단위 t-digest 로 작업당 페이지 수, 파일 크기, 비용 분포를 유지한다.
+ * 출력 작업 저장 시 갱신하고 distribution_digests 테이블에 주기적으로 저장하며,
+ * 기간 조회는 원본 행 정렬 없이 일 단위 digest 를 병합하여 p50/p95/p99 를 계산한다.
+ *
+ * 인스턴스마다 마지막 저장 이후의 증분 digest 만 들고 있다가, 저장 시 기준 샤드에서
+ * 저장된 행을 SELECT ... FOR UPDATE 로 잠그고 병합해 다시 쓴다 (여러 인스턴스가 서로 덮어쓰지 않음).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PrintDistributionService {
+
+    public static final String SCOPE_DEPARTMENT = "DEPARTMENT";
+    public static final String SCOPE_PRINTER = "PRINTER";
+
+    private final DistributionDigestRepository distributionDigestRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ShardRouter shardRouter;
+
+    @Value("${canon.distribution.compression:100}")
+    private Double compression;
+
+    private TransactionTemplate writeTransaction;
+
+    // 아직 저장하지 않은 증분 digest (이 인스턴스가 마지막 저장 이후 받은 작업)
+    private final Map<DistributionDigestId, JobDistributionSketch> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 출력 작업 저장 시 분포 갱신 (메모리에만 반영)
+     */
+    @TransactionalEventListener
+    public void onPrintJobCreated(PrintJobCreatedEvent event) {
+        record(event.getPrintJob());
+    }
+
+    public void record(PrintJob printJob) {
+        LocalDate day = printJob.getTimestamp().toLocalDate();
+        Double totalCost = printJob.getTotalCost() != null ? printJob.getTotalCost().doubleValue() : null;
+
+        for (DistributionDigestId key : List.of(
+            new DistributionDigestId(SCOPE_DEPARTMENT, printJob.getDepartmentId(), day),
+            new DistributionDigestId(SCOPE_PRINTER, printJob.getPrinterId(), day)
+        )) {
+            // compute 안에서 더해야 flush 가 꺼내 간 digest 에 늦게 더해지지 않음
+            pending.compute(key, (id, sketch) -> {
+                JobDistributionSketch target = sketch != null ? sketch : new JobDistributionSketch(compression);
+                target.add(printJob.getPageCount(), printJob.getFileSizeKb(), totalCost);
+                return target;
+            });
+        }
+    }
+
+    /**
+     * 증분 digest 를 저장된 digest 에 병합 (30초 주기)
+     */
+    @Scheduled(fixedDelayString = "${canon.distribution.flush-interval-ms:30000}")
+    public void flush() {
+        int saved = 0;
+        for (DistributionDigestId key : pending.keySet()) {
+            JobDistributionSketch delta = pending.remove(key);
+            if (delta == null) {
+                continue;
+            }
+            try {
+                shardRouter.onHome(() -> writeTransaction.execute(status -> {
+                    mergeInto(key, delta);
+                    return null;
+                }));
+                saved++;
+            } catch (RuntimeException e) {
+                // 다음 주기에 다시 저장 (그 사이 받은 작업과 합침)
+                pending.merge(key, delta, (current, failed) -> {
+                    current.merge(failed);
+                    return current;
+                });
+                log.warn("분포 스케치 저장 실패 ({} {}): {}", key.getScope(), key.getDay(), e.getMessage());
+            }
+        }
+
+        if (saved > 0) {
+            log.debug("분포 스케치 저장: {}건", saved);
+        }
+    }
+
+    /**
+     * 부서/프린터별 분위수 통계
+     *
+     * scopeId 가 없으면 해당 범위의 모든 부서/프린터를 각각 계산
+     */
+    public List<PercentileStatistics> getPercentiles(String scope, Long scopeId, LocalDate startDay, LocalDate endDay) {
+        String normalizedScope = SCOPE_PRINTER.equalsIgnoreCase(scope) ? SCOPE_PRINTER : SCOPE_DEPARTMENT;
+
+        List<DistributionDigest> rows = scopeId != null
+            ? distributionDigestRepository.findByScopeAndScopeIdAndDayBetween(normalizedScope, scopeId, startDay, endDay)
+            : distributionDigestRepository.findByScopeAndDayBetween(normalizedScope, startDay, endDay);
+
+        Map<Long, JobDistributionSketch> merged = new TreeMap<>();
+        for (DistributionDigest row : rows) {
+            merged.computeIfAbsent(row.getScopeId(), id -> new JobDistributionSketch(compression))
+                .merge(JobDistributionSketch.fromBytes(row.getPayload()));
+        }
+        // 아직 저장되지 않은 증분 (저장된 행과 겹치지 않으므로 그대로 병합)
+        pending.forEach((key, sketch) -> {
+            boolean inRange = !key.getDay().isBefore(startDay) && !key.getDay().isAfter(endDay);
+            if (inRange && key.getScope().equals(normalizedScope)
+                && (scopeId == null || scopeId.equals(key.getScopeId()))) {
+                merged.computeIfAbsent(key.getScopeId(), id -> new JobDistributionSketch(compression)).merge(sketch);
+            }
+        });
+
+        List<PercentileStatistics> result = new ArrayList<>();
+        merged.forEach((id, sketch) -> {
+            for (JobDistributionSketch.Metric metric : JobDistributionSketch.Metric.values()) {
+                TDigest digest = sketch.get(metric);
+                if (digest.count() == 0) {
+                    continue;
+                }
+                result.add(PercentileStatistics.builder()
+                    .scope(normalizedScope)
+                    .scopeId(id)
+                    .metric(metric.name())
+                    .count(digest.count())
+                    .mean(digest.mean())
+                    .min(digest.min())
+                    .max(digest.max())
+                    .p50(digest.quantile(0.50))
+                    .p95(digest.quantile(0.95))
+                    .p99(digest.quantile(0.99))
+                    .build());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 저장된 행을 잠그고 증분 병합 (행이 없으면 증분을 그대로 저장)
+     */
+    private void mergeInto(DistributionDigestId key, JobDistributionSketch delta) {
+        byte[] payload = delta.toBytes();
+        if (distributionDigestRepository.insertIfAbsent(key.getScope(), key.getScopeId(), key.getDay(), payload) > 0) {
+            return;
+        }
+        DistributionDigest row = distributionDigestRepository
+            .findForUpdate(key.getScope(), key.getScopeId(), key.getDay())
+            .orElseThrow();
+        JobDistributionSketch stored = JobDistributionSketch.fromBytes(row.getPayload());
+        stored.merge(delta);
+        row.setPayload(stored.toBytes());
+    }
+}
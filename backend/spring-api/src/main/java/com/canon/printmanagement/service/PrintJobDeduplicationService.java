@@ -0,0 +1,182 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.entity.PrintJob;
+import com.canon.printmanagement.entity.PrintJobKey;
+import com.canon.printmanagement.event.PrintJobCreatedEvent;
+import com.canon.printmanagement.exception.DuplicatePrintJobException;
+import com.canon.printmanagement.repository.PrintJobKeyRepository;
+import com.canon.printmanagement.shard.ShardRouter;
+import com.canon.printmanagement.sketch.BloomFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 출력 작업 중복 수집 방지 서비스
+ *
+ * 프린트 서버 재전송으로 같은 (printerId, jobId) 가 다시 들어오는 경우를 걸러낸다.
+ * 1. 최근 작업 캐시 적중 → 중복 (DB 조회 없음)
+ * 2. Bloom filter 미포함 → 신규 (DB 조회 없음, 대부분의 요청)
+ * 3. Bloom filter 포함 → print_job_keys 조회로 확인
+ * 최종 유일성은 저장 트랜잭션 안에서 print_job_keys 기본키(ON CONFLICT)로 보장한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PrintJobDeduplicationService {
+
+    private final PrintJobKeyRepository printJobKeyRepository;
+    private final ShardRouter shardRouter;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${canon.dedup.window-hours:168}")
+    private Long windowHours;
+
+    @Value("${canon.dedup.expected-keys:1000000}")
+    private Long expectedKeys;
+
+    @Value("${canon.dedup.false-positive-rate:0.01}")
+    private Double falsePositiveRate;
+
+    @Value("${canon.dedup.recent-cache-size:100000}")
+    private Long recentCacheSize;
+
+    // 현재/이전 기간 Bloom filter (window 마다 교체)
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+    private volatile LocalDateTime currentStartedAt;
+    private volatile boolean warmedUp;
+
+    private Cache<String, Long> recentJobs;
+
+    private final AtomicLong dbLookups = new AtomicLong();
+
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate writeTransaction;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+
+        current = new BloomFilter(expectedKeys, falsePositiveRate);
+        previous = new BloomFilter(expectedKeys, falsePositiveRate);
+        currentStartedAt = LocalDateTime.now();
+        recentJobs = Caffeine.newBuilder()
+            .maximumSize(recentCacheSize)
+            .expireAfterWrite(Duration.ofHours(windowHours))
+            .build();
+    }
+
+    /**
+     * 중복 방지 기간 내 키로 Bloom filter 초기 적재 (키는 작업과 같은 샤드에 있으므로 샤드마다)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        AtomicLong count = new AtomicLong();
+        LocalDateTime since = LocalDateTime.now().minusHours(windowHours);
+        shardRouter.forEachShard(readOnlyTransaction, shard -> {
+            try (Stream<PrintJobKey> keys = printJobKeyRepository.streamCreatedSince(since)) {
+                keys.forEach(key -> {
+                    current.put(key.getPrinterId(), key.getJobId());
+                    count.incrementAndGet();
+                });
+            }
+        });
+        warmedUp = true;
+        log.info("중복 방지 필터 적재 완료: 키 {}건 (필터 {}KB)", count.get(), current.sizeInBytes() / 1024);
+    }
+
+    /**
+     * 기존 작업 ID 조회 (중복이 아니면 empty)
+     */
+    public Optional<Long> findDuplicate(Long printerId, String jobId) {
+        if (printerId == null || jobId == null) {
+            return Optional.empty();
+        }
+
+        Long recent = recentJobs.getIfPresent(key(printerId, jobId));
+        if (recent != null) {
+            return Optional.of(recent);
+        }
+        if (warmedUp && !current.mightContain(printerId, jobId) && !previous.mightContain(printerId, jobId)) {
+            return Optional.empty();
+        }
+
+        dbLookups.incrementAndGet();
+        return printJobKeyRepository.findPrintJobId(printerId, jobId);
+    }
+
+    /**
+     * 저장된 작업의 키 등록 (호출자 트랜잭션 안에서 실행)
+     *
+     * 동시에 같은 키가 먼저 등록된 경우 DuplicatePrintJobException 으로 트랜잭션을 롤백시킨다.
+     */
+    public void register(PrintJob printJob) {
+        if (printJob.getJobId() == null) {
+            return;
+        }
+
+        int inserted = printJobKeyRepository.insertIfAbsent(
+            printJob.getPrinterId(), printJob.getJobId(), printJob.getId(), LocalDateTime.now()
+        );
+        if (inserted == 0) {
+            Long existing = printJobKeyRepository
+                .findPrintJobId(printJob.getPrinterId(), printJob.getJobId())
+                .orElse(null);
+            throw new DuplicatePrintJobException(printJob.getPrinterId(), printJob.getJobId(), existing);
+        }
+        current.put(printJob.getPrinterId(), printJob.getJobId());
+    }
+
+    /**
+     * 커밋된 작업을 최근 작업 캐시에 추가
+     */
+    @TransactionalEventListener
+    public void onPrintJobCreated(PrintJobCreatedEvent event) {
+        PrintJob printJob = event.getPrintJob();
+        if (printJob.getJobId() != null) {
+            recentJobs.put(key(printJob.getPrinterId(), printJob.getJobId()), printJob.getId());
+        }
+    }
+
+    /**
+     * Bloom filter 교체 및 만료 키 삭제 (1시간 주기)
+     */
+    @Scheduled(fixedDelayString = "${canon.dedup.maintenance-interval-ms:3600000}")
+    public void maintain() {
+        LocalDateTime now = LocalDateTime.now();
+        if (!currentStartedAt.plusHours(windowHours).isAfter(now)) {
+            previous = current;
+            current = new BloomFilter(expectedKeys, falsePositiveRate);
+            currentStartedAt = now;
+            log.info("중복 방지 필터 교체");
+        }
+
+        AtomicLong deleted = new AtomicLong();
+        shardRouter.forEachShard(writeTransaction, shard ->
+            deleted.addAndGet(printJobKeyRepository.deleteCreatedBefore(now.minusHours(windowHours))));
+        log.debug("만료된 중복 방지 키 삭제: {}건 (누적 DB 확인 {}건)", deleted.get(), dbLookups.get());
+    }
+
+    private static String key(Long printerId, String jobId) {
+        return printerId + ":" + jobId;
+    }
+}
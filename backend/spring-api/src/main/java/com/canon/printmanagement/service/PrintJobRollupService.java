@@ -0,0 +1,273 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.entity.PrintJob;
+import com.canon.printmanagement.rollup.RollupSegment;
+import com.canon.printmanagement.rollup.RollupTier;
+import com.canon.printmanagement.shard.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 출력 작업 다단계 롤업 서비스 (시간 14일 / 일 2년 / 월 영구)
+ *
+ * 부서·프린터·사용자별 버킷을 부서 샤드에 두고 작업 저장 트랜잭션에서 함께 갱신한다.
+ * - 저장: 작업 시각이 보관 중인 가장 세밀한 단계 하나에만 더함 (시간 보관 기간이 지난 늦은 작업은 일, 일도 지나면 월)
+ * - 접기: 1분 주기로 시간/일 행의 pending 증가분을 다음 단계로 옮김 (한 문장 안에서 0 으로 되돌림)
+ * - 보관: 보관 기간이 지나고 pending 이 없는 시간/일 행 삭제
+ * - 조회: 구간을 월/일/시간 조각으로 나누고, 각 조각에 그보다 세밀한 단계의 pending 을 더해 항상 정확한 합계
+ * 롤업 도입 이전 작업은 database/migrations/002_print_job_rollups.sql 이 채우며, print_job_rollup_state.covered_from 이후 구간만 응답한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PrintJobRollupService {
+
+    // pg_try_advisory_xact_lock 키 (샤드마다 한 인스턴스만 접기 실행)
+    private static final long LOCK_KEY = 0x524F4C4CL;
+
+    private static final String MEASURES = "jobs, pages, color_pages, cost, savings";
+    private static final String PENDING = "pending_jobs, pending_pages, pending_color_pages, pending_cost, pending_savings";
+    private static final String KEYS = "bucket, department_id, printer_id, user_id";
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final ShardRouter shardRouter;
+
+    @Value("${canon.rollup.enabled:true}")
+    private Boolean enabled;
+
+    @Value("${canon.rollup.hour-retention-days:14}")
+    private Integer hourRetentionDays;
+
+    @Value("${canon.rollup.day-retention-days:730}")
+    private Integer dayRetentionDays;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private final Map<RollupTier, String> upserts = new EnumMap<>(RollupTier.class);
+    private final Map<RollupTier, String> folds = new EnumMap<>(RollupTier.class);
+
+    // 모든 샤드에서 롤업이 완전한 시작 시점 (첫 접기 전까지 null - 롤업 미사용)
+    private volatile LocalDateTime coveredFrom;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+
+        for (RollupTier tier : RollupTier.values()) {
+            upserts.put(tier, upsertSql(tier));
+            if (tier.hasPending()) {
+                folds.put(tier, foldSql(tier, tier.coarser()));
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 작업 1건 반영 (createPrintJob 트랜잭션 안에서 호출, 같은 샤드 연결 사용)
+     */
+    public void record(PrintJob printJob) {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime timestamp = printJob.getTimestamp() != null ? printJob.getTimestamp() : now;
+        RollupTier tier = !timestamp.isBefore(hourHorizon(now)) ? RollupTier.HOUR
+            : !timestamp.isBefore(dayHorizon(now)) ? RollupTier.DAY
+            : RollupTier.MONTH;
+
+        BigDecimal cost = valueOf(printJob.getTotalCost());
+        BigDecimal savings = valueOf(printJob.getColorSavings()).add(valueOf(printJob.getDuplexSavings()));
+        List<Object> args = new ArrayList<>(List.of(
+            Timestamp.valueOf(tier.floor(timestamp)),
+            printJob.getDepartmentId(),
+            printJob.getPrinterId(),
+            printJob.getUserId(),
+            valueOf(printJob.getPageCount()),
+            valueOf(printJob.getColorPageCount()),
+            cost,
+            savings
+        ));
+        if (tier.hasPending()) {
+            args.addAll(List.of(valueOf(printJob.getPageCount()), valueOf(printJob.getColorPageCount()), cost, savings));
+        }
+        args.add(Timestamp.valueOf(now));
+        jdbcTemplate.update(upserts.get(tier), args.toArray());
+    }
+
+    /**
+     * 시간 → 일 → 월 접기 및 보관 기간 정리 (1분 주기)
+     */
+    @Scheduled(fixedDelayString = "${canon.rollup.compact-interval-ms:60000}")
+    public void compact() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime[] covered = {null};
+        int[] folded = {0};
+        try {
+            shardRouter.forEachShard(writeTransaction, shard -> {
+                Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+                if (Boolean.TRUE.equals(locked)) {
+                    folded[0] += jdbcTemplate.update(folds.get(RollupTier.HOUR));
+                    folded[0] += jdbcTemplate.update(folds.get(RollupTier.DAY));
+                    jdbcTemplate.update("DELETE FROM " + RollupTier.HOUR.getTable() + " WHERE bucket < ? AND pending_jobs = 0",
+                        Timestamp.valueOf(hourHorizon(now)));
+                    jdbcTemplate.update("DELETE FROM " + RollupTier.DAY.getTable() + " WHERE bucket < ? AND pending_jobs = 0",
+                        Timestamp.valueOf(dayHorizon(now)));
+                }
+
+                Timestamp shardFrom = jdbcTemplate.queryForObject(
+                    "SELECT MAX(covered_from) FROM print_job_rollup_state", Timestamp.class);
+                LocalDateTime from = shardFrom != null ? shardFrom.toLocalDateTime() : LocalDateTime.MAX;
+                covered[0] = covered[0] == null || from.isAfter(covered[0]) ? from : covered[0];
+            });
+            coveredFrom = covered[0];
+        } catch (RuntimeException e) {
+            log.error("롤업 접기 실패", e);
+            return;
+        }
+        if (folded[0] > 0) {
+            log.debug("롤업 접기: {}개 버킷", folded[0]);
+        }
+    }
+
+    /**
+     * [start, end) 를 덮는 롤업 하위 쿼리 (bucket, department_id, printer_id, user_id + 측정값 컬럼)
+     *
+     * 시간 경계가 아니거나, 롤업 도입 이전/보관 기간이 지난 구간이 필요하면 empty
+     */
+    public Optional<String> coverSql(LocalDateTime start, LocalDateTime end, RollupTier coarsest,
+                                     MapSqlParameterSource parameters) {
+        LocalDateTime from = coveredFrom;
+        if (!enabled || from == null || start.isBefore(from)
+            || !RollupTier.HOUR.floor(start).equals(start) || !RollupTier.HOUR.floor(end).equals(end)) {
+            return Optional.empty();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<RollupSegment> segments = RollupSegment.cover(start, end, coarsest);
+        for (RollupSegment segment : segments) {
+            if ((segment.tier() == RollupTier.HOUR && segment.from().isBefore(hourHorizon(now)))
+                || (segment.tier() == RollupTier.DAY && segment.from().isBefore(dayHorizon(now)))) {
+                return Optional.empty();
+            }
+        }
+
+        List<String> selects = new ArrayList<>();
+        for (int i = 0; i < segments.size(); i++) {
+            RollupSegment segment = segments.get(i);
+            String range = "bucket >= :rollupFrom" + i + " AND bucket < :rollupTo" + i;
+            parameters.addValue("rollupFrom" + i, segment.from());
+            parameters.addValue("rollupTo" + i, segment.to());
+            selects.add("SELECT " + KEYS + ", " + MEASURES + " FROM " + segment.tier().getTable() + " WHERE " + range);
+            // 아직 이 단계로 접히지 않은 세밀한 단계의 증가분
+            for (RollupTier finer : RollupTier.values()) {
+                if (finer.ordinal() < segment.tier().ordinal()) {
+                    selects.add("SELECT " + KEYS + ", " + PENDING + " FROM " + finer.getTable()
+                        + " WHERE pending_jobs > 0 AND " + range);
+                }
+            }
+        }
+        return Optional.of(String.join(" UNION ALL ", selects));
+    }
+
+    // 시간 단계 보관 시작 시점 (이전 작업은 일 단계에 저장)
+    private LocalDateTime hourHorizon(LocalDateTime now) {
+        return now.truncatedTo(ChronoUnit.DAYS).minusDays(hourRetentionDays);
+    }
+
+    private LocalDateTime dayHorizon(LocalDateTime now) {
+        return now.truncatedTo(ChronoUnit.DAYS).minusDays(dayRetentionDays);
+    }
+
+    private static String upsertSql(RollupTier tier) {
+        String table = tier.getTable();
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+            .append(" (").append(KEYS).append(", ").append(MEASURES);
+        if (tier.hasPending()) {
+            sql.append(", ").append(PENDING);
+        }
+        sql.append(", updated_at) VALUES (?, ?, ?, ?, 1, ?, ?, ?, ?");
+        if (tier.hasPending()) {
+            sql.append(", 1, ?, ?, ?, ?");
+        }
+        sql.append(", ?) ON CONFLICT (").append(KEYS).append(") DO UPDATE SET ")
+            .append(additions(table, MEASURES));
+        if (tier.hasPending()) {
+            sql.append(", ").append(additions(table, PENDING));
+        }
+        return sql.append(", updated_at = EXCLUDED.updated_at").toString();
+    }
+
+    /**
+     * pending 증가분을 잠그고 0 으로 되돌린 뒤, 다음 단계 버킷에 더함 (한 문장 = 한 번에 이동)
+     */
+    private static String foldSql(RollupTier finer, RollupTier coarser) {
+        String keysOn = "f.bucket = l.bucket AND f.department_id = l.department_id"
+            + " AND f.printer_id = l.printer_id AND f.user_id = l.user_id";
+        String sums = "SUM(pending_jobs), SUM(pending_pages), SUM(pending_color_pages), SUM(pending_cost), SUM(pending_savings)";
+
+        StringBuilder sql = new StringBuilder()
+            .append("WITH locked AS (SELECT ").append(KEYS).append(", ").append(PENDING)
+            .append(" FROM ").append(finer.getTable()).append(" WHERE pending_jobs > 0 FOR UPDATE), ")
+            .append("cleared AS (UPDATE ").append(finer.getTable()).append(" f SET pending_jobs = 0, pending_pages = 0,")
+            .append(" pending_color_pages = 0, pending_cost = 0, pending_savings = 0 FROM locked l WHERE ")
+            .append(keysOn).append(") ")
+            .append("INSERT INTO ").append(coarser.getTable()).append(" (").append(KEYS).append(", ").append(MEASURES);
+        if (coarser.hasPending()) {
+            sql.append(", ").append(PENDING);
+        }
+        sql.append(", updated_at) SELECT date_trunc('").append(coarser.getUnit()).append("', bucket),")
+            .append(" department_id, printer_id, user_id, ").append(sums);
+        if (coarser.hasPending()) {
+            sql.append(", ").append(sums);
+        }
+        sql.append(", CURRENT_TIMESTAMP FROM locked GROUP BY 1, 2, 3, 4 ON CONFLICT (").append(KEYS)
+            .append(") DO UPDATE SET ").append(additions(coarser.getTable(), MEASURES));
+        if (coarser.hasPending()) {
+            sql.append(", ").append(additions(coarser.getTable(), PENDING));
+        }
+        return sql.append(", updated_at = EXCLUDED.updated_at").toString();
+    }
+
+    private static String additions(String table, String columns) {
+        List<String> additions = new ArrayList<>();
+        for (String column : columns.split(", ")) {
+            additions.add(column + " = " + table + "." + column + " + EXCLUDED." + column);
+        }
+        return String.join(", ", additions);
+    }
+
+    private static int valueOf(Integer value) {
+        return value != null ? value : 0;
+    }
+
+    private static BigDecimal valueOf(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
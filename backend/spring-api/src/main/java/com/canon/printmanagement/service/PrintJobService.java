@@ -3,20 +3,38 @@ package com.canon.printmanagement.service;
 import com.canon.printmanagement.dto.DepartmentPrintStatistics;
 import com.canon.printmanagement.dto.PrintStatisticsResponse;
 import com.canon.printmanagement.entity.PrintJob;
+import com.canon.printmanagement.event.PrintJobCreatedEvent;
+import com.canon.printmanagement.exception.DuplicatePrintJobException;
+import com.canon.printmanagement.hotwindow.ColumnSegment;
+import com.canon.printmanagement.hotwindow.GroupTotals;
 import com.canon.printmanagement.repository.PrintJobRepository;
+import com.canon.printmanagement.shard.ShardRouter;
+import com.canon.printmanagement.tariff.Tariff;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * 출력 작업 서비스
@@ -29,62 +47,143 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class PrintJobService {
 
-    private final PrintJobRepository printJobRepository;
-
-    @Value("${canon.cost.per-page.bw:30}")
-    private Double costPerPageBw;
+    // 샤드별 페이지를 합칠 때 쓰는 정렬 기준 (엔티티 속성명)
+    private static final Map<String, Comparator<PrintJob>> SORTABLE = Map.ofEntries(
+        sortable("id", PrintJob::getId),
+        sortable("jobId", PrintJob::getJobId),
+        sortable("printerId", PrintJob::getPrinterId),
+        sortable("userId", PrintJob::getUserId),
+        sortable("departmentId", PrintJob::getDepartmentId),
+        sortable("timestamp", PrintJob::getTimestamp),
+        sortable("documentName", PrintJob::getDocumentName),
+        sortable("fileSizeKb", PrintJob::getFileSizeKb),
+        sortable("pageCount", PrintJob::getPageCount),
+        sortable("colorPageCount", PrintJob::getColorPageCount),
+        sortable("bwPageCount", PrintJob::getBwPageCount),
+        sortable("isDuplex", PrintJob::getIsDuplex),
+        sortable("copies", PrintJob::getCopies),
+        sortable("paperSize", PrintJob::getPaperSize),
+        sortable("status", PrintJob::getStatus),
+        sortable("costBw", PrintJob::getCostBw),
+        sortable("costColor", PrintJob::getCostColor),
+        sortable("totalCost", PrintJob::getTotalCost),
+        sortable("wasColorConverted", PrintJob::getWasColorConverted),
+        sortable("wasDuplexEnforced", PrintJob::getWasDuplexEnforced),
+        sortable("policyApplied", PrintJob::getPolicyApplied),
+        sortable("colorSavings", PrintJob::getColorSavings),
+        sortable("duplexSavings", PrintJob::getDuplexSavings)
+    );
 
-    @Value("${canon.cost.per-page.color:150}")
-    private Double costPerPageColor;
-
-    @Value("${canon.cost.per-page.duplex:20}")
-    private Double costPerPageDuplex;
+    private final PrintJobRepository printJobRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PrintJobDeduplicationService printJobDeduplicationService;
+    private final HotWindowService hotWindowService;
+    private final PrintJobRollupService printJobRollupService;
+    private final PrinterHeatmapService printerHeatmapService;
+    private final EventOutboxService eventOutboxService;
+    private final QuotaChargeService quotaChargeService;
+    private final TariffService tariffService;
+    private final ShardRouter shardRouter;
+    private final QueryCoalescingService queryCoalescingService;
 
     /**
-     * 전체 출력 통계 조회 (캐시 적용)
+     * 전체 출력 통계 조회 (캐시 적용, 동시 요청은 한 번만 계산)
+     *
+     * 통계 조회는 샤드별 연결을 따로 쓰므로 바깥 트랜잭션을 열지 않는다 (대기 중인 요청이 연결을 점유하지 않음)
      */
-    @Cacheable(value = "printStatistics", key = "#startDate + '-' + #endDate")
+    @Cacheable(value = "printStatistics", key = "@queryCoalescingService.key(#startDate, #endDate)")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PrintStatisticsResponse getOverallStatistics(LocalDateTime startDate, LocalDateTime endDate) {
+        return queryCoalescingService.execute("overall", startDate, endDate, this::computeOverallStatistics);
+    }
+
+    private PrintStatisticsResponse computeOverallStatistics(LocalDateTime startDate, LocalDateTime endDate) {
         log.info("전체 출력 통계 조회: {} ~ {}", startDate, endDate);
 
-        // 비용 절감 효과 분석
-        Double colorCostDiff = costPerPageColor - costPerPageBw; // 120원 절감
-        Object[] savingsData = printJobRepository.getCostSavingsAnalysis(
-            startDate, endDate, colorCostDiff, costPerPageDuplex
-        );
+        // 비용 절감 효과 분석 (작업 저장 시 단가표로 계산한 절감액 합계)
+        if (hotWindowService.covers(startDate)) {
+            long[] totals = hotWindowService
+                .aggregate(startDate, endDate, null, ColumnSegment.GroupBy.NONE)
+                .get(0L);
+            BigDecimal colorSavings = TariffService.toAmount(totals[GroupTotals.COLOR_SAVINGS_CENTS]);
+            BigDecimal duplexSavings = TariffService.toAmount(totals[GroupTotals.DUPLEX_SAVINGS_CENTS]);
+
+            return PrintStatisticsResponse.builder()
+                .totalJobs(totals[GroupTotals.JOBS])
+                .totalPages(totals[GroupTotals.PAGES])
+                .totalColorPages(totals[GroupTotals.COLOR_PAGES])
+                .totalBwPages(totals[GroupTotals.BW_PAGES])
+                .totalCost(TariffService.toAmount(totals[GroupTotals.COST_CENTS]))
+                .colorConvertedCount(totals[GroupTotals.COLOR_CONVERTED])
+                .duplexEnforcedCount(totals[GroupTotals.DUPLEX_ENFORCED])
+                .colorSavings(colorSavings)
+                .duplexSavings(duplexSavings)
+                .totalSavings(colorSavings.add(duplexSavings))
+                .periodStart(startDate)
+                .periodEnd(endDate)
+                .build();
+        }
+
+        // 샤드별 합계를 더함 (Hot Window 경로와 같은 항목)
+        Object[] totals = shardRouter.scatter(shard -> printJobRepository.getOverallStatistics(startDate, endDate))
+            .stream()
+            .reduce((left, right) -> sumColumns(left, right, 0))
+            .orElseThrow();
+        BigDecimal colorSavings = new BigDecimal(totals[7].toString());
+        BigDecimal duplexSavings = new BigDecimal(totals[8].toString());
 
         return PrintStatisticsResponse.builder()
-            .totalJobs(((Number) savingsData[0]).longValue())
-            .totalPages(0L) // 추가 쿼리 필요
-            .totalColorPages(0L)
-            .totalBwPages(0L)
-            .totalCost(BigDecimal.ZERO)
-            .colorConvertedCount(((Number) savingsData[0]).longValue())
-            .duplexEnforcedCount(((Number) savingsData[1]).longValue())
-            .colorSavings(new BigDecimal(savingsData[2].toString()))
-            .duplexSavings(new BigDecimal(savingsData[3].toString()))
-            .totalSavings(
-                new BigDecimal(savingsData[2].toString())
-                    .add(new BigDecimal(savingsData[3].toString()))
-            )
+            .totalJobs(((Number) totals[0]).longValue())
+            .totalPages(((Number) totals[1]).longValue())
+            .totalColorPages(((Number) totals[2]).longValue())
+            .totalBwPages(((Number) totals[3]).longValue())
+            .totalCost(new BigDecimal(totals[4].toString()))
+            .colorConvertedCount(((Number) totals[5]).longValue())
+            .duplexEnforcedCount(((Number) totals[6]).longValue())
+            .colorSavings(colorSavings)
+            .duplexSavings(duplexSavings)
+            .totalSavings(colorSavings.add(duplexSavings))
             .periodStart(startDate)
             .periodEnd(endDate)
             .build();
     }
 
     /**
-     * 부서별 출력 통계
+     * 부서별 출력 통계 (캐시 적용, 동시 요청은 한 번만 계산)
      */
-    @Cacheable(value = "departmentStatistics", key = "#startDate + '-' + #endDate")
+    @Cacheable(value = "departmentStatistics", key = "@queryCoalescingService.key(#startDate, #endDate)")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<DepartmentPrintStatistics> getDepartmentStatistics(
         LocalDateTime startDate, 
         LocalDateTime endDate
+    ) {
+        return queryCoalescingService.execute("department", startDate, endDate, this::computeDepartmentStatistics);
+    }
+
+    private List<DepartmentPrintStatistics> computeDepartmentStatistics(
+        LocalDateTime startDate,
+        LocalDateTime endDate
     ) {
         log.info("부서별 출력 통계 조회: {} ~ {}", startDate, endDate);
 
-        List<Object[]> results = printJobRepository.getDepartmentStatistics(startDate, endDate);
         List<DepartmentPrintStatistics> statistics = new ArrayList<>();
 
+        if (hotWindowService.covers(startDate)) {
+            hotWindowService.aggregate(startDate, endDate, null, ColumnSegment.GroupBy.DEPARTMENT)
+                .forEach((departmentId, totals) -> statistics.add(DepartmentPrintStatistics.builder()
+                    .departmentId(departmentId)
+                    .totalJobs(totals[GroupTotals.JOBS])
+                    .totalPages(totals[GroupTotals.PAGES])
+                    .totalColorPages(totals[GroupTotals.COLOR_PAGES])
+                    .totalBwPages(totals[GroupTotals.BW_PAGES])
+                    .totalCost(TariffService.toAmount(totals[GroupTotals.COST_CENTS]))
+                    .build()));
+            return statistics;
+        }
+
+        List<Object[]> results = mergeByKey(
+            shardRouter.scatter(shard -> printJobRepository.getDepartmentStatistics(startDate, endDate)));
+
         for (Object[] row : results) {
             DepartmentPrintStatistics stat = DepartmentPrintStatistics.builder()
                 .departmentId(((Number) row[0]).longValue())
@@ -105,6 +204,16 @@ public class PrintJobService {
         return statistics;
     }
 
+    /**
+     * startDate 부터 지금까지의 전체/부서별/프린터별 통계를 다시 계산해 보관 (StatisticsWarmupService)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void refreshStatistics(LocalDateTime startDate) {
+        queryCoalescingService.refresh("overall", startDate, this::computeOverallStatistics);
+        queryCoalescingService.refresh("department", startDate, this::computeDepartmentStatistics);
+        queryCoalescingService.refresh("printer", startDate, this::computePrinterStatistics);
+    }
+
     /**
      * 사용자별 출력 통계
      */
@@ -114,16 +223,54 @@ public class PrintJobService {
         LocalDateTime endDate
     ) {
         log.info("사용자별 출력 통계 조회: 부서 {}, {} ~ {}", departmentId, startDate, endDate);
-        return printJobRepository.getUserStatisticsByDepartment(departmentId, startDate, endDate);
+
+        if (hotWindowService.covers(startDate)) {
+            List<Object[]> rows = new ArrayList<>();
+            hotWindowService.aggregate(startDate, endDate, departmentId, ColumnSegment.GroupBy.USER)
+                .forEach((userId, totals) -> rows.add(new Object[]{
+                    userId,
+                    totals[GroupTotals.JOBS],
+                    totals[GroupTotals.PAGES],
+                    totals[GroupTotals.COLOR_PAGES],
+                    TariffService.toAmount(totals[GroupTotals.COST_CENTS])
+                }));
+            rows.sort(Comparator.comparing((Object[] row) -> (BigDecimal) row[4]).reversed());
+            return rows;
+        }
+
+        return shardRouter.onDepartment(departmentId,
+            () -> printJobRepository.getUserStatisticsByDepartment(departmentId, startDate, endDate));
     }
 
     /**
-     * 프린터별 출력 통계
+     * 프린터별 출력 통계 (캐시 적용, 동시 요청은 한 번만 계산)
      */
-    @Cacheable(value = "printerStatistics", key = "#startDate + '-' + #endDate")
+    @Cacheable(value = "printerStatistics", key = "@queryCoalescingService.key(#startDate, #endDate)")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Object[]> getPrinterStatistics(LocalDateTime startDate, LocalDateTime endDate) {
+        return queryCoalescingService.execute("printer", startDate, endDate, this::computePrinterStatistics);
+    }
+
+    private List<Object[]> computePrinterStatistics(LocalDateTime startDate, LocalDateTime endDate) {
         log.info("프린터별 출력 통계 조회: {} ~ {}", startDate, endDate);
-        return printJobRepository.getPrinterStatistics(startDate, endDate);
+
+        if (hotWindowService.covers(startDate)) {
+            List<Object[]> rows = new ArrayList<>();
+            hotWindowService.aggregate(startDate, endDate, null, ColumnSegment.GroupBy.PRINTER)
+                .forEach((printerId, totals) -> rows.add(new Object[]{
+                    printerId,
+                    totals[GroupTotals.JOBS],
+                    totals[GroupTotals.PAGES],
+                    TariffService.toAmount(totals[GroupTotals.COST_CENTS])
+                }));
+            rows.sort(Comparator.comparing((Object[] row) -> (Long) row[1]).reversed());
+            return rows;
+        }
+
+        List<Object[]> rows = mergeByKey(
+            shardRouter.scatter(shard -> printJobRepository.getPrinterStatistics(startDate, endDate)));
+        rows.sort(Comparator.comparing((Object[] row) -> ((Number) row[1]).longValue()).reversed());
+        return rows;
     }
 
     /**
@@ -138,53 +285,176 @@ public class PrintJobService {
         Pageable pageable
     ) {
         if (departmentId != null) {
-            return printJobRepository.findByDepartmentIdAndTimestampBetween(
+            return shardRouter.onDepartment(departmentId, () -> printJobRepository.findByDepartmentIdAndTimestampBetween(
                 departmentId, startDate, endDate, pageable
-            );
+            ));
         } else if (userId != null) {
-            return printJobRepository.findByUserIdAndTimestampBetween(
-                userId, startDate, endDate, pageable
-            );
+            return scatterPage(pageable, shardPageable -> printJobRepository.findByUserIdAndTimestampBetween(
+                userId, startDate, endDate, shardPageable
+            ));
         } else if (printerId != null) {
-            return printJobRepository.findByPrinterIdAndTimestampBetween(
-                printerId, startDate, endDate, pageable
-            );
+            return scatterPage(pageable, shardPageable -> printJobRepository.findByPrinterIdAndTimestampBetween(
+                printerId, startDate, endDate, shardPageable
+            ));
         }
 
         return Page.empty(pageable);
     }
 
+    /**
+     * 출력 작업 단건 조회
+     */
+    public Optional<PrintJob> getPrintJob(Long id) {
+        return shardRouter.scatter(shard -> printJobRepository.findById(id).orElse(null))
+            .stream()
+            .filter(Objects::nonNull)
+            .findFirst();
+    }
+
+    /**
+     * 여러 샤드에 걸친 페이지 조회
+     *
+     * 샤드마다 앞에서부터 (offset + size)건을 읽어 정렬 기준으로 합친 뒤 해당 페이지만 잘라낸다.
+     * 샤딩 비활성 시에는 요청 페이지를 그대로 조회.
+     */
+    private Page<PrintJob> scatterPage(Pageable pageable, Function<Pageable, Page<PrintJob>> query) {
+        if (!shardRouter.isEnabled()) {
+            return query.apply(pageable);
+        }
+
+        Pageable head = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(), pageable.getSort());
+        List<Page<PrintJob>> pages = shardRouter.scatter(shard -> query.apply(head));
+
+        long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        List<PrintJob> merged = pages.stream()
+            .flatMap(page -> page.getContent().stream())
+            .sorted(comparatorOf(pageable.getSort()))
+            .skip(pageable.getOffset())
+            .limit(pageable.getPageSize())
+            .toList();
+        return new PageImpl<>(merged, pageable, total);
+    }
+
+    private static Comparator<PrintJob> comparatorOf(Sort sort) {
+        Comparator<PrintJob> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<PrintJob> byProperty = SORTABLE.get(order.getProperty());
+            if (byProperty == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "정렬할 수 없는 속성입니다: " + order.getProperty());
+            }
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+
+    // 오름차순 기준 null 은 뒤로 (내림차순이면 앞으로, PostgreSQL 기본값과 같음)
+    private static <T extends Comparable<? super T>> Map.Entry<String, Comparator<PrintJob>> sortable(
+        String property, Function<PrintJob, T> extractor) {
+        return Map.entry(property, Comparator.comparing(extractor, Comparator.nullsLast(Comparator.naturalOrder())));
+    }
+
+    /**
+     * 샤드별 집계 행을 첫 컬럼(키) 기준으로 합침 (나머지 컬럼은 합계)
+     */
+    private static List<Object[]> mergeByKey(List<List<Object[]>> shardRows) {
+        if (shardRows.size() == 1) {
+            return new ArrayList<>(shardRows.get(0));
+        }
+        Map<Object, Object[]> merged = new LinkedHashMap<>();
+        for (List<Object[]> rows : shardRows) {
+            for (Object[] row : rows) {
+                merged.merge(row[0], row, (left, right) -> sumColumns(left, right, 1));
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    // 부분 집계 합산 (firstColumn 앞의 컬럼은 키로 유지)
+    private static Object[] sumColumns(Object[] left, Object[] right, int firstColumn) {
+        Object[] sum = left.clone();
+        for (int i = firstColumn; i < sum.length; i++) {
+            Object a = left[i];
+            Object b = right[i];
+            if (a == null || b == null) {
+                sum[i] = a != null ? a : b;
+            } else if (a instanceof BigDecimal || b instanceof BigDecimal) {
+                sum[i] = new BigDecimal(a.toString()).add(new BigDecimal(b.toString()));
+            } else {
+                sum[i] = ((Number) a).longValue() + ((Number) b).longValue();
+            }
+        }
+        return sum;
+    }
+
     /**
      * 출력 작업 생성
+     *
+     * 같은 프린터의 같은 jobId 가 중복 방지 기간 내에 이미 있으면 DuplicatePrintJobException
      */
     @Transactional
     public PrintJob createPrintJob(PrintJob printJob) {
-        // 비용 계산
-        calculateCost(printJob);
-        
-        log.info("출력 작업 생성: {} (사용자: {}, 프린터: {})", 
-            printJob.getDocumentName(), printJob.getUserId(), printJob.getPrinterId());
+        // 부서 샤드에서 저장 (중복 방지 키, 롤업 버킷, outbox 이벤트도 같은 샤드/트랜잭션)
+        // 할당량(홈 샤드)은 0번 샤드면 트리거가, 아니면 QuotaChargeService 가 저장 전에 반영
+        return shardRouter.onDepartment(printJob.getDepartmentId(), () -> {
+            // 중복 수집 확인
+            printJobDeduplicationService.findDuplicate(printJob.getPrinterId(), printJob.getJobId())
+                .ifPresent(existingId -> {
+                    throw new DuplicatePrintJobException(printJob.getPrinterId(), printJob.getJobId(), existingId);
+                });
+
+            // 비용 계산
+            calculateCost(printJob);
 
-        return printJobRepository.save(printJob);
+            log.info("출력 작업 생성: {} (사용자: {}, 프린터: {})", 
+                printJob.getDocumentName(), printJob.getUserId(), printJob.getPrinterId());
+
+            PrintJob savedJob = printJobRepository.save(printJob);
+            printJobDeduplicationService.register(savedJob);
+            quotaChargeService.chargeIfRemote(savedJob);
+            printJobRollupService.record(savedJob);
+            printerHeatmapService.record(savedJob);
+            eventOutboxService.recordPrintJobCreated(savedJob);
+            eventPublisher.publishEvent(new PrintJobCreatedEvent(savedJob));
+            return savedJob;
+        });
     }
 
     /**
-     * 비용 계산
+     * 비용 계산 (프린터 모델/용지 크기별 단가, 0.01원 단위 정수 연산)
+     *
+     * - 흑백/컬러 페이지 × 단가 × 부수
+     * - 양면 출력이면 페이지 × 양면 할인액 × 부수를 흑백 비용부터 차감 (할인 전 비용 한도)
+     * - 양면 강제 작업은 그 할인액이 절감액
      */
     private void calculateCost(PrintJob printJob) {
-        BigDecimal bwCost = BigDecimal.valueOf(printJob.getBwPageCount() * costPerPageBw);
-        BigDecimal colorCost = BigDecimal.valueOf(printJob.getColorPageCount() * costPerPageColor);
-        
-        // 양면 출력 할인
-        if (printJob.getIsDuplex()) {
-            BigDecimal duplexDiscount = BigDecimal.valueOf(
-                printJob.getPageCount() * costPerPageDuplex
-            );
-            bwCost = bwCost.subtract(duplexDiscount);
+        Tariff tariff = tariffService.tariffFor(printJob.getPrinterId(), printJob.getPaperSize());
+        int copies = CostOptimizationService.copiesOf(printJob);
+
+        long bwCost = tariff.bwCost(valueOf(printJob.getBwPageCount()), copies);
+        long colorCost = tariff.colorCost(valueOf(printJob.getColorPageCount()), copies);
+
+        long duplexDiscount = 0;
+        if (Boolean.TRUE.equals(printJob.getIsDuplex())) {
+            duplexDiscount = tariff.duplexDiscount(valueOf(printJob.getPageCount()), copies, bwCost + colorCost);
+            long fromBw = Math.min(duplexDiscount, bwCost);
+            bwCost -= fromBw;
+            colorCost -= duplexDiscount - fromBw;
         }
 
-        printJob.setCostBw(bwCost);
-        printJob.setCostColor(colorCost);
-        printJob.setTotalCost(bwCost.add(colorCost));
+        printJob.setCostBw(TariffService.toAmount(bwCost));
+        printJob.setCostColor(TariffService.toAmount(colorCost));
+        printJob.setTotalCost(TariffService.toAmount(bwCost + colorCost));
+
+        if (printJob.getColorSavings() == null) {
+            printJob.setColorSavings(BigDecimal.ZERO);
+        }
+        printJob.setDuplexSavings(Boolean.TRUE.equals(printJob.getWasDuplexEnforced())
+            ? TariffService.toAmount(duplexDiscount)
+            : BigDecimal.ZERO);
+    }
+
+    private static int valueOf(Integer value) {
+        return value != null ? value : 0;
     }
 }
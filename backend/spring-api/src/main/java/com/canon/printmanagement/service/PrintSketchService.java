@@ -0,0 +1,207 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.dto.DistinctCountEstimate;
+import com.canon.printmanagement.dto.HeavyHitterResponse;
+import com.canon.printmanagement.entity.DepartmentSketch;
+import com.canon.printmanagement.entity.DepartmentSketchId;
+import com.canon.printmanagement.entity.PrintJob;
+import com.canon.printmanagement.event.PrintJobCreatedEvent;
+import com.canon.printmanagement.repository.DepartmentSketchRepository;
+import com.canon.printmanagement.shard.ShardRouter;
+import com.canon.printmanagement.sketch.DepartmentDaySketch;
+import com.canon.printmanagement.sketch.HyperLogLog;
+import com.canon.printmanagement.sketch.SpaceSaving;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 근사 집계 스케치 서비스
+ *
+ * (부서, 일) 단위로 고유 사용자/프린터 수(HyperLogLog)와 페이지·비용 Top-K(Space-Saving)를
+ * 출력 작업 저장 시점에 갱신하고 주기적으로 department_sketches 테이블에 저장한다.
+ * 임의 기간 조회는 원본 행 대신 일 단위 스케치를 병합하여 응답한다.
+ *
+ * 인스턴스마다 마지막 저장 이후 받은 작업만 담은 증분 스케치를 들고 있다가,
+ * 저장 시 기준 샤드에서 저장된 행을 SELECT ... FOR UPDATE 로 잠그고 병합해 다시 쓴다.
+ * 여러 인스턴스가 같은 (부서, 일) 을 저장해도 서로의 데이터를 덮어쓰지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PrintSketchService {
+
+    private final DepartmentSketchRepository departmentSketchRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ShardRouter shardRouter;
+
+    @Value("${canon.sketch.top-k-capacity:100}")
+    private Integer topKCapacity;
+
+    private TransactionTemplate writeTransaction;
+
+    // 아직 저장하지 않은 증분 스케치 (이 인스턴스가 마지막 저장 이후 받은 작업)
+    private final Map<DepartmentSketchId, DepartmentDaySketch> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 출력 작업 저장 시 스케치 갱신 (메모리에만 반영)
+     */
+    @TransactionalEventListener
+    public void onPrintJobCreated(PrintJobCreatedEvent event) {
+        record(event.getPrintJob());
+    }
+
+    public void record(PrintJob printJob) {
+        DepartmentSketchId key = new DepartmentSketchId(
+            printJob.getDepartmentId(), printJob.getTimestamp().toLocalDate()
+        );
+
+        BigDecimal totalCost = printJob.getTotalCost() != null ? printJob.getTotalCost() : BigDecimal.ZERO;
+        // compute 안에서 더해야 flush 가 꺼내 간 스케치에 늦게 더해지지 않음
+        pending.compute(key, (id, sketch) -> {
+            DepartmentDaySketch target = sketch != null ? sketch : new DepartmentDaySketch(topKCapacity);
+            target.add(
+                printJob.getUserId(),
+                printJob.getPrinterId(),
+                printJob.getPageCount(),
+                totalCost.movePointRight(2).longValue()
+            );
+            return target;
+        });
+    }
+
+    /**
+     * 증분 스케치를 저장된 스케치에 병합 (30초 주기)
+     */
+    @Scheduled(fixedDelayString = "${canon.sketch.flush-interval-ms:30000}")
+    public void flush() {
+        int saved = 0;
+        for (DepartmentSketchId key : pending.keySet()) {
+            DepartmentDaySketch delta = pending.remove(key);
+            if (delta == null) {
+                continue;
+            }
+            try {
+                shardRouter.onHome(() -> writeTransaction.execute(status -> {
+                    mergeInto(key, delta);
+                    return null;
+                }));
+                saved++;
+            } catch (RuntimeException e) {
+                // 다음 주기에 다시 저장 (그 사이 받은 작업과 합침)
+                pending.merge(key, delta, (current, failed) -> {
+                    current.merge(failed);
+                    return current;
+                });
+                log.warn("출력 스케치 저장 실패 ({}): {}", key.getDay(), e.getMessage());
+            }
+        }
+
+        if (saved > 0) {
+            log.debug("출력 스케치 저장: {}건", saved);
+        }
+    }
+
+    /**
+     * 부서별 고유 사용자/프린터 수 추정
+     */
+    public List<DistinctCountEstimate> estimateDistinct(Long departmentId, LocalDate startDay, LocalDate endDay) {
+        List<DistinctCountEstimate> result = new ArrayList<>();
+        mergeByDepartment(departmentId, startDay, endDay).forEach((id, sketch) ->
+            result.add(DistinctCountEstimate.builder()
+                .departmentId(id)
+                .distinctUsers(sketch.getUsers().estimate())
+                .distinctPrinters(sketch.getPrinters().estimate())
+                .relativeStandardError(HyperLogLog.STANDARD_ERROR)
+                .build())
+        );
+        return result;
+    }
+
+    /**
+     * 사용자/프린터별 페이지·비용 Top-K 추정
+     */
+    public List<HeavyHitterResponse> topK(
+        String dimension,
+        String measure,
+        Long departmentId,
+        LocalDate startDay,
+        LocalDate endDay,
+        int limit
+    ) {
+        boolean byUser = "USER".equalsIgnoreCase(dimension);
+        boolean byCost = "COST".equalsIgnoreCase(measure);
+        double scale = byCost ? 100.0 : 1.0;
+
+        DepartmentDaySketch total = new DepartmentDaySketch(topKCapacity);
+        mergeByDepartment(departmentId, startDay, endDay).values().forEach(total::merge);
+
+        List<HeavyHitterResponse> result = new ArrayList<>();
+        for (SpaceSaving.Counter counter : total.topK(byUser, byCost).top(limit)) {
+            result.add(HeavyHitterResponse.builder()
+                .dimension(byUser ? "USER" : "PRINTER")
+                .measure(byCost ? "COST" : "PAGES")
+                .id(counter.getKey())
+                .value(counter.getCount() / scale)
+                .maxError(counter.getError() / scale)
+                .build());
+        }
+        return result;
+    }
+
+    private Map<Long, DepartmentDaySketch> mergeByDepartment(Long departmentId, LocalDate startDay, LocalDate endDay) {
+        List<DepartmentSketch> rows = departmentId != null
+            ? departmentSketchRepository.findByDepartmentIdAndDayBetween(departmentId, startDay, endDay)
+            : departmentSketchRepository.findByDayBetween(startDay, endDay);
+
+        Map<Long, DepartmentDaySketch> merged = new HashMap<>();
+        for (DepartmentSketch row : rows) {
+            merged.computeIfAbsent(row.getDepartmentId(), id -> new DepartmentDaySketch(topKCapacity))
+                .merge(DepartmentDaySketch.fromBytes(row.getPayload()));
+        }
+        // 아직 저장되지 않은 증분 (저장된 행과 겹치지 않으므로 그대로 병합)
+        pending.forEach((key, sketch) -> {
+            boolean inRange = !key.getDay().isBefore(startDay) && !key.getDay().isAfter(endDay);
+            if (inRange && (departmentId == null || departmentId.equals(key.getDepartmentId()))) {
+                merged.computeIfAbsent(key.getDepartmentId(), id -> new DepartmentDaySketch(topKCapacity))
+                    .merge(sketch);
+            }
+        });
+        return merged;
+    }
+
+    /**
+     * 저장된 행을 잠그고 증분 병합 (행이 없으면 증분을 그대로 저장)
+     */
+    private void mergeInto(DepartmentSketchId key, DepartmentDaySketch delta) {
+        byte[] payload = delta.toBytes();
+        if (departmentSketchRepository.insertIfAbsent(key.getDepartmentId(), key.getDay(), payload) > 0) {
+            return;
+        }
+        DepartmentSketch row = departmentSketchRepository
+            .findForUpdate(key.getDepartmentId(), key.getDay())
+            .orElseThrow();
+        DepartmentDaySketch stored = DepartmentDaySketch.fromBytes(row.getPayload());
+        stored.merge(delta);
+        row.setPayload(stored.toBytes());
+    }
+}
@@ -0,0 +1,262 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.dto.HeartbeatResponse;
+import com.canon.printmanagement.dto.OfflinePrinterItem;
+import com.canon.printmanagement.dto.PrinterHeartbeat;
+import com.canon.printmanagement.shard.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 프린터 heartbeat 수집 서비스 (Printer.lastSeenAt 일괄 갱신 + 오프라인 감지)
+ *
+ * 장비마다 save() 로 lastSeenAt 을 쓰면 @PreUpdate 와 전체 컬럼 UPDATE 가 수천 대 × 폴링 주기만큼 발생한다.
+ * - 수신: (printerId 또는 ipAddress, seenAt) 묶음을 메모리의 프린터별 최신 시각에 합침 (DB 접근 없음)
+ * - 반영: flush-interval 마다 바뀐 프린터만 UPDATE ... FROM (VALUES ...) 한 문장으로 기록
+ *   (flush-batch-size 를 넘으면 나눠서). 더 최근 값만 쓰므로 여러 인스턴스가 동시에 반영해도 안전하고,
+ *   updated_at 은 장비 정보 변경 시각이므로 건드리지 않는다.
+ * - 오프라인: 메모리의 마지막 수신 시각 기준 (기동 시 DB 의 last_seen_at 으로 채움)
+ * 프린터 목록(ID/IP)은 registry-refresh-interval 마다 기준 샤드에서 다시 읽는다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PrinterHeartbeatService {
+
+    private static final String REGISTRY_SQL = """
+        SELECT id, name, host(ip_address) AS ip_address, location, last_seen_at
+        FROM printers
+        WHERE is_active = true
+        """;
+
+    private record PrinterRef(long id, String name, String ipAddress, String location) {
+    }
+
+    private record Registry(Map<Long, PrinterRef> byId, Map<String, PrinterRef> byIp) {
+    }
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final ShardRouter shardRouter;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${canon.heartbeat.max-batch-size:10000}")
+    private Integer maxBatchSize;
+
+    @Value("${canon.heartbeat.flush-batch-size:5000}")
+    private Integer flushBatchSize;
+
+    @Value("${canon.heartbeat.offline-after-minutes:10}")
+    private Integer offlineAfterMinutes;
+
+    // 에이전트 시계가 앞서 있을 때 허용하는 범위 (넘으면 수신 시각으로 기록)
+    @Value("${canon.heartbeat.max-clock-skew-seconds:60}")
+    private Integer maxClockSkewSeconds;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private volatile Registry registry = new Registry(Map.of(), Map.of());
+
+    // 프린터별 마지막 수신 시각 / 아직 DB 에 반영하지 않은 시각
+    private final ConcurrentHashMap<Long, LocalDateTime> lastSeen = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, LocalDateTime> dirty = new ConcurrentHashMap<>();
+
+    private Counter accepted;
+    private Counter unknown;
+    private Counter flushed;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        accepted = Counter.builder("canon.heartbeat.accepted").register(meterRegistry);
+        unknown = Counter.builder("canon.heartbeat.unknown").register(meterRegistry);
+        flushed = Counter.builder("canon.heartbeat.flushed").register(meterRegistry);
+        Gauge.builder("canon.heartbeat.offline", this,
+                service -> service.findOffline(service.offlineAfterMinutes).size())
+            .register(meterRegistry);
+    }
+
+    /**
+     * 프린터 목록 갱신 (기본 1분 주기, 기동 직후 한 번)
+     */
+    @Scheduled(fixedDelayString = "${canon.heartbeat.registry-refresh-interval-ms:60000}")
+    public void refreshRegistry() {
+        try {
+            Map<Long, PrinterRef> byId = new HashMap<>();
+            Map<String, PrinterRef> byIp = new HashMap<>();
+            shardRouter.onHome(() -> {
+                jdbcTemplate.query(REGISTRY_SQL, (ResultSet rs) -> {
+                    PrinterRef printer = new PrinterRef(rs.getLong("id"), rs.getString("name"),
+                        rs.getString("ip_address"), rs.getString("location"));
+                    byId.put(printer.id(), printer);
+                    if (printer.ipAddress() != null) {
+                        byIp.put(printer.ipAddress(), printer);
+                    }
+                    Timestamp seenAt = rs.getTimestamp("last_seen_at");
+                    if (seenAt != null) {
+                        lastSeen.merge(printer.id(), seenAt.toLocalDateTime(), PrinterHeartbeatService::latest);
+                    }
+                });
+                return null;
+            });
+            registry = new Registry(byId, byIp);
+            lastSeen.keySet().retainAll(byId.keySet());
+        } catch (RuntimeException e) {
+            log.warn("heartbeat 프린터 목록 갱신 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * heartbeat 일괄 수신 (메모리에만 반영)
+     */
+    public HeartbeatResponse accept(List<PrinterHeartbeat> heartbeats) {
+        if (heartbeats == null || heartbeats.isEmpty()) {
+            throw badRequest("heartbeat 가 없습니다");
+        }
+        if (heartbeats.size() > maxBatchSize) {
+            throw badRequest("한 번에 최대 " + maxBatchSize + "건까지 보낼 수 있습니다: " + heartbeats.size());
+        }
+
+        Registry current = registry;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime latestAllowed = now.plusSeconds(maxClockSkewSeconds);
+        int acceptedCount = 0;
+        for (PrinterHeartbeat heartbeat : heartbeats) {
+            PrinterRef printer = heartbeat == null ? null
+                : heartbeat.getPrinterId() != null ? current.byId().get(heartbeat.getPrinterId())
+                : heartbeat.getIpAddress() != null ? current.byIp().get(heartbeat.getIpAddress().trim())
+                : null;
+            if (printer == null) {
+                continue;
+            }
+            LocalDateTime seenAt = heartbeat.getSeenAt();
+            if (seenAt == null || seenAt.isAfter(latestAllowed)) {
+                seenAt = now;
+            }
+            lastSeen.merge(printer.id(), seenAt, PrinterHeartbeatService::latest);
+            dirty.merge(printer.id(), seenAt, PrinterHeartbeatService::latest);
+            acceptedCount++;
+        }
+
+        accepted.increment(acceptedCount);
+        unknown.increment(heartbeats.size() - acceptedCount);
+        return HeartbeatResponse.builder()
+            .received(heartbeats.size())
+            .accepted(acceptedCount)
+            .unknown(heartbeats.size() - acceptedCount)
+            .build();
+    }
+
+    /**
+     * 바뀐 lastSeenAt 일괄 반영 (기본 30초 주기)
+     */
+    @Scheduled(fixedDelayString = "${canon.heartbeat.flush-interval-ms:30000}")
+    public void flush() {
+        List<Long> ids = new ArrayList<>();
+        List<LocalDateTime> seenAts = new ArrayList<>();
+        for (Long printerId : dirty.keySet()) {
+            LocalDateTime seenAt = dirty.remove(printerId);
+            if (seenAt != null) {
+                ids.add(printerId);
+                seenAts.add(seenAt);
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        int written = 0;
+        for (int from = 0; from < ids.size(); from += flushBatchSize) {
+            int to = Math.min(ids.size(), from + flushBatchSize);
+            List<Long> chunkIds = ids.subList(from, to);
+            List<LocalDateTime> chunkSeenAts = seenAts.subList(from, to);
+            try {
+                Integer updated = shardRouter.onHome(
+                    () -> writeTransaction.execute(status -> update(chunkIds, chunkSeenAts)));
+                written += updated != null ? updated : 0;
+            } catch (RuntimeException e) {
+                // 다음 주기에 다시 반영 (그 사이 받은 더 최근 값과 합침)
+                for (int i = 0; i < chunkIds.size(); i++) {
+                    dirty.merge(chunkIds.get(i), chunkSeenAts.get(i), PrinterHeartbeatService::latest);
+                }
+                log.warn("lastSeenAt 반영 실패 ({}대): {}", chunkIds.size(), e.getMessage());
+            }
+        }
+        flushed.increment(written);
+        log.debug("lastSeenAt 반영: {}대 중 {}대 갱신", ids.size(), written);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 오프라인 프린터 (마지막 수신 후 minutes 분 초과 또는 수신 이력 없음, 오래된 순)
+     */
+    public List<OfflinePrinterItem> findOffline(int minutes) {
+        if (minutes < 1) {
+            throw badRequest("minutes 는 1 이상이어야 합니다: " + minutes);
+        }
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(minutes);
+        List<OfflinePrinterItem> offline = new ArrayList<>();
+        for (PrinterRef printer : registry.byId().values()) {
+            LocalDateTime seenAt = lastSeen.get(printer.id());
+            if (seenAt == null || seenAt.isBefore(threshold)) {
+                offline.add(new OfflinePrinterItem(printer.id(), printer.name(), printer.ipAddress(),
+                    printer.location(), seenAt));
+            }
+        }
+        offline.sort(Comparator.comparing(OfflinePrinterItem::lastSeenAt,
+            Comparator.nullsFirst(Comparator.naturalOrder())));
+        return offline;
+    }
+
+    /**
+     * UPDATE printers ... FROM (VALUES (id, seen_at), ...) - 더 최근 값만 기록
+     */
+    private int update(List<Long> ids, List<LocalDateTime> seenAts) {
+        StringBuilder sql = new StringBuilder("UPDATE printers p SET last_seen_at = v.seen_at FROM (VALUES ");
+        Object[] args = new Object[ids.size() * 2];
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "(?::bigint, ?::timestamp)" : ", (?, ?)");
+            args[i * 2] = ids.get(i);
+            args[i * 2 + 1] = Timestamp.valueOf(seenAts.get(i));
+        }
+        sql.append(") AS v(id, seen_at) WHERE p.id = v.id AND (p.last_seen_at IS NULL OR p.last_seen_at < v.seen_at)");
+        return jdbcTemplate.update(sql.toString(), args);
+    }
+
+    private static LocalDateTime latest(LocalDateTime left, LocalDateTime right) {
+        return left.isAfter(right) ? left : right;
+    }
+
+    private static ResponseStatusException badRequest(String message) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+    }
+}
@@ -0,0 +1,227 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.dto.PrinterHeatmapResponse;
+import com.canon.printmanagement.entity.PrintJob;
+import com.canon.printmanagement.shard.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/**
+ * 프린터 사용률 히트맵 서비스 (요일 × 시간 168칸)
+ *
+ * 부서 샤드의 printer_heatmaps 에 (주, 부서, 프린터, 요일·시간) 별 작업/페이지 수를 두고
+ * 작업 저장 트랜잭션에서 한 칸씩 더한다 (페이지 수는 장비가 실제로 출력한 양이므로 부수 포함).
+ * 조회는 최근 N주 행만 합산하므로 print_jobs 를 읽지 않는다.
+ * - 프린터/전체: 모든 샤드 합산 (여러 부서가 같은 프린터 사용)
+ * - 부서: 해당 부서 샤드만
+ * - 위치: 기준 샤드에서 해당 위치의 프린터 목록을 찾아 프린터 히트맵 합산
+ * 보관 기간(retention-weeks)이 지난 주는 매일 삭제한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PrinterHeatmapService {
+
+    public static final int HOURS_PER_WEEK = 7 * 24;
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO printer_heatmaps (week, department_id, printer_id, hour_of_week, jobs, pages, updated_at)
+        VALUES (?, ?, ?, ?, 1, ?, CURRENT_TIMESTAMP)
+        ON CONFLICT (week, department_id, printer_id, hour_of_week) DO UPDATE SET
+            jobs = printer_heatmaps.jobs + 1,
+            pages = printer_heatmaps.pages + EXCLUDED.pages,
+            updated_at = EXCLUDED.updated_at
+        """;
+    private static final String SELECT_SQL = """
+        SELECT hour_of_week, SUM(jobs) AS jobs, SUM(pages) AS pages
+        FROM printer_heatmaps
+        WHERE week >= ?%s
+        GROUP BY hour_of_week
+        """;
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final ShardRouter shardRouter;
+
+    @Value("${canon.heatmap.enabled:true}")
+    private Boolean enabled;
+
+    @Value("${canon.heatmap.retention-weeks:104}")
+    private Integer retentionWeeks;
+
+    @Value("${canon.heatmap.max-weeks:104}")
+    private Integer maxWeeks;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 작업 1건 반영 (createPrintJob 트랜잭션 안에서 호출, 같은 샤드 연결 사용)
+     */
+    public void record(PrintJob printJob) {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime timestamp = printJob.getTimestamp() != null ? printJob.getTimestamp() : LocalDateTime.now();
+        long pages = (long) (printJob.getPageCount() != null ? printJob.getPageCount() : 0)
+            * CostOptimizationService.copiesOf(printJob);
+        jdbcTemplate.update(UPSERT_SQL, Date.valueOf(weekOf(timestamp.toLocalDate())), printJob.getDepartmentId(),
+            printJob.getPrinterId(), hourOfWeek(timestamp), pages);
+    }
+
+    /**
+     * 히트맵 조회 (printerId, departmentId, location 중 하나, 모두 없으면 전체 장비)
+     */
+    public PrinterHeatmapResponse getHeatmap(Long printerId, Long departmentId, String location, Integer weeks) {
+        int scopes = (printerId != null ? 1 : 0) + (departmentId != null ? 1 : 0) + (location != null ? 1 : 0);
+        if (scopes > 1) {
+            throw badRequest("printerId, departmentId, location 중 하나만 지정할 수 있습니다");
+        }
+        if (weeks == null || weeks < 1 || weeks > maxWeeks) {
+            throw badRequest("weeks 는 1~" + maxWeeks + " 사이여야 합니다: " + weeks);
+        }
+
+        LocalDate since = weekOf(LocalDate.now()).minusWeeks(weeks - 1L);
+        long[][] totals = new long[2][HOURS_PER_WEEK];
+        PrinterHeatmapResponse.PrinterHeatmapResponseBuilder response = PrinterHeatmapResponse.builder()
+            .weeks(weeks)
+            .since(since);
+
+        if (printerId != null) {
+            response.scope("PRINTER").scopeId(printerId);
+            shardRouter.scatter(shard -> query(since, " AND printer_id = ?", printerId))
+                .forEach(rows -> add(totals, rows));
+        } else if (departmentId != null) {
+            response.scope("DEPARTMENT").scopeId(departmentId);
+            long[][] rows = shardRouter.onDepartment(departmentId,
+                () -> query(since, " AND department_id = ?", departmentId));
+            add(totals, rows);
+        } else if (location != null) {
+            List<Long> printerIds = shardRouter.onHome(
+                () -> jdbcTemplate.queryForList("SELECT id FROM printers WHERE location = ?", Long.class, location));
+            response.scope("LOCATION").location(location).printerCount(printerIds.size());
+            if (!printerIds.isEmpty()) {
+                Long[] ids = printerIds.toArray(Long[]::new);
+                shardRouter.scatter(shard -> query(since, " AND printer_id = ANY(?)", ids))
+                    .forEach(rows -> add(totals, rows));
+            }
+        } else {
+            response.scope("FLEET");
+            shardRouter.scatter(shard -> query(since, "", null))
+                .forEach(rows -> add(totals, rows));
+        }
+
+        int peak = 0;
+        long totalJobs = 0;
+        long totalPages = 0;
+        long[][] jobs = new long[7][24];
+        long[][] pages = new long[7][24];
+        for (int slot = 0; slot < HOURS_PER_WEEK; slot++) {
+            jobs[slot / 24][slot % 24] = totals[0][slot];
+            pages[slot / 24][slot % 24] = totals[1][slot];
+            totalJobs += totals[0][slot];
+            totalPages += totals[1][slot];
+            if (totals[0][slot] > totals[0][peak]) {
+                peak = slot;
+            }
+        }
+
+        return response
+            .jobs(jobs)
+            .pages(pages)
+            .totalJobs(totalJobs)
+            .totalPages(totalPages)
+            .peakDayOfWeek(totalJobs > 0 ? peak / 24 + 1 : null)
+            .peakHour(totalJobs > 0 ? peak % 24 : null)
+            .build();
+    }
+
+    /**
+     * 보관 기간이 지난 주 삭제 (매일 새벽 4시)
+     */
+    @Scheduled(cron = "${canon.heatmap.cleanup-cron:0 0 4 * * *}")
+    public void cleanup() {
+        if (!enabled) {
+            return;
+        }
+        Date before = Date.valueOf(weekOf(LocalDate.now()).minusWeeks(retentionWeeks));
+        int[] deleted = {0};
+        try {
+            shardRouter.forEachShard(writeTransaction, shard ->
+                deleted[0] += jdbcTemplate.update("DELETE FROM printer_heatmaps WHERE week < ?", before));
+        } catch (RuntimeException e) {
+            log.error("히트맵 정리 실패", e);
+            return;
+        }
+        log.info("히트맵 정리: {}행 삭제 ({} 이전)", deleted[0], before);
+    }
+
+    /**
+     * 현재 샤드의 칸별 합계 ([0] 작업 수, [1] 페이지 수)
+     */
+    private long[][] query(LocalDate since, String condition, Object value) {
+        long[][] totals = new long[2][HOURS_PER_WEEK];
+        jdbcTemplate.query((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_SQL.formatted(condition));
+            ps.setDate(1, Date.valueOf(since));
+            if (value instanceof Long[] ids) {
+                ps.setArray(2, con.createArrayOf("int8", ids));
+            } else if (value != null) {
+                ps.setObject(2, value);
+            }
+            return ps;
+        }, (ResultSet rs) -> {
+            int slot = rs.getInt("hour_of_week");
+            totals[0][slot] += rs.getLong("jobs");
+            totals[1][slot] += rs.getLong("pages");
+        });
+        return totals;
+    }
+
+    private static void add(long[][] totals, long[][] rows) {
+        for (int slot = 0; slot < HOURS_PER_WEEK; slot++) {
+            totals[0][slot] += rows[0][slot];
+            totals[1][slot] += rows[1][slot];
+        }
+    }
+
+    // 주 시작 (월요일)
+    private static LocalDate weekOf(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    // 월요일 0시 = 0 ~ 일요일 23시 = 167
+    private static int hourOfWeek(LocalDateTime timestamp) {
+        return (timestamp.getDayOfWeek().getValue() - 1) * 24 + timestamp.getHour();
+    }
+
+    private static ResponseStatusException badRequest(String message) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+    }
+}
@@ -0,0 +1,317 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.dto.PrinterImportResponse;
+import com.canon.printmanagement.entity.Printer;
+import com.canon.printmanagement.shard.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 프린터 일괄 등록/갱신 서비스 (serial_number 기준 upsert)
+ *
+ * 신규 사무실 장비 수백~수만 대를 한 번에 반영한다.
+ * - 쓰기 전에 전체 요청을 검증 (필수값/길이/형식/요청 내 중복/모델·부서 존재).
+ *   ip_address::inet 등 형변환이 청크 도중 실패하지 않도록 주소는 정규식이 아닌 파서로 확인
+ * - 시리얼 번호 순으로 정렬한 뒤 batch-size 단위로 배열 파라미터 INSERT ... ON CONFLICT 한 문장씩 실행
+ * - 청크마다 커밋하여 행 잠금은 청크 처리 시간 동안만 유지 (정렬 순서가 같아 동시 요청 간 교착 없음)
+ * - 기존 값과 같은 행은 갱신하지 않음 (updated_at, WAL 변경 없음)
+ * 도중에 실패하면 앞선 청크는 반영된 상태로 남지만, 같은 요청을 다시 보내면 나머지만 적용된다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PrinterImportService {
+
+    // 값이 같아 갱신하지 않은 행은 RETURNING 에 나오지 않음 (xmax = 0 이면 신규 삽입)
+    private static final String UPSERT_SQL = """
+        INSERT INTO printers (name, serial_number, ip_address, mac_address, model_id, location,
+                              department_id, installation_date, snmp_community, snmp_version, is_active)
+        SELECT u.name, u.serial_number, u.ip_address::inet, u.mac_address::macaddr, u.model_id, u.location,
+               u.department_id, u.installation_date::date, u.snmp_community, u.snmp_version, u.is_active
+        FROM unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::int8[], ?::text[],
+                    ?::int8[], ?::text[], ?::text[], ?::text[], ?::bool[])
+            AS u(name, serial_number, ip_address, mac_address, model_id, location,
+                 department_id, installation_date, snmp_community, snmp_version, is_active)
+        ON CONFLICT (serial_number) DO UPDATE SET
+            name = EXCLUDED.name,
+            ip_address = EXCLUDED.ip_address,
+            mac_address = EXCLUDED.mac_address,
+            model_id = EXCLUDED.model_id,
+            location = EXCLUDED.location,
+            department_id = EXCLUDED.department_id,
+            installation_date = EXCLUDED.installation_date,
+            snmp_community = EXCLUDED.snmp_community,
+            snmp_version = EXCLUDED.snmp_version,
+            is_active = EXCLUDED.is_active,
+            updated_at = CURRENT_TIMESTAMP
+        WHERE (printers.name, printers.ip_address, printers.mac_address, printers.model_id, printers.location,
+               printers.department_id, printers.installation_date, printers.snmp_community,
+               printers.snmp_version, printers.is_active)
+            IS DISTINCT FROM
+              (EXCLUDED.name, EXCLUDED.ip_address, EXCLUDED.mac_address, EXCLUDED.model_id, EXCLUDED.location,
+               EXCLUDED.department_id, EXCLUDED.installation_date, EXCLUDED.snmp_community,
+               EXCLUDED.snmp_version, EXCLUDED.is_active)
+        RETURNING (xmax = 0) AS inserted
+        """;
+
+    private static final Pattern IPV4 = Pattern.compile(
+        "^((25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)\\.){3}(25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)(/([0-9]|[12]\\d|3[0-2]))?$");
+    // 문자 집합만 거르고 주소 자체는 InetAddress 로 파싱 (':' 가 있으면 DNS 조회 없이 IPv6 리터럴로만 해석)
+    private static final Pattern IPV6 = Pattern.compile("^([0-9A-Fa-f:.]*:[0-9A-Fa-f:.]*)(/(\\d{1,3}))?$");
+    private static final Pattern MAC = Pattern.compile("^([0-9A-Fa-f]{2}[:-]){5}[0-9A-Fa-f]{2}$");
+    private static final Set<String> SNMP_VERSIONS = Set.of("v1", "v2c", "v3");
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final ShardRouter shardRouter;
+
+    @Value("${canon.printer-import.max-items:20000}")
+    private Integer maxItems;
+
+    @Value("${canon.printer-import.batch-size:1000}")
+    private Integer batchSize;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 프린터 일괄 등록/갱신 (기준 테이블이므로 0번 샤드)
+     */
+    public PrinterImportResponse importPrinters(List<Printer> printers) {
+        long started = System.currentTimeMillis();
+        validate(printers);
+
+        List<Printer> sorted = new ArrayList<>(printers);
+        sorted.sort(Comparator.comparing(Printer::getSerialNumber));
+
+        int created = 0;
+        int updated = 0;
+        int batches = 0;
+        for (int from = 0; from < sorted.size(); from += batchSize) {
+            List<Printer> chunk = sorted.subList(from, Math.min(from + batchSize, sorted.size()));
+            int[] counts = shardRouter.onHome(() -> writeTransaction.execute(status -> upsert(chunk)));
+            created += counts[0];
+            updated += counts[1];
+            batches++;
+        }
+
+        PrinterImportResponse response = PrinterImportResponse.builder()
+            .received(printers.size())
+            .created(created)
+            .updated(updated)
+            .unchanged(printers.size() - created - updated)
+            .batches(batches)
+            .durationMs(System.currentTimeMillis() - started)
+            .build();
+        log.info("프린터 일괄 반영: {}대 (신규 {}, 변경 {}, 동일 {}), {}ms",
+            response.getReceived(), created, updated, response.getUnchanged(), response.getDurationMs());
+        return response;
+    }
+
+    /**
+     * @return {신규, 변경} 건수
+     */
+    private int[] upsert(List<Printer> chunk) {
+        int size = chunk.size();
+        String[] names = new String[size];
+        String[] serialNumbers = new String[size];
+        String[] ipAddresses = new String[size];
+        String[] macAddresses = new String[size];
+        Long[] modelIds = new Long[size];
+        String[] locations = new String[size];
+        Long[] departmentIds = new Long[size];
+        String[] installationDates = new String[size];
+        String[] snmpCommunities = new String[size];
+        String[] snmpVersions = new String[size];
+        Boolean[] activeFlags = new Boolean[size];
+
+        for (int i = 0; i < size; i++) {
+            Printer printer = chunk.get(i);
+            names[i] = printer.getName();
+            serialNumbers[i] = printer.getSerialNumber();
+            ipAddresses[i] = printer.getIpAddress();
+            macAddresses[i] = printer.getMacAddress();
+            modelIds[i] = printer.getModelId();
+            locations[i] = printer.getLocation();
+            departmentIds[i] = printer.getDepartmentId();
+            installationDates[i] = printer.getInstallationDate() != null
+                ? printer.getInstallationDate().toLocalDate().toString() : null;
+            snmpCommunities[i] = printer.getSnmpCommunity() != null ? printer.getSnmpCommunity() : "public";
+            snmpVersions[i] = printer.getSnmpVersion() != null ? printer.getSnmpVersion() : "v2c";
+            activeFlags[i] = printer.getIsActive() == null || printer.getIsActive();
+        }
+
+        List<Boolean> inserted = jdbcTemplate.query((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement(UPSERT_SQL);
+            ps.setArray(1, con.createArrayOf("text", names));
+            ps.setArray(2, con.createArrayOf("text", serialNumbers));
+            ps.setArray(3, con.createArrayOf("text", ipAddresses));
+            ps.setArray(4, con.createArrayOf("text", macAddresses));
+            ps.setArray(5, con.createArrayOf("int8", modelIds));
+            ps.setArray(6, con.createArrayOf("text", locations));
+            ps.setArray(7, con.createArrayOf("int8", departmentIds));
+            ps.setArray(8, con.createArrayOf("text", installationDates));
+            ps.setArray(9, con.createArrayOf("text", snmpCommunities));
+            ps.setArray(10, con.createArrayOf("text", snmpVersions));
+            ps.setArray(11, con.createArrayOf("bool", activeFlags));
+            return ps;
+        }, (rs, rowNum) -> rs.getBoolean("inserted"));
+
+        int created = 0;
+        for (Boolean row : inserted) {
+            if (Boolean.TRUE.equals(row)) {
+                created++;
+            }
+        }
+        return new int[] {created, inserted.size() - created};
+    }
+
+    /**
+     * 전체 요청 검증 (하나라도 잘못되면 아무것도 쓰지 않음)
+     */
+    private void validate(List<Printer> printers) {
+        if (printers == null || printers.isEmpty()) {
+            throw badRequest("등록할 프린터가 없습니다");
+        }
+        if (printers.size() > maxItems) {
+            throw badRequest("한 번에 최대 " + maxItems + "대까지 등록할 수 있습니다: " + printers.size());
+        }
+
+        List<String> errors = new ArrayList<>();
+        Set<String> serialNumbers = new HashSet<>();
+        Set<Long> modelIds = new HashSet<>();
+        Set<Long> departmentIds = new HashSet<>();
+
+        for (int i = 0; i < printers.size(); i++) {
+            Printer printer = printers.get(i);
+            if (printer == null) {
+                errors.add("[" + i + "] 항목이 비어 있습니다");
+                continue;
+            }
+            String prefix = "[" + i + "] ";
+            if (isBlank(printer.getSerialNumber()) || printer.getSerialNumber().length() > 100) {
+                errors.add(prefix + "serialNumber 는 1~100자여야 합니다");
+            } else if (!serialNumbers.add(printer.getSerialNumber())) {
+                errors.add(prefix + "요청 안에서 serialNumber 중복: " + printer.getSerialNumber());
+            }
+            if (isBlank(printer.getName()) || printer.getName().length() > 200) {
+                errors.add(prefix + "name 은 1~200자여야 합니다");
+            }
+            if (!isInetAddress(printer.getIpAddress())) {
+                errors.add(prefix + "ipAddress 형식이 올바르지 않습니다: " + printer.getIpAddress());
+            }
+            if (printer.getMacAddress() != null && !MAC.matcher(printer.getMacAddress()).matches()) {
+                errors.add(prefix + "macAddress 형식이 올바르지 않습니다: " + printer.getMacAddress());
+            }
+            if (printer.getLocation() != null && printer.getLocation().length() > 255) {
+                errors.add(prefix + "location 은 255자 이하여야 합니다");
+            }
+            if (printer.getSnmpCommunity() != null && printer.getSnmpCommunity().length() > 100) {
+                errors.add(prefix + "snmpCommunity 는 100자 이하여야 합니다");
+            }
+            if (printer.getSnmpVersion() != null && !SNMP_VERSIONS.contains(printer.getSnmpVersion())) {
+                errors.add(prefix + "snmpVersion 은 v1, v2c, v3 중 하나여야 합니다: " + printer.getSnmpVersion());
+            }
+            if (printer.getModelId() != null) {
+                modelIds.add(printer.getModelId());
+            }
+            if (printer.getDepartmentId() != null) {
+                departmentIds.add(printer.getDepartmentId());
+            }
+        }
+
+        if (errors.isEmpty()) {
+            Set<Long> missingModels = missingIds("printer_models", modelIds);
+            Set<Long> missingDepartments = missingIds("departments", departmentIds);
+            if (!missingModels.isEmpty()) {
+                errors.add("존재하지 않는 modelId: " + missingModels);
+            }
+            if (!missingDepartments.isEmpty()) {
+                errors.add("존재하지 않는 departmentId: " + missingDepartments);
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            String message = String.join("; ", errors.subList(0, Math.min(errors.size(), MAX_REPORTED_ERRORS)));
+            if (errors.size() > MAX_REPORTED_ERRORS) {
+                message += " 외 " + (errors.size() - MAX_REPORTED_ERRORS) + "건";
+            }
+            throw badRequest("프린터 일괄 등록 검증 실패 (" + errors.size() + "건): " + message);
+        }
+    }
+
+    // table 은 내부 상수만 전달
+    private Set<Long> missingIds(String table, Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        List<Long> found = shardRouter.onHome(() -> jdbcTemplate.query((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement("SELECT id FROM " + table + " WHERE id = ANY(?)");
+            ps.setArray(1, con.createArrayOf("int8", ids.toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1)));
+
+        Set<Long> missing = new HashSet<>(ids);
+        found.forEach(missing::remove);
+        return missing;
+    }
+
+    /**
+     * PostgreSQL inet 으로 변환 가능한 주소 (IPv4 또는 IPv6, 선택적 /prefix)
+     */
+    static boolean isInetAddress(String value) {
+        if (value == null) {
+            return false;
+        }
+        if (IPV4.matcher(value).matches()) {
+            return true;
+        }
+        Matcher matcher = IPV6.matcher(value);
+        if (!matcher.matches() || (matcher.group(3) != null && Integer.parseInt(matcher.group(3)) > 128)) {
+            return false;
+        }
+        try {
+            InetAddress.getByName(matcher.group(1));
+            return true;
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static ResponseStatusException badRequest(String message) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+    }
+}
@@ -0,0 +1,103 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.dto.PrinterListItem;
+import com.canon.printmanagement.dto.PrinterStatusItem;
+import com.canon.printmanagement.repository.PrinterRepository;
+import com.canon.printmanagement.repository.PrinterStatusRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 프린터 목록/상태 조회 서비스 (JSON 배열 스트리밍)
+ *
+ * 엔티티 대신 읽기 전용 record 프로젝션을 fetch size 단위 커서로 읽으면서 바로 JSON 으로 기록한다.
+ * 생성자 표현식 결과는 영속성 컨텍스트가 관리하지 않으므로 행 수와 관계없이 힙 사용량이 일정하다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PrinterQueryService {
+
+    private final PrinterRepository printerRepository;
+    private final PrinterStatusRepository printerStatusRepository;
+    private final StatusTimeSeriesService statusTimeSeriesService;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    private TransactionTemplate readOnlyTransaction;
+    private ObjectWriter writer;
+
+    @PostConstruct
+    public void init() {
+        // PostgreSQL 은 트랜잭션(autocommit off) 안에서만 커서 단위 fetch 를 사용
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        // 행마다 flush 하지 않고 출력 버퍼 단위로 전송
+        writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public StreamingResponseBody streamPrinters(boolean activeOnly) {
+        return streamArray(() -> printerRepository.streamAll(activeOnly));
+    }
+
+    public StreamingResponseBody streamStatusHistory(Long printerId, LocalDateTime startDate, LocalDateTime endDate) {
+        // 압축 시계열 보관 구간이면 메모리에서 응답 (미반영 최근 구간만 DB)
+        if (statusTimeSeriesService.covers(startDate)) {
+            return streamArray(() -> statusTimeSeriesService.streamHistory(printerId, startDate, endDate));
+        }
+        return streamArray(() -> printerStatusRepository.streamHistory(printerId, startDate, endDate));
+    }
+
+    public StreamingResponseBody streamLowToner(Integer threshold, LocalDateTime since) {
+        return streamArray(() -> printerStatusRepository.streamPrintersWithLowToner(threshold, since));
+    }
+
+    public StreamingResponseBody streamLowPaper(Integer threshold, LocalDateTime since) {
+        return streamArray(() -> printerStatusRepository.streamPrintersWithLowPaper(threshold, since));
+    }
+
+    public StreamingResponseBody streamErrors(LocalDateTime since) {
+        return streamArray(() -> printerStatusRepository.streamPrintersWithErrors(since));
+    }
+
+    private <T> StreamingResponseBody streamArray(Supplier<Stream<T>> query) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+                // 조회 중 오류가 나도 close() 가 배열을 닫지 않도록 함 (잘린 목록이 정상 응답처럼 보이지 않게)
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                generator.writeStartArray();
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<T> rows = query.get()) {
+                        rows.forEach(row -> write(generator, row));
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    private void write(JsonGenerator generator, Object row) {
+        try {
+            writer.writeValue(generator, row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.dto.PrinterRecommendation;
+import com.canon.printmanagement.entity.PrintJob;
+import com.canon.printmanagement.event.PrintJobCreatedEvent;
+import com.canon.printmanagement.recommend.DecayingRate;
+import com.canon.printmanagement.recommend.PrinterLocation;
+import com.canon.printmanagement.recommend.PrinterSnapshot;
+import com.canon.printmanagement.shard.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 한가한 프린터 추천 서비스
+ *
+ * 사용자나 위치를 받아 같은 건물의 사용 가능한 프린터를 현재 부하 순으로 추천한다.
+ * - 인덱스: 활성 프린터 + 모델 기능(컬러/A3) + 최신 상태를 refresh-interval 마다 기준 샤드에서 읽어
+ *   Printer.location 의 건물별로 묶고 통째로 교체 (조회는 메모리만 사용)
+ * - 부하: 작업 저장 이벤트로 갱신하는 프린터별 지수 감쇠 분당 작업 수.
+ *   기동 직후와 reseed-interval 마다 모든 샤드의 print_jobs 로 다시 맞춰 다른 인스턴스가 받은 작업도 반영
+ * - 점수: 분당 작업 수 + 층 차이·용지/토너 부족·경고·오래된 상태에 대한 가산점 (낮을수록 추천)
+ *   OFFLINE/ERROR 이거나 용지가 없는 프린터, 요청한 기능이 없는 프린터는 제외
+ * - 사용자 위치: 마지막으로 출력한 프린터 (last-printer-lookback-days 안, 작업 저장 이벤트 +
+ *   reseed-interval 마다 그 사이 작업만 읽어 합침), 없으면 사용자 부서의 첫 프린터
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PrinterRecommendationService {
+
+    private static final String PRINTERS_SQL = """
+        SELECT p.id, p.name, p.location, p.department_id,
+               COALESCE(m.is_color, false) AS is_color,
+               COALESCE(m.supports_a3, false) AS supports_a3,
+               s.status, s.toner_level_black, s.toner_level_cyan, s.toner_level_magenta, s.toner_level_yellow,
+               s.paper_level, s.error_code, s.timestamp AS status_at
+        FROM printers p
+        LEFT JOIN printer_models m ON m.id = p.model_id
+        LEFT JOIN LATERAL (
+            SELECT * FROM printer_status ps
+            WHERE ps.printer_id = p.id AND ps.timestamp > ?
+            ORDER BY ps.timestamp DESC
+            LIMIT 1
+        ) s ON true
+        WHERE p.is_active = true
+        ORDER BY p.id
+        """;
+    private static final String USERS_SQL = "SELECT id, department_id FROM users WHERE is_active = true AND department_id IS NOT NULL";
+    // 작업마다 e^(-경과초/tau) 를 더한 값 (DecayingRate 의 누적값과 같은 기준)
+    private static final String RATES_SQL = """
+        SELECT printer_id,
+               SUM(EXP(-GREATEST(EXTRACT(EPOCH FROM (?::timestamp - timestamp))::float8, 0) / ?::float8)) AS weight
+        FROM print_jobs
+        WHERE timestamp > ?
+        GROUP BY printer_id
+        """;
+    private static final String LAST_PRINTERS_SQL = """
+        SELECT DISTINCT ON (user_id) user_id, printer_id, timestamp
+        FROM print_jobs
+        WHERE timestamp > ?
+        ORDER BY user_id, timestamp DESC
+        """;
+
+    // 감쇠 가중치가 1% 아래로 떨어지는 시간 (tau 의 배수) 이후 작업은 부하 계산에서 제외
+    private static final int RATE_HORIZON_TAUS = 5;
+    // 증분 조회 시 앞 동기화 시각보다 이만큼 앞에서부터 읽음 (커밋이 늦은 작업)
+    private static final int LAST_PRINTER_OVERLAP_SECONDS = 60;
+
+    private record Index(
+        Map<String, List<PrinterSnapshot>> byBuilding,
+        Map<Long, PrinterSnapshot> byId,
+        Map<Long, PrinterSnapshot> byDepartment,
+        Map<Long, Long> userDepartments
+    ) {
+    }
+
+    private record LastPrint(long printerId, LocalDateTime at) {
+    }
+
+    private final DataSource dataSource;
+    private final ShardRouter shardRouter;
+
+    @Value("${canon.recommend.status-lookback-hours:24}")
+    private Integer statusLookbackHours;
+
+    @Value("${canon.recommend.rate-window-seconds:300}")
+    private Integer rateWindowSeconds;
+
+    @Value("${canon.recommend.last-printer-lookback-days:7}")
+    private Integer lastPrinterLookbackDays;
+
+    @Value("${canon.recommend.floor-penalty:2.0}")
+    private Double floorPenalty;
+
+    @Value("${canon.recommend.low-supply-threshold:10}")
+    private Integer lowSupplyThreshold;
+
+    @Value("${canon.recommend.low-supply-penalty:3.0}")
+    private Double lowSupplyPenalty;
+
+    @Value("${canon.recommend.warning-penalty:2.0}")
+    private Double warningPenalty;
+
+    @Value("${canon.recommend.stale-status-minutes:15}")
+    private Integer staleStatusMinutes;
+
+    @Value("${canon.recommend.stale-penalty:5.0}")
+    private Double stalePenalty;
+
+    @Value("${canon.recommend.max-limit:20}")
+    private Integer maxLimit;
+
+    private JdbcTemplate jdbcTemplate;
+    private volatile Index index;
+    private final ConcurrentHashMap<Long, DecayingRate> rates = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, LastPrint> lastPrinterByUser = new ConcurrentHashMap<>();
+    private LocalDateTime lastPrintersReadAt;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * 인덱스 갱신 (기본 15초 주기)
+     */
+    @Scheduled(fixedDelayString = "${canon.recommend.refresh-interval-ms:15000}")
+    public void refresh() {
+        try {
+            Timestamp since = Timestamp.valueOf(LocalDateTime.now().minusHours(statusLookbackHours));
+            List<PrinterSnapshot> printers = shardRouter.onHome(
+                () -> jdbcTemplate.query(PRINTERS_SQL, (ResultSet rs, int rowNum) -> toSnapshot(rs), since));
+            Map<Long, Long> userDepartments = new HashMap<>();
+            shardRouter.onHome(() -> {
+                jdbcTemplate.query(USERS_SQL, (ResultSet rs) -> {
+                    userDepartments.put(rs.getLong("id"), rs.getLong("department_id"));
+                });
+                return null;
+            });
+
+            Map<String, List<PrinterSnapshot>> byBuilding = new HashMap<>();
+            Map<Long, PrinterSnapshot> byId = new HashMap<>();
+            Map<Long, PrinterSnapshot> byDepartment = new HashMap<>();
+            for (PrinterSnapshot printer : printers) {
+                byBuilding.computeIfAbsent(printer.parsedLocation().building(), key -> new ArrayList<>()).add(printer);
+                byId.put(printer.printerId(), printer);
+                if (printer.departmentId() != null) {
+                    byDepartment.putIfAbsent(printer.departmentId(), printer);
+                }
+            }
+            index = new Index(byBuilding, byId, byDepartment, userDepartments);
+            rates.keySet().retainAll(byId.keySet());
+        } catch (RuntimeException e) {
+            // 이전 인덱스로 계속 응답
+            log.warn("프린터 추천 인덱스 갱신 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 부하/마지막 프린터를 DB 기준으로 다시 맞춤 (기동 직후 한 번, 이후 기본 10분 주기)
+     *
+     * 작업 저장 이벤트는 이 인스턴스가 받은 작업만 알려 주므로, 다른 인스턴스가 받은 작업과
+     * 재기동 이전 작업은 여기서 반영한다.
+     */
+    @Scheduled(fixedDelayString = "${canon.recommend.reseed-interval-ms:600000}")
+    public void reseed() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            long nowNanos = System.nanoTime();
+            Map<Long, Double> weights = loadWeights(now);
+            for (Map.Entry<Long, DecayingRate> entry : rates.entrySet()) {
+                if (!weights.containsKey(entry.getKey())) {
+                    entry.getValue().reset(0, nowNanos);
+                }
+            }
+            weights.forEach((printerId, weight) ->
+                rates.computeIfAbsent(printerId, key -> new DecayingRate(rateWindowSeconds)).reset(weight, nowNanos));
+            refreshLastPrinters(now);
+        } catch (RuntimeException e) {
+            // 이벤트로 갱신한 값으로 계속 응답
+            log.warn("프린터 추천 부하 동기화 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 출력 작업 저장 시 부하/마지막 프린터 반영
+     */
+    @TransactionalEventListener
+    public void onPrintJobCreated(PrintJobCreatedEvent event) {
+        PrintJob printJob = event.getPrintJob();
+        if (printJob.getPrinterId() == null) {
+            return;
+        }
+        rates.computeIfAbsent(printJob.getPrinterId(), key -> new DecayingRate(rateWindowSeconds))
+            .add(System.nanoTime());
+        if (printJob.getUserId() != null) {
+            LocalDateTime at = printJob.getTimestamp() != null ? printJob.getTimestamp() : LocalDateTime.now();
+            lastPrinterByUser.merge(printJob.getUserId(), new LastPrint(printJob.getPrinterId(), at),
+                PrinterRecommendationService::latest);
+        }
+    }
+
+    /**
+     * 프린터별 최근 작업 가중치 합 (모든 샤드, now 기준 e^(-경과/tau))
+     */
+    private Map<Long, Double> loadWeights(LocalDateTime now) {
+        Timestamp at = Timestamp.valueOf(now);
+        Timestamp horizon = Timestamp.valueOf(now.minusSeconds((long) rateWindowSeconds * RATE_HORIZON_TAUS));
+        Map<Long, Double> weights = new HashMap<>();
+        for (Map<Long, Double> shardWeights : shardRouter.scatter(shard -> {
+            Map<Long, Double> rows = new HashMap<>();
+            jdbcTemplate.query(RATES_SQL, (ResultSet rs) -> {
+                rows.put(rs.getLong("printer_id"), rs.getDouble("weight"));
+            }, at, rateWindowSeconds, horizon);
+            return rows;
+        })) {
+            shardWeights.forEach((printerId, weight) -> weights.merge(printerId, weight, Double::sum));
+        }
+        return weights;
+    }
+
+    /**
+     * 사용자별 마지막 출력 프린터 (처음에는 lookback 전체, 이후 앞 동기화 이후 작업만 읽어 더 최근 것으로 교체)
+     */
+    private void refreshLastPrinters(LocalDateTime now) {
+        LocalDateTime lookback = now.minusDays(lastPrinterLookbackDays);
+        LocalDateTime from = lastPrintersReadAt != null
+            ? lastPrintersReadAt.minusSeconds(LAST_PRINTER_OVERLAP_SECONDS)
+            : lookback;
+        Timestamp since = Timestamp.valueOf(from);
+        List<Map<Long, LastPrint>> shardRows = shardRouter.scatter(shard -> {
+            Map<Long, LastPrint> rows = new HashMap<>();
+            jdbcTemplate.query(LAST_PRINTERS_SQL, (ResultSet rs) -> {
+                rows.put(rs.getLong("user_id"),
+                    new LastPrint(rs.getLong("printer_id"), rs.getTimestamp("timestamp").toLocalDateTime()));
+            }, since);
+            return rows;
+        });
+        for (Map<Long, LastPrint> rows : shardRows) {
+            rows.forEach((userId, last) -> lastPrinterByUser.merge(userId, last, PrinterRecommendationService::latest));
+        }
+        lastPrinterByUser.values().removeIf(last -> last.at().isBefore(lookback));
+        lastPrintersReadAt = now;
+    }
+
+    /**
+     * 추천 프린터 (userId 또는 location 기준, 같은 건물)
+     */
+    public List<PrinterRecommendation> recommend(Long userId, String location, boolean color, boolean a3, int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw badRequest("limit 는 1~" + maxLimit + " 사이여야 합니다: " + limit);
+        }
+        Index current = index;
+        if (current == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "프린터 추천 인덱스 준비 중입니다");
+        }
+
+        PrinterLocation origin = origin(current, userId, location);
+        List<PrinterSnapshot> candidates = current.byBuilding().getOrDefault(origin.building(), List.of());
+
+        long nowNanos = System.nanoTime();
+        LocalDateTime staleBefore = LocalDateTime.now().minusMinutes(staleStatusMinutes);
+        List<PrinterRecommendation> ranked = new ArrayList<>();
+        for (PrinterSnapshot printer : candidates) {
+            if ((color && !printer.color()) || (a3 && !printer.a3()) || !isAvailable(printer)) {
+                continue;
+            }
+            ranked.add(score(printer, origin, nowNanos, staleBefore));
+        }
+        ranked.sort(Comparator.comparing(PrinterRecommendation::getScore)
+            .thenComparing(PrinterRecommendation::getPrinterId));
+        return ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked;
+    }
+
+    private PrinterLocation origin(Index current, Long userId, String location) {
+        if (location != null && !location.isBlank()) {
+            return PrinterLocation.parse(location);
+        }
+        if (userId == null) {
+            throw badRequest("userId 또는 location 을 지정해야 합니다");
+        }
+        LastPrint lastPrint = lastPrinterByUser.get(userId);
+        PrinterSnapshot reference = lastPrint != null ? current.byId().get(lastPrint.printerId()) : null;
+        if (reference == null) {
+            Long departmentId = current.userDepartments().get(userId);
+            reference = departmentId != null ? current.byDepartment().get(departmentId) : null;
+        }
+        if (reference == null) {
+            throw badRequest("사용자의 위치를 알 수 없습니다 (location 을 지정하세요): " + userId);
+        }
+        return reference.parsedLocation();
+    }
+
+    private PrinterRecommendation score(PrinterSnapshot printer, PrinterLocation origin, long nowNanos,
+                                        LocalDateTime staleBefore) {
+        DecayingRate rate = rates.get(printer.printerId());
+        double jobsPerMinute = rate != null ? rate.perMinute(nowNanos) : 0;
+        int floorDistance = printer.parsedLocation().floorDistance(origin, 1);
+
+        double score = jobsPerMinute + floorPenalty * floorDistance;
+        List<String> warnings = new ArrayList<>();
+        if (printer.paperLevel() != null && printer.paperLevel() < lowSupplyThreshold) {
+            score += lowSupplyPenalty;
+            warnings.add("LOW_PAPER");
+        }
+        if (printer.tonerLevel() != null && printer.tonerLevel() < lowSupplyThreshold) {
+            score += lowSupplyPenalty;
+            warnings.add("LOW_TONER");
+        }
+        if ("WARNING".equals(printer.status())) {
+            score += warningPenalty;
+            warnings.add("WARNING");
+        }
+        if (printer.statusAt() == null || printer.statusAt().isBefore(staleBefore)) {
+            score += stalePenalty;
+            warnings.add("STALE_STATUS");
+        }
+
+        return PrinterRecommendation.builder()
+            .printerId(printer.printerId())
+            .name(printer.name())
+            .location(printer.location())
+            .building(printer.parsedLocation().building())
+            .floor(printer.parsedLocation().floor())
+            .floorDistance(floorDistance)
+            .color(printer.color())
+            .a3(printer.a3())
+            .status(printer.status())
+            .tonerLevel(printer.tonerLevel())
+            .paperLevel(printer.paperLevel())
+            .statusAt(printer.statusAt())
+            .jobsPerMinute(Math.round(jobsPerMinute * 100) / 100d)
+            .score(Math.round(score * 100) / 100d)
+            .warnings(warnings)
+            .build();
+    }
+
+    // 오프라인/오류/용지 없음은 보낼 수 없음 (상태가 아직 없으면 STALE_STATUS 가산점만)
+    private static boolean isAvailable(PrinterSnapshot printer) {
+        return !"OFFLINE".equals(printer.status())
+            && !"ERROR".equals(printer.status())
+            && (printer.paperLevel() == null || printer.paperLevel() > 0);
+    }
+
+    private static PrinterSnapshot toSnapshot(ResultSet rs) throws SQLException {
+        boolean color = rs.getBoolean("is_color");
+        Integer black = rs.getObject("toner_level_black", Integer.class);
+        Integer toner = black;
+        if (color) {
+            for (String column : List.of("toner_level_cyan", "toner_level_magenta", "toner_level_yellow")) {
+                Integer level = rs.getObject(column, Integer.class);
+                if (level != null && (toner == null || level < toner)) {
+                    toner = level;
+                }
+            }
+        }
+        Timestamp statusAt = rs.getTimestamp("status_at");
+        String location = rs.getString("location");
+        return new PrinterSnapshot(
+            rs.getLong("id"),
+            rs.getString("name"),
+            location,
+            PrinterLocation.parse(location),
+            rs.getObject("department_id", Long.class),
+            color,
+            rs.getBoolean("supports_a3"),
+            rs.getString("status"),
+            toner,
+            rs.getObject("paper_level", Integer.class),
+            rs.getString("error_code"),
+            statusAt != null ? statusAt.toLocalDateTime() : null
+        );
+    }
+
+    private static LastPrint latest(LastPrint left, LastPrint right) {
+        return right.at().isAfter(left.at()) ? right : left;
+    }
+
+    private static ResponseStatusException badRequest(String message) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+    }
+}
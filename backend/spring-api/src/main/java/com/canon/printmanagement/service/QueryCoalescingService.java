@@ -0,0 +1,193 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.coalesce.SingleFlight;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * 통계 조회 요청 병합 서비스
+ *
+ * 캐시 항목이 만료되거나 출근 시간 대시보드처럼 같은 통계 조회가 한꺼번에 몰릴 때 집계를 한 번만 수행한다.
+ * - 정규화: 시작 시각은 초 단위로 절삭, 종료 시각이 지금으로부터 now-granularity 이내면 다음 경계로 올림
+ *   (기본값 now() 로 들어오는 요청이 같은 키가 되며, 응답은 최대 granularity 초 늦은 시점까지 포함)
+ * - 같은 키 동시 요청은 SingleFlight 로 계산 하나의 결과를 공유
+ * - 기다리는 요청은 wait-timeout 까지만 기다리고, 넘거나 계산이 실패하면 같은 조회의 직전 결과(stale)로 응답
+ *   (종료 시각이 "지금"인 조회는 시각과 관계없이 같은 조회로 봄)
+ * - refresh-ahead: StatisticsWarmupService 가 주기적으로 다시 계산해 둔 "지금까지" 조회 결과(warm)는
+ *   warm-max-age 동안 계산 없이 응답 (갱신 주기가 warm-max-age 보다 짧아 만료 전에 교체됨).
+ *   warm 결과는 인스턴스마다 따로 두므로, 이 인스턴스에서 refresh-idle 동안 요청이 없던 조회는 다시 계산하지 않음
+ *   (기동 워밍업은 요청으로 간주. 트래픽을 받지 않는 인스턴스가 매 주기 집계하지 않도록)
+ * - 메트릭: canon.coalesce.requests{query, outcome=warm|leader|coalesced|stale}, canon.coalesce.in-flight
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QueryCoalescingService {
+
+    private static final String OPEN_END = "now";
+    private static final String WARM = "warm";
+
+    private record Warm(Object value, long refreshedAt) {
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${canon.coalesce.enabled:true}")
+    private Boolean enabled;
+
+    @Value("${canon.coalesce.wait-timeout-ms:3000}")
+    private Long waitTimeoutMs;
+
+    @Value("${canon.coalesce.now-granularity-seconds:10}")
+    private Integer nowGranularitySeconds;
+
+    @Value("${canon.coalesce.stale-ttl-minutes:1440}")
+    private Integer staleTtlMinutes;
+
+    @Value("${canon.coalesce.stale-max-entries:1000}")
+    private Integer staleMaxEntries;
+
+    @Value("${canon.coalesce.warm-max-age-seconds:120}")
+    private Integer warmMaxAgeSeconds;
+
+    @Value("${canon.coalesce.refresh-idle-minutes:10}")
+    private Integer refreshIdleMinutes;
+
+    private SingleFlight<String, Object> singleFlight;
+    private final ConcurrentHashMap<String, Warm> warm = new ConcurrentHashMap<>();
+    // "지금까지" 조회별 이 인스턴스의 마지막 요청 시각 (epoch ms)
+    private final ConcurrentHashMap<String, Long> lastRequested = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        singleFlight = new SingleFlight<>(Caffeine.newBuilder()
+            .maximumSize(staleMaxEntries)
+            .expireAfterWrite(Duration.ofMinutes(staleTtlMinutes))
+            .build());
+        Gauge.builder("canon.coalesce.in-flight", this, service -> service.singleFlight.inFlight())
+            .register(meterRegistry);
+    }
+
+    /**
+     * 정규화한 조회 구간 키 (@Cacheable 키로도 사용)
+     */
+    public String key(LocalDateTime startDate, LocalDateTime endDate) {
+        return normalizeStart(startDate) + "-" + normalizeEnd(endDate, LocalDateTime.now());
+    }
+
+    /**
+     * 정규화한 구간으로 계산 (같은 조회가 진행 중이면 그 결과를 공유)
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(
+        String query,
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        BiFunction<LocalDateTime, LocalDateTime, V> loader
+    ) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = normalizeStart(startDate);
+        LocalDateTime end = normalizeEnd(endDate, now);
+        if (!enabled) {
+            return loader.apply(start, end);
+        }
+
+        if (isOpenEnded(endDate, now)) {
+            lastRequested.put(openKey(query, start), System.currentTimeMillis());
+            Warm warmed = warm.get(openKey(query, start));
+            if (warmed != null && System.currentTimeMillis() - warmed.refreshedAt() <= warmMaxAgeSeconds * 1000L) {
+                meterRegistry.counter("canon.coalesce.requests", "query", query, "outcome", WARM).increment();
+                return (V) warmed.value();
+            }
+        }
+        return coalesce(query, start, end, isOpenEnded(endDate, now), loader);
+    }
+
+    /**
+     * "지금까지" 조회 결과를 다시 계산해 warm 결과로 보관 (refresh-ahead)
+     *
+     * refresh-idle 동안 이 인스턴스에 요청이 없던 조회는 건너뜀
+     */
+    public <V> void refresh(
+        String query,
+        LocalDateTime startDate,
+        BiFunction<LocalDateTime, LocalDateTime, V> loader
+    ) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = normalizeStart(startDate);
+        String openKey = openKey(query, start);
+        long nowMillis = System.currentTimeMillis();
+
+        // 더 이상 요청되지 않는 구간 (예: 어제의 "오늘") 정리 - 정리된 현재 구간은 다음 갱신에서 한 번 계산
+        lastRequested.values().removeIf(at -> nowMillis - at > staleTtlMinutes * 60_000L);
+        // 처음 갱신하는 조회(기동 워밍업)는 요청된 것으로 봄
+        Long requestedAt = lastRequested.putIfAbsent(openKey, nowMillis);
+        if (requestedAt != null && nowMillis - requestedAt > refreshIdleMinutes * 60_000L) {
+            return;
+        }
+
+        V value = coalesce(query, start, normalizeEnd(now, now), true, loader);
+        long refreshedAt = System.currentTimeMillis();
+        warm.put(openKey, new Warm(value, refreshedAt));
+
+        // 더 이상 갱신하지 않는 구간의 warm 결과 정리
+        warm.values().removeIf(entry -> refreshedAt - entry.refreshedAt() > warmMaxAgeSeconds * 1000L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> V coalesce(
+        String query,
+        LocalDateTime start,
+        LocalDateTime end,
+        boolean openEnded,
+        BiFunction<LocalDateTime, LocalDateTime, V> loader
+    ) {
+        String key = query + "|" + start + "|" + end;
+        String staleKey = openEnded ? openKey(query, start) : key;
+        SingleFlight.Result<Object> result = singleFlight.execute(key, staleKey,
+            () -> loader.apply(start, end), waitTimeoutMs);
+
+        meterRegistry.counter("canon.coalesce.requests",
+            "query", query, "outcome", result.outcome().name().toLowerCase(Locale.ROOT)).increment();
+        if (result.outcome() == SingleFlight.Outcome.STALE) {
+            log.warn("통계 조회 지연/실패 - 직전 결과로 응답: {}", key);
+        }
+        return (V) result.value();
+    }
+
+    private static String openKey(String query, LocalDateTime start) {
+        return query + "|" + start + "|" + OPEN_END;
+    }
+
+    private LocalDateTime normalizeStart(LocalDateTime startDate) {
+        return startDate.truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private LocalDateTime normalizeEnd(LocalDateTime endDate, LocalDateTime now) {
+        if (!isOpenEnded(endDate, now)) {
+            return endDate;
+        }
+        long seconds = endDate.toEpochSecond(ZoneOffset.UTC) + (endDate.getNano() > 0 ? 1 : 0);
+        long ceiling = Math.floorDiv(seconds + nowGranularitySeconds - 1, nowGranularitySeconds) * nowGranularitySeconds;
+        return LocalDateTime.ofEpochSecond(ceiling, 0, ZoneOffset.UTC);
+    }
+
+    // 종료 시각이 "지금" 근처 (기본값 또는 클라이언트 현재 시각)
+    private boolean isOpenEnded(LocalDateTime endDate, LocalDateTime now) {
+        return endDate.isAfter(now.minusSeconds(nowGranularitySeconds));
+    }
+}
@@ -0,0 +1,91 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.entity.PrintJob;
+import com.canon.printmanagement.shard.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+
+/**
+ * 부서 샤드에 저장된 출력 작업의 할당량 사용량 반영
+ *
+ * quotas 는 0번(홈) 샤드에만 있으므로 다른 샤드의 print_jobs 트리거(update_quota_on_print)는 갱신할 행이 없다.
+ * 0번 외 샤드에 저장하는 작업은 저장 트랜잭션 안에서 홈 샤드의 별도 트랜잭션(REQUIRES_NEW)으로
+ * 트리거와 같은 기준(페이지는 부수 미포함, 비용은 부수 포함)으로 더하고, 저장이 롤백되면 같은 양을 되돌린다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuotaChargeService {
+
+    private static final String CHARGE_SQL = """
+        UPDATE quotas SET current_pages = current_pages + ?, current_color_pages = current_color_pages + ?,
+            current_cost = current_cost + ?
+        WHERE ((entity_type = 'DEPARTMENT' AND entity_id = ?) OR (entity_type = 'USER' AND entity_id = ?))
+        AND reset_date > CURRENT_DATE
+        """;
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final ShardRouter shardRouter;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate homeTransaction;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // 부서 샤드 트랜잭션(연결)이 바인딩된 상태에서도 홈 샤드 연결을 새로 얻도록 항상 새 트랜잭션
+        homeTransaction = new TransactionTemplate(transactionManager);
+        homeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 작업 저장 트랜잭션 안에서 호출 (홈 샤드 작업은 트리거가 같은 트랜잭션에서 반영하므로 건너뜀)
+     */
+    public void chargeIfRemote(PrintJob printJob) {
+        if (shardRouter.shardOf(printJob.getDepartmentId()) == 0) {
+            return;
+        }
+
+        int pages = printJob.getPageCount() != null ? printJob.getPageCount() : 0;
+        int colorPages = printJob.getColorPageCount() != null ? printJob.getColorPageCount() : 0;
+        BigDecimal cost = printJob.getTotalCost() != null ? printJob.getTotalCost() : BigDecimal.ZERO;
+        long departmentId = printJob.getDepartmentId();
+        long userId = printJob.getUserId();
+
+        charge(pages, colorPages, cost, departmentId, userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_ROLLED_BACK) {
+                        return;
+                    }
+                    try {
+                        charge(-pages, -colorPages, cost.negate(), departmentId, userId);
+                    } catch (RuntimeException e) {
+                        log.error("할당량 사용량 되돌리기 실패: 부서 {}, 사용자 {}, {}페이지", departmentId, userId, pages, e);
+                    }
+                }
+            });
+        }
+    }
+
+    private void charge(int pages, int colorPages, BigDecimal cost, long departmentId, long userId) {
+        shardRouter.onHome(() -> homeTransaction.execute(status ->
+            jdbcTemplate.update(CHARGE_SQL, pages, colorPages, cost, departmentId, userId)));
+    }
+}
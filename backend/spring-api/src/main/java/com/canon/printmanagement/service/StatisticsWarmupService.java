@@ -0,0 +1,103 @@
+package com.canon.printmanagement.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 현재 기간 통계 사전 계산 (기동 시 워밍업 + refresh-ahead)
+ *
+ * 배포 직후나 캐시 만료 후 첫 사용자가 이번 달 /stats, /by-department 집계를 직접 기다리지 않도록
+ * 자주 조회되는 "지금까지" 구간(이번 달, 최근 N일, 오늘)을 백그라운드에서 미리 계산해 둔다.
+ * - 기동: ApplicationReadyEvent 후 비동기로 한 번 계산, 끝날 때까지 readiness 는 OUT_OF_SERVICE
+ *   (StatisticsWarmupHealthIndicator)
+ * - 갱신: refresh-interval 마다 다시 계산 (QueryCoalescingService 의 warm-max-age 보다 짧게 설정해
+ *   warm 결과가 만료되기 전에 교체). warm 결과는 인스턴스마다 따로 두므로 각 인스턴스는
+ *   canon.coalesce.refresh-idle-minutes 안에 자신이 받은 요청이 있던 구간만 다시 계산한다.
+ * 구간 시작은 자정 기준이므로 컨트롤러 기본값(이번 달 1일 0시)과 날짜 단위로 조회하는 요청이 warm 결과를 사용한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatisticsWarmupService {
+
+    private final PrintJobService printJobService;
+
+    @Value("${canon.stats-warmup.enabled:true}")
+    private Boolean enabled;
+
+    @Value("${canon.stats-warmup.recent-days:7}")
+    private Integer recentDays;
+
+    private volatile boolean warmedUp;
+
+    /**
+     * 기동 후 백그라운드 워밍업
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            warmedUp = true;
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            long started = System.currentTimeMillis();
+            refreshAll();
+            log.info("통계 워밍업 완료: {}ms", System.currentTimeMillis() - started);
+        }).whenComplete((result, e) -> {
+            if (e != null) {
+                // 워밍업이 안 돼도 조회는 DB 집계로 동작하므로 트래픽은 받음
+                log.error("통계 워밍업 실패 - 요청 시 계산으로 동작", e);
+            }
+            warmedUp = true;
+        });
+    }
+
+    /**
+     * refresh-ahead (기본 1분 주기, 워밍업 완료 후)
+     */
+    @Scheduled(fixedDelayString = "${canon.stats-warmup.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (!enabled || !warmedUp) {
+            return;
+        }
+        try {
+            refreshAll();
+        } catch (RuntimeException e) {
+            // 갱신 실패 시 warm 결과가 만료되면 요청 시 계산 (실패하면 직전 결과로 응답)
+            log.warn("통계 사전 계산 실패: {}", e.getMessage());
+        }
+    }
+
+    public boolean isWarmedUp() {
+        return warmedUp;
+    }
+
+    private void refreshAll() {
+        for (LocalDateTime startDate : hotPeriods().values()) {
+            printJobService.refreshStatistics(startDate);
+        }
+    }
+
+    /**
+     * 자주 조회되는 "지금까지" 구간의 시작 시각
+     */
+    public Map<String, LocalDateTime> hotPeriods() {
+        LocalDate today = LocalDate.now();
+        Map<String, LocalDateTime> periods = new LinkedHashMap<>();
+        periods.put("month", today.withDayOfMonth(1).atStartOfDay());
+        periods.put("recent", today.minusDays(recentDays).atStartOfDay());
+        periods.put("today", today.atStartOfDay());
+        return periods;
+    }
+}
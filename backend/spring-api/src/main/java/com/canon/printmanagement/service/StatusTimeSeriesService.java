@@ -0,0 +1,254 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.dto.PrinterStatusItem;
+import com.canon.printmanagement.entity.PrinterStatus;
+import com.canon.printmanagement.repository.PrinterStatusRepository;
+import com.canon.printmanagement.timeseries.StatusTimeSeriesStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 프린터 상태 압축 시계열 서비스 (선택 기능, canon.timeseries.enabled)
+ *
+ * 최근 N일(기본 90일) printer_status 샘플을 StatusTimeSeriesStore 에 압축 보관하여
+ * 상태 이력 조회를 DB 대신 메모리에서 응답한다.
+ * - 기동 시 로컬 스냅샷 복원 후 (timestamp, printerId) 커서로 이후 샘플만 DB 에서 따라잡음
+ * - 이후 주기적으로 신규 샘플 반영, 스냅샷 저장 (종료 시에도 저장)
+ * - printer_status 에는 삽입 순서 컬럼이 없고 저장소는 프린터별로 시간순 추가만 가능하므로,
+ *   lateness 보다 오래된 샘플만 반영한다 (그 사이 늦게 INSERT 된 샘플도 커서 뒤에 있으므로 놓치지 않음).
+ *   커서 이후 최근 구간은 조회 시 DB 에서 읽는다.
+ * - 1시간 주기로 보관 기간이 지난 블록 제거
+ * - 메모리: 샘플당 약 2~6바이트 (canon.timeseries.bytes / canon.timeseries.samples 로 확인)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatusTimeSeriesService {
+
+    private static final long MICRO_NANOS = 1_000L;
+
+    private final PrinterStatusRepository printerStatusRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${canon.timeseries.enabled:false}")
+    private Boolean enabled;
+
+    @Value("${canon.timeseries.days:90}")
+    private Integer retentionDays;
+
+    @Value("${canon.timeseries.block-capacity:512}")
+    private Integer blockCapacity;
+
+    // 샘플이 수집 시각보다 늦게 INSERT 될 수 있는 최대 지연 (이보다 최근 샘플은 아직 반영하지 않음)
+    @Value("${canon.timeseries.lateness-minutes:10}")
+    private Integer latenessMinutes;
+
+    @Value("${canon.timeseries.batch-size:5000}")
+    private Integer batchSize;
+
+    @Value("${canon.timeseries.snapshot-path:data/status-timeseries.bin}")
+    private String snapshotPath;
+
+    private volatile StatusTimeSeriesStore store;
+    private volatile boolean ready;
+
+    // 샘플 반영/제거/스냅샷 직렬화 (읽기는 잠금 없음)
+    private final Object storeLock = new Object();
+
+    /**
+     * 기동 후 백그라운드 적재
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("canon.timeseries.samples", this, service -> service.stats().samples())
+            .register(meterRegistry);
+        Gauge.builder("canon.timeseries.bytes", this, service -> service.stats().bytes())
+            .register(meterRegistry);
+
+        CompletableFuture.runAsync(this::load).exceptionally(e -> {
+            log.error("상태 시계열 적재 실패 - DB 조회로 동작", e);
+            return null;
+        });
+    }
+
+    private void load() {
+        long started = System.currentTimeMillis();
+        LocalDateTime since = LocalDateTime.now().minusDays(retentionDays);
+
+        synchronized (storeLock) {
+            StatusTimeSeriesStore restored = restoreSnapshot(since);
+            store = restored != null ? restored : new StatusTimeSeriesStore(blockCapacity, since);
+            store.evictBefore(since);
+            int caughtUp = catchUp();
+            ready = true;
+
+            StatusTimeSeriesStore.Stats stats = store.stats();
+            log.info("상태 시계열 적재 완료: 스냅샷 {}, 신규 {}건, 샘플 {}건, {}KB ({}바이트/샘플), {}ms",
+                restored != null ? "복원" : "없음", caughtUp, stats.samples(), stats.bytes() / 1024,
+                String.format("%.1f", stats.bytesPerSample()), System.currentTimeMillis() - started);
+        }
+    }
+
+    private StatusTimeSeriesStore restoreSnapshot(LocalDateTime since) {
+        Path file = Path.of(snapshotPath);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            StatusTimeSeriesStore restored = StatusTimeSeriesStore.restore(file, blockCapacity);
+            // 보관 기간보다 오래 멈춰 있었으면 커서 이후 구간이 DB 보존 정책으로 비었을 수 있음
+            if (restored.cursor().timestamp().isBefore(since)) {
+                log.info("상태 시계열 스냅샷이 보관 기간보다 오래됨 - 새로 적재: {}", restored.cursor().timestamp());
+                return null;
+            }
+            return restored;
+        } catch (IOException e) {
+            log.warn("상태 시계열 스냅샷 복원 실패 - 새로 적재: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 신규 상태 샘플 반영 (10초 주기)
+     */
+    @Scheduled(fixedDelayString = "${canon.timeseries.poll-interval-ms:10000}")
+    public void poll() {
+        if (!ready) {
+            return;
+        }
+        synchronized (storeLock) {
+            int total = catchUp();
+            if (total > 0) {
+                log.debug("상태 시계열 갱신: 샘플 {}건 반영 (커서: {})", total, store.cursor().timestamp());
+            }
+        }
+    }
+
+    private int catchUp() {
+        LocalDateTime settled = LocalDateTime.now().minusMinutes(latenessMinutes);
+        int total = 0;
+        List<PrinterStatus> batch;
+        do {
+            StatusTimeSeriesStore.Cursor cursor = store.cursor();
+            batch = printerStatusRepository.findSamplesBetween(
+                cursor.timestamp(), cursor.printerId(), settled, PageRequest.of(0, batchSize)
+            );
+            for (PrinterStatus sample : batch) {
+                store.append(toItem(sample));
+            }
+            total += batch.size();
+        } while (batch.size() == batchSize);
+        return total;
+    }
+
+    /**
+     * 보관 기간이 지난 블록 제거 (1시간 주기)
+     */
+    @Scheduled(fixedDelayString = "${canon.timeseries.evict-interval-ms:3600000}")
+    public void evict() {
+        if (!ready) {
+            return;
+        }
+        synchronized (storeLock) {
+            long evicted = store.evictBefore(LocalDateTime.now().minusDays(retentionDays));
+            if (evicted > 0) {
+                log.info("상태 시계열 블록 제거: 샘플 {}건", evicted);
+            }
+        }
+    }
+
+    /**
+     * 로컬 스냅샷 저장 (5분 주기)
+     */
+    @Scheduled(fixedDelayString = "${canon.timeseries.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        if (!ready) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        synchronized (storeLock) {
+            try {
+                store.snapshot(Path.of(snapshotPath));
+            } catch (IOException e) {
+                log.warn("상태 시계열 스냅샷 저장 실패: {}", e.getMessage());
+                return;
+            }
+        }
+        log.debug("상태 시계열 스냅샷 저장: {}ms", System.currentTimeMillis() - started);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+
+    /**
+     * 시작 시점이 저장소 보관 구간 안인지
+     */
+    public boolean covers(LocalDateTime startDate) {
+        return ready && !startDate.isBefore(store.coveredFrom());
+    }
+
+    /**
+     * 프린터 상태 이력 (최신순)
+     *
+     * 커서까지 반영된 구간은 저장소에서, 아직 반영되지 않은 최근 구간은 DB 에서 읽어 이어 붙인다.
+     * DB 조회가 포함되므로 읽기 전용 트랜잭션 안에서 소비해야 한다.
+     */
+    public Stream<PrinterStatusItem> streamHistory(Long printerId, LocalDateTime startDate, LocalDateTime endDate) {
+        StatusTimeSeriesStore.Cursor cursor = store.cursor();
+        // 커서 시각의 샘플은 printerId 가 커서 이하일 때만 반영됨
+        LocalDateTime storedUntil = printerId <= cursor.printerId()
+            ? cursor.timestamp()
+            : cursor.timestamp().minusNanos(MICRO_NANOS);
+
+        LocalDateTime storedEnd = endDate.isBefore(storedUntil) ? endDate : storedUntil;
+        Stream<PrinterStatusItem> stored = StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+            store.range(printerId, startDate, storedEnd, true), Spliterator.ORDERED), false);
+        if (!endDate.isAfter(storedUntil)) {
+            return stored;
+        }
+
+        LocalDateTime recentStart = storedUntil.plusNanos(MICRO_NANOS);
+        Stream<PrinterStatusItem> recent = printerStatusRepository.streamHistory(
+            printerId, startDate.isAfter(recentStart) ? startDate : recentStart, endDate);
+        return Stream.concat(recent, stored);
+    }
+
+    public StatusTimeSeriesStore.Stats stats() {
+        StatusTimeSeriesStore current = store;
+        return current != null ? current.stats() : new StatusTimeSeriesStore.Stats(0, 0, 0, 0);
+    }
+
+    private static PrinterStatusItem toItem(PrinterStatus sample) {
+        return new PrinterStatusItem(
+            sample.getPrinterId(), sample.getTimestamp(), sample.getStatus(),
+            sample.getTonerLevelBlack(), sample.getTonerLevelCyan(), sample.getTonerLevelMagenta(),
+            sample.getTonerLevelYellow(), sample.getPaperLevel(), sample.getErrorCode(),
+            sample.getErrorMessage(), sample.getTotalPageCount(), sample.getColorPageCount()
+        );
+    }
+}
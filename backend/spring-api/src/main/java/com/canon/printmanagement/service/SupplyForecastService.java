@@ -0,0 +1,371 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.dto.SupplyForecastResponse;
+import com.canon.printmanagement.entity.PrinterStatus;
+import com.canon.printmanagement.repository.PrinterStatusRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 토너/용지 소진 예측 서비스
+ *
+ * printer_status 샘플을 순차적으로 읽어 프린터/색상별 소모율을 점진적으로 갱신
+ * - 잔량(%) ~ 누적 페이지 카운터: 페이지당 소모량
+ * - 누적 페이지 카운터 ~ 시간(일): 일 평균 출력량
+ * - 소진 예상일 = 현재 잔량 / (페이지당 소모량 × 일 평균 출력량)
+ *   (페이지 카운터를 보내지 않는 장비는 잔량 ~ 시간(일) 적합으로 추정)
+ *
+ * 최초 기동 시에만 보관 기간(기본 90일) 이력을 한 번 읽고, 이후에는 새 샘플만 반영하므로
+ * 조회 API는 이력을 다시 읽지 않는다.
+ * printer_status 에는 삽입 순서 컬럼이 없으므로 매 주기 커서보다 lateness 만큼 앞에서부터 다시 읽어
+ * 늦게 도착한(더 이른 timestamp 로 나중에 INSERT 된) 샘플도 반영한다. 이미 반영한 샘플은 프린터별로 걸러낸다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SupplyForecastService {
+
+    private final PrinterStatusRepository printerStatusRepository;
+
+    @Value("${canon.forecast.history-days:90}")
+    private Integer historyDays;
+
+    @Value("${canon.forecast.batch-size:1000}")
+    private Integer batchSize;
+
+    // 가중치가 1/e 로 줄어드는 기간 (샘플 수가 아닌 시간 기준 감쇠)
+    @Value("${canon.forecast.decay-days:14}")
+    private Double decayDays;
+
+    @Value("${canon.forecast.min-samples:3}")
+    private Integer minSamples;
+
+    @Value("${canon.forecast.refill-jump:10}")
+    private Integer refillJump;
+
+    // 늦게 도착하는 샘플을 다시 읽는 범위
+    @Value("${canon.forecast.lateness-minutes:10}")
+    private Integer latenessMinutes;
+
+    // 이보다 먼 소진 예상은 예측 없음으로 응답 (소모가 거의 없는 경우)
+    @Value("${canon.forecast.max-horizon-days:1825}")
+    private Integer maxHorizonDays;
+
+    /**
+     * 예측 대상 소모품
+     */
+    public enum Supply {
+        BLACK(PrinterStatus::getTonerLevelBlack),
+        CYAN(PrinterStatus::getTonerLevelCyan),
+        MAGENTA(PrinterStatus::getTonerLevelMagenta),
+        YELLOW(PrinterStatus::getTonerLevelYellow),
+        PAPER(PrinterStatus::getPaperLevel);
+
+        private final Function<PrinterStatus, Integer> level;
+
+        Supply(Function<PrinterStatus, Integer> level) {
+            this.level = level;
+        }
+    }
+
+    private final Map<Long, PrinterState> states = new ConcurrentHashMap<>();
+
+    // 마지막으로 읽은 샘플 위치 (timestamp, printerId)
+    private LocalDateTime cursorTimestamp;
+    private Long cursorPrinterId = 0L;
+
+    /**
+     * 신규 상태 샘플 반영 (1분 주기)
+     */
+    @Scheduled(fixedDelayString = "${canon.forecast.poll-interval-ms:60000}")
+    public void pollSamples() {
+        if (cursorTimestamp == null) {
+            cursorTimestamp = LocalDateTime.now().minusDays(historyDays);
+            log.info("소모품 예측 초기 적재 시작: {} 이후 샘플", cursorTimestamp);
+        } else {
+            // 늦게 INSERT 된 샘플을 놓치지 않도록 lateness 범위를 다시 읽음
+            cursorTimestamp = cursorTimestamp.minusMinutes(latenessMinutes);
+            cursorPrinterId = 0L;
+        }
+
+        int total = 0;
+        List<PrinterStatus> batch;
+        do {
+            batch = printerStatusRepository.findSamplesAfter(
+                cursorTimestamp, cursorPrinterId, PageRequest.of(0, batchSize)
+            );
+            for (PrinterStatus sample : batch) {
+                if (record(sample)) {
+                    total++;
+                }
+                cursorTimestamp = sample.getTimestamp();
+                cursorPrinterId = sample.getPrinterId();
+            }
+        } while (batch.size() == batchSize);
+
+        if (total > 0) {
+            log.debug("소모품 예측 갱신: 샘플 {}건 반영 (커서: {})", total, cursorTimestamp);
+        }
+    }
+
+    /**
+     * 상태 샘플 1건 반영 (이미 반영한 샘플이면 false)
+     */
+    public boolean record(PrinterStatus sample) {
+        return states.computeIfAbsent(sample.getPrinterId(), id -> new PrinterState())
+            .add(sample);
+    }
+
+    /**
+     * 프린터별 소모품 예측
+     */
+    public List<SupplyForecastResponse> getForecasts(Long printerId) {
+        PrinterState state = states.get(printerId);
+        if (state == null) {
+            return List.of();
+        }
+        return state.forecasts(printerId);
+    }
+
+    /**
+     * N일 이내 소진 예상 소모품 목록 (소진 임박 순)
+     */
+    public List<SupplyForecastResponse> getDepletingWithin(int withinDays) {
+        List<SupplyForecastResponse> result = new ArrayList<>();
+        states.forEach((printerId, state) -> {
+            for (SupplyForecastResponse forecast : state.forecasts(printerId)) {
+                if (forecast.getDaysUntilEmpty() != null && forecast.getDaysUntilEmpty() <= withinDays) {
+                    result.add(forecast);
+                }
+            }
+        });
+        result.sort(Comparator.comparing(SupplyForecastResponse::getDaysUntilEmpty));
+        return result;
+    }
+
+    /**
+     * 프린터별 예측 상태
+     *
+     * 적합마다 x 축 단위를 하나로 유지한다 (페이지 또는 일). 교체/보충으로 초기화한 시점(since)보다
+     * 이른 늦은 샘플은 이전 카트리지/용지의 값이므로 버린다.
+     */
+    private class PrinterState {
+
+        private final DecayingLinearFit usage = new DecayingLinearFit(decayDays);   // 페이지 카운터 ~ 일
+        private final Map<Supply, SupplyFits> supplies = new EnumMap<>(Supply.class);
+        private final Map<Supply, Integer> levels = new EnumMap<>(Supply.class);
+        private final TreeSet<LocalDateTime> seen = new TreeSet<>();
+
+        private LocalDateTime usageSince;
+        private LocalDateTime lastTimestamp;
+        private Long lastPageCount;
+
+        synchronized boolean add(PrinterStatus sample) {
+            LocalDateTime timestamp = sample.getTimestamp();
+            if (!seen.add(timestamp)) {
+                return false; // 이미 반영 (lateness 범위 재조회)
+            }
+            boolean late = lastTimestamp != null && timestamp.isBefore(lastTimestamp);
+            if (!late) {
+                lastTimestamp = timestamp;
+                // 다시 읽을 수 있는 범위만 기억
+                seen.headSet(timestamp.minusMinutes(latenessMinutes)).clear();
+            }
+            double day = days(timestamp);
+
+            Long pageCount = sample.getTotalPageCount();
+            if (pageCount != null) {
+                // 카운터 감소 = 장비 교체/초기화 → 출력량 추정 초기화
+                if (!late && lastPageCount != null && pageCount < lastPageCount) {
+                    usage.reset();
+                    usageSince = timestamp;
+                    supplies.forEach((supply, fits) -> fits.reset(timestamp));
+                }
+                if (!late) {
+                    lastPageCount = pageCount;
+                }
+                if (usageSince == null || !timestamp.isBefore(usageSince)) {
+                    usage.add(day, pageCount, day);
+                }
+            }
+
+            for (Supply supply : Supply.values()) {
+                Integer level = supply.level.apply(sample);
+                if (level == null) {
+                    continue;
+                }
+                SupplyFits fits = supplies.computeIfAbsent(supply, s -> new SupplyFits());
+                if (!late) {
+                    Integer previous = levels.put(supply, level);
+                    // 잔량 급증 = 토너 교체/용지 보충 → 해당 소모품 추정 초기화
+                    if (previous != null && level - previous >= refillJump) {
+                        fits.reset(timestamp);
+                    }
+                } else if (fits.since != null && timestamp.isBefore(fits.since)) {
+                    continue;
+                }
+                fits.byDays.add(day, level, day);
+                if (pageCount != null) {
+                    fits.byPages.add(pageCount, level, day);
+                }
+            }
+            return true;
+        }
+
+        synchronized List<SupplyForecastResponse> forecasts(Long printerId) {
+            List<SupplyForecastResponse> result = new ArrayList<>();
+            Double pagesPerDay = usage.count() >= minSamples ? usage.slope() : null;
+
+            supplies.forEach((supply, fits) -> {
+                Integer level = levels.get(supply);
+
+                Double consumptionPerDay = null;
+                Double levelPerKPages = null;
+                int sampleCount = fits.byDays.count();
+                Double perPage = fits.byPages.count() >= minSamples ? fits.byPages.slope() : null;
+                if (perPage != null) {
+                    levelPerKPages = -perPage * 1000;
+                }
+                if (perPage != null && pagesPerDay != null) {
+                    consumptionPerDay = -perPage * pagesPerDay;
+                    sampleCount = fits.byPages.count();
+                } else if (fits.byDays.count() >= minSamples) {
+                    Double perDay = fits.byDays.slope();
+                    consumptionPerDay = perDay != null ? -perDay : null;
+                }
+
+                Double daysUntilEmpty = daysUntilEmpty(level, consumptionPerDay, maxHorizonDays);
+                LocalDateTime estimatedEmptyAt = daysUntilEmpty != null
+                    ? lastTimestamp.plusMinutes(Math.round(daysUntilEmpty * 24 * 60))
+                    : null;
+
+                result.add(SupplyForecastResponse.builder()
+                    .printerId(printerId)
+                    .supply(supply.name())
+                    .currentLevel(level)
+                    .consumptionPerDay(consumptionPerDay)
+                    .levelPerKPages(levelPerKPages)
+                    .pagesPerDay(pagesPerDay)
+                    .daysUntilEmpty(daysUntilEmpty)
+                    .estimatedEmptyAt(estimatedEmptyAt)
+                    .sampleCount(sampleCount)
+                    .lastSampleAt(lastTimestamp)
+                    .build());
+            });
+            return result;
+        }
+
+        private double days(LocalDateTime timestamp) {
+            return timestamp.toEpochSecond(ZoneOffset.UTC) / 86400.0;
+        }
+    }
+
+    /**
+     * 소진까지 남은 일수 (잔량을 모르거나 소모가 없거나 maxHorizonDays 를 넘으면 null)
+     */
+    static Double daysUntilEmpty(Integer level, Double consumptionPerDay, double maxHorizonDays) {
+        if (level == null || consumptionPerDay == null || !(consumptionPerDay > 0)) {
+            return null;
+        }
+        double days = level / consumptionPerDay;
+        return days <= maxHorizonDays ? days : null;
+    }
+
+    /**
+     * 소모품별 적합 (잔량 ~ 페이지, 잔량 ~ 일)
+     */
+    private class SupplyFits {
+
+        private final DecayingLinearFit byPages = new DecayingLinearFit(decayDays);
+        private final DecayingLinearFit byDays = new DecayingLinearFit(decayDays);
+        private LocalDateTime since;
+
+        void reset(LocalDateTime at) {
+            byPages.reset();
+            byDays.reset();
+            since = at;
+        }
+    }
+
+    /**
+     * 시간 감쇠 가중 최소제곱 직선 적합
+     *
+     * 누적합만 유지하므로 샘플당 O(1). 샘플 가중치는 e^(-(최신 시각 - 샘플 시각) / decayDays) 로
+     * 샘플 간격과 무관하게 시간에만 의존하고, 샘플 순서와도 무관하다 (늦게 도착한 샘플도 같은 가중치).
+     */
+    static class DecayingLinearFit {
+
+        private final double decayDays;
+
+        private double sw, sx, sy, sxx, sxy;
+        private double x0 = Double.NaN;
+        private double latestDay = Double.NaN;
+        private int count;
+
+        DecayingLinearFit(double decayDays) {
+            this.decayDays = decayDays;
+        }
+
+        /**
+         * @param day 샘플 시각 (일 단위, 감쇠 기준)
+         */
+        void add(double x, double y, double day) {
+            if (Double.isNaN(x0)) {
+                x0 = x; // 수치 안정성을 위해 첫 x 기준으로 이동
+                latestDay = day;
+            }
+            if (day > latestDay) {
+                // 기준 시각을 옮기면서 기존 누적합을 한꺼번에 감쇠 (기울기는 전체 배율에 무관)
+                double factor = Math.exp(-(day - latestDay) / decayDays);
+                sw *= factor;
+                sx *= factor;
+                sy *= factor;
+                sxx *= factor;
+                sxy *= factor;
+                latestDay = day;
+            }
+            double w = Math.exp(-(latestDay - day) / decayDays);
+            double dx = x - x0;
+            sw += w;
+            sx += w * dx;
+            sy += w * y;
+            sxx += w * dx * dx;
+            sxy += w * dx * y;
+            count++;
+        }
+
+        Double slope() {
+            double denominator = sw * sxx - sx * sx;
+            if (count < 2 || Math.abs(denominator) < 1e-9 * sw * sw) {
+                return null;
+            }
+            return (sw * sxy - sx * sy) / denominator;
+        }
+
+        int count() {
+            return count;
+        }
+
+        void reset() {
+            sw = sx = sy = sxx = sxy = 0;
+            x0 = Double.NaN;
+            latestDay = Double.NaN;
+            count = 0;
+        }
+    }
+}
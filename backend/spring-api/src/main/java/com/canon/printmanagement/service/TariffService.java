@@ -0,0 +1,121 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.tariff.Tariff;
+import com.canon.printmanagement.tariff.TariffTable;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 출력 비용 단가 서비스
+ *
+ * printer_model_tariffs 를 읽어 불변 단가표(TariffTable)를 만들고 volatile 참조로 교체한다.
+ * 비용 계산 쪽은 현재 단가표를 한 번 읽어서 사용하므로 교체 중에도 잠금이 필요 없다.
+ * - 기동 시 1회 + 5분 주기로 다시 읽음 (새 프린터/단가 반영)
+ * - 금액 단위: 0.01원 정수 (DB DECIMAL(10,2) 와 동일 정밀도)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TariffService {
+
+    private static final String PRINTERS_SQL = "SELECT id, model_id FROM printers";
+    private static final String TARIFFS_SQL = """
+        SELECT model_id, paper_size, bw_cost_per_page, color_cost_per_page, duplex_discount_per_page
+        FROM printer_model_tariffs
+        """;
+
+    private final DataSource dataSource;
+
+    @Value("${canon.cost.per-page.bw:30}")
+    private Double costPerPageBw;
+
+    @Value("${canon.cost.per-page.color:150}")
+    private Double costPerPageColor;
+
+    @Value("${canon.cost.per-page.duplex:20}")
+    private Double costPerPageDuplex;
+
+    private volatile TariffTable table;
+
+    @PostConstruct
+    public void init() {
+        table = TariffTable.defaultsOnly(defaultTariff());
+        reload();
+    }
+
+    /**
+     * 단가표 다시 읽기 (실패 시 기존 단가표 유지)
+     */
+    @Scheduled(fixedDelayString = "${canon.tariff.refresh-interval-ms:300000}",
+        initialDelayString = "${canon.tariff.refresh-interval-ms:300000}")
+    public void reload() {
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+            Map<Long, Long> printerModels = new HashMap<>();
+            jdbcTemplate.query(PRINTERS_SQL, rs -> {
+                long modelId = rs.getLong("model_id");
+                printerModels.put(rs.getLong("id"), rs.wasNull() ? null : modelId);
+            });
+
+            Map<Long, Map<String, Tariff>> modelTariffs = new HashMap<>();
+            jdbcTemplate.query(TARIFFS_SQL, rs -> {
+                modelTariffs.computeIfAbsent(rs.getLong("model_id"), k -> new HashMap<>())
+                    .put(rs.getString("paper_size"), new Tariff(
+                        toMinor(rs.getBigDecimal("bw_cost_per_page")),
+                        toMinor(rs.getBigDecimal("color_cost_per_page")),
+                        toMinor(rs.getBigDecimal("duplex_discount_per_page"))
+                    ));
+            });
+
+            table = TariffTable.of(defaultTariff(), printerModels, modelTariffs);
+            log.debug("단가표 갱신: 모델 {}개, 모델 단가 적용 프린터 {}대", modelTariffs.size(), table.printerCount());
+        } catch (Exception e) {
+            log.error("단가표 갱신 실패 - 기존 단가표 유지", e);
+        }
+    }
+
+    /**
+     * 현재 단가표 (한 작업 계산 동안 같은 스냅샷을 쓰도록 한 번만 읽을 것)
+     */
+    public TariffTable currentTable() {
+        return table;
+    }
+
+    public Tariff tariffFor(Long printerId, String paperSize) {
+        return printerId != null ? table.lookup(printerId, paperSize) : table.getDefaultTariff();
+    }
+
+    /**
+     * 0.01원 단위 정수 → 금액
+     */
+    public static BigDecimal toAmount(long minor) {
+        return BigDecimal.valueOf(minor, 2);
+    }
+
+    /**
+     * 금액 → 0.01원 단위 정수
+     */
+    public static long toMinor(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact() : 0L;
+    }
+
+    private Tariff defaultTariff() {
+        return new Tariff(
+            toMinor(BigDecimal.valueOf(costPerPageBw)),
+            toMinor(BigDecimal.valueOf(costPerPageColor)),
+            toMinor(BigDecimal.valueOf(costPerPageDuplex))
+        );
+    }
+}
@@ -0,0 +1,44 @@
+package com.canon.printmanagement.shard;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 스레드의 대상 샤드 (ShardRoutingDataSource 가 연결을 얻을 때 참조)
+ *
+ * 지정하지 않으면 0번(기본) 샤드. 기준 정보 테이블(프린터, 부서, 단가, 스케치 등)은 기본 샤드에만 있다.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 지정한 샤드에서 실행 (이전 값 복원)
+     */
+    public static <T> T call(int shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public static void run(int shard, Runnable action) {
+        call(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
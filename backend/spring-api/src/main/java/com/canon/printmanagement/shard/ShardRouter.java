@@ -0,0 +1,146 @@
+package com.canon.printmanagement.shard;
+
+import com.canon.printmanagement.replica.ReadConsistency;
+import com.canon.printmanagement.slowquery.QueryOrigin;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * 부서 → 샤드 배치 및 샤드별 실행 도우미
+ *
+ * 샤딩 비활성 시 샤드는 1개(0번)이고 모든 호출은 현재 스레드/트랜잭션에서 그대로 실행된다.
+ * - onDepartment: 부서의 샤드에서 실행 (호출자 트랜잭션의 첫 SQL 전에 호출해야 함)
+ * - scatter: 샤드마다 별도 스레드 + 읽기 전용 트랜잭션으로 병렬 실행 후 결과 목록 반환
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ShardRouter {
+
+    private final ShardingProperties properties;
+    private final PlatformTransactionManager transactionManager;
+
+    private ExecutorService executor;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        if (isEnabled()) {
+            int threads = properties.getScatterThreads() > 0 ? properties.getScatterThreads() : shardCount();
+            AtomicInteger sequence = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "shard-scatter-" + sequence.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            log.info("부서 샤딩 활성: 샤드 {}개, 지정 배치 {}건", shardCount(), properties.getPlacement().size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public int shardCount() {
+        return isEnabled() ? properties.getShards().size() : 1;
+    }
+
+    /**
+     * 부서의 샤드 (지정 배치 우선, 없으면 부서 ID mod 샤드 수)
+     */
+    public int shardOf(Long departmentId) {
+        if (!isEnabled() || departmentId == null) {
+            return 0;
+        }
+        Integer placed = properties.getPlacement().get(departmentId);
+        return placed != null ? placed : (int) Math.floorMod(departmentId, (long) shardCount());
+    }
+
+    /**
+     * 부서의 샤드에서 실행
+     */
+    public <T> T onDepartment(Long departmentId, Supplier<T> action) {
+        if (!isEnabled()) {
+            return action.get();
+        }
+        return ShardContext.call(shardOf(departmentId), action);
+    }
+
+    /**
+     * 0번(홈) 샤드에서 실행 (프린터/할당량 등 기준 테이블)
+     */
+    public <T> T onHome(Supplier<T> action) {
+        if (!isEnabled()) {
+            return action.get();
+        }
+        return ShardContext.call(0, action);
+    }
+
+    /**
+     * 모든 샤드에서 병렬 실행 (샤드 번호 순서의 결과 목록)
+     */
+    public <T> List<T> scatter(IntFunction<T> action) {
+        if (!isEnabled()) {
+            return Collections.singletonList(action.apply(0));
+        }
+
+        List<CompletableFuture<T>> futures = new ArrayList<>();
+        for (int shard = 0; shard < shardCount(); shard++) {
+            int target = shard;
+            Supplier<T> task = ReadConsistency.propagate(() -> ShardContext.call(target,
+                () -> readOnlyTransaction.execute(status -> action.apply(target))));
+            futures.add(CompletableFuture.supplyAsync(QueryOrigin.propagate(task), executor));
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * 모든 샤드에서 차례로 실행 (샤드마다 별도 트랜잭션, 호출 스레드에서)
+     */
+    public void forEachShard(TransactionTemplate transaction, IntConsumer action) {
+        for (int shard = 0; shard < shardCount(); shard++) {
+            int target = shard;
+            ShardContext.run(target, () -> transaction.executeWithoutResult(status -> action.accept(target)));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.canon.printmanagement.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * 샤드 라우팅 DataSource
+ *
+ * ShardContext 의 샤드 번호로 대상 DataSource 를 고른다. 트랜잭션 시작 시점이 아니라
+ * 첫 SQL 실행 시점에 연결을 얻도록 LazyConnectionDataSourceProxy 로 감싸서 사용한다.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+}
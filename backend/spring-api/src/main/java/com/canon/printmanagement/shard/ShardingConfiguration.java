@@ -0,0 +1,74 @@
+package com.canon.printmanagement.shard;
+
+import com.canon.printmanagement.replica.ReplicaConfiguration;
+import com.canon.printmanagement.replica.ReplicaLagMonitor;
+import com.canon.printmanagement.replica.ReplicaProperties;
+import com.canon.printmanagement.replica.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 샤딩 모드 DataSource 구성 (canon.sharding.enabled=true 일 때만)
+ *
+ * 샤드별 HikariCP 풀을 만들고 ShardRoutingDataSource 로 묶는다.
+ * 샤드에 읽기 복제본이 있으면 샤드 단위로 ReplicaRoutingDataSource 를 한 번 더 둔다.
+ * 이 Bean 이 있으면 spring.datasource.* 기본 DataSource 는 만들어지지 않는다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "canon.sharding", name = "enabled", havingValue = "true")
+@Slf4j
+public class ShardingConfiguration {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        ShardingProperties properties,
+        ReplicaProperties replicaProperties,
+        ReplicaLagMonitor replicaLagMonitor
+    ) {
+        List<ShardingProperties.Shard> shards = properties.getShards();
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("canon.sharding.shards 가 비어 있습니다");
+        }
+
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            ShardingProperties.Shard shard = shards.get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(shard.getUrl())
+                .username(shard.getUsername())
+                .password(shard.getPassword())
+                .build();
+            dataSource.setPoolName("shard-" + i);
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            log.info("샤드 {} 등록: {}", i, shard.getUrl());
+
+            if (replicaProperties.isEnabled() && !shard.getReplicas().isEmpty()) {
+                targets.put(i, new ReplicaRoutingDataSource(dataSource,
+                    ReplicaConfiguration.replicaPools("shard-" + i + "-replica", shard.getReplicas()), replicaLagMonitor));
+            } else {
+                targets.put(i, dataSource);
+            }
+        }
+
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(targets.get(0));
+        routing.setLenientFallback(false);
+        routing.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
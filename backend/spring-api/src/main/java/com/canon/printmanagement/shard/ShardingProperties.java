@@ -0,0 +1,46 @@
+package com.canon.printmanagement.shard;
+
+import com.canon.printmanagement.replica.ReplicaProperties;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 부서 기준 샤딩 설정 (canon.sharding.*)
+ *
+ * canon.sharding.shards[0].url=jdbc:postgresql://localhost:5432/canon_print_management
+ * canon.sharding.shards[1].url=jdbc:postgresql://localhost:5433/canon_print_management
+ * canon.sharding.placement.3=1   # 부서 3 → 1번 샤드 (지정하지 않은 부서는 부서 ID mod 샤드 수)
+ */
+@Component
+@ConfigurationProperties(prefix = "canon.sharding")
+@Getter
+@Setter
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    private Map<Long, Integer> placement = new HashMap<>();
+
+    // scatter-gather 동시 실행 스레드 수 (0 이면 샤드 수)
+    private int scatterThreads = 0;
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        // 샤드별 읽기 복제본 (canon.replica.enabled=true 일 때 사용)
+        private List<ReplicaProperties.Endpoint> replicas = new ArrayList<>();
+    }
+}
@@ -0,0 +1,66 @@
+package com.canon.printmanagement.sketch;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * (숫자 ID, 문자열) 키용 Bloom filter
+ *
+ * mightContain 이 false 면 확실히 없는 키, true 면 오탐 가능 (fpp 이하).
+ * 비트 배열은 AtomicLongArray 로 잠금 없이 동시에 추가/조회한다.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions 예상 키 개수
+     * @param fpp                허용 오탐률 (예: 0.01)
+     */
+    public BloomFilter(long expectedInsertions, double fpp) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, (m + 63) / 64 * 64);
+        this.bits = new AtomicLongArray((int) (bitCount / 64));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void put(long id, String value) {
+        long hash = Hashing.hash64(id, value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long index = Math.floorMod(h1 + (long) i * h2, bitCount);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(long id, String value) {
+        long hash = Hashing.hash64(id, value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long index = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 비트 배열 크기 (바이트)
+     */
+    public long sizeInBytes() {
+        return bitCount / 8;
+    }
+}
@@ -0,0 +1,114 @@
+package com.canon.printmanagement.sketch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * (부서, 일) 단위 출력 스케치 묶음
+ *
+ * - 고유 사용자/프린터 수: HyperLogLog
+ * - 사용자/프린터별 페이지·비용 Top-K: Space-Saving
+ *
+ * 비용은 0.01원 단위 정수로 누적한다.
+ */
+public class DepartmentDaySketch {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final HyperLogLog users;
+    private final HyperLogLog printers;
+    private final SpaceSaving usersByPages;
+    private final SpaceSaving usersByCost;
+    private final SpaceSaving printersByPages;
+    private final SpaceSaving printersByCost;
+
+    public DepartmentDaySketch(int topKCapacity) {
+        this(new HyperLogLog(), new HyperLogLog(),
+            new SpaceSaving(topKCapacity), new SpaceSaving(topKCapacity),
+            new SpaceSaving(topKCapacity), new SpaceSaving(topKCapacity));
+    }
+
+    private DepartmentDaySketch(HyperLogLog users, HyperLogLog printers,
+                                SpaceSaving usersByPages, SpaceSaving usersByCost,
+                                SpaceSaving printersByPages, SpaceSaving printersByCost) {
+        this.users = users;
+        this.printers = printers;
+        this.usersByPages = usersByPages;
+        this.usersByCost = usersByCost;
+        this.printersByPages = printersByPages;
+        this.printersByCost = printersByCost;
+    }
+
+    public synchronized void add(long userId, long printerId, long pages, long costCents) {
+        users.add(userId);
+        printers.add(printerId);
+        usersByPages.add(userId, pages);
+        usersByCost.add(userId, costCents);
+        printersByPages.add(printerId, pages);
+        printersByCost.add(printerId, costCents);
+    }
+
+    public synchronized void merge(DepartmentDaySketch other) {
+        synchronized (other) {
+            users.merge(other.users);
+            printers.merge(other.printers);
+            usersByPages.merge(other.usersByPages);
+            usersByCost.merge(other.usersByCost);
+            printersByPages.merge(other.printersByPages);
+            printersByCost.merge(other.printersByCost);
+        }
+    }
+
+    public HyperLogLog getUsers() {
+        return users;
+    }
+
+    public HyperLogLog getPrinters() {
+        return printers;
+    }
+
+    public SpaceSaving topK(boolean byUser, boolean byCost) {
+        if (byUser) {
+            return byCost ? usersByCost : usersByPages;
+        }
+        return byCost ? printersByCost : printersByPages;
+    }
+
+    public synchronized byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(FORMAT_VERSION);
+            users.writeTo(out);
+            printers.writeTo(out);
+            usersByPages.writeTo(out);
+            usersByCost.writeTo(out);
+            printersByPages.writeTo(out);
+            printersByCost.writeTo(out);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static DepartmentDaySketch fromBytes(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("지원하지 않는 스케치 버전: " + version);
+            }
+            return new DepartmentDaySketch(
+                HyperLogLog.readFrom(in), HyperLogLog.readFrom(in),
+                SpaceSaving.readFrom(in), SpaceSaving.readFrom(in),
+                SpaceSaving.readFrom(in), SpaceSaving.readFrom(in)
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
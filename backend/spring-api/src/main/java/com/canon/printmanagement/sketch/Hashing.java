@@ -0,0 +1,32 @@
+package com.canon.printmanagement.sketch;
+
+/**
+ * 스케치용 해시 함수
+ */
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * SplitMix64 finalizer - 연속된 ID도 고르게 분산
+     */
+    static long mix64(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * (숫자 ID, 문자열) 복합키 64비트 해시 - FNV-1a 후 SplitMix64 로 섞음
+     */
+    static long hash64(long id, String value) {
+        long hash = 0xCBF29CE484222325L ^ id;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix64(hash);
+    }
+}
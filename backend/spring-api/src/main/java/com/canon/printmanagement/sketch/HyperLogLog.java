@@ -0,0 +1,68 @@
+package com.canon.printmanagement.sketch;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * HyperLogLog 고유값 개수 추정 스케치
+ *
+ * 정밀도 p=12 (레지스터 4,096개, 4KB), 표준 오차 약 1.6%.
+ * 병합은 레지스터별 최댓값이므로 일 단위 스케치를 임의 기간으로 합칠 수 있다.
+ */
+public class HyperLogLog {
+
+    private static final int P = 12;
+    private static final int M = 1 << P;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / M);
+
+    public static final double STANDARD_ERROR = 1.04 / Math.sqrt(M);
+
+    private final byte[] registers = new byte[M];
+
+    public void add(long value) {
+        long hash = Hashing.mix64(value);
+        int index = (int) (hash >>> (64 - P));
+        // 남은 비트의 선행 0 개수 + 1 (보초 비트로 최대값 제한)
+        int rank = Long.numberOfLeadingZeros((hash << P) | (1L << (P - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < M; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = ALPHA * M * M / sum;
+        // 소규모 구간 보정 (linear counting)
+        if (estimate <= 2.5 * M && zeros > 0) {
+            estimate = M * Math.log((double) M / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.write(registers);
+    }
+
+    static HyperLogLog readFrom(DataInputStream in) throws IOException {
+        HyperLogLog hll = new HyperLogLog();
+        in.readFully(hll.registers);
+        return hll;
+    }
+}
@@ -0,0 +1,99 @@
+package com.canon.printmanagement.sketch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 작업당 분포 스케치 묶음 (페이지 수, 파일 크기, 비용 t-digest)
+ *
+ * 직렬화 형식 2 는 centroid 를 double 로 저장한다 (형식 1 의 float 값도 읽음).
+ */
+public class JobDistributionSketch {
+
+    private static final int FORMAT_VERSION = 2;
+    private static final int FLOAT_FORMAT_VERSION = 1;
+
+    /**
+     * 분포 측정 항목
+     */
+    public enum Metric {
+        PAGES,
+        FILE_SIZE_KB,
+        COST
+    }
+
+    private final TDigest pages;
+    private final TDigest fileSizeKb;
+    private final TDigest cost;
+
+    public JobDistributionSketch(double compression) {
+        this(new TDigest(compression), new TDigest(compression), new TDigest(compression));
+    }
+
+    private JobDistributionSketch(TDigest pages, TDigest fileSizeKb, TDigest cost) {
+        this.pages = pages;
+        this.fileSizeKb = fileSizeKb;
+        this.cost = cost;
+    }
+
+    public synchronized void add(Integer pageCount, Long fileSize, Double totalCost) {
+        if (pageCount != null) {
+            pages.add(pageCount);
+        }
+        if (fileSize != null) {
+            fileSizeKb.add(fileSize);
+        }
+        if (totalCost != null) {
+            cost.add(totalCost);
+        }
+    }
+
+    public synchronized void merge(JobDistributionSketch other) {
+        synchronized (other) {
+            pages.merge(other.pages);
+            fileSizeKb.merge(other.fileSizeKb);
+            cost.merge(other.cost);
+        }
+    }
+
+    public TDigest get(Metric metric) {
+        return switch (metric) {
+            case PAGES -> pages;
+            case FILE_SIZE_KB -> fileSizeKb;
+            case COST -> cost;
+        };
+    }
+
+    public synchronized byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(FORMAT_VERSION);
+            pages.writeTo(out);
+            fileSizeKb.writeTo(out);
+            cost.writeTo(out);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static JobDistributionSketch fromBytes(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int version = in.readByte();
+            if (version != FORMAT_VERSION && version != FLOAT_FORMAT_VERSION) {
+                throw new IllegalArgumentException("지원하지 않는 스케치 버전: " + version);
+            }
+            boolean singlePrecision = version == FLOAT_FORMAT_VERSION;
+            return new JobDistributionSketch(TDigest.readFrom(in, singlePrecision),
+                TDigest.readFrom(in, singlePrecision), TDigest.readFrom(in, singlePrecision));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
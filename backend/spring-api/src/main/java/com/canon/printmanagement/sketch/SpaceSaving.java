@@ -0,0 +1,145 @@
+package com.canon.printmanagement.sketch;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Space-Saving 가중치 Top-K (heavy hitter) 스케치
+ *
+ * 카운터 m개만 유지하며, 각 항목의 추정값은 실제값보다 크거나 같고
+ * 초과분은 error 이하 (error ≤ 전체 가중치 / m).
+ * 병합은 Agarwal et al. "Mergeable Summaries" 방식을 따른다.
+ */
+public class SpaceSaving {
+
+    private final int capacity;
+    private final Map<Long, Counter> counters;
+
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void add(long key, long weight) {
+        if (weight <= 0) {
+            return;
+        }
+
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count += weight;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new Counter(key, weight, 0));
+            return;
+        }
+
+        // 최소 카운터를 새 항목으로 교체
+        Counter min = minCounter();
+        counters.remove(min.key);
+        counters.put(key, new Counter(key, min.count + weight, min.count));
+    }
+
+    public void merge(SpaceSaving other) {
+        long minThis = isFull() ? minCounter().count : 0;
+        long minOther = other.isFull() ? other.minCounter().count : 0;
+
+        Set<Long> keys = new HashSet<>(counters.keySet());
+        keys.addAll(other.counters.keySet());
+
+        List<Counter> merged = new ArrayList<>(keys.size());
+        for (Long key : keys) {
+            Counter a = counters.get(key);
+            Counter b = other.counters.get(key);
+            long count = (a != null ? a.count : minThis) + (b != null ? b.count : minOther);
+            long error = (a != null ? a.error : minThis) + (b != null ? b.error : minOther);
+            merged.add(new Counter(key, count, error));
+        }
+
+        merged.sort(Comparator.comparingLong((Counter c) -> c.count).reversed());
+        counters.clear();
+        for (Counter counter : merged.subList(0, Math.min(capacity, merged.size()))) {
+            counters.put(counter.key, counter);
+        }
+    }
+
+    /**
+     * 추정값 상위 k개 (내림차순)
+     */
+    public List<Counter> top(int k) {
+        List<Counter> sorted = new ArrayList<>(counters.values());
+        sorted.sort(Comparator.comparingLong((Counter c) -> c.count).reversed());
+        return sorted.subList(0, Math.min(k, sorted.size()));
+    }
+
+    private boolean isFull() {
+        return counters.size() >= capacity;
+    }
+
+    private Counter minCounter() {
+        Counter min = null;
+        for (Counter counter : counters.values()) {
+            if (min == null || counter.count < min.count) {
+                min = counter;
+            }
+        }
+        return min;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(capacity);
+        out.writeInt(counters.size());
+        for (Counter counter : counters.values()) {
+            out.writeLong(counter.key);
+            out.writeLong(counter.count);
+            out.writeLong(counter.error);
+        }
+    }
+
+    static SpaceSaving readFrom(DataInputStream in) throws IOException {
+        SpaceSaving sketch = new SpaceSaving(in.readInt());
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            Counter counter = new Counter(in.readLong(), in.readLong(), in.readLong());
+            sketch.counters.put(counter.key, counter);
+        }
+        return sketch;
+    }
+
+    /**
+     * 항목별 카운터 (count - error ≤ 실제값 ≤ count)
+     */
+    public static class Counter {
+
+        private final long key;
+        private long count;
+        private final long error;
+
+        Counter(long key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        public long getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getError() {
+            return error;
+        }
+    }
+}
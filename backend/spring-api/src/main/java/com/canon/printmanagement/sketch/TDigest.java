@@ -0,0 +1,220 @@
+package com.canon.printmanagement.sketch;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * t-digest 분위수 추정 스케치 (merging 방식)
+ *
+ * 입력값을 버퍼에 모았다가 정렬 후 centroid 로 병합한다. centroid 크기는
+ * 4·N·q(1-q)/compression 이하로 제한되어 꼬리(p95, p99) 구간일수록 정밀하다.
+ * compression=100 기준 centroid 약 450개 이하, 직렬화 크기 약 7.2KB (centroid 당 16바이트).
+ * 조회(quantile)도 버퍼를 압축하며 내부 상태를 바꾸므로 모든 공개 메서드는 동기화한다.
+ */
+public class TDigest {
+
+    private final double compression;
+
+    private double[] means = new double[0];
+    private double[] weights = new double[0];
+    private int size;
+
+    private final double[] buffer;
+    private int bufferSize;
+
+    private double totalWeight;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest(double compression) {
+        this.compression = compression;
+        this.buffer = new double[(int) (compression * 5)];
+    }
+
+    public synchronized void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (bufferSize == buffer.length) {
+            compress(null, null, 0);
+        }
+        buffer[bufferSize++] = value;
+        totalWeight++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void merge(TDigest other) {
+        // 상대 digest 를 먼저 복사해 두 digest 를 동시에 잠그지 않음 (교차 병합 시 교착 방지)
+        double[] otherMeans;
+        double[] otherWeights;
+        double otherTotal;
+        double otherSum;
+        double otherMin;
+        double otherMax;
+        synchronized (other) {
+            if (other.totalWeight == 0) {
+                return;
+            }
+            other.compress(null, null, 0);
+            otherMeans = other.means;
+            otherWeights = other.weights;
+            otherTotal = other.totalWeight;
+            otherSum = other.sum;
+            otherMin = other.min;
+            otherMax = other.max;
+        }
+        synchronized (this) {
+            totalWeight += otherTotal;
+            sum += otherSum;
+            min = Math.min(min, otherMin);
+            max = Math.max(max, otherMax);
+            compress(otherMeans, otherWeights, otherMeans.length);
+        }
+    }
+
+    public synchronized long count() {
+        return (long) totalWeight;
+    }
+
+    public synchronized double mean() {
+        return totalWeight == 0 ? Double.NaN : sum / totalWeight;
+    }
+
+    public synchronized double min() {
+        return min;
+    }
+
+    public synchronized double max() {
+        return max;
+    }
+
+    /**
+     * q 분위수 추정 (0 ≤ q ≤ 1)
+     */
+    public synchronized double quantile(double q) {
+        compress(null, null, 0);
+        if (size == 0) {
+            return Double.NaN;
+        }
+        if (size == 1) {
+            return means[0];
+        }
+
+        double index = q * totalWeight;
+        double left = weights[0] / 2;
+        if (index < left) {
+            return min + (means[0] - min) * (index / left);
+        }
+
+        double cumulative = left; // 현재 centroid 중심까지의 누적 가중치
+        for (int i = 0; i < size - 1; i++) {
+            double next = cumulative + (weights[i] + weights[i + 1]) / 2;
+            if (index < next) {
+                double fraction = (index - cumulative) / (next - cumulative);
+                return means[i] + (means[i + 1] - means[i]) * fraction;
+            }
+            cumulative = next;
+        }
+
+        double right = weights[size - 1] / 2;
+        double fraction = Math.min(1.0, (index - cumulative) / right);
+        return means[size - 1] + (max - means[size - 1]) * fraction;
+    }
+
+    /**
+     * 기존 centroid + 버퍼 (+ 다른 digest 의 centroid) 를 정렬하여 재병합
+     */
+    private void compress(double[] otherMeans, double[] otherWeights, int otherSize) {
+        if (bufferSize == 0 && otherSize == 0) {
+            return;
+        }
+
+        int n = size + bufferSize + otherSize;
+        double[][] points = new double[n][];
+        int k = 0;
+        for (int i = 0; i < size; i++) {
+            points[k++] = new double[]{means[i], weights[i]};
+        }
+        for (int i = 0; i < bufferSize; i++) {
+            points[k++] = new double[]{buffer[i], 1};
+        }
+        for (int i = 0; i < otherSize; i++) {
+            points[k++] = new double[]{otherMeans[i], otherWeights[i]};
+        }
+        Arrays.sort(points, (a, b) -> Double.compare(a[0], b[0]));
+
+        double total = 0;
+        for (double[] point : points) {
+            total += point[1];
+        }
+
+        double[] newMeans = new double[n];
+        double[] newWeights = new double[n];
+        int newSize = 0;
+        double soFar = 0;
+        double currentMean = points[0][0];
+        double currentWeight = points[0][1];
+
+        for (int i = 1; i < n; i++) {
+            double proposed = currentWeight + points[i][1];
+            double q0 = soFar / total;
+            double q2 = (soFar + proposed) / total;
+            double limit = 4 * total * Math.min(q0 * (1 - q0), q2 * (1 - q2)) / compression;
+
+            if (proposed <= limit) {
+                currentMean += (points[i][0] - currentMean) * points[i][1] / proposed;
+                currentWeight = proposed;
+            } else {
+                newMeans[newSize] = currentMean;
+                newWeights[newSize++] = currentWeight;
+                soFar += currentWeight;
+                currentMean = points[i][0];
+                currentWeight = points[i][1];
+            }
+        }
+        newMeans[newSize] = currentMean;
+        newWeights[newSize++] = currentWeight;
+
+        means = Arrays.copyOf(newMeans, newSize);
+        weights = Arrays.copyOf(newWeights, newSize);
+        size = newSize;
+        bufferSize = 0;
+    }
+
+    synchronized void writeTo(DataOutputStream out) throws IOException {
+        compress(null, null, 0);
+        out.writeDouble(compression);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeDouble(sum);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeDouble(means[i]);
+            out.writeDouble(weights[i]);
+        }
+    }
+
+    /**
+     * @param singlePrecision 버전 1 형식 (compression, centroid 를 float 로 저장)
+     */
+    static TDigest readFrom(DataInputStream in, boolean singlePrecision) throws IOException {
+        TDigest digest = new TDigest(singlePrecision ? in.readFloat() : in.readDouble());
+        digest.min = in.readDouble();
+        digest.max = in.readDouble();
+        digest.sum = in.readDouble();
+        digest.size = in.readInt();
+        digest.means = new double[digest.size];
+        digest.weights = new double[digest.size];
+        for (int i = 0; i < digest.size; i++) {
+            digest.means[i] = singlePrecision ? in.readFloat() : in.readDouble();
+            digest.weights[i] = singlePrecision ? in.readFloat() : in.readDouble();
+            digest.totalWeight += digest.weights[i];
+        }
+        return digest;
+    }
+}
@@ -0,0 +1,85 @@
+package com.canon.printmanagement.slowquery;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 스레드에서 실행 중인 쿼리의 출처 (호출한 repository 메서드와 API 엔드포인트)
+ *
+ * repository 메서드 안에서 실행된 문장만 느린 쿼리 수집 대상이다.
+ * scatter 스레드처럼 요청 스레드가 아닌 곳에서는 propagate 로 엔드포인트를 넘겨받는다.
+ */
+public final class QueryOrigin {
+
+    private static final ThreadLocal<String> REPOSITORY_METHOD = new ThreadLocal<>();
+    private static final ThreadLocal<String> ENDPOINT = new ThreadLocal<>();
+
+    private QueryOrigin() {
+    }
+
+    public static String repositoryMethod() {
+        return REPOSITORY_METHOD.get();
+    }
+
+    /**
+     * repository 메서드 진입 (이전 값 반환, exitRepository 로 복원)
+     */
+    public static String enterRepository(String repositoryMethod) {
+        String previous = REPOSITORY_METHOD.get();
+        REPOSITORY_METHOD.set(repositoryMethod);
+        return previous;
+    }
+
+    public static void exitRepository(String previous) {
+        if (previous != null) {
+            REPOSITORY_METHOD.set(previous);
+        } else {
+            REPOSITORY_METHOD.remove();
+        }
+    }
+
+    /**
+     * 호출한 엔드포인트 ("GET /api/v1/print-jobs/stats", 요청 밖이면 null)
+     */
+    public static String endpoint() {
+        String endpoint = ENDPOINT.get();
+        if (endpoint != null) {
+            return endpoint;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    /**
+     * 다른 스레드에서 실행할 작업에 현재 엔드포인트 전달
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> action) {
+        String endpoint = endpoint();
+        if (endpoint == null) {
+            return action;
+        }
+        return () -> {
+            String previous = ENDPOINT.get();
+            ENDPOINT.set(endpoint);
+            try {
+                return action.get();
+            } finally {
+                if (previous != null) {
+                    ENDPOINT.set(previous);
+                } else {
+                    ENDPOINT.remove();
+                }
+            }
+        };
+    }
+}
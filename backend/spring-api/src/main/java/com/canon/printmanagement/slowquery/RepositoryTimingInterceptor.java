@@ -0,0 +1,55 @@
+package com.canon.printmanagement.slowquery;
+
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * repository 메서드 호출 시간 측정 (Spring Data repository 프록시에 추가)
+ *
+ * 호출 중에는 QueryOrigin 에 "Repository.method" 를 설정해 SlowQueryDataSource 가 문장을 측정하게 한다.
+ */
+public class RepositoryTimingInterceptor implements MethodInterceptor {
+
+    private final String repository;
+    private final ObjectProvider<SlowQueryMonitor> monitorProvider;
+    private final ConcurrentHashMap<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    public RepositoryTimingInterceptor(String repository, ObjectProvider<SlowQueryMonitor> monitorProvider) {
+        this.repository = repository;
+        this.monitorProvider = monitorProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        String previous = QueryOrigin.enterRepository(repository + "." + method.getName());
+        long started = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            QueryOrigin.exitRepository(previous);
+            Timer timer = timer(method);
+            if (timer != null) {
+                timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private Timer timer(Method method) {
+        Timer timer = timers.get(method);
+        if (timer == null) {
+            SlowQueryMonitor monitor = monitorProvider.getIfAvailable();
+            if (monitor == null) {
+                return null;
+            }
+            timer = timers.computeIfAbsent(method, key -> monitor.repositoryTimer(repository, key.getName()));
+        }
+        return timer;
+    }
+}
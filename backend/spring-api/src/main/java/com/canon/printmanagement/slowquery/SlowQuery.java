@@ -0,0 +1,22 @@
+package com.canon.printmanagement.slowquery;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 수집한 느린 쿼리 (실행 계획 포함)
+ *
+ * @param plan EXPLAIN (ANALYZE, BUFFERS) 결과 줄 (수집하지 못했으면 null, 사유는 note)
+ */
+public record SlowQuery(
+    LocalDateTime capturedAt,
+    long durationMs,
+    String repositoryMethod,
+    String endpoint,
+    Integer shard,
+    String sql,
+    List<String> parameters,
+    List<String> plan,
+    String note
+) {
+}
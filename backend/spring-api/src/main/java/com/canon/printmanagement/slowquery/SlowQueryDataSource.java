@@ -0,0 +1,135 @@
+package com.canon.printmanagement.slowquery;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 느린 쿼리 측정용 DataSource 래퍼
+ *
+ * repository 메서드 안에서 준비한 PreparedStatement 만 감싸 바인드 값과 실행 시간을 기록한다.
+ * 그 밖의 문장(JdbcTemplate 배치 작업 등)은 원래 객체를 그대로 돌려주므로 비용이 없다.
+ */
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate");
+
+    private final ObjectProvider<SlowQueryMonitor> monitorProvider;
+    private volatile SlowQueryMonitor monitor;
+
+    public SlowQueryDataSource(DataSource targetDataSource, ObjectProvider<SlowQueryMonitor> monitorProvider) {
+        super(targetDataSource);
+        this.monitorProvider = monitorProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private SlowQueryMonitor monitor() {
+        SlowQueryMonitor current = monitor;
+        if (current == null) {
+            current = monitorProvider.getIfAvailable();
+            monitor = current;
+        }
+        return current;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object result = SlowQueryDataSource.invoke(target, method, args);
+            if (result instanceof PreparedStatement statement
+                && method.getName().equals("prepareStatement")
+                && QueryOrigin.repositoryMethod() != null) {
+                return Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new StatementHandler(statement, (String) args[0]));
+            }
+            return result;
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+
+        private final PreparedStatement target;
+        private final String sql;
+        private final TreeMap<Integer, Object> parameters = new TreeMap<>();
+
+        StatementHandler(PreparedStatement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters.put(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (EXECUTE_METHODS.contains(name) && (args == null || args.length == 0)) {
+                long started = System.nanoTime();
+                try {
+                    return SlowQueryDataSource.invoke(target, method, args);
+                } finally {
+                    SlowQueryMonitor current = monitor();
+                    if (current != null) {
+                        current.onStatement(sql, new ArrayList<>(parameters.values()), System.nanoTime() - started);
+                    }
+                }
+            }
+            return SlowQueryDataSource.invoke(target, method, args);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.canon.printmanagement.slowquery;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 느린 쿼리 조회 (/actuator/slowqueries, DELETE 로 비움)
+ */
+@Component
+@Endpoint(id = "slowqueries")
+@RequiredArgsConstructor
+public class SlowQueryEndpoint {
+
+    private final SlowQueryMonitor slowQueryMonitor;
+
+    @ReadOperation
+    public List<SlowQuery> slowQueries() {
+        return slowQueryMonitor.recent();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryMonitor.clear();
+    }
+}
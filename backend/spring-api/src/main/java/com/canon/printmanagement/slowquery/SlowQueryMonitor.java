@@ -0,0 +1,194 @@
+package com.canon.printmanagement.slowquery;
+
+import com.canon.printmanagement.admission.TokenBucket;
+import com.canon.printmanagement.shard.ShardContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 느린 쿼리 모니터
+ *
+ * - repository 호출 시간: canon.repository.calls{repository, method} 타이머
+ * - 느린 문장: repository 메서드 안의 문장이 threshold 를 넘으면 SQL, 바인드 값, 호출 엔드포인트, 샤드를 수집
+ * - 실행 계획: 수집한 SELECT 를 별도 스레드에서 같은 샤드에 EXPLAIN (ANALYZE, BUFFERS) 로 다시 실행.
+ *   ANALYZE 는 쿼리를 실제로 실행하므로 분당 explain-per-minute 건으로 제한하고,
+ *   읽기 전용 트랜잭션에서 실행 후 롤백한다. 제한을 넘거나 SELECT 가 아니면 계획 없이 기록.
+ * - 최근 capacity 건을 링 버퍼에 보관 (/actuator/slowqueries)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SlowQueryMonitor {
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${canon.slow-query.threshold-ms:500}")
+    private Long thresholdMs;
+
+    @Value("${canon.slow-query.capacity:100}")
+    private Integer capacity;
+
+    @Value("${canon.slow-query.explain-per-minute:6}")
+    private Integer explainPerMinute;
+
+    @Value("${canon.slow-query.explain-queue-size:16}")
+    private Integer explainQueueSize;
+
+    @Value("${canon.slow-query.explain-timeout-seconds:30}")
+    private Integer explainTimeoutSeconds;
+
+    private final ArrayDeque<SlowQuery> recent = new ArrayDeque<>();
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate explainTransaction;
+    private TokenBucket explainBudget;
+    private ThreadPoolExecutor explainExecutor;
+    private Counter captured;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        explainTransaction = new TransactionTemplate(transactionManager);
+        explainTransaction.setReadOnly(true);
+        explainBudget = new TokenBucket(explainPerMinute / 60d, Math.max(1, explainPerMinute));
+        explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(explainQueueSize), runnable -> {
+                Thread thread = new Thread(runnable, "slow-query-explain");
+                thread.setDaemon(true);
+                return thread;
+            });
+        captured = Counter.builder("canon.slow-query.captured").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    /**
+     * repository 메서드별 호출 시간 타이머
+     */
+    public Timer repositoryTimer(String repository, String method) {
+        return Timer.builder("canon.repository.calls")
+            .tag("repository", repository)
+            .tag("method", method)
+            .register(meterRegistry);
+    }
+
+    /**
+     * 문장 실행 완료 (SlowQueryDataSource 에서 호출)
+     */
+    public void onStatement(String sql, List<Object> parameters, long elapsedNanos) {
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (durationMs < thresholdMs) {
+            return;
+        }
+        captured.increment();
+
+        String repositoryMethod = QueryOrigin.repositoryMethod();
+        String endpoint = QueryOrigin.endpoint();
+        Integer shard = ShardContext.current();
+        LocalDateTime capturedAt = LocalDateTime.now();
+        List<String> shown = parameters.stream().map(SlowQueryMonitor::describe).toList();
+        log.warn("느린 쿼리 {}ms: {} ({})", durationMs, repositoryMethod, endpoint);
+
+        if (!isSelect(sql)) {
+            add(new SlowQuery(capturedAt, durationMs, repositoryMethod, endpoint, shard, sql, shown, null,
+                "SELECT 가 아니어서 실행 계획 생략"));
+            return;
+        }
+        if (explainBudget.tryAcquire() != 0) {
+            add(new SlowQuery(capturedAt, durationMs, repositoryMethod, endpoint, shard, sql, shown, null,
+                "실행 계획 수집 한도 초과"));
+            return;
+        }
+        try {
+            explainExecutor.execute(() -> add(new SlowQuery(capturedAt, durationMs, repositoryMethod, endpoint,
+                shard, sql, shown, explain(shard, sql, parameters), null)));
+        } catch (RejectedExecutionException e) {
+            add(new SlowQuery(capturedAt, durationMs, repositoryMethod, endpoint, shard, sql, shown, null,
+                "실행 계획 대기열 가득 참"));
+        }
+    }
+
+    /**
+     * 최근 느린 쿼리 (최신순)
+     */
+    public synchronized List<SlowQuery> recent() {
+        List<SlowQuery> result = new ArrayList<>(recent.size());
+        Iterator<SlowQuery> iterator = recent.descendingIterator();
+        while (iterator.hasNext()) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+
+    public synchronized void clear() {
+        recent.clear();
+    }
+
+    private synchronized void add(SlowQuery slowQuery) {
+        if (recent.size() >= capacity) {
+            recent.removeFirst();
+        }
+        recent.addLast(slowQuery);
+    }
+
+    private List<String> explain(Integer shard, String sql, List<Object> parameters) {
+        try {
+            return ShardContext.call(shard != null ? shard : 0, () -> explainTransaction.execute(status -> {
+                status.setRollbackOnly();
+                return jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql);
+                    ps.setQueryTimeout(explainTimeoutSeconds);
+                    for (int i = 0; i < parameters.size(); i++) {
+                        ps.setObject(i + 1, parameters.get(i));
+                    }
+                    return ps;
+                }, (ResultSet rs, int rowNum) -> rs.getString(1));
+            }));
+        } catch (RuntimeException e) {
+            log.warn("실행 계획 수집 실패: {}", e.getMessage());
+            return List.of("EXPLAIN 실패: " + e.getMessage());
+        }
+    }
+
+    // 데이터 변경 문장은 ANALYZE 가 실제로 실행하므로 제외 (읽기 전용 트랜잭션으로 한 번 더 막음)
+    private static boolean isSelect(String sql) {
+        String normalized = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return normalized.startsWith("select");
+    }
+
+    private static String describe(Object value) {
+        if (value instanceof byte[] bytes) {
+            return "byte[" + bytes.length + "]";
+        }
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,46 @@
+package com.canon.printmanagement.slowquery;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * 느린 쿼리 모니터 연결 (canon.slow-query.enabled=true 일 때)
+ *
+ * - "dataSource" Bean 을 SlowQueryDataSource 로 감쌈 (기본/복제본/샤딩 구성 모두 같은 이름)
+ * - 모든 Spring Data repository 프록시에 RepositoryTimingInterceptor 추가
+ */
+@Component
+public class SlowQueryPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SlowQueryMonitor> monitorProvider;
+    private final boolean enabled;
+
+    public SlowQueryPostProcessor(ObjectProvider<SlowQueryMonitor> monitorProvider, Environment environment) {
+        this.monitorProvider = monitorProvider;
+        this.enabled = environment.getProperty("canon.slow-query.enabled", Boolean.class, true);
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                (proxyFactory, information) -> proxyFactory.addAdvice(new RepositoryTimingInterceptor(
+                    information.getRepositoryInterface().getSimpleName(), monitorProvider))));
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && "dataSource".equals(beanName) && bean instanceof DataSource dataSource
+            && !(bean instanceof SlowQueryDataSource)) {
+            return new SlowQueryDataSource(dataSource, monitorProvider);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,69 @@
+package com.canon.printmanagement.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 요청 처리에 필요 없는 하위 시스템 지연 초기화 (canon.startup.lazy-packages)
+ *
+ * 전역 spring.main.lazy-initialization 은 스케줄러/이벤트 리스너 Bean 까지 늦추므로,
+ * 지정한 패키지(기본: Batch, Mail, Springdoc)에 속한 Bean 만 처음 사용할 때 만든다.
+ * 자동 구성 @Bean 메서드는 선언한 구성 클래스의 패키지로 판단한다.
+ * 다른 Bean 이 즉시 주입받는 경우에는 그 시점에 만들어지므로 동작은 바뀌지 않는다.
+ */
+@Component
+@Slf4j
+public class SelectiveLazyInitialization implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private static final String DEFAULT_PACKAGES = String.join(",",
+        "org.springframework.batch",
+        "org.springframework.boot.autoconfigure.batch",
+        "org.springframework.boot.autoconfigure.mail",
+        "org.springdoc"
+    );
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        if (!environment.getProperty("canon.startup.lazy-subsystems", Boolean.class, true)) {
+            return;
+        }
+        List<String> packages = List.of(environment.getProperty("canon.startup.lazy-packages", DEFAULT_PACKAGES)
+            .split("\\s*,\\s*"));
+
+        int count = 0;
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+            if (definition.isLazyInit() || definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE) {
+                continue;
+            }
+            String className = declaringClassName(beanFactory, definition);
+            if (className != null && packages.stream().anyMatch(className::startsWith)) {
+                definition.setLazyInit(true);
+                count++;
+            }
+        }
+        log.debug("지연 초기화 Bean {}개 (패키지: {})", count, packages);
+    }
+
+    private static String declaringClassName(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+        String factoryBeanName = definition.getFactoryBeanName();
+        if (factoryBeanName != null && beanFactory.containsBeanDefinition(factoryBeanName)) {
+            return beanFactory.getBeanDefinition(factoryBeanName).getBeanClassName();
+        }
+        return definition.getBeanClassName();
+    }
+}
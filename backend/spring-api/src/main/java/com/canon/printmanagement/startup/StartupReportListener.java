@@ -0,0 +1,66 @@
+package com.canon.printmanagement.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * 기동 시간 보고 (CANON_STARTUP_REPORT=true 로 실행 시)
+ *
+ * BufferingApplicationStartup 이 기록한 단계 중 오래 걸린 상위 N개와 준비 완료까지 걸린 시간을 로그로 남긴다.
+ * 전체 기록은 /actuator/startup 에서 JSON 으로 조회할 수 있다.
+ */
+@Component
+@Slf4j
+public class StartupReportListener {
+
+    @Value("${canon.startup.report-top:20}")
+    private Integer reportTop;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        Duration timeTaken = event.getTimeTaken();
+        log.info("🚀 기동 완료: {}ms (JVM 시작부터 {}ms)",
+            timeTaken != null ? timeTaken.toMillis() : -1,
+            System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime());
+
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup buffering)) {
+            return;
+        }
+
+        // drain 하지 않고 읽으므로 /actuator/startup 에서도 같은 기록을 볼 수 있음
+        StartupTimeline timeline = buffering.getBufferedTimeline();
+        List<StartupTimeline.TimelineEvent> slowest = timeline.getEvents().stream()
+            .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+            .limit(reportTop)
+            .toList();
+
+        StringBuilder report = new StringBuilder();
+        for (StartupTimeline.TimelineEvent timelineEvent : slowest) {
+            StartupStep step = timelineEvent.getStartupStep();
+            report.append(String.format("%n  %6dms  %s %s",
+                timelineEvent.getDuration().toMillis(), step.getName(), describe(step.getTags())));
+        }
+        log.info("기동 단계 상위 {}개 (전체 {}개):{}", slowest.size(), timeline.getEvents().size(), report);
+    }
+
+    private static String describe(StartupStep.Tags tags) {
+        return StreamSupport.stream(tags.spliterator(), false)
+            .map(tag -> tag.getKey() + "=" + tag.getValue())
+            .collect(Collectors.joining(", ", "[", "]"));
+    }
+}
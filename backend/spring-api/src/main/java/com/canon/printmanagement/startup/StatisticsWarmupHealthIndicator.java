@@ -0,0 +1,29 @@
+package com.canon.printmanagement.startup;
+
+import com.canon.printmanagement.service.StatisticsWarmupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * 통계 워밍업 상태 (readiness 그룹에 포함)
+ *
+ * 기동 후 현재 기간 통계를 미리 계산하는 동안 OUT_OF_SERVICE 를 보고해
+ * 로드밸런서/오케스트레이터가 워밍업이 끝난 인스턴스에만 트래픽을 보내도록 한다.
+ * /actuator/health/readiness 로 확인 (liveness 에는 포함하지 않음).
+ */
+@Component
+@RequiredArgsConstructor
+public class StatisticsWarmupHealthIndicator implements HealthIndicator {
+
+    private final StatisticsWarmupService statisticsWarmupService;
+
+    @Override
+    public Health health() {
+        if (!statisticsWarmupService.isWarmedUp()) {
+            return Health.outOfService().withDetail("warmup", "in progress").build();
+        }
+        return Health.up().withDetail("periods", statisticsWarmupService.hotPeriods()).build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.canon.printmanagement.tariff;
+
+/**
+ * 페이지 단가 (불변, 0.01원 단위 정수)
+ *
+ * 프린터 모델 × 용지 크기별로 흑백/컬러 단가와 양면 할인액을 가진다.
+ * 계산은 모두 long 연산이며 작업당 객체를 만들지 않는다.
+ */
+public final class Tariff {
+
+    private final long bwPerPage;
+    private final long colorPerPage;
+    private final long duplexDiscountPerPage;
+
+    public Tariff(long bwPerPage, long colorPerPage, long duplexDiscountPerPage) {
+        this.bwPerPage = bwPerPage;
+        this.colorPerPage = colorPerPage;
+        this.duplexDiscountPerPage = duplexDiscountPerPage;
+    }
+
+    public long getBwPerPage() {
+        return bwPerPage;
+    }
+
+    public long getColorPerPage() {
+        return colorPerPage;
+    }
+
+    public long getDuplexDiscountPerPage() {
+        return duplexDiscountPerPage;
+    }
+
+    /**
+     * 흑백 비용 (할인 전)
+     */
+    public long bwCost(int bwPages, int copies) {
+        return (long) bwPages * bwPerPage * copies;
+    }
+
+    /**
+     * 컬러 비용 (할인 전)
+     */
+    public long colorCost(int colorPages, int copies) {
+        return (long) colorPages * colorPerPage * copies;
+    }
+
+    /**
+     * 양면 할인액 (할인 전 비용을 넘지 않음)
+     */
+    public long duplexDiscount(int pageCount, int copies, long grossCost) {
+        return Math.min((long) pageCount * duplexDiscountPerPage * copies, grossCost);
+    }
+
+    /**
+     * 작업 비용 (양면 할인 반영, PrintJobService.calculateCost 의 합계와 같음)
+     */
+    public long netCost(int bwPages, int colorPages, int pageCount, int copies, boolean duplex) {
+        long gross = bwCost(bwPages, copies) + colorCost(colorPages, copies);
+        return duplex ? gross - duplexDiscount(pageCount, copies, gross) : gross;
+    }
+
+    /**
+     * 컬러 → 흑백 변환 절감액
+     */
+    public long colorConversionSavings(int convertedPages, int copies) {
+        return (long) convertedPages * colorConversionSavingsPerPage() * copies;
+    }
+
+    public long colorConversionSavingsPerPage() {
+        return Math.max(colorPerPage - bwPerPage, 0L);
+    }
+}
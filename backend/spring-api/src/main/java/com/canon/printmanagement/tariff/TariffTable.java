@@ -0,0 +1,93 @@
+package com.canon.printmanagement.tariff;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 프린터별 단가표 (불변 스냅샷)
+ *
+ * 프린터 ID → 모델 단가(용지 크기별) 조회. 새로 읽은 단가표로 통째로 교체되며
+ * 조회는 정렬된 long 배열 이진 탐색 + 용지 크기 Map 조회로 끝난다.
+ * - 용지 크기 단가가 없으면 모델의 '*' 단가, 그것도 없으면 기본 단가(canon.cost.per-page.*)
+ */
+public final class TariffTable {
+
+    public static final String ANY_PAPER_SIZE = "*";
+
+    private final Tariff defaultTariff;
+    private final long[] printerIds;
+    private final List<Map<String, Tariff>> printerTariffs;
+
+    private TariffTable(Tariff defaultTariff, long[] printerIds, List<Map<String, Tariff>> printerTariffs) {
+        this.defaultTariff = defaultTariff;
+        this.printerIds = printerIds;
+        this.printerTariffs = printerTariffs;
+    }
+
+    /**
+     * 기본 단가만 있는 단가표
+     */
+    public static TariffTable defaultsOnly(Tariff defaultTariff) {
+        return new TariffTable(defaultTariff, new long[0], List.of());
+    }
+
+    /**
+     * @param printerModels   프린터 ID → 모델 ID
+     * @param modelTariffs    모델 ID → (용지 크기 → 단가)
+     */
+    public static TariffTable of(
+        Tariff defaultTariff,
+        Map<Long, Long> printerModels,
+        Map<Long, Map<String, Tariff>> modelTariffs
+    ) {
+        long[] printerIds = printerModels.entrySet().stream()
+            .filter(entry -> entry.getValue() != null && modelTariffs.containsKey(entry.getValue()))
+            .mapToLong(Map.Entry::getKey)
+            .sorted()
+            .toArray();
+
+        Map<Long, Map<String, Tariff>> normalized = new HashMap<>();
+        modelTariffs.forEach((modelId, tariffs) -> {
+            Map<String, Tariff> byPaper = new HashMap<>();
+            tariffs.forEach((paperSize, tariff) -> byPaper.put(paperSize.toUpperCase(Locale.ROOT), tariff));
+            normalized.put(modelId, Map.copyOf(byPaper));
+        });
+
+        List<Map<String, Tariff>> printerTariffs = Arrays.stream(printerIds)
+            .mapToObj(printerId -> normalized.get(printerModels.get(printerId)))
+            .toList();
+
+        return new TariffTable(defaultTariff, printerIds, printerTariffs);
+    }
+
+    public Tariff lookup(long printerId, String paperSize) {
+        int index = Arrays.binarySearch(printerIds, printerId);
+        if (index < 0) {
+            return defaultTariff;
+        }
+
+        Map<String, Tariff> byPaper = printerTariffs.get(index);
+        Tariff tariff = null;
+        if (paperSize != null) {
+            tariff = byPaper.get(paperSize);
+            if (tariff == null) {
+                tariff = byPaper.get(paperSize.toUpperCase(Locale.ROOT));
+            }
+        }
+        if (tariff == null) {
+            tariff = byPaper.get(ANY_PAPER_SIZE);
+        }
+        return tariff != null ? tariff : defaultTariff;
+    }
+
+    public Tariff getDefaultTariff() {
+        return defaultTariff;
+    }
+
+    public int printerCount() {
+        return printerIds.length;
+    }
+}
@@ -0,0 +1,35 @@
+package com.canon.printmanagement.timeseries;
+
+/**
+ * long 배열 비트 스트림 읽기 (BitWriter 와 같은 순서)
+ */
+final class BitReader {
+
+    private final long[] words;
+    private int position;
+
+    BitReader(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * bits 비트 읽기 (1~64)
+     */
+    long read(int bits) {
+        int index = position >>> 6;
+        int free = 64 - (position & 63);
+        long value;
+        if (bits <= free) {
+            value = words[index] >>> (free - bits);
+        } else {
+            int spill = bits - free;
+            value = (words[index] << spill) | (words[index + 1] >>> (64 - spill));
+        }
+        position += bits;
+        return bits == 64 ? value : value & ((1L << bits) - 1);
+    }
+
+    boolean readBit() {
+        return read(1) != 0;
+    }
+}
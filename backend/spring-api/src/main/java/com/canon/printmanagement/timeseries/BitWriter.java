@@ -0,0 +1,55 @@
+package com.canon.printmanagement.timeseries;
+
+import java.util.Arrays;
+
+/**
+ * long 배열 비트 스트림 쓰기 (상위 비트부터 채움)
+ */
+final class BitWriter {
+
+    private long[] words;
+    private int bitLength;
+
+    BitWriter(int initialWords) {
+        words = new long[Math.max(1, initialWords)];
+    }
+
+    /**
+     * value 의 하위 bits 비트 기록 (1~64)
+     */
+    void write(long value, int bits) {
+        if (bits < 64) {
+            value &= (1L << bits) - 1;
+        }
+        int required = (bitLength + bits + 63) >>> 6;
+        if (required > words.length) {
+            words = Arrays.copyOf(words, Math.max(required, words.length * 2));
+        }
+
+        int index = bitLength >>> 6;
+        int free = 64 - (bitLength & 63);
+        if (bits <= free) {
+            words[index] |= value << (free - bits);
+        } else {
+            int spill = bits - free;
+            words[index] |= value >>> spill;
+            words[index + 1] |= value << (64 - spill);
+        }
+        bitLength += bits;
+    }
+
+    int bitLength() {
+        return bitLength;
+    }
+
+    int capacityBytes() {
+        return words.length * Long.BYTES;
+    }
+
+    /**
+     * 사용한 워드만 복사
+     */
+    long[] toWords() {
+        return Arrays.copyOf(words, (bitLength + 63) >>> 6);
+    }
+}
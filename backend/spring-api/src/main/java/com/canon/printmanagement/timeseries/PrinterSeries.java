@@ -0,0 +1,133 @@
+package com.canon.printmanagement.timeseries;
+
+import com.canon.printmanagement.dto.PrinterStatusItem;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 프린터 1대의 상태 시계열 (봉인 블록 목록 + 기록 중인 블록 1개)
+ *
+ * 블록이 blockCapacity 샘플에 도달하면 불변 StatusBlock 으로 봉인한다.
+ * 읽기는 잠금 안에서 블록 목록과 기록 중 블록의 사본만 가져가고, 복원은 잠금 밖에서 수행한다.
+ */
+final class PrinterSeries {
+
+    private final Long printerId;
+    private final int blockCapacity;
+    private final List<StatusBlock> sealed = new ArrayList<>();
+    private StatusBlockWriter active;
+
+    PrinterSeries(Long printerId, int blockCapacity) {
+        this.printerId = printerId;
+        this.blockCapacity = blockCapacity;
+        this.active = new StatusBlockWriter(blockCapacity);
+    }
+
+    /**
+     * 샘플 추가 (직전 샘플 이전/같은 시각이면 무시 - (printer_id, timestamp) 가 PK)
+     *
+     * @return 추가 여부
+     */
+    synchronized boolean append(long micros, PrinterStatusItem sample, StringDictionary dictionary) {
+        if (micros <= lastMicros()) {
+            return false;
+        }
+        if (active.count() == blockCapacity) {
+            sealed.add(active.toBlock());
+            active = new StatusBlockWriter(blockCapacity);
+        }
+        active.append(micros, sample, dictionary);
+        return true;
+    }
+
+    private long lastMicros() {
+        if (active.count() > 0) {
+            return active.lastMicros();
+        }
+        return sealed.isEmpty() ? Long.MIN_VALUE : sealed.get(sealed.size() - 1).lastMicros();
+    }
+
+    /**
+     * [fromMicros, toMicros] 와 겹치는 블록 (시간순, 기록 중 블록은 사본)
+     */
+    synchronized List<StatusBlock> blocks(long fromMicros, long toMicros) {
+        List<StatusBlock> blocks = new ArrayList<>();
+        for (StatusBlock block : sealed) {
+            if (block.lastMicros() >= fromMicros && block.firstMicros() <= toMicros) {
+                blocks.add(block);
+            }
+        }
+        if (active.count() > 0 && active.lastMicros() >= fromMicros) {
+            StatusBlock current = active.toBlock();
+            if (current.firstMicros() <= toMicros) {
+                blocks.add(current);
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * cutoff 이전 샘플만 담긴 봉인 블록 제거
+     *
+     * @return 제거된 샘플 수
+     */
+    synchronized int evictBefore(long cutoffMicros) {
+        int evicted = 0;
+        while (!sealed.isEmpty() && sealed.get(0).lastMicros() < cutoffMicros) {
+            evicted += sealed.remove(0).count();
+        }
+        return evicted;
+    }
+
+    synchronized boolean isEmpty() {
+        return sealed.isEmpty() && active.count() == 0;
+    }
+
+    synchronized long sampleCount() {
+        long samples = active.count();
+        for (StatusBlock block : sealed) {
+            samples += block.count();
+        }
+        return samples;
+    }
+
+    synchronized long sizeBytes() {
+        long bytes = active.capacityBytes();
+        for (StatusBlock block : sealed) {
+            bytes += block.sizeBytes();
+        }
+        return bytes;
+    }
+
+    synchronized void writeTo(DataOutput out) throws IOException {
+        out.writeLong(printerId);
+        out.writeInt(sealed.size());
+        for (StatusBlock block : sealed) {
+            block.writeTo(out);
+        }
+        active.toBlock().writeTo(out);
+    }
+
+    /**
+     * 스냅샷에서 복원 - 기록 중이던 블록은 다시 인코딩해 인코더 상태를 재구성
+     */
+    static PrinterSeries readFrom(DataInput in, int blockCapacity, StringDictionary dictionary) throws IOException {
+        PrinterSeries series = new PrinterSeries(in.readLong(), blockCapacity);
+        int sealedCount = in.readInt();
+        for (int i = 0; i < sealedCount; i++) {
+            series.sealed.add(StatusBlock.readFrom(in));
+        }
+        for (PrinterStatusItem sample : StatusBlock.readFrom(in).decode(series.printerId, dictionary)) {
+            series.append(StatusBlock.toMicros(sample.timestamp()), sample, dictionary);
+        }
+        return series;
+    }
+
+    Long printerId() {
+        return printerId;
+    }
+}
@@ -0,0 +1,91 @@
+package com.canon.printmanagement.timeseries;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 사전 코드 run-length 컬럼 (run 마다 코드 + 끝 위치)
+ *
+ * 상태 문자열은 대부분 같은 값이 이어지므로 블록당 run 몇 개로 줄어든다.
+ */
+final class RunLengthColumn {
+
+    private int[] codes;
+    private int[] ends; // run 의 마지막 샘플 다음 위치 (exclusive)
+    private int runs;
+
+    RunLengthColumn(int initialRuns) {
+        codes = new int[Math.max(1, initialRuns)];
+        ends = new int[codes.length];
+    }
+
+    private RunLengthColumn(int[] codes, int[] ends) {
+        this.codes = codes;
+        this.ends = ends;
+        this.runs = codes.length;
+    }
+
+    /**
+     * index 번째 샘플 코드 추가 (index 는 0부터 순서대로)
+     */
+    void append(int code, int index) {
+        if (runs > 0 && codes[runs - 1] == code) {
+            ends[runs - 1] = index + 1;
+            return;
+        }
+        if (runs == codes.length) {
+            codes = Arrays.copyOf(codes, runs * 2);
+            ends = Arrays.copyOf(ends, runs * 2);
+        }
+        codes[runs] = code;
+        ends[runs] = index + 1;
+        runs++;
+    }
+
+    /**
+     * 샘플 순서대로 펼친 코드
+     */
+    int[] expand(int count) {
+        int[] expanded = new int[count];
+        int start = 0;
+        for (int run = 0; run < runs && start < count; run++) {
+            int end = Math.min(ends[run], count);
+            Arrays.fill(expanded, start, end, codes[run]);
+            start = end;
+        }
+        return expanded;
+    }
+
+    int runs() {
+        return runs;
+    }
+
+    int capacityBytes() {
+        return codes.length * Integer.BYTES * 2;
+    }
+
+    RunLengthColumn trimmed() {
+        return new RunLengthColumn(Arrays.copyOf(codes, runs), Arrays.copyOf(ends, runs));
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(runs);
+        for (int run = 0; run < runs; run++) {
+            out.writeInt(codes[run]);
+            out.writeInt(ends[run]);
+        }
+    }
+
+    static RunLengthColumn readFrom(DataInput in) throws IOException {
+        int runs = in.readInt();
+        int[] codes = new int[runs];
+        int[] ends = new int[runs];
+        for (int run = 0; run < runs; run++) {
+            codes[run] = in.readInt();
+            ends[run] = in.readInt();
+        }
+        return new RunLengthColumn(codes, ends);
+    }
+}
@@ -0,0 +1,206 @@
+package com.canon.printmanagement.timeseries;
+
+import com.canon.printmanagement.dto.PrinterStatusItem;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 봉인된 상태 샘플 블록 (불변)
+ *
+ * 비트 스트림 인코딩 (Gorilla 방식, zigzag = 부호 있는 값을 작은 양수로 변환):
+ * - timestamp: 첫 샘플 64비트, 이후 delta-of-delta
+ *   '0' = 0 | '10' + 8비트 | '110' + 16비트 | '1110' + 24비트 | '1111' + 64비트
+ * - 토너/용지 잔량 (0~100 정수라 XOR 보다 delta 가 짧음):
+ *   '0' = 직전과 같음 | '10' + 7비트 delta | '110' = null | '111' + 32비트 값
+ * - 페이지 카운터: delta-of-delta
+ *   '0' = 0 | '10' + 7비트 | '110' + 14비트 | '1110' + 64비트 값 | '1111' = null
+ * 상태/오류 문자열은 RunLengthColumn (run 당 8바이트).
+ *
+ * 일정 주기 수집 기준 정상 상태 샘플은 timestamp 1~19비트 (수집 지연 흔들림 ±16ms 이내, 넘으면 28비트)
+ * + 잔량 5비트 + 카운터 2~18비트 + 상태 run 분할분 → 약 2~6바이트/샘플
+ * (대기 중 정시 수집 약 2바이트, 매 주기 출력 + 흔들림 약 6바이트, StatusTimeSeriesStoreTest 에서 측정.
+ * 같은 샘플의 JPA 엔티티는 약 200바이트 이상). 실제 값은 StatusTimeSeriesStore.stats() 로 확인.
+ */
+final class StatusBlock {
+
+    static final int LEVELS = 5;
+    static final int COUNTERS = 2;
+
+    // 객체 헤더 + 필드 + 배열 헤더 추정치
+    static final int HEADER_BYTES = 96;
+
+    private final long[] words;
+    private final int count;
+    private final long firstMicros;
+    private final long lastMicros;
+    private final RunLengthColumn status;
+    private final RunLengthColumn errorCode;
+    private final RunLengthColumn errorMessage;
+
+    StatusBlock(long[] words, int count, long firstMicros, long lastMicros,
+                RunLengthColumn status, RunLengthColumn errorCode, RunLengthColumn errorMessage) {
+        this.words = words;
+        this.count = count;
+        this.firstMicros = firstMicros;
+        this.lastMicros = lastMicros;
+        this.status = status;
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long firstMicros() {
+        return firstMicros;
+    }
+
+    long lastMicros() {
+        return lastMicros;
+    }
+
+    int sizeBytes() {
+        return words.length * Long.BYTES + status.capacityBytes() + errorCode.capacityBytes()
+            + errorMessage.capacityBytes() + HEADER_BYTES;
+    }
+
+    /**
+     * 블록 전체 복원 (시간순)
+     */
+    List<PrinterStatusItem> decode(Long printerId, StringDictionary dictionary) {
+        List<PrinterStatusItem> samples = new ArrayList<>(count);
+        if (count == 0) {
+            return samples;
+        }
+        BitReader reader = new BitReader(words);
+        int[] statusCodes = status.expand(count);
+        int[] errorCodes = errorCode.expand(count);
+        int[] errorMessages = errorMessage.expand(count);
+
+        long micros = 0;
+        long timestampDelta = 0;
+        Integer[] levels = new Integer[LEVELS];
+        Long[] counters = new Long[COUNTERS];
+        long[] counterDeltas = new long[COUNTERS];
+
+        for (int i = 0; i < count; i++) {
+            if (i == 0) {
+                micros = reader.read(64);
+            } else {
+                timestampDelta += readTimestampDelta(reader);
+                micros += timestampDelta;
+            }
+            for (int column = 0; column < LEVELS; column++) {
+                levels[column] = readLevel(reader, levels[column]);
+            }
+            for (int column = 0; column < COUNTERS; column++) {
+                Long previous = counters[column];
+                counters[column] = readCounter(reader, previous, counterDeltas, column);
+            }
+
+            samples.add(new PrinterStatusItem(
+                printerId, toDateTime(micros), dictionary.decode(statusCodes[i]),
+                levels[0], levels[1], levels[2], levels[3], levels[4],
+                dictionary.decode(errorCodes[i]), dictionary.decode(errorMessages[i]),
+                counters[0], counters[1]
+            ));
+        }
+        return samples;
+    }
+
+    private static long readTimestampDelta(BitReader reader) {
+        if (!reader.readBit()) {
+            return 0;
+        }
+        if (!reader.readBit()) {
+            return unzigzag(reader.read(8));
+        }
+        if (!reader.readBit()) {
+            return unzigzag(reader.read(16));
+        }
+        return unzigzag(reader.readBit() ? reader.read(64) : reader.read(24));
+    }
+
+    private static Integer readLevel(BitReader reader, Integer previous) {
+        if (!reader.readBit()) {
+            return previous;
+        }
+        if (!reader.readBit()) {
+            return (int) (previous + unzigzag(reader.read(7)));
+        }
+        if (!reader.readBit()) {
+            return null;
+        }
+        return (int) reader.read(32);
+    }
+
+    private static Long readCounter(BitReader reader, Long previous, long[] deltas, int column) {
+        if (!reader.readBit()) {
+            return previous + deltas[column];
+        }
+        if (!reader.readBit()) {
+            deltas[column] += unzigzag(reader.read(7));
+            return previous + deltas[column];
+        }
+        if (!reader.readBit()) {
+            deltas[column] += unzigzag(reader.read(14));
+            return previous + deltas[column];
+        }
+        if (reader.readBit()) {
+            deltas[column] = 0;
+            return null;
+        }
+        long value = reader.read(64);
+        deltas[column] = previous != null ? value - previous : 0;
+        return value;
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    static LocalDateTime toDateTime(long micros) {
+        return LocalDateTime.ofEpochSecond(
+            Math.floorDiv(micros, 1_000_000L), (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(count);
+        out.writeLong(firstMicros);
+        out.writeLong(lastMicros);
+        out.writeInt(words.length);
+        for (long word : words) {
+            out.writeLong(word);
+        }
+        status.writeTo(out);
+        errorCode.writeTo(out);
+        errorMessage.writeTo(out);
+    }
+
+    static StatusBlock readFrom(DataInput in) throws IOException {
+        int count = in.readInt();
+        long firstMicros = in.readLong();
+        long lastMicros = in.readLong();
+        long[] words = new long[in.readInt()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = in.readLong();
+        }
+        return new StatusBlock(words, count, firstMicros, lastMicros,
+            RunLengthColumn.readFrom(in), RunLengthColumn.readFrom(in), RunLengthColumn.readFrom(in));
+    }
+}
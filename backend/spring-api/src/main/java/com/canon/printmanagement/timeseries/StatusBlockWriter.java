@@ -0,0 +1,156 @@
+package com.canon.printmanagement.timeseries;
+
+import com.canon.printmanagement.dto.PrinterStatusItem;
+
+/**
+ * 상태 샘플 블록 인코더 (append-only, PrinterSeries 잠금 안에서만 사용)
+ *
+ * 샘플마다 한 비트 스트림에 이어서 기록 (인코딩 규칙은 StatusBlock 참고):
+ * - timestamp (epoch 마이크로초): delta-of-delta
+ * - 토너 4색/용지 잔량: 직전 값과의 delta
+ * - 총/컬러 페이지 카운터: delta-of-delta
+ * 상태/오류 코드/오류 메시지는 사전 코드 run-length 컬럼에 따로 기록한다.
+ */
+final class StatusBlockWriter {
+
+    private final BitWriter bits;
+    private final RunLengthColumn status = new RunLengthColumn(4);
+    private final RunLengthColumn errorCode = new RunLengthColumn(4);
+    private final RunLengthColumn errorMessage = new RunLengthColumn(4);
+
+    private int count;
+    private long firstMicros;
+    private long lastMicros;
+    private long timestampDelta;
+
+    private final int[] levels = new int[StatusBlock.LEVELS];
+    private final boolean[] hasLevel = new boolean[StatusBlock.LEVELS];
+    private final long[] counters = new long[StatusBlock.COUNTERS];
+    private final long[] counterDeltas = new long[StatusBlock.COUNTERS];
+    private final boolean[] hasCounter = new boolean[StatusBlock.COUNTERS];
+
+    StatusBlockWriter(int capacity) {
+        // 샘플당 평균 32비트로 시작 (부족하면 BitWriter 가 늘림)
+        bits = new BitWriter(capacity / 2);
+    }
+
+    void append(long micros, PrinterStatusItem sample, StringDictionary dictionary) {
+        writeTimestamp(micros);
+        writeLevel(0, sample.tonerLevelBlack());
+        writeLevel(1, sample.tonerLevelCyan());
+        writeLevel(2, sample.tonerLevelMagenta());
+        writeLevel(3, sample.tonerLevelYellow());
+        writeLevel(4, sample.paperLevel());
+        writeCounter(0, sample.totalPageCount());
+        writeCounter(1, sample.colorPageCount());
+
+        status.append(dictionary.encode(sample.status()), count);
+        errorCode.append(dictionary.encode(sample.errorCode()), count);
+        errorMessage.append(dictionary.encode(sample.errorMessage()), count);
+
+        if (count == 0) {
+            firstMicros = micros;
+        }
+        lastMicros = micros;
+        count++;
+    }
+
+    private void writeTimestamp(long micros) {
+        if (count == 0) {
+            bits.write(micros, 64);
+            return;
+        }
+        long delta = micros - lastMicros;
+        long zigzag = StatusBlock.zigzag(delta - timestampDelta);
+        timestampDelta = delta;
+
+        if (zigzag == 0) {
+            bits.write(0b0, 1);
+        } else if (zigzag >>> 8 == 0) {
+            bits.write(0b10, 2);
+            bits.write(zigzag, 8);
+        } else if (zigzag >>> 16 == 0) {
+            bits.write(0b110, 3);
+            bits.write(zigzag, 16);
+        } else if (zigzag >>> 24 == 0) {
+            bits.write(0b1110, 4);
+            bits.write(zigzag, 24);
+        } else {
+            bits.write(0b1111, 4);
+            bits.write(zigzag, 64);
+        }
+    }
+
+    private void writeLevel(int column, Integer value) {
+        if (value == null) {
+            bits.write(hasLevel[column] ? 0b110 : 0b0, hasLevel[column] ? 3 : 1);
+            hasLevel[column] = false;
+            return;
+        }
+        long zigzag = hasLevel[column] ? StatusBlock.zigzag((long) value - levels[column]) : -1L;
+        if (zigzag == 0) {
+            bits.write(0b0, 1);
+        } else if (zigzag >>> 7 == 0) {
+            bits.write(0b10, 2);
+            bits.write(zigzag, 7);
+        } else {
+            bits.write(0b111, 3);
+            bits.write(value, 32);
+        }
+        levels[column] = value;
+        hasLevel[column] = true;
+    }
+
+    private void writeCounter(int column, Long value) {
+        if (value == null) {
+            bits.write(0b1111, 4);
+            hasCounter[column] = false;
+            counterDeltas[column] = 0;
+            return;
+        }
+        if (!hasCounter[column]) {
+            bits.write(0b1110, 4);
+            bits.write(value, 64);
+            counterDeltas[column] = 0;
+        } else {
+            long delta = value - counters[column];
+            long zigzag = StatusBlock.zigzag(delta - counterDeltas[column]);
+            if (zigzag == 0) {
+                bits.write(0b0, 1);
+            } else if (zigzag >>> 7 == 0) {
+                bits.write(0b10, 2);
+                bits.write(zigzag, 7);
+            } else if (zigzag >>> 14 == 0) {
+                bits.write(0b110, 3);
+                bits.write(zigzag, 14);
+            } else {
+                bits.write(0b1110, 4);
+                bits.write(value, 64);
+            }
+            counterDeltas[column] = delta;
+        }
+        counters[column] = value;
+        hasCounter[column] = true;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long lastMicros() {
+        return lastMicros;
+    }
+
+    int capacityBytes() {
+        return bits.capacityBytes() + status.capacityBytes() + errorCode.capacityBytes()
+            + errorMessage.capacityBytes() + StatusBlock.HEADER_BYTES;
+    }
+
+    /**
+     * 현재까지 기록한 샘플의 불변 블록 (봉인 또는 읽기용 사본)
+     */
+    StatusBlock toBlock() {
+        return new StatusBlock(bits.toWords(), count, firstMicros, lastMicros,
+            status.trimmed(), errorCode.trimmed(), errorMessage.trimmed());
+    }
+}
@@ -0,0 +1,192 @@
+package com.canon.printmanagement.timeseries;
+
+import com.canon.printmanagement.dto.PrinterStatusItem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 프린터 상태 압축 시계열 저장소 (메모리)
+ *
+ * 프린터별 PrinterSeries 에 샘플을 시간순으로 추가하고, 상태 문자열 사전은 전체가 공유한다.
+ * 샘플당 약 2~6바이트 (인코딩과 추정 근거는 StatusBlock 참고) → 프린터 1,000대 × 5분 주기 × 90일
+ * (약 2,600만 샘플) 기준 약 50~160MB.
+ *
+ * 수집 위치(cursor)는 마지막으로 추가한 (timestamp, printerId) 로, printer_status 를 같은 순서로
+ * 읽어 추가한다는 전제다. append/evictBefore/snapshot 은 호출 측이 직렬화하고, 읽기는 동시에 가능하다.
+ */
+public class StatusTimeSeriesStore {
+
+    private static final int MAGIC = 0x43545353; // "CTSS"
+    private static final int VERSION = 1;
+
+    /**
+     * 수집 위치 - 이 위치까지의 샘플은 저장소에 반영됨
+     */
+    public record Cursor(LocalDateTime timestamp, Long printerId) {
+    }
+
+    /**
+     * 저장소 사용량
+     */
+    public record Stats(int printers, long samples, long bytes, int dictionarySize) {
+
+        public double bytesPerSample() {
+            return samples > 0 ? (double) bytes / samples : 0.0;
+        }
+    }
+
+    private final int blockCapacity;
+    private final StringDictionary dictionary = new StringDictionary();
+    private final Map<Long, PrinterSeries> series = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime coveredFrom;
+    private volatile Cursor cursor;
+
+    public StatusTimeSeriesStore(int blockCapacity, LocalDateTime coveredFrom) {
+        this.blockCapacity = blockCapacity;
+        this.coveredFrom = coveredFrom;
+        this.cursor = new Cursor(coveredFrom, 0L);
+    }
+
+    /**
+     * 샘플 추가 후 수집 위치 이동
+     *
+     * @return 추가 여부 (같은 프린터의 마지막 샘플보다 이전이면 무시)
+     */
+    public boolean append(PrinterStatusItem sample) {
+        boolean appended = series.computeIfAbsent(sample.printerId(), id -> new PrinterSeries(id, blockCapacity))
+            .append(StatusBlock.toMicros(sample.timestamp()), sample, dictionary);
+        cursor = new Cursor(sample.timestamp(), sample.printerId());
+        return appended;
+    }
+
+    /**
+     * [from, to] 구간 샘플 (descending 이면 최신순)
+     *
+     * 블록 단위로 복원하므로 한 번에 최대 blockCapacity 개 샘플만 메모리에 풀어 둔다.
+     */
+    public Iterator<PrinterStatusItem> range(Long printerId, LocalDateTime from, LocalDateTime to, boolean descending) {
+        PrinterSeries printerSeries = series.get(printerId);
+        if (printerSeries == null || to.isBefore(from)) {
+            return Collections.emptyIterator();
+        }
+        long fromMicros = StatusBlock.toMicros(from);
+        long toMicros = StatusBlock.toMicros(to);
+        List<StatusBlock> blocks = printerSeries.blocks(fromMicros, toMicros);
+        if (descending) {
+            Collections.reverse(blocks);
+        }
+
+        return blocks.stream()
+            .flatMap(block -> {
+                List<PrinterStatusItem> samples = block.decode(printerId, dictionary);
+                if (descending) {
+                    Collections.reverse(samples);
+                }
+                return samples.stream();
+            })
+            .filter(sample -> {
+                long micros = StatusBlock.toMicros(sample.timestamp());
+                return micros >= fromMicros && micros <= toMicros;
+            })
+            .iterator();
+    }
+
+    /**
+     * cutoff 이전 샘플만 담긴 블록 제거 (보관 시작 시각을 cutoff 로 이동)
+     *
+     * @return 제거된 샘플 수
+     */
+    public long evictBefore(LocalDateTime cutoff) {
+        long cutoffMicros = StatusBlock.toMicros(cutoff);
+        long evicted = 0;
+        for (PrinterSeries printerSeries : series.values()) {
+            evicted += printerSeries.evictBefore(cutoffMicros);
+        }
+        if (cutoff.isAfter(coveredFrom)) {
+            coveredFrom = cutoff;
+        }
+        return evicted;
+    }
+
+    public LocalDateTime coveredFrom() {
+        return coveredFrom;
+    }
+
+    public Cursor cursor() {
+        return cursor;
+    }
+
+    public Stats stats() {
+        long samples = 0;
+        long bytes = 0;
+        for (PrinterSeries printerSeries : series.values()) {
+            samples += printerSeries.sampleCount();
+            bytes += printerSeries.sizeBytes();
+        }
+        return new Stats(series.size(), samples, bytes, dictionary.size());
+    }
+
+    /**
+     * 로컬 파일로 저장 (임시 파일에 쓴 뒤 원자적으로 교체)
+     */
+    public void snapshot(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(StatusBlock.toMicros(coveredFrom));
+            Cursor current = cursor;
+            out.writeLong(StatusBlock.toMicros(current.timestamp()));
+            out.writeLong(current.printerId());
+            dictionary.writeTo(out);
+
+            List<PrinterSeries> snapshot = List.copyOf(series.values());
+            out.writeInt(snapshot.size());
+            for (PrinterSeries printerSeries : snapshot) {
+                printerSeries.writeTo(out);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 로컬 파일에서 복원
+     *
+     * @throws IOException 파일 형식/버전이 다르거나 읽기 실패
+     */
+    public static StatusTimeSeriesStore restore(Path file, int blockCapacity) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("지원하지 않는 상태 시계열 스냅샷 형식: " + file);
+            }
+            StatusTimeSeriesStore store = new StatusTimeSeriesStore(blockCapacity, StatusBlock.toDateTime(in.readLong()));
+            store.cursor = new Cursor(StatusBlock.toDateTime(in.readLong()), in.readLong());
+            store.dictionary.readFrom(in);
+
+            int seriesCount = in.readInt();
+            for (int i = 0; i < seriesCount; i++) {
+                PrinterSeries printerSeries = PrinterSeries.readFrom(in, blockCapacity, store.dictionary);
+                store.series.put(printerSeries.printerId(), printerSeries);
+            }
+            return store;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.canon.printmanagement.timeseries;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 상태/오류 문자열 사전 (코드 0 = null)
+ *
+ * 저장소 전체가 공유하며 코드는 추가만 된다. 읽기는 잠금 없이 배열을 참조한다.
+ */
+final class StringDictionary {
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[16];
+    private int size = 1;
+
+    int encode(String value) {
+        if (value == null) {
+            return 0;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : add(value);
+    }
+
+    private synchronized int add(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        String[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[size] = value;
+        values = current;
+        codes.put(value, size);
+        return size++;
+    }
+
+    String decode(int code) {
+        return values[code];
+    }
+
+    int size() {
+        return size - 1;
+    }
+
+    synchronized void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int code = 1; code < size; code++) {
+            byte[] bytes = values[code].getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    synchronized void readFrom(DataInput in) throws IOException {
+        int count = in.readInt();
+        for (int code = 1; code < count; code++) {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            add(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.canon.printmanagement.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void neverAdmitsMoreThanLimitOrCap() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, 100);
+
+        assertThat(limiter.tryAcquire(2, 0)).isTrue();
+        assertThat(limiter.tryAcquire(2, 0)).isTrue();
+        // 외부 상한 2
+        assertThat(limiter.tryAcquire(2, 0)).isFalse();
+        assertThat(limiter.tryAcquire(10, 0)).isTrue();
+        assertThat(limiter.tryAcquire(10, 0)).isTrue();
+        // 한도 4
+        assertThat(limiter.tryAcquire(10, 0)).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(4);
+    }
+
+    @Test
+    void waiterGetsSlotWhenAnotherRequestReleases() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 100);
+        assertThat(limiter.tryAcquire(1, 0)).isTrue();
+
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            limiter.release(FAST);
+        });
+        releaser.start();
+
+        assertThat(limiter.tryAcquire(1, TimeUnit.SECONDS.toNanos(5))).isTrue();
+        releaser.join();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void backsOffWhenWindowAverageExceedsTarget() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 50, 100);
+
+        // 구간 크기 = max(10, 한도 20) 건
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiter.tryAcquire(100, 0)).isTrue();
+            limiter.release(SLOW);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(15);
+        assertThat(limiter.getAverageLatencyNanos()).isEqualTo(SLOW);
+
+        // 계속 느리면 최소 한도까지만 줄어듦
+        for (int i = 0; i < 1000; i++) {
+            assertThat(limiter.tryAcquire(100, 0)).isTrue();
+            limiter.release(SLOW);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void growsOnlyWhenWindowWasSaturated() throws InterruptedException {
+        AdaptiveConcurrencyLimiter idle = new AdaptiveConcurrencyLimiter(4, 1, 10, 100);
+        for (int i = 0; i < 10; i++) {
+            assertThat(idle.tryAcquire(100, 0)).isTrue();
+            idle.release(FAST);
+        }
+        // 한도까지 찬 적이 없으면 늘리지 않음
+        assertThat(idle.getLimit()).isEqualTo(4);
+
+        AdaptiveConcurrencyLimiter busy = new AdaptiveConcurrencyLimiter(4, 1, 5, 100);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                assertThat(busy.tryAcquire(100, 0)).isTrue();
+            }
+            for (int i = 0; i < 4; i++) {
+                busy.release(FAST);
+            }
+        }
+        assertThat(busy.getLimit()).isEqualTo(5);
+
+        // 최대 한도 5 를 넘지 않음
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 5; i++) {
+                assertThat(busy.tryAcquire(100, 0)).isTrue();
+            }
+            for (int i = 0; i < 5; i++) {
+                busy.release(FAST);
+            }
+        }
+        assertThat(busy.getLimit()).isEqualTo(5);
+    }
+}
@@ -0,0 +1,38 @@
+package com.canon.printmanagement.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TokenBucketTest {
+
+    @Test
+    void admitsBurstThenReportsWaitForNextToken() {
+        // 1000초에 1개 - 테스트 동안 사실상 채워지지 않음
+        TokenBucket bucket = new TokenBucket(0.001, 5);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire()).isZero();
+        }
+        long waitNanos = bucket.tryAcquire();
+        assertThat(waitNanos).isGreaterThan(TimeUnit.SECONDS.toNanos(900));
+        assertThat(waitNanos).isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1000));
+    }
+
+    @Test
+    void refillsAtRateButNeverAboveBurst() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000, 3);
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryAcquire()).isZero();
+        }
+        assertThat(bucket.availableTokens()).isLessThan(1.0);
+
+        // 1000/s × 50ms = 50개지만 burst 3 까지만 쌓임
+        Thread.sleep(50);
+        assertThat(bucket.availableTokens()).isCloseTo(3.0, within(1e-9));
+        assertThat(bucket.tryAcquire()).isZero();
+    }
+}
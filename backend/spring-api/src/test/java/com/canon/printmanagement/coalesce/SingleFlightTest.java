@@ -0,0 +1,135 @@
+package com.canon.printmanagement.coalesce;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static SingleFlight<String, String> singleFlight() {
+        return new SingleFlight<>(Caffeine.newBuilder().maximumSize(100).build());
+    }
+
+    @Test
+    void concurrentCallsForSameKeyShareOneComputation() throws Exception {
+        SingleFlight<String, String> singleFlight = singleFlight();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<SingleFlight.Result<String>> leader = executor.submit(() -> singleFlight.execute("k", "k", () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "value";
+        }, 5_000));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Thread> waiting = new CopyOnWriteArrayList<>();
+        List<Future<SingleFlight.Result<String>>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> {
+                waiting.add(Thread.currentThread());
+                return singleFlight.execute("k", "k", () -> {
+                    loads.incrementAndGet();
+                    return "duplicate";
+                }, 5_000);
+            }));
+        }
+        awaitTimedWaiting(waiting, followers.size());
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(new SingleFlight.Result<>("value", SingleFlight.Outcome.LEADER));
+        for (Future<SingleFlight.Result<String>> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS))
+                .isEqualTo(new SingleFlight.Result<>("value", SingleFlight.Outcome.COALESCED));
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void differentKeysComputeIndependently() {
+        SingleFlight<String, String> singleFlight = singleFlight();
+
+        assertThat(singleFlight.execute("a", "a", () -> "A", 100).outcome()).isEqualTo(SingleFlight.Outcome.LEADER);
+        assertThat(singleFlight.execute("b", "b", () -> "B", 100).value()).isEqualTo("B");
+        // 계산이 끝나면 키를 비우므로 다음 호출은 다시 계산
+        assertThat(singleFlight.execute("a", "a", () -> "A2", 100).value()).isEqualTo("A2");
+    }
+
+    @Test
+    void slowComputationServesStaleValueToFollowers() throws Exception {
+        SingleFlight<String, String> singleFlight = singleFlight();
+        singleFlight.execute("k:1", "k", () -> "old", 100);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<SingleFlight.Result<String>> leader = executor.submit(() -> singleFlight.execute("k:2", "k", () -> {
+            started.countDown();
+            await(release);
+            return "new";
+        }, 5_000));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(singleFlight.execute("k:2", "k", () -> "duplicate", 10))
+            .isEqualTo(new SingleFlight.Result<>("old", SingleFlight.Outcome.STALE));
+
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS).value()).isEqualTo("new");
+    }
+
+    @Test
+    void failureFallsBackToStaleValueOrPropagates() {
+        SingleFlight<String, String> singleFlight = singleFlight();
+        assertThatThrownBy(() -> singleFlight.execute("k", "k", () -> {
+            throw new IllegalStateException("db down");
+        }, 100)).isInstanceOf(IllegalStateException.class);
+
+        singleFlight.execute("k", "k", () -> "ok", 100);
+        assertThat(singleFlight.execute("k", "k", () -> {
+            throw new IllegalStateException("db down");
+        }, 100)).isEqualTo(new SingleFlight.Result<>("ok", SingleFlight.Outcome.STALE));
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    /**
+     * follower 스레드가 모두 진행 중인 계산의 결과를 기다릴 때까지 대기
+     */
+    private static void awaitTimedWaiting(List<Thread> threads, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (threads.size() < count
+            || !threads.stream().allMatch(thread -> thread.getState() == Thread.State.TIMED_WAITING)) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.canon.printmanagement.hotwindow;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GroupTotalsTest {
+
+    @Test
+    void addAccumulatesMeasuresAndFlagsPerKey() {
+        GroupTotals totals = new GroupTotals();
+        totals.add(7, 10, 4, 6, 1500, 200, 0, ColumnSegment.FLAG_COLOR_CONVERTED);
+        totals.add(7, 2, 0, 2, 100, 0, 50, (byte) (ColumnSegment.FLAG_DUPLEX | ColumnSegment.FLAG_DUPLEX_ENFORCED));
+        totals.add(8, 1, 1, 0, 300, 0, 0, (byte) 0);
+
+        long[] seven = totals.get(7);
+        assertThat(totals.size()).isEqualTo(2);
+        assertThat(seven[GroupTotals.JOBS]).isEqualTo(2L);
+        assertThat(seven[GroupTotals.PAGES]).isEqualTo(12L);
+        assertThat(seven[GroupTotals.COLOR_PAGES]).isEqualTo(4L);
+        assertThat(seven[GroupTotals.BW_PAGES]).isEqualTo(8L);
+        assertThat(seven[GroupTotals.COST_CENTS]).isEqualTo(1600L);
+        assertThat(seven[GroupTotals.COLOR_SAVINGS_CENTS]).isEqualTo(200L);
+        assertThat(seven[GroupTotals.DUPLEX_SAVINGS_CENTS]).isEqualTo(50L);
+        assertThat(seven[GroupTotals.COLOR_CONVERTED]).isEqualTo(1L);
+        assertThat(seven[GroupTotals.DUPLEX_ENFORCED]).isEqualTo(1L);
+        assertThat(totals.get(404)[GroupTotals.JOBS]).isZero();
+    }
+
+    @Test
+    void growsPastInitialCapacityWithoutLosingGroups() {
+        GroupTotals totals = new GroupTotals();
+        for (long key = 0; key < 1000; key++) {
+            totals.add(key * 31, 1, 0, 1, key, 0, 0, (byte) 0);
+            totals.add(key * 31, 1, 0, 1, key, 0, 0, (byte) 0);
+        }
+
+        assertThat(totals.size()).isEqualTo(1000);
+        for (long key = 0; key < 1000; key++) {
+            long[] measures = totals.get(key * 31);
+            assertThat(measures[GroupTotals.JOBS]).isEqualTo(2L);
+            assertThat(measures[GroupTotals.COST_CENTS]).isEqualTo(key * 2);
+        }
+    }
+
+    @Test
+    void mergeAddsOverlappingKeysAndKeepsTheRest() {
+        GroupTotals left = new GroupTotals();
+        left.add(1, 5, 0, 5, 100, 0, 0, (byte) 0);
+        left.add(2, 3, 3, 0, 900, 0, 0, (byte) 0);
+        GroupTotals right = new GroupTotals();
+        right.add(2, 1, 1, 0, 300, 0, 0, (byte) 0);
+        right.add(3, 4, 0, 4, 80, 0, 0, (byte) 0);
+
+        Map<Long, Long> pages = new HashMap<>();
+        left.merge(right).forEach((key, measures) -> pages.put(key, measures[GroupTotals.PAGES]));
+
+        assertThat(pages).isEqualTo(Map.of(1L, 5L, 2L, 4L, 3L, 4L));
+        assertThat(left.get(2)[GroupTotals.JOBS]).isEqualTo(2L);
+        assertThat(left.get(2)[GroupTotals.COST_CENTS]).isEqualTo(1200L);
+    }
+}
@@ -0,0 +1,40 @@
+package com.canon.printmanagement.hotwindow;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdSequenceTest {
+
+    @Test
+    void unshardedSequenceVisitsEveryId() {
+        IdSequence sequence = IdSequence.ofShard(0, 1);
+
+        assertThat(sequence.next(0)).isEqualTo(1L);
+        assertThat(sequence.next(41)).isEqualTo(42L);
+        assertThat(sequence.indexAfter(10, 11)).isEqualTo(0);
+        assertThat(sequence.indexAfter(10, 15)).isEqualTo(4);
+    }
+
+    @Test
+    void shardSequenceStepsByShardCountFromItsOffset() {
+        // 3개 샤드 중 1번: 2, 5, 8, 11 ...
+        IdSequence sequence = IdSequence.ofShard(1, 3);
+
+        assertThat(sequence.next(0)).isEqualTo(2L);
+        assertThat(sequence.next(2)).isEqualTo(5L);
+        assertThat(sequence.next(3)).isEqualTo(5L);
+        assertThat(sequence.next(4)).isEqualTo(5L);
+        assertThat(sequence.next(5)).isEqualTo(8L);
+    }
+
+    @Test
+    void indexAfterCountsOnlyIssuableIds() {
+        IdSequence sequence = IdSequence.ofShard(2, 4);   // 3, 7, 11, 15 ...
+
+        assertThat(sequence.indexAfter(4, 7)).isEqualTo(0);
+        assertThat(sequence.indexAfter(4, 11)).isEqualTo(1);
+        assertThat(sequence.indexAfter(4, 15)).isEqualTo(2);
+        assertThat(sequence.indexAfter(7, 11)).isEqualTo(0);
+    }
+}
@@ -0,0 +1,74 @@
+package com.canon.printmanagement.hotwindow;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrintJobColumnStoreTest {
+
+    private static JobRow row(long id, long timestamp, long departmentId, long userId, int pages) {
+        JobRow row = new JobRow();
+        row.id = id;
+        row.timestamp = timestamp;
+        row.printerId = 100 + departmentId;
+        row.userId = userId;
+        row.departmentId = departmentId;
+        row.pageCount = pages;
+        row.bwPageCount = pages;
+        row.copies = 1;
+        row.paperSize = "A4";
+        row.costCents = pages * 3000L;
+        return row;
+    }
+
+    @Test
+    void appendSpillsIntoNewSegmentsWhenFull() {
+        PrintJobColumnStore store = new PrintJobColumnStore(4);
+        for (int i = 1; i <= 10; i++) {
+            store.append(row(i, i * 1000L, 1, 1, 1));
+        }
+
+        assertThat(store.rowCount()).isEqualTo(10L);
+        // 세그먼트 3개 (4 + 4 + 2행), 미사용 용량 포함
+        assertThat(store.allocatedBytes()).isEqualTo(12L * ColumnSegment.BYTES_PER_ROW);
+    }
+
+    @Test
+    void aggregateFiltersByTimeAndDepartmentAndGroups() {
+        PrintJobColumnStore store = new PrintJobColumnStore(3);
+        store.append(row(1, 1_000, 1, 10, 2));
+        store.append(row(2, 2_000, 1, 11, 3));
+        store.append(row(3, 3_000, 2, 20, 5));
+        store.append(row(4, 4_000, 1, 10, 7));
+        store.append(row(5, 9_000, 1, 10, 100));   // 구간 밖
+
+        GroupTotals byUser = store.aggregate(1_000, 4_000, 1L, ColumnSegment.GroupBy.USER);
+        assertThat(byUser.size()).isEqualTo(2);
+        assertThat(byUser.get(10)[GroupTotals.PAGES]).isEqualTo(9L);
+        assertThat(byUser.get(10)[GroupTotals.JOBS]).isEqualTo(2L);
+        assertThat(byUser.get(11)[GroupTotals.COST_CENTS]).isEqualTo(9000L);
+
+        GroupTotals all = store.aggregate(0, Long.MAX_VALUE, null, ColumnSegment.GroupBy.NONE);
+        assertThat(all.size()).isEqualTo(1);
+        assertThat(all.get(0)[GroupTotals.PAGES]).isEqualTo(117L);
+    }
+
+    @Test
+    void evictDropsOnlyFullyExpiredSegmentsAndKeepsHead() {
+        PrintJobColumnStore store = new PrintJobColumnStore(2);
+        store.append(row(1, 1_000, 1, 1, 1));
+        store.append(row(2, 2_000, 1, 1, 1));   // 세그먼트 1: 최대 2000
+        store.append(row(3, 3_000, 1, 1, 1));
+        store.append(row(4, 6_000, 1, 1, 1));   // 세그먼트 2: 최대 6000
+        store.append(row(5, 4_000, 1, 1, 1));   // 세그먼트 3 (head): 최대 4000
+
+        assertThat(store.evictBefore(5_000)).isEqualTo(2);
+        assertThat(store.rowCount()).isEqualTo(3L);
+        assertThat(store.aggregate(0, Long.MAX_VALUE, null, ColumnSegment.GroupBy.NONE).get(0)[GroupTotals.JOBS])
+            .isEqualTo(3L);
+
+        // head 세그먼트는 기간이 지나도 남겨 둠 (다음 append 대상)
+        assertThat(store.evictBefore(10_000)).isEqualTo(2);
+        assertThat(store.rowCount()).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,68 @@
+package com.canon.printmanagement.quota;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuotaCounterTest {
+
+    private static QuotaCounter counter(Long maxPages, Long maxColorPages, Long maxCost) {
+        QuotaCounter counter = new QuotaCounter(1L, "DEPARTMENT", 10L);
+        counter.setLimits(maxPages, maxColorPages, maxCost, LocalDate.of(2026, 11, 1));
+        return counter;
+    }
+
+    @Test
+    void fitsCountsCommittedAndReservedUsage() {
+        QuotaCounter counter = counter(100L, 20L, 10_000L);
+        counter.setCommitted(60, 10, 4_000);
+        counter.reserve(new Usage(30, 5, 3_000));
+
+        assertThat(counter.fits(new Usage(10, 5, 3_000))).isTrue();
+        assertThat(counter.fits(new Usage(11, 0, 0))).isFalse();
+        assertThat(counter.fits(new Usage(0, 6, 0))).isFalse();
+        assertThat(counter.fits(new Usage(0, 0, 3_001))).isFalse();
+        assertThat(counter.remaining()).isEqualTo(new Usage(10, 5, 3_000));
+    }
+
+    @Test
+    void releaseAndCommitMoveUsageOutOfReserved() {
+        QuotaCounter counter = counter(100L, null, null);
+        Usage usage = new Usage(40, 0, 0);
+        counter.reserve(usage);
+        counter.reserve(usage);
+        assertThat(counter.fits(new Usage(21, 0, 0))).isFalse();
+
+        counter.release(usage);
+        counter.commit(usage);
+        assertThat(counter.remaining().pages()).isEqualTo(20);
+
+        // 이미 해제된 예약을 다시 해제해도 음수가 되지 않음
+        counter.release(usage);
+        counter.release(usage);
+        assertThat(counter.remaining().pages()).isEqualTo(60);
+    }
+
+    @Test
+    void setReservedReplacesLocalReservations() {
+        QuotaCounter counter = counter(100L, null, null);
+        counter.reserve(new Usage(50, 0, 0));
+
+        // DB 예약 합계 (다른 인스턴스 예약 포함) 로 교체
+        counter.setReserved(80, 0, 0);
+        assertThat(counter.remaining().pages()).isEqualTo(20);
+        counter.setReserved(0, 0, 0);
+        assertThat(counter.remaining().pages()).isEqualTo(100);
+    }
+
+    @Test
+    void nullLimitsAreUnlimited() {
+        QuotaCounter counter = counter(null, null, null);
+        counter.setCommitted(1_000_000, 1_000_000, 1_000_000_000);
+
+        assertThat(counter.fits(new Usage(1_000_000, 1_000_000, 1_000_000_000))).isTrue();
+        assertThat(counter.remaining()).isEqualTo(new Usage(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,48 @@
+package com.canon.printmanagement.recommend;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DecayingRateTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void singleEventDecaysByEPerTau() {
+        DecayingRate rate = new DecayingRate(300);
+        rate.reset(0, 0);
+        rate.add(0);
+
+        // 300초 창에서 작업 1건 = 분당 0.2건
+        assertThat(rate.perMinute(0)).isCloseTo(0.2, within(1e-9));
+        assertThat(rate.perMinute(300 * SECOND)).isCloseTo(0.2 / Math.E, within(1e-9));
+        assertThat(rate.perMinute(600 * SECOND)).isCloseTo(0.2 / (Math.E * Math.E), within(1e-9));
+    }
+
+    @Test
+    void steadyRateConvergesToEventsPerMinute() {
+        DecayingRate rate = new DecayingRate(300);
+        rate.reset(0, 0);
+        // 10초마다 1건 = 분당 6건
+        long now = 0;
+        for (int i = 0; i < 300; i++) {
+            now = i * 10 * SECOND;
+            rate.add(now);
+        }
+
+        assertThat(rate.perMinute(now)).isCloseTo(6.0, within(0.2));
+    }
+
+    @Test
+    void resetValueDecaysFromResetTime() {
+        DecayingRate seeded = new DecayingRate(60);
+        seeded.reset(2, 100 * SECOND);
+
+        assertThat(seeded.perMinute(100 * SECOND)).isCloseTo(2.0, within(1e-9));
+        assertThat(seeded.perMinute(160 * SECOND)).isCloseTo(2.0 / Math.E, within(1e-9));
+        // 교체 시각 이전은 감쇠 없음
+        assertThat(seeded.perMinute(50 * SECOND)).isCloseTo(2.0, within(1e-9));
+    }
+}
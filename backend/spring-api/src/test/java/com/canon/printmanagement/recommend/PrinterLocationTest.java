@@ -0,0 +1,47 @@
+package com.canon.printmanagement.recommend;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrinterLocationTest {
+
+    @Test
+    void parsesBuildingAndFloor() {
+        assertThat(PrinterLocation.parse("본사 3층 개발실")).isEqualTo(new PrinterLocation("본사", 3));
+        assertThat(PrinterLocation.parse("본사 12F")).isEqualTo(new PrinterLocation("본사", 12));
+        assertThat(PrinterLocation.parse("연구동3층")).isEqualTo(new PrinterLocation("연구동", 3));
+    }
+
+    @Test
+    void parsesBasementFloors() {
+        assertThat(PrinterLocation.parse("본사 B1 창고")).isEqualTo(new PrinterLocation("본사", -1));
+        assertThat(PrinterLocation.parse("본사 B2F")).isEqualTo(new PrinterLocation("본사", -2));
+        assertThat(PrinterLocation.parse("본사 b1층")).isEqualTo(new PrinterLocation("본사", -1));
+        assertThat(PrinterLocation.parse("본사 지하 1층")).isEqualTo(new PrinterLocation("본사", -1));
+        // 건물 이름의 B 는 지하 표기가 아님
+        assertThat(PrinterLocation.parse("B동 2층")).isEqualTo(new PrinterLocation("B동", 2));
+    }
+
+    @Test
+    void ignoresFloorMarksInsideWords() {
+        assertThat(PrinterLocation.parse("Lab3F")).isEqualTo(new PrinterLocation("Lab3F", null));
+        assertThat(PrinterLocation.parse("AB1 회의실")).isEqualTo(new PrinterLocation("AB1 회의실", null));
+        assertThat(PrinterLocation.parse("본사 3Fl")).isEqualTo(new PrinterLocation("본사 3Fl", null));
+    }
+
+    @Test
+    void blankLocationHasNoBuildingOrFloor() {
+        assertThat(PrinterLocation.parse(null)).isEqualTo(new PrinterLocation("", null));
+        assertThat(PrinterLocation.parse("  ")).isEqualTo(new PrinterLocation("", null));
+        assertThat(PrinterLocation.parse(" 별관 ")).isEqualTo(new PrinterLocation("별관", null));
+    }
+
+    @Test
+    void floorDistanceIsUnknownWithoutBothFloors() {
+        PrinterLocation third = new PrinterLocation("본사", 3);
+
+        assertThat(third.floorDistance(new PrinterLocation("본사", -1), 1)).isEqualTo(4);
+        assertThat(third.floorDistance(new PrinterLocation("본사", null), 1)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,135 @@
+package com.canon.printmanagement.reconciliation;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrinterMeterTrackTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 10, 1, 9, 0);
+
+    private static LocalDateTime at(int minutes) {
+        return T0.plusMinutes(minutes);
+    }
+
+    @Test
+    void firstReadingIsBaselineAndEarlierJobsAreDropped() {
+        PrinterMeterTrack track = new PrinterMeterTrack(7L);
+        track.addReading(at(0), 1_000, 100);
+        track.addReading(at(60), 1_050, 110);
+
+        track.beginStream();
+        track.addJob(at(-5), 4, 0);    // 기준 판독 이전
+        track.addJob(at(0), 3, 0);     // 기준 판독 시각과 같으면 이전 구간
+        track.addJob(at(30), 40, 8);
+        track.addJob(at(60), 5, 1);    // 구간 끝 시각 포함
+        track.addJob(at(90), 6, 2);    // 마지막 판독 이후
+
+        List<MeterInterval> intervals = track.intervals();
+        assertThat(intervals).containsExactly(
+            new MeterInterval(7L, at(0), at(60), 50, 10, 45, 9, false));
+        assertThat(intervals.get(0).unbilledPages()).isEqualTo(5);
+        assertThat(track.getDroppedJobPages()).isEqualTo(7);
+        assertThat(track.pendingPages()).isEqualTo(6);
+        assertThat(track.pendingColorPages()).isEqualTo(2);
+        assertThat(track.lastReadingAt()).isEqualTo(at(60));
+        assertThat(track.lastTotal()).isEqualTo(1_050);
+        assertThat(track.lastColor()).isEqualTo(110);
+    }
+
+    @Test
+    void restoredStateOpensFirstIntervalWithPendingJobs() {
+        PrinterMeterTrack track = new PrinterMeterTrack(7L);
+        track.restore(at(0), 1_000, 100, 12, 2);
+        track.addReading(at(60), 1_030, 105);
+
+        track.beginStream();
+        track.addJob(at(10), 8, 1);
+
+        assertThat(track.intervals()).containsExactly(
+            new MeterInterval(7L, at(0), at(60), 30, 5, 20, 3, false));
+        assertThat(track.getDroppedJobPages()).isZero();
+        assertThat(track.pendingPages()).isZero();
+    }
+
+    @Test
+    void jobsFromSeveralShardStreamsMergeIntoSameIntervals() {
+        PrinterMeterTrack track = new PrinterMeterTrack(7L);
+        track.restore(at(0), 0, 0, 0, 0);
+        track.addReading(at(10), 10, 0);
+        track.addReading(at(20), 30, 0);
+
+        track.beginStream();
+        track.addJob(at(5), 4, 0);
+        track.addJob(at(15), 7, 0);
+        track.beginStream();           // 다음 샤드 스트림은 처음 구간부터 다시 병합
+        track.addJob(at(6), 6, 0);
+        track.addJob(at(25), 9, 0);
+
+        List<MeterInterval> intervals = track.intervals();
+        assertThat(intervals).hasSize(2);
+        assertThat(intervals.get(0).jobPages()).isEqualTo(10);
+        assertThat(intervals.get(1).jobPages()).isEqualTo(7);
+        assertThat(track.pendingPages()).isEqualTo(9);
+    }
+
+    @Test
+    void counterDecreaseIsMarkedAsReset() {
+        PrinterMeterTrack track = new PrinterMeterTrack(7L);
+        track.addReading(at(0), 5_000, 500);
+        track.addReading(at(60), 20, 0);        // 장비 교체
+        track.addReading(at(120), 70, 5);
+
+        track.beginStream();
+        track.addJob(at(30), 10, 0);
+
+        List<MeterInterval> intervals = track.intervals();
+        assertThat(intervals).hasSize(2);
+        assertThat(intervals.get(0).meterReset()).isTrue();
+        assertThat(intervals.get(0).meterPages()).isZero();
+        assertThat(intervals.get(0).unbilledPages()).isZero();
+        assertThat(intervals.get(1)).isEqualTo(new MeterInterval(7L, at(60), at(120), 50, 5, 0, 0, false));
+    }
+
+    @Test
+    void manyReadingsGrowIntervalBuffers() {
+        PrinterMeterTrack track = new PrinterMeterTrack(7L);
+        track.restore(at(0), 0, 0, 0, 0);
+        for (int i = 1; i <= 100; i++) {
+            track.addReading(at(i), i * 3L, 0);
+        }
+
+        track.beginStream();
+        for (int i = 1; i <= 100; i++) {
+            track.addJob(at(i).minusSeconds(30), 2, 0);
+        }
+        track.addJob(at(101), 1, 0);
+
+        List<MeterInterval> intervals = track.intervals();
+        assertThat(intervals).hasSize(100);
+        for (MeterInterval interval : intervals) {
+            assertThat(interval.unbilledPages()).isEqualTo(1);
+        }
+        assertThat(track.pendingPages()).isEqualTo(1);
+    }
+
+    @Test
+    void emptyTrackKeepsRestoredState() {
+        PrinterMeterTrack track = new PrinterMeterTrack(7L);
+        assertThat(track.hasBaseline()).isFalse();
+
+        track.restore(at(0), 1_000, 100, 3, 1);
+        track.beginStream();
+        track.addJob(at(5), 2, 0);
+
+        assertThat(track.hasBaseline()).isTrue();
+        assertThat(track.intervals()).isEmpty();
+        assertThat(track.lastReadingAt()).isEqualTo(at(0));
+        assertThat(track.lastTotal()).isEqualTo(1_000);
+        assertThat(track.pendingPages()).isEqualTo(5);
+        assertThat(track.pendingColorPages()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,78 @@
+package com.canon.printmanagement.rollup;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RollupSegmentTest {
+
+    private static LocalDateTime at(int month, int day, int hour) {
+        return LocalDateTime.of(2026, month, day, hour, 0);
+    }
+
+    private static RollupSegment segment(RollupTier tier, LocalDateTime from, LocalDateTime to) {
+        return new RollupSegment(tier, from, to);
+    }
+
+    @Test
+    void coversMonthsInTheMiddleWithDaysAndHoursAtTheEdges() {
+        List<RollupSegment> segments = RollupSegment.cover(at(1, 30, 22), at(4, 2, 3), RollupTier.MONTH);
+
+        assertThat(segments).containsExactly(
+            segment(RollupTier.HOUR, at(1, 30, 22), at(1, 31, 0)),
+            segment(RollupTier.DAY, at(1, 31, 0), at(2, 1, 0)),
+            segment(RollupTier.MONTH, at(2, 1, 0), at(4, 1, 0)),
+            segment(RollupTier.DAY, at(4, 1, 0), at(4, 2, 0)),
+            segment(RollupTier.HOUR, at(4, 2, 0), at(4, 2, 3)));
+    }
+
+    @Test
+    void coarsestTierLimitsBucketSize() {
+        assertThat(RollupSegment.cover(at(1, 30, 22), at(4, 2, 3), RollupTier.DAY)).containsExactly(
+            segment(RollupTier.HOUR, at(1, 30, 22), at(1, 31, 0)),
+            segment(RollupTier.DAY, at(1, 31, 0), at(4, 2, 0)),
+            segment(RollupTier.HOUR, at(4, 2, 0), at(4, 2, 3)));
+
+        assertThat(RollupSegment.cover(at(1, 30, 22), at(4, 2, 3), RollupTier.HOUR)).containsExactly(
+            segment(RollupTier.HOUR, at(1, 30, 22), at(4, 2, 3)));
+    }
+
+    @Test
+    void alignedRangeHasNoEmptySegments() {
+        assertThat(RollupSegment.cover(at(2, 1, 0), at(4, 1, 0), RollupTier.MONTH)).containsExactly(
+            segment(RollupTier.MONTH, at(2, 1, 0), at(4, 1, 0)));
+
+        assertThat(RollupSegment.cover(at(2, 3, 0), at(2, 10, 0), RollupTier.MONTH)).containsExactly(
+            segment(RollupTier.DAY, at(2, 3, 0), at(2, 10, 0)));
+    }
+
+    @Test
+    void rangeWithinOneDayUsesHoursOnly() {
+        assertThat(RollupSegment.cover(at(2, 3, 9), at(2, 3, 18), RollupTier.MONTH)).containsExactly(
+            segment(RollupTier.HOUR, at(2, 3, 9), at(2, 3, 18)));
+
+        // 자정을 넘지만 온전한 하루가 없는 구간
+        assertThat(RollupSegment.cover(at(2, 3, 20), at(2, 4, 4), RollupTier.MONTH)).containsExactly(
+            segment(RollupTier.HOUR, at(2, 3, 20), at(2, 4, 4)));
+
+        assertThat(RollupSegment.cover(at(2, 3, 9), at(2, 3, 9), RollupTier.MONTH)).isEmpty();
+    }
+
+    @Test
+    void segmentsAreContiguous() {
+        List<RollupSegment> segments = RollupSegment.cover(at(1, 5, 7), at(9, 20, 13), RollupTier.MONTH);
+
+        assertThat(segments.get(0).from()).isEqualTo(at(1, 5, 7));
+        assertThat(segments.get(segments.size() - 1).to()).isEqualTo(at(9, 20, 13));
+        for (int i = 1; i < segments.size(); i++) {
+            assertThat(segments.get(i).from()).isEqualTo(segments.get(i - 1).to());
+        }
+        for (RollupSegment segment : segments) {
+            assertThat(segment.tier().floor(segment.from())).isEqualTo(segment.from());
+            assertThat(segment.tier().floor(segment.to())).isEqualTo(segment.to());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.service.SupplyForecastService.DecayingLinearFit;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DecayingLinearFitTest {
+
+    @Test
+    void recoversSlopeOfExactLine() {
+        DecayingLinearFit fit = new DecayingLinearFit(14);
+        for (int day = 0; day < 10; day++) {
+            fit.add(1000 + day * 250, 90 - day * 0.5, day);
+        }
+
+        assertThat(fit.slope()).isCloseTo(-0.5 / 250, within(1e-9));
+        assertThat(fit.count()).isEqualTo(10);
+    }
+
+    @Test
+    void lateSampleGetsSameWeightAsInOrderSample() {
+        double[][] samples = {{0, 100}, {1, 97}, {2, 95}, {3, 90}, {4, 89}, {5, 84}};
+        DecayingLinearFit inOrder = new DecayingLinearFit(3);
+        for (double[] sample : samples) {
+            inOrder.add(sample[0], sample[1], sample[0]);
+        }
+        DecayingLinearFit late = new DecayingLinearFit(3);
+        for (int i : new int[] {0, 1, 3, 4, 5, 2}) {
+            late.add(samples[i][0], samples[i][1], samples[i][0]);
+        }
+
+        assertThat(late.slope()).isCloseTo(inOrder.slope(), within(1e-9));
+    }
+
+    @Test
+    void decaysByElapsedTimeNotSampleCount() {
+        // 오래된 구간(기울기 -1)은 60일 뒤 구간(기울기 -5)에 비해 무시할 만큼 작아짐
+        DecayingLinearFit fit = new DecayingLinearFit(2);
+        for (int day = 0; day < 5; day++) {
+            fit.add(day, 100 - day, day);
+        }
+        for (int day = 60; day < 65; day++) {
+            fit.add(day, 400 - day * 5, day);
+        }
+        assertThat(fit.slope()).isCloseTo(-5, within(1e-3));
+
+    }
+
+    @Test
+    void resetStartsNewFit() {
+        DecayingLinearFit fit = new DecayingLinearFit(14);
+        fit.add(0, 10, 0);
+        fit.add(1, 5, 1);
+        fit.reset();
+
+        assertThat(fit.count()).isZero();
+        assertThat(fit.slope()).isNull();
+        fit.add(2, 100, 2);
+        fit.add(3, 98, 3);
+        assertThat(fit.slope()).isCloseTo(-2, within(1e-9));
+    }
+}
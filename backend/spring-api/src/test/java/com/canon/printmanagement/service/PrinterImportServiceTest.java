@@ -0,0 +1,96 @@
+package com.canon.printmanagement.service;
+
+import com.canon.printmanagement.entity.Printer;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class PrinterImportServiceTest {
+
+    private static Printer printer(int i, String ipAddress) {
+        return Printer.builder()
+            .name("printer-" + i)
+            .serialNumber("SN-" + i)
+            .ipAddress(ipAddress)
+            .build();
+    }
+
+    // DB 연결 없이 생성: 검증을 통과해 쓰기를 시도하면 NullPointerException 이 난다
+    private static PrinterImportService service() {
+        PrinterImportService service = new PrinterImportService(null, null, null);
+        ReflectionTestUtils.setField(service, "maxItems", 100);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        return service;
+    }
+
+    @Test
+    void acceptsOnlyAddressesInetCanStore() {
+        for (String valid : List.of("10.0.0.1", "192.168.1.0/24", "::", "::1", "fe80::1", "2001:db8::/32",
+            "::ffff:10.0.0.1", "1:2:3:4:5:6:7:8")) {
+            assertThat(PrinterImportService.isInetAddress(valid)).as(valid).isTrue();
+        }
+        for (String invalid : List.of(":::::", "1:2:3", "1::2::3", "1:2:3:4:5:6:7:8:9", "::1/129", "::1.2.3",
+            "256.0.0.1", "10.0.0.1/33", "printer.local", "fe80::1%eth0", "")) {
+            assertThat(PrinterImportService.isInetAddress(invalid)).as(invalid).isFalse();
+        }
+        assertThat(PrinterImportService.isInetAddress(null)).isFalse();
+    }
+
+    @Test
+    void rejectsWholePayloadBeforeFirstChunkIsWritten() {
+        // 앞의 청크(2대씩)는 모두 올바르고 마지막 항목만 잘못된 주소
+        List<Printer> printers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            printers.add(printer(i, "10.0.0." + (i + 1)));
+        }
+        printers.add(printer(5, ":::::"));
+
+        ResponseStatusException error = catchThrowableOfType(
+            () -> service().importPrinters(printers), ResponseStatusException.class);
+
+        assertThat(error).isNotNull();
+        assertThat(error.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(error.getReason()).contains("[5] ipAddress");
+    }
+
+    @Test
+    void reportsEveryInvalidItem() {
+        List<Printer> printers = List.of(
+            printer(0, "1:2:3"),
+            printer(0, "10.0.0.2"),
+            Printer.builder().name("").serialNumber("SN-9").ipAddress("10.0.0.3").macAddress("zz").build()
+        );
+
+        ResponseStatusException error = catchThrowableOfType(
+            () -> service().importPrinters(printers), ResponseStatusException.class);
+
+        assertThat(error).isNotNull();
+        assertThat(error.getReason())
+            .contains("(4건)")
+            .contains("[0] ipAddress")
+            .contains("[1] 요청 안에서 serialNumber 중복")
+            .contains("[2] name")
+            .contains("[2] macAddress");
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedPayloads() {
+        PrinterImportService service = service();
+
+        assertThat(catchThrowableOfType(() -> service.importPrinters(List.of()), ResponseStatusException.class))
+            .isNotNull();
+        List<Printer> tooMany = new ArrayList<>();
+        for (int i = 0; i < 101; i++) {
+            tooMany.add(printer(i, "10.0.0.1"));
+        }
+        assertThat(catchThrowableOfType(() -> service.importPrinters(tooMany), ResponseStatusException.class)
+            .getReason()).contains("최대 100대");
+    }
+}
@@ -0,0 +1,32 @@
+package com.canon.printmanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SupplyForecastServiceTest {
+
+    @Test
+    void daysUntilEmptyIsLevelOverConsumption() {
+        assertThat(SupplyForecastService.daysUntilEmpty(40, 2.0, 1825)).isCloseTo(20.0, within(1e-9));
+        assertThat(SupplyForecastService.daysUntilEmpty(0, 2.0, 1825)).isCloseTo(0.0, within(1e-9));
+    }
+
+    @Test
+    void noForecastWithoutLevelOrConsumption() {
+        assertThat(SupplyForecastService.daysUntilEmpty(null, 2.0, 1825)).isNull();
+        assertThat(SupplyForecastService.daysUntilEmpty(40, null, 1825)).isNull();
+        assertThat(SupplyForecastService.daysUntilEmpty(40, 0.0, 1825)).isNull();
+        assertThat(SupplyForecastService.daysUntilEmpty(40, -1.0, 1825)).isNull();
+        assertThat(SupplyForecastService.daysUntilEmpty(40, Double.NaN, 1825)).isNull();
+    }
+
+    @Test
+    void noForecastBeyondHorizon() {
+        // 소모가 거의 없으면 LocalDateTime 범위를 넘는 날짜가 되므로 예측하지 않음
+        assertThat(SupplyForecastService.daysUntilEmpty(100, 1e-300, 1825)).isNull();
+        assertThat(SupplyForecastService.daysUntilEmpty(100, 100.0 / 1826, 1825)).isNull();
+        assertThat(SupplyForecastService.daysUntilEmpty(100, 100.0 / 1825, 1825)).isCloseTo(1825.0, within(1e-6));
+    }
+}
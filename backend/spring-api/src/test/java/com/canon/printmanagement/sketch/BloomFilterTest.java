@@ -0,0 +1,51 @@
+package com.canon.printmanagement.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void neverReportsInsertedKeyAsMissing() {
+        BloomFilter filter = new BloomFilter(50_000, 0.01);
+        for (long printerId = 1; printerId <= 50; printerId++) {
+            for (int job = 0; job < 1000; job++) {
+                filter.put(printerId, "job-" + job);
+            }
+        }
+
+        for (long printerId = 1; printerId <= 50; printerId++) {
+            for (int job = 0; job < 1000; job++) {
+                assertThat(filter.mightContain(printerId, "job-" + job)).isTrue();
+            }
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredFpp() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int job = 0; job < 100_000; job++) {
+            filter.put(7, "job-" + job);
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int job = 0; job < probes; job++) {
+            // 같은 작업 ID 라도 다른 프린터면 다른 키
+            if (filter.mightContain(8, "job-" + job)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / probes).isLessThan(0.015);
+    }
+
+    @Test
+    void sizesBitArrayFromExpectedInsertions() {
+        // n=1,000,000, p=0.01 → 약 9.6 비트/키 (약 1.2MB)
+        BloomFilter filter = new BloomFilter(1_000_000, 0.01);
+
+        assertThat(filter.sizeInBytes()).isBetween(1_150_000L, 1_250_000L);
+    }
+}
@@ -0,0 +1,69 @@
+package com.canon.printmanagement.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+class HyperLogLogTest {
+
+    // 표준 오차의 3배 (약 4.7%)
+    private static final double TOLERANCE_PERCENT = HyperLogLog.STANDARD_ERROR * 3 * 100;
+
+    @Test
+    void estimatesLargeCardinalityWithinErrorBound() {
+        HyperLogLog hll = new HyperLogLog();
+        for (long value = 0; value < 200_000; value++) {
+            hll.add(value);
+            hll.add(value); // 중복은 개수에 영향 없음
+        }
+
+        assertThat(hll.estimate()).isCloseTo(200_000L, withinPercentage(TOLERANCE_PERCENT));
+    }
+
+    @Test
+    void estimatesSmallCardinalityWithLinearCounting() {
+        HyperLogLog hll = new HyperLogLog();
+        for (long value = 1; value <= 500; value++) {
+            hll.add(value * 7919);
+        }
+
+        assertThat(hll.estimate()).isCloseTo(500L, withinPercentage(2));
+    }
+
+    @Test
+    void mergeEstimatesUnion() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (long value = 0; value < 60_000; value++) {
+            first.add(value);
+        }
+        for (long value = 40_000; value < 100_000; value++) {
+            second.add(value);
+        }
+
+        first.merge(second);
+
+        assertThat(first.estimate()).isCloseTo(100_000L, withinPercentage(TOLERANCE_PERCENT));
+    }
+
+    @Test
+    void serializationRoundTripKeepsEstimate() throws IOException {
+        HyperLogLog hll = new HyperLogLog();
+        for (long value = 0; value < 10_000; value++) {
+            hll.add(value);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        hll.writeTo(new DataOutputStream(bytes));
+
+        HyperLogLog restored = HyperLogLog.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(restored.estimate()).isEqualTo(hll.estimate());
+    }
+}
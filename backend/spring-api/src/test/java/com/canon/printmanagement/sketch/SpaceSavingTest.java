@@ -0,0 +1,91 @@
+package com.canon.printmanagement.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingTest {
+
+    private static final int CAPACITY = 50;
+
+    @Test
+    void countsExactlyWhileUnderCapacity() {
+        SpaceSaving sketch = new SpaceSaving(CAPACITY);
+        sketch.add(1, 10);
+        sketch.add(2, 30);
+        sketch.add(1, 5);
+        sketch.add(3, 0); // 0 이하 가중치는 무시
+
+        List<SpaceSaving.Counter> top = sketch.top(10);
+
+        assertThat(top).hasSize(2);
+        assertThat(top.get(0).getKey()).isEqualTo(2L);
+        assertThat(top.get(0).getCount()).isEqualTo(30L);
+        assertThat(top.get(1).getKey()).isEqualTo(1L);
+        assertThat(top.get(1).getCount()).isEqualTo(15L);
+        assertThat(top.get(1).getError()).isZero();
+    }
+
+    @Test
+    void boundsHoldOnSkewedStream() {
+        SpaceSaving sketch = new SpaceSaving(CAPACITY);
+        Map<Long, Long> actual = new HashMap<>();
+        long total = feedSkewed(sketch, actual, new Random(42), 100_000);
+
+        assertBounds(sketch, actual, total);
+        // 가장 큰 항목들은 반드시 상위에 남음
+        assertThat(sketch.top(3).stream().map(SpaceSaving.Counter::getKey).toList())
+            .containsExactly(0L, 1L, 2L);
+    }
+
+    @Test
+    void mergedSketchKeepsBounds() {
+        SpaceSaving first = new SpaceSaving(CAPACITY);
+        SpaceSaving second = new SpaceSaving(CAPACITY);
+        Map<Long, Long> actual = new HashMap<>();
+        long total = feedSkewed(first, actual, new Random(1), 50_000)
+            + feedSkewed(second, actual, new Random(2), 50_000);
+
+        first.merge(second);
+
+        assertBounds(first, actual, total);
+        assertThat(first.top(1).get(0).getKey()).isEqualTo(0L);
+    }
+
+    // 항목 k 의 빈도가 1/(k+1) 에 비례하는 스트림 (항목 1,000개)
+    private static long feedSkewed(SpaceSaving sketch, Map<Long, Long> actual, Random random, int events) {
+        double[] cumulative = new double[1000];
+        double sum = 0;
+        for (int k = 0; k < cumulative.length; k++) {
+            sum += 1.0 / (k + 1);
+            cumulative[k] = sum;
+        }
+        long total = 0;
+        for (int i = 0; i < events; i++) {
+            double target = random.nextDouble() * sum;
+            int key = 0;
+            while (cumulative[key] < target) {
+                key++;
+            }
+            long weight = 1 + random.nextInt(10);
+            sketch.add(key, weight);
+            actual.merge((long) key, weight, Long::sum);
+            total += weight;
+        }
+        return total;
+    }
+
+    private static void assertBounds(SpaceSaving sketch, Map<Long, Long> actual, long total) {
+        for (SpaceSaving.Counter counter : sketch.top(CAPACITY)) {
+            long real = actual.getOrDefault(counter.getKey(), 0L);
+            assertThat(counter.getCount()).isGreaterThanOrEqualTo(real);
+            assertThat(counter.getCount() - counter.getError()).isLessThanOrEqualTo(real);
+            assertThat(counter.getError()).isLessThanOrEqualTo(total / CAPACITY);
+        }
+    }
+}
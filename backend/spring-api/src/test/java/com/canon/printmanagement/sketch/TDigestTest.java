@@ -0,0 +1,124 @@
+package com.canon.printmanagement.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TDigestTest {
+
+    private static final double[] QUANTILES = {0.01, 0.1, 0.5, 0.9, 0.95, 0.99};
+
+    @Test
+    void quantilesStayWithinRankError() {
+        Random random = new Random(7);
+        double[] values = new double[100_000];
+        TDigest digest = new TDigest(100);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = -Math.log(1 - random.nextDouble()) * 20; // 지수 분포 (긴 꼬리)
+            digest.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertThat(digest.count()).isEqualTo(100_000L);
+        assertThat(digest.min()).isEqualTo(values[0]);
+        assertThat(digest.max()).isEqualTo(values[values.length - 1]);
+        for (double q : QUANTILES) {
+            assertThat(rank(values, digest.quantile(q))).isCloseTo(q, within(rankTolerance(q)));
+        }
+    }
+
+    @Test
+    void mergedDigestMatchesSingleDigest() {
+        Random random = new Random(11);
+        double[] values = new double[50_000];
+        TDigest merged = new TDigest(100);
+        TDigest[] parts = new TDigest[10];
+        for (int p = 0; p < parts.length; p++) {
+            parts[p] = new TDigest(100);
+        }
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 100 + random.nextGaussian() * 30;
+            parts[i % parts.length].add(values[i]);
+        }
+        for (TDigest part : parts) {
+            merged.merge(part);
+        }
+        Arrays.sort(values);
+
+        assertThat(merged.count()).isEqualTo(50_000L);
+        assertThat(merged.mean()).isCloseTo(Arrays.stream(values).average().orElseThrow(), within(1e-9));
+        for (double q : QUANTILES) {
+            assertThat(rank(values, merged.quantile(q))).isCloseTo(q, within(rankTolerance(q)));
+        }
+    }
+
+    @Test
+    void serializationKeepsQuantilesExactly() {
+        JobDistributionSketch sketch = new JobDistributionSketch(100);
+        Random random = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            // float 로는 구분되지 않는 값 (비용 소수점 이하)
+            sketch.add(1 + random.nextInt(50), 16_777_216L + random.nextInt(1000), 1234.56 + random.nextInt(100) / 100.0);
+        }
+
+        JobDistributionSketch restored = JobDistributionSketch.fromBytes(sketch.toBytes());
+
+        for (JobDistributionSketch.Metric metric : JobDistributionSketch.Metric.values()) {
+            TDigest original = sketch.get(metric);
+            TDigest copy = restored.get(metric);
+            assertThat(copy.count()).isEqualTo(original.count());
+            for (double q : QUANTILES) {
+                assertThat(copy.quantile(q)).isEqualTo(original.quantile(q));
+            }
+        }
+    }
+
+    @Test
+    void concurrentQuantileAndAddDoNotCorruptState() throws Exception {
+        TDigest digest = new TDigest(50);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[4];
+            for (int t = 0; t < futures.length; t++) {
+                int thread = t;
+                futures[t] = executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        if (thread % 2 == 0) {
+                            digest.add(i % 1000);
+                        } else {
+                            digest.quantile(0.5);
+                        }
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(digest.count()).isEqualTo(40_000L);
+        assertThat(digest.quantile(0.5)).isCloseTo(500, within(20.0));
+    }
+
+    // 값의 실제 분위 (정렬된 표본에서 value 이하 비율)
+    private static double rank(double[] sorted, double value) {
+        int index = Arrays.binarySearch(sorted, value);
+        int position = index >= 0 ? index : -index - 1;
+        return (double) position / sorted.length;
+    }
+
+    // 중앙은 1%, 꼬리는 0.2% 이내
+    private static double rankTolerance(double q) {
+        return q < 0.05 || q > 0.95 ? 0.002 : 0.01;
+    }
+}
@@ -0,0 +1,72 @@
+package com.canon.printmanagement.tariff;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TariffTableTest {
+
+    private static final Tariff DEFAULT = new Tariff(3000, 15000, 2000);
+    private static final Tariff COLOR_ANY = new Tariff(2800, 14000, 2000);
+    private static final Tariff COLOR_A3 = new Tariff(5600, 28000, 4000);
+    private static final Tariff MONO_ANY = new Tariff(2500, 2500, 1500);
+
+    private static TariffTable table() {
+        Map<Long, Long> printerModels = new HashMap<>();
+        printerModels.put(1L, 10L);
+        printerModels.put(2L, 20L);
+        printerModels.put(3L, null);   // 모델 미지정
+        printerModels.put(4L, 99L);    // 단가 없는 모델
+
+        return TariffTable.of(DEFAULT, printerModels, Map.of(
+            10L, Map.of(TariffTable.ANY_PAPER_SIZE, COLOR_ANY, "a3", COLOR_A3),
+            20L, Map.of(TariffTable.ANY_PAPER_SIZE, MONO_ANY)
+        ));
+    }
+
+    @Test
+    void paperSizeTariffWinsOverModelDefault() {
+        TariffTable table = table();
+
+        assertThat(table.lookup(1, "A3")).isSameAs(COLOR_A3);
+        // 단가표의 용지 크기는 대문자로 정규화되고 조회도 대소문자를 가리지 않음
+        assertThat(table.lookup(1, "a3")).isSameAs(COLOR_A3);
+        assertThat(table.lookup(1, "A4")).isSameAs(COLOR_ANY);
+        assertThat(table.lookup(1, null)).isSameAs(COLOR_ANY);
+        assertThat(table.lookup(2, "A3")).isSameAs(MONO_ANY);
+    }
+
+    @Test
+    void fallsBackToDefaultWithoutModelTariff() {
+        TariffTable table = table();
+
+        assertThat(table.lookup(3, "A4")).isSameAs(DEFAULT);
+        assertThat(table.lookup(4, "A4")).isSameAs(DEFAULT);
+        assertThat(table.lookup(404, "A4")).isSameAs(DEFAULT);
+        assertThat(table.printerCount()).isEqualTo(2);
+        assertThat(TariffTable.defaultsOnly(DEFAULT).lookup(1, "A3")).isSameAs(DEFAULT);
+    }
+
+    @Test
+    void netCostAppliesCopiesAndCapsDuplexDiscount() {
+        // 흑백 8 + 컬러 2 페이지, 3부: (8 × 30 + 2 × 150) × 3 = 1620원
+        assertThat(DEFAULT.netCost(8, 2, 10, 3, false)).isEqualTo(162_000L);
+        // 양면 할인 10 × 20 × 3 = 600원
+        assertThat(DEFAULT.netCost(8, 2, 10, 3, true)).isEqualTo(102_000L);
+
+        // 할인액이 할인 전 비용보다 크면 0원까지만
+        Tariff steepDiscount = new Tariff(1000, 1000, 5000);
+        assertThat(steepDiscount.netCost(4, 0, 4, 1, true)).isZero();
+    }
+
+    @Test
+    void colorConversionSavingsIsRateDifferenceTimesCopies() {
+        assertThat(COLOR_ANY.colorConversionSavings(5, 2)).isEqualTo(5L * (14000 - 2800) * 2);
+        // 흑백 모델은 컬러/흑백 단가가 같아 절감액 없음
+        assertThat(MONO_ANY.colorConversionSavings(5, 2)).isZero();
+        assertThat(new Tariff(3000, 2000, 0).colorConversionSavingsPerPage()).isZero();
+    }
+}
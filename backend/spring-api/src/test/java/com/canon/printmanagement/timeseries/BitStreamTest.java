@@ -0,0 +1,45 @@
+package com.canon.printmanagement.timeseries;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BitStreamTest {
+
+    @Test
+    void readsBackValuesAcrossWordBoundaries() {
+        Random random = new Random(42);
+        int[] widths = new int[5_000];
+        long[] values = new long[widths.length];
+        BitWriter writer = new BitWriter(1);
+        for (int i = 0; i < widths.length; i++) {
+            widths[i] = 1 + random.nextInt(64);
+            values[i] = random.nextLong();
+            writer.write(values[i], widths[i]);
+        }
+
+        BitReader reader = new BitReader(writer.toWords());
+        for (int i = 0; i < widths.length; i++) {
+            long expected = widths[i] == 64 ? values[i] : values[i] & ((1L << widths[i]) - 1);
+            assertThat(reader.read(widths[i])).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void writesOnlyTheLowBits() {
+        BitWriter writer = new BitWriter(1);
+        writer.write(-1L, 3);
+        writer.write(0L, 1);
+        writer.write(Long.MIN_VALUE, 64);
+
+        assertThat(writer.bitLength()).isEqualTo(68);
+        assertThat(writer.toWords()).hasSize(2);
+
+        BitReader reader = new BitReader(writer.toWords());
+        assertThat(reader.read(3)).isEqualTo(7L);
+        assertThat(reader.readBit()).isFalse();
+        assertThat(reader.read(64)).isEqualTo(Long.MIN_VALUE);
+    }
+}
@@ -0,0 +1,139 @@
+package com.canon.printmanagement.timeseries;
+
+import com.canon.printmanagement.dto.PrinterStatusItem;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatusTimeSeriesStoreTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 7, 1, 0, 0);
+    private static final int BLOCK_CAPACITY = 512;
+
+    /**
+     * 5분 주기 수집 (수집 지연 ±jitterMillis), 출력 중이면 카운터 증가 + 토너/용지 가끔 감소
+     */
+    private static List<PrinterStatusItem> regularSamples(long printerId, int count, int jitterMillis,
+                                                          boolean printing, Random random) {
+        List<PrinterStatusItem> samples = new ArrayList<>(count);
+        int toner = 100;
+        int paper = 100;
+        long total = 100_000;
+        long color = 20_000;
+        for (int i = 0; i < count; i++) {
+            if (printing) {
+                total += random.nextInt(40);
+                color += random.nextInt(8);
+                if (random.nextInt(20) == 0) {
+                    toner = Math.max(0, toner - 1);
+                }
+                if (random.nextInt(10) == 0) {
+                    paper = paper > 5 ? paper - 3 : 100;
+                }
+            }
+            boolean error = random.nextInt(200) == 0;
+            long jitterNanos = jitterMillis > 0 ? (random.nextInt(2 * jitterMillis + 1) - jitterMillis) * 1_000_000L : 0;
+            LocalDateTime timestamp = START.plusMinutes(5L * i).plusNanos(jitterNanos);
+            samples.add(new PrinterStatusItem(printerId, timestamp, error ? "ERROR" : "ONLINE",
+                toner, toner, toner, toner, paper, error ? "PAPER_JAM" : null, error ? "용지 걸림" : null,
+                total, color));
+        }
+        return samples;
+    }
+
+    private static double bytesPerSample(int jitterMillis, boolean printing) {
+        StatusTimeSeriesStore store = new StatusTimeSeriesStore(BLOCK_CAPACITY, START.minusDays(1));
+        Random random = new Random(4);
+        for (long printerId = 1; printerId <= 10; printerId++) {
+            // 90일 × 5분 주기
+            regularSamples(printerId, 90 * 288, jitterMillis, printing, random).forEach(store::append);
+        }
+        assertThat(store.stats().samples()).isEqualTo(10L * 90 * 288);
+        return store.stats().bytesPerSample();
+    }
+
+    private static List<PrinterStatusItem> readAll(StatusTimeSeriesStore store, long printerId, boolean descending) {
+        List<PrinterStatusItem> samples = new ArrayList<>();
+        Iterator<PrinterStatusItem> iterator = store.range(printerId, START.minusDays(1), START.plusYears(1), descending);
+        iterator.forEachRemaining(samples::add);
+        return samples;
+    }
+
+    @Test
+    void roundTripsSamplesAcrossBlocks() {
+        StatusTimeSeriesStore store = new StatusTimeSeriesStore(BLOCK_CAPACITY, START.minusDays(1));
+        List<PrinterStatusItem> samples = regularSamples(1L, BLOCK_CAPACITY * 3 + 17, 20, true, new Random(1));
+        samples.forEach(store::append);
+
+        assertThat(readAll(store, 1L, false)).isEqualTo(samples);
+        List<PrinterStatusItem> descending = readAll(store, 1L, true);
+        assertThat(descending.get(0)).isEqualTo(samples.get(samples.size() - 1));
+        assertThat(descending).hasSize(samples.size());
+        assertThat(store.cursor()).isEqualTo(new StatusTimeSeriesStore.Cursor(
+            samples.get(samples.size() - 1).timestamp(), 1L));
+    }
+
+    @Test
+    void roundTripsNullsAndIrregularValues() {
+        StatusTimeSeriesStore store = new StatusTimeSeriesStore(BLOCK_CAPACITY, START.minusDays(1));
+        List<PrinterStatusItem> samples = List.of(
+            new PrinterStatusItem(2L, START, "ONLINE", 80, null, null, null, 50, null, null, 1_000L, null),
+            new PrinterStatusItem(2L, START.plusSeconds(1), "OFFLINE", null, null, null, null, null, null, null, null, null),
+            // 큰 시간 간격, 잔량 범위 밖 값, 카운터 감소(장비 교체)
+            new PrinterStatusItem(2L, START.plusDays(40).plusNanos(123_000), "ONLINE", 250, -3, 0, 100, 0,
+                "E001", "오류", 5L, Long.MAX_VALUE / 4),
+            new PrinterStatusItem(2L, START.plusDays(40).plusSeconds(300), "ONLINE", 0, 0, 0, 0, 100,
+                null, null, 7L, Long.MAX_VALUE / 4 + 1)
+        );
+        samples.forEach(store::append);
+
+        assertThat(readAll(store, 2L, false)).isEqualTo(samples);
+    }
+
+    @Test
+    void ignoresSamplesNotAfterTheLastOne() {
+        StatusTimeSeriesStore store = new StatusTimeSeriesStore(BLOCK_CAPACITY, START.minusDays(1));
+        List<PrinterStatusItem> samples = regularSamples(3L, 3, 20, true, new Random(3));
+        samples.forEach(store::append);
+
+        assertThat(store.append(samples.get(1))).isFalse();
+        assertThat(store.append(samples.get(2))).isFalse();
+        assertThat(store.stats().samples()).isEqualTo(3);
+    }
+
+    @Test
+    void bytesPerSampleMatchesDocumentedRange() {
+        // StatusBlock 문서의 추정치: 대기 중 정시 수집 약 2바이트 ~ 매 주기 출력 + 수집 지연 흔들림 약 6바이트
+        assertThat(bytesPerSample(0, false)).isLessThanOrEqualTo(2.0);
+        assertThat(bytesPerSample(0, true)).isLessThanOrEqualTo(4.0);
+        assertThat(bytesPerSample(15, false)).isLessThanOrEqualTo(4.5);
+        assertThat(bytesPerSample(15, true)).isLessThanOrEqualTo(6.0);
+    }
+
+    @Test
+    void snapshotRestoresSamplesAndCursor() throws Exception {
+        StatusTimeSeriesStore store = new StatusTimeSeriesStore(BLOCK_CAPACITY, START.minusDays(1));
+        List<PrinterStatusItem> samples = regularSamples(5L, BLOCK_CAPACITY + 3, 20, true, new Random(5));
+        samples.forEach(store::append);
+
+        Path file = Files.createTempFile("status-timeseries", ".bin");
+        try {
+            store.snapshot(file);
+            StatusTimeSeriesStore restored = StatusTimeSeriesStore.restore(file, BLOCK_CAPACITY);
+
+            assertThat(readAll(restored, 5L, false)).isEqualTo(samples);
+            assertThat(restored.cursor()).isEqualTo(store.cursor());
+            assertThat(restored.coveredFrom()).isEqualTo(store.coveredFrom());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
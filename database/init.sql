@@ -44,6 +44,7 @@ CREATE TABLE printer_models (
     model_code VARCHAR(100) UNIQUE NOT NULL,
     is_color BOOLEAN DEFAULT true,
     is_duplex_capable BOOLEAN DEFAULT true,
+    supports_a3 BOOLEAN DEFAULT false,
     max_paper_capacity INT DEFAULT 500,
     toner_capacity_black INT,
     toner_capacity_cyan INT,
@@ -52,6 +53,17 @@ CREATE TABLE printer_models (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- 프린터 모델별 페이지 단가 (용지 크기 '*' = 해당 모델 기본, 없으면 canon.cost.per-page.*)
+CREATE TABLE printer_model_tariffs (
+    model_id BIGINT NOT NULL REFERENCES printer_models(id),
+    paper_size VARCHAR(20) NOT NULL DEFAULT '*', -- A4, A3, Letter, *
+    bw_cost_per_page DECIMAL(10, 2) NOT NULL,
+    color_cost_per_page DECIMAL(10, 2) NOT NULL,
+    duplex_discount_per_page DECIMAL(10, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (model_id, paper_size)
+);
+
 -- 프린터 장비 정보
 CREATE TABLE printers (
     id BIGSERIAL PRIMARY KEY,
@@ -124,6 +136,8 @@ CREATE TABLE print_jobs (
     was_color_converted BOOLEAN DEFAULT false, -- 컬러→흑백 자동 변환 여부
     was_duplex_enforced BOOLEAN DEFAULT false, -- 양면 출력 강제 여부
     policy_applied VARCHAR(100), -- 적용된 정책 이름
+    color_savings DECIMAL(10, 2) DEFAULT 0, -- 컬러→흑백 변환 절감액 (단가표 기준)
+    duplex_savings DECIMAL(10, 2) DEFAULT 0, -- 양면 강제 절감액 (단가표 기준)
     PRIMARY KEY (id, timestamp)
 );
 
@@ -133,6 +147,17 @@ SELECT create_hypertable('print_jobs', 'timestamp',
     if_not_exists => TRUE
 );
 
+-- 출력 작업 중복 방지 키 (hypertable 은 timestamp 없는 유니크 제약 불가)
+-- 중복 방지 기간(기본 7일)이 지난 키는 애플리케이션이 삭제
+CREATE TABLE print_job_keys (
+    printer_id BIGINT NOT NULL,
+    job_id VARCHAR(100) NOT NULL,
+    print_job_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (printer_id, job_id)
+);
+CREATE INDEX idx_print_job_keys_created_at ON print_job_keys(created_at);
+
 -- Continuous Aggregate: 일별 통계 (자동 생성)
 CREATE MATERIALIZED VIEW print_jobs_daily
 WITH (timescaledb.continuous) AS
@@ -147,7 +172,9 @@ SELECT
     SUM(bw_page_count) AS total_bw_pages,
     SUM(total_cost) AS total_cost,
     COUNT(*) FILTER (WHERE was_color_converted = true) AS color_converted_count,
-    COUNT(*) FILTER (WHERE was_duplex_enforced = true) AS duplex_enforced_count
+    COUNT(*) FILTER (WHERE was_duplex_enforced = true) AS duplex_enforced_count,
+    SUM(COALESCE(color_savings, 0)) AS color_savings,
+    SUM(COALESCE(duplex_savings, 0)) AS duplex_savings
 FROM print_jobs
 GROUP BY day, printer_id, user_id, department_id
 WITH NO DATA;
@@ -160,6 +187,101 @@ SELECT add_continuous_aggregate_policy('print_jobs_daily',
     if_not_exists => TRUE
 );
 
+-- 출력 작업 롤업 (부서·프린터·사용자별 시간 14일 / 일 2년 / 월 영구, 작업 저장 시 애플리케이션이 갱신)
+CREATE TABLE print_job_rollups_hour (
+    bucket TIMESTAMP NOT NULL,
+    department_id BIGINT NOT NULL,
+    printer_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    jobs BIGINT NOT NULL DEFAULT 0,
+    pages BIGINT NOT NULL DEFAULT 0,
+    color_pages BIGINT NOT NULL DEFAULT 0,
+    cost DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    savings DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    pending_jobs BIGINT NOT NULL DEFAULT 0, -- 다음 단계로 아직 접히지 않은 증가분
+    pending_pages BIGINT NOT NULL DEFAULT 0,
+    pending_color_pages BIGINT NOT NULL DEFAULT 0,
+    pending_cost DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    pending_savings DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (bucket, department_id, printer_id, user_id)
+);
+
+CREATE TABLE print_job_rollups_day (
+    bucket TIMESTAMP NOT NULL,
+    department_id BIGINT NOT NULL,
+    printer_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    jobs BIGINT NOT NULL DEFAULT 0,
+    pages BIGINT NOT NULL DEFAULT 0,
+    color_pages BIGINT NOT NULL DEFAULT 0,
+    cost DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    savings DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    pending_jobs BIGINT NOT NULL DEFAULT 0, -- 다음 단계로 아직 접히지 않은 증가분
+    pending_pages BIGINT NOT NULL DEFAULT 0,
+    pending_color_pages BIGINT NOT NULL DEFAULT 0,
+    pending_cost DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    pending_savings DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (bucket, department_id, printer_id, user_id)
+);
+
+CREATE TABLE print_job_rollups_month (
+    bucket TIMESTAMP NOT NULL,
+    department_id BIGINT NOT NULL,
+    printer_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    jobs BIGINT NOT NULL DEFAULT 0,
+    pages BIGINT NOT NULL DEFAULT 0,
+    color_pages BIGINT NOT NULL DEFAULT 0,
+    cost DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    savings DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (bucket, department_id, printer_id, user_id)
+);
+
+CREATE INDEX idx_print_job_rollups_hour_pending ON print_job_rollups_hour(bucket) WHERE pending_jobs > 0;
+CREATE INDEX idx_print_job_rollups_day_pending ON print_job_rollups_day(bucket) WHERE pending_jobs > 0;
+
+-- 롤업이 완전한 시작 시점 (새 DB 는 작업이 없으므로 전체 구간, 기존 DB 는 migrations/002 가 채움)
+CREATE TABLE print_job_rollup_state (
+    covered_from TIMESTAMP NOT NULL
+);
+INSERT INTO print_job_rollup_state (covered_from) VALUES ('-infinity');
+
+-- 프린터 사용률 히트맵 (부서·프린터·주별 요일×시간 168칸, 작업 저장 시 애플리케이션이 갱신)
+CREATE TABLE printer_heatmaps (
+    week DATE NOT NULL, -- 주 시작 (월요일)
+    department_id BIGINT NOT NULL,
+    printer_id BIGINT NOT NULL,
+    hour_of_week SMALLINT NOT NULL CHECK (hour_of_week BETWEEN 0 AND 167), -- 월요일 0시 = 0
+    jobs BIGINT NOT NULL DEFAULT 0,
+    pages BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (week, department_id, printer_id, hour_of_week)
+);
+CREATE INDEX idx_printer_heatmaps_printer ON printer_heatmaps(printer_id, week);
+CREATE INDEX idx_printer_heatmaps_department ON printer_heatmaps(department_id, week);
+
+-- 부서/일별 근사 집계 스케치 (HyperLogLog 고유 사용자/프린터 + Space-Saving Top-K)
+CREATE TABLE department_sketches (
+    department_id BIGINT NOT NULL REFERENCES departments(id),
+    day DATE NOT NULL,
+    payload BYTEA NOT NULL, -- 직렬화된 스케치 (부서·일당 약 18KB)
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (department_id, day)
+);
+
+-- 일별 분포 스케치 (부서/프린터별 작업당 페이지·파일 크기·비용 t-digest)
+CREATE TABLE distribution_digests (
+    scope VARCHAR(20) NOT NULL, -- DEPARTMENT, PRINTER
+    scope_id BIGINT NOT NULL,
+    day DATE NOT NULL,
+    payload BYTEA NOT NULL, -- 직렬화된 t-digest 3종 (약 22KB 이하)
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (scope, scope_id, day)
+);
+
 -- ============================================
 -- 4. 알림 및 이벤트 관리
 -- ============================================
@@ -193,6 +315,21 @@ CREATE TABLE alerts (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- 이벤트 outbox (샤드마다, 출력 작업/알림 저장 트랜잭션에서 기록 → Redis Streams 로 발행 후 삭제)
+CREATE TABLE event_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    stream VARCHAR(50) NOT NULL, -- print-jobs, alerts
+    event_type VARCHAR(50) NOT NULL, -- PRINT_JOB_CREATED, ALERT_CREATED, ALERT_RESOLVED
+    aggregate_id BIGINT NOT NULL,
+    printer_id BIGINT,
+    department_id BIGINT,
+    payload JSONB NOT NULL,
+    txid XID8 NOT NULL DEFAULT pg_current_xact_id(), -- 기록한 트랜잭션 (발행 순서 기준)
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_event_outbox_txid ON event_outbox(txid, id);
+
 -- ============================================
 -- 5. 정책 관리
 -- ============================================
@@ -224,11 +361,81 @@ CREATE TABLE quotas (
     current_pages INT DEFAULT 0,
     current_color_pages INT DEFAULT 0,
     current_cost DECIMAL(12, 2) DEFAULT 0,
+    -- 수집 전 출력 승인 예약량 (RESERVED 예약 합계, 한도 판정은 current_* + reserved_*)
+    reserved_pages BIGINT NOT NULL DEFAULT 0,
+    reserved_color_pages BIGINT NOT NULL DEFAULT 0,
+    reserved_cost DECIMAL(12, 2) NOT NULL DEFAULT 0,
     reset_date DATE NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- 출력 승인 예약 (실시간 할당량 판정, 재시작 시 RESERVED 행으로 예약 복구)
+CREATE TABLE print_authorizations (
+    id UUID PRIMARY KEY,
+    printer_id BIGINT NOT NULL,
+    job_id VARCHAR(255) NOT NULL,
+    department_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    department_quota_id BIGINT,
+    user_quota_id BIGINT,
+    pages BIGINT NOT NULL,
+    color_pages BIGINT NOT NULL,
+    cost DECIMAL(12, 2) NOT NULL,
+    convert_to_bw BOOLEAN DEFAULT false,
+    force_duplex BOOLEAN DEFAULT false,
+    status VARCHAR(20) NOT NULL, -- RESERVED, COMMITTED, RELEASED, EXPIRED
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+CREATE UNIQUE INDEX idx_print_authorizations_reserved ON print_authorizations(printer_id, job_id)
+    WHERE status = 'RESERVED';
+CREATE INDEX idx_print_authorizations_status ON print_authorizations(status, expires_at);
+
+-- 장비 미터 ↔ 출력 작업 대사 (프린터/일 단위 누적, 미기록 페이지 = 미터 증가량 - 작업 페이지)
+CREATE TABLE printer_meter_reconciliation (
+    printer_id BIGINT NOT NULL REFERENCES printers(id),
+    day DATE NOT NULL,
+    meter_pages BIGINT NOT NULL DEFAULT 0,
+    meter_color_pages BIGINT NOT NULL DEFAULT 0,
+    job_pages BIGINT NOT NULL DEFAULT 0,
+    job_color_pages BIGINT NOT NULL DEFAULT 0,
+    intervals INT NOT NULL DEFAULT 0,
+    meter_resets INT NOT NULL DEFAULT 0, -- 카운터 감소 구간 (장비 교체/초기화, 비교 제외)
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (printer_id, day)
+);
+
+CREATE INDEX idx_printer_meter_reconciliation_day ON printer_meter_reconciliation(day);
+
+-- 프린터별 마지막 미터 판독값과 그 이후 작업 합계 (다음 대사 실행의 기준점)
+CREATE TABLE printer_meter_cursors (
+    printer_id BIGINT PRIMARY KEY REFERENCES printers(id),
+    last_reading_at TIMESTAMP NOT NULL,
+    last_total_page_count BIGINT NOT NULL,
+    last_color_page_count BIGINT NOT NULL,
+    pending_job_pages BIGINT NOT NULL DEFAULT 0,
+    pending_job_color_pages BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 대사 실행 이력 (MAX(window_end) = 다음 실행 시작 시점)
+CREATE TABLE meter_reconciliation_runs (
+    id BIGSERIAL PRIMARY KEY,
+    window_start TIMESTAMP NOT NULL,
+    window_end TIMESTAMP NOT NULL,
+    readings BIGINT NOT NULL,
+    jobs BIGINT NOT NULL,
+    intervals INT NOT NULL,
+    unbilled_pages BIGINT NOT NULL,
+    duration_ms BIGINT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_meter_reconciliation_runs_window_end ON meter_reconciliation_runs(window_end DESC);
+
 -- ============================================
 -- 6. 인덱스 생성 (성능 최적화)
 -- ============================================
@@ -238,6 +445,7 @@ CREATE INDEX idx_print_jobs_user_id ON print_jobs(user_id, timestamp DESC);
 CREATE INDEX idx_print_jobs_department_id ON print_jobs(department_id, timestamp DESC);
 CREATE INDEX idx_print_jobs_printer_id ON print_jobs(printer_id, timestamp DESC);
 CREATE INDEX idx_print_jobs_status ON print_jobs(status, timestamp DESC);
+CREATE INDEX idx_print_jobs_printer_job_id ON print_jobs(printer_id, job_id, timestamp DESC);
 
 -- 프린터 상태 조회 인덱스
 CREATE INDEX idx_printer_status_printer_id ON printer_status(printer_id, timestamp DESC);
@@ -267,11 +475,19 @@ INSERT INTO users (username, email, full_name, department_id, role) VALUES
 ('lee.sales', 'lee.sales@canon.co.kr', '이영업', 4, 'USER');
 
 -- 프린터 모델 데이터 (Canon 복합기)
-INSERT INTO printer_models (manufacturer, model_name, model_code, is_color, is_duplex_capable, 
+INSERT INTO printer_models (manufacturer, model_name, model_code, is_color, is_duplex_capable, supports_a3,
     toner_capacity_black, toner_capacity_cyan, toner_capacity_magenta, toner_capacity_yellow) VALUES
-('Canon', 'imageRUNNER ADVANCE C5535i', 'iR-ADV-C5535i', true, true, 28000, 19000, 19000, 19000),
-('Canon', 'imageRUNNER ADVANCE DX 4725i', 'iR-ADV-DX-4725i', true, true, 25000, 17000, 17000, 17000),
-('Canon', 'imageRUNNER 2625i', 'iR-2625i', false, true, 18000, 0, 0, 0);
+('Canon', 'imageRUNNER ADVANCE C5535i', 'iR-ADV-C5535i', true, true, true, 28000, 19000, 19000, 19000),
+('Canon', 'imageRUNNER ADVANCE DX 4725i', 'iR-ADV-DX-4725i', true, true, false, 25000, 17000, 17000, 17000),
+('Canon', 'imageRUNNER 2625i', 'iR-2625i', false, true, true, 18000, 0, 0, 0);
+
+-- 프린터 모델별 단가 (A3 는 A4 의 2배)
+INSERT INTO printer_model_tariffs (model_id, paper_size, bw_cost_per_page, color_cost_per_page, duplex_discount_per_page) VALUES
+(1, '*', 30, 150, 20),
+(1, 'A3', 60, 300, 40),
+(2, '*', 28, 140, 20),
+(2, 'A3', 56, 280, 40),
+(3, '*', 25, 25, 15);
 
 -- 프린터 장비 데이터
 INSERT INTO printers (name, serial_number, ip_address, model_id, location, department_id) VALUES
@@ -404,6 +620,41 @@ CREATE TRIGGER trigger_update_quota_on_print
 AFTER INSERT ON print_jobs
 FOR EACH ROW EXECUTE FUNCTION update_quota_on_print();
 
+-- 알림 이벤트 outbox 기록 트리거 (알림을 쓰는 주체와 관계없이 같은 트랜잭션에서 기록)
+CREATE OR REPLACE FUNCTION enqueue_alert_event()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO event_outbox (stream, event_type, aggregate_id, printer_id, department_id, payload)
+    VALUES ('alerts',
+            CASE WHEN TG_OP = 'INSERT' THEN 'ALERT_CREATED' ELSE 'ALERT_RESOLVED' END,
+            NEW.id, NEW.printer_id, NEW.department_id,
+            jsonb_build_object(
+                'id', NEW.id,
+                'alertRuleId', NEW.alert_rule_id,
+                'printerId', NEW.printer_id,
+                'departmentId', NEW.department_id,
+                'severity', NEW.severity,
+                'title', NEW.title,
+                'message', NEW.message,
+                'data', NEW.data_json,
+                'isResolved', NEW.is_resolved,
+                'resolvedAt', NEW.resolved_at,
+                'resolvedBy', NEW.resolved_by,
+                'createdAt', NEW.created_at
+            ));
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_alert_created_outbox
+AFTER INSERT ON alerts
+FOR EACH ROW EXECUTE FUNCTION enqueue_alert_event();
+
+CREATE TRIGGER trigger_alert_resolved_outbox
+AFTER UPDATE OF is_resolved ON alerts
+FOR EACH ROW WHEN (NEW.is_resolved AND NOT COALESCE(OLD.is_resolved, false))
+EXECUTE FUNCTION enqueue_alert_event();
+
 -- ============================================
 -- 완료
 -- ============================================
@@ -0,0 +1,102 @@
+-- 001: 모델별 단가표 + 작업별 절감액 저장 (init.sql 로 만든 기존 DB 에 적용)
+--
+-- - 새 버전 애플리케이션을 기동하기 전에 실행 (JPA ddl-auto=validate 가 새 컬럼을 요구)
+-- - 부서 샤딩 시 모든 샤드에서 실행. 0번 외 샤드는 printers 가 비어 있어 보정에 기본 단가를 쓴다
+-- - 과거 작업 절감액은 실행 시점의 printer_model_tariffs 로 채우므로, 모델별 단가를 쓰려면
+--   테이블을 만든 뒤 단가를 넣고 실행 (비어 있으면 기본 단가)
+-- - 다시 실행해도 결과 동일 (절감액이 없는 작업만 채우고, print_jobs_daily 는 매번 다시 만든다)
+--
+-- psql -v ON_ERROR_STOP=1 -f database/migrations/001_print_cost_tariffs.sql
+
+BEGIN;
+
+-- 프린터 모델별 페이지 단가 (용지 크기 '*' = 해당 모델 기본, 없으면 canon.cost.per-page.*)
+CREATE TABLE IF NOT EXISTS printer_model_tariffs (
+    model_id BIGINT NOT NULL REFERENCES printer_models(id),
+    paper_size VARCHAR(20) NOT NULL DEFAULT '*', -- A4, A3, Letter, *
+    bw_cost_per_page DECIMAL(10, 2) NOT NULL,
+    color_cost_per_page DECIMAL(10, 2) NOT NULL,
+    duplex_discount_per_page DECIMAL(10, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (model_id, paper_size)
+);
+
+ALTER TABLE print_jobs ADD COLUMN IF NOT EXISTS color_savings DECIMAL(10, 2) DEFAULT 0; -- 컬러→흑백 변환 절감액 (단가표 기준)
+ALTER TABLE print_jobs ADD COLUMN IF NOT EXISTS duplex_savings DECIMAL(10, 2) DEFAULT 0; -- 양면 강제 절감액 (단가표 기준)
+
+-- 절감액 컬럼 도입 이전 작업 보정 (절감액이 이미 있는 작업은 건너뜀)
+-- - 단가: 프린터 모델의 용지 크기 단가 → '*' 단가 → 기본 단가(canon.cost.per-page.* 기본값 30/150/20)
+-- - 양면 강제: 페이지 × 양면 할인액 × 부수 (할인 전 비용 한도, PrintJobService.calculateCost 와 동일)
+-- - 컬러→흑백 변환: 변환 페이지 수가 저장되지 않았으므로 변환 기준(canon.policy.color-image-threshold 기본 10%)
+--   으로 가능한 최대 페이지 수를 사용한 추정치
+WITH legacy AS (
+    SELECT
+        pj.id,
+        pj.timestamp,
+        pj.was_color_converted AND COALESCE(pj.color_savings, 0) = 0 AS fill_color,
+        pj.was_duplex_enforced AND COALESCE(pj.duplex_savings, 0) = 0 AS fill_duplex,
+        pj.page_count,
+        COALESCE(pj.bw_page_count, 0) AS bw_pages,
+        COALESCE(pj.color_page_count, 0) AS color_pages,
+        CASE WHEN pj.copies > 0 THEN pj.copies ELSE 1 END AS copies,
+        COALESCE(t.bw_cost_per_page, 30) AS bw_rate,
+        COALESCE(t.color_cost_per_page, 150) AS color_rate,
+        COALESCE(t.duplex_discount_per_page, 20) AS duplex_rate
+    FROM print_jobs pj
+    LEFT JOIN printers p ON p.id = pj.printer_id
+    LEFT JOIN LATERAL (
+        SELECT mt.bw_cost_per_page, mt.color_cost_per_page, mt.duplex_discount_per_page
+        FROM printer_model_tariffs mt
+        WHERE mt.model_id = p.model_id
+          AND (UPPER(mt.paper_size) = UPPER(pj.paper_size) OR mt.paper_size = '*')
+        ORDER BY mt.paper_size = '*'
+        LIMIT 1
+    ) t ON true
+    WHERE (pj.was_color_converted AND COALESCE(pj.color_savings, 0) = 0)
+       OR (pj.was_duplex_enforced AND COALESCE(pj.duplex_savings, 0) = 0)
+)
+UPDATE print_jobs pj
+SET color_savings = CASE WHEN l.fill_color
+        THEN LEAST(l.bw_pages, FLOOR(l.page_count * 0.1)) * GREATEST(l.color_rate - l.bw_rate, 0) * l.copies
+        ELSE pj.color_savings END,
+    duplex_savings = CASE WHEN l.fill_duplex
+        THEN LEAST(l.page_count * l.duplex_rate * l.copies,
+                   (l.bw_pages * l.bw_rate + l.color_pages * l.color_rate) * l.copies)
+        ELSE pj.duplex_savings END
+FROM legacy l
+WHERE pj.id = l.id AND pj.timestamp = l.timestamp;
+
+COMMIT;
+
+-- 일별 연속 집계에 절감액 추가 (continuous aggregate 는 정의를 바꿀 수 없어 다시 만든다, 트랜잭션 밖에서 실행)
+DROP MATERIALIZED VIEW IF EXISTS print_jobs_daily;
+
+CREATE MATERIALIZED VIEW print_jobs_daily
+WITH (timescaledb.continuous) AS
+SELECT
+    time_bucket('1 day', timestamp) AS day,
+    printer_id,
+    user_id,
+    department_id,
+    COUNT(*) AS total_jobs,
+    SUM(page_count) AS total_pages,
+    SUM(color_page_count) AS total_color_pages,
+    SUM(bw_page_count) AS total_bw_pages,
+    SUM(total_cost) AS total_cost,
+    COUNT(*) FILTER (WHERE was_color_converted = true) AS color_converted_count,
+    COUNT(*) FILTER (WHERE was_duplex_enforced = true) AS duplex_enforced_count,
+    SUM(COALESCE(color_savings, 0)) AS color_savings,
+    SUM(COALESCE(duplex_savings, 0)) AS duplex_savings
+FROM print_jobs
+GROUP BY day, printer_id, user_id, department_id
+WITH NO DATA;
+
+SELECT add_continuous_aggregate_policy('print_jobs_daily',
+    start_offset => INTERVAL '3 days',
+    end_offset => INTERVAL '1 hour',
+    schedule_interval => INTERVAL '1 hour',
+    if_not_exists => TRUE
+);
+
+-- 리프레시 정책은 최근 3일만 다시 계산하므로 과거 구간은 한 번 전체 계산
+CALL refresh_continuous_aggregate('print_jobs_daily', NULL, NOW() - INTERVAL '1 hour');
@@ -0,0 +1,107 @@
+-- 002: 출력 작업 롤업 (init.sql 로 만든 기존 DB 에 적용, 001 다음)
+--
+-- - 부서 샤딩 시 모든 샤드에서 실행
+-- - 롤업을 갱신하지 않는 이전 버전 인스턴스를 모두 멈춘 뒤 실행하고, 끝나면 이 버전으로 기동
+--   (실행 중에는 print_jobs 쓰기를 막으므로 채우는 동안 저장된 작업이 빠지지 않는다)
+-- - 다시 실행해도 결과 동일 (각 롤업 테이블이 비어 있을 때만 채움)
+--
+-- psql -v ON_ERROR_STOP=1 -f database/migrations/002_print_job_rollups.sql
+
+BEGIN;
+
+-- 출력 작업 롤업 (부서·프린터·사용자별 시간 14일 / 일 2년 / 월 영구, 작업 저장 시 애플리케이션이 갱신)
+CREATE TABLE IF NOT EXISTS print_job_rollups_hour (
+    bucket TIMESTAMP NOT NULL,
+    department_id BIGINT NOT NULL,
+    printer_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    jobs BIGINT NOT NULL DEFAULT 0,
+    pages BIGINT NOT NULL DEFAULT 0,
+    color_pages BIGINT NOT NULL DEFAULT 0,
+    cost DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    savings DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    pending_jobs BIGINT NOT NULL DEFAULT 0, -- 다음 단계로 아직 접히지 않은 증가분
+    pending_pages BIGINT NOT NULL DEFAULT 0,
+    pending_color_pages BIGINT NOT NULL DEFAULT 0,
+    pending_cost DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    pending_savings DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (bucket, department_id, printer_id, user_id)
+);
+
+CREATE TABLE IF NOT EXISTS print_job_rollups_day (
+    bucket TIMESTAMP NOT NULL,
+    department_id BIGINT NOT NULL,
+    printer_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    jobs BIGINT NOT NULL DEFAULT 0,
+    pages BIGINT NOT NULL DEFAULT 0,
+    color_pages BIGINT NOT NULL DEFAULT 0,
+    cost DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    savings DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    pending_jobs BIGINT NOT NULL DEFAULT 0, -- 다음 단계로 아직 접히지 않은 증가분
+    pending_pages BIGINT NOT NULL DEFAULT 0,
+    pending_color_pages BIGINT NOT NULL DEFAULT 0,
+    pending_cost DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    pending_savings DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (bucket, department_id, printer_id, user_id)
+);
+
+CREATE TABLE IF NOT EXISTS print_job_rollups_month (
+    bucket TIMESTAMP NOT NULL,
+    department_id BIGINT NOT NULL,
+    printer_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    jobs BIGINT NOT NULL DEFAULT 0,
+    pages BIGINT NOT NULL DEFAULT 0,
+    color_pages BIGINT NOT NULL DEFAULT 0,
+    cost DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    savings DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (bucket, department_id, printer_id, user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_print_job_rollups_hour_pending ON print_job_rollups_hour(bucket) WHERE pending_jobs > 0;
+CREATE INDEX IF NOT EXISTS idx_print_job_rollups_day_pending ON print_job_rollups_day(bucket) WHERE pending_jobs > 0;
+
+-- 롤업이 완전한 시작 시점 (아래에서 기존 작업을 모두 채우므로 전체 구간)
+CREATE TABLE IF NOT EXISTS print_job_rollup_state (
+    covered_from TIMESTAMP NOT NULL
+);
+
+LOCK TABLE print_jobs IN SHARE MODE;
+
+-- 롤업 도입 이전 작업 채우기 (절감액은 001 보정 이후 값 기준)
+-- 모든 단계에 pending 없이(이미 접힌 상태로) 기록: 월은 전체, 일/시간은 보관 기간
+-- (canon.rollup.day-retention-days / hour-retention-days 기본 730 / 14일) 안의 작업만
+INSERT INTO print_job_rollups_month (bucket, department_id, printer_id, user_id, jobs, pages, color_pages, cost, savings)
+SELECT date_trunc('month', timestamp), department_id, printer_id, user_id,
+       COUNT(*), SUM(page_count), SUM(COALESCE(color_page_count, 0)), SUM(COALESCE(total_cost, 0)),
+       SUM(COALESCE(color_savings, 0) + COALESCE(duplex_savings, 0))
+FROM print_jobs
+WHERE NOT EXISTS (SELECT 1 FROM print_job_rollups_month)
+GROUP BY 1, 2, 3, 4;
+
+INSERT INTO print_job_rollups_day (bucket, department_id, printer_id, user_id, jobs, pages, color_pages, cost, savings)
+SELECT date_trunc('day', timestamp), department_id, printer_id, user_id,
+       COUNT(*), SUM(page_count), SUM(COALESCE(color_page_count, 0)), SUM(COALESCE(total_cost, 0)),
+       SUM(COALESCE(color_savings, 0) + COALESCE(duplex_savings, 0))
+FROM print_jobs
+WHERE timestamp >= CURRENT_DATE - INTERVAL '730 days'
+  AND NOT EXISTS (SELECT 1 FROM print_job_rollups_day)
+GROUP BY 1, 2, 3, 4;
+
+INSERT INTO print_job_rollups_hour (bucket, department_id, printer_id, user_id, jobs, pages, color_pages, cost, savings)
+SELECT date_trunc('hour', timestamp), department_id, printer_id, user_id,
+       COUNT(*), SUM(page_count), SUM(COALESCE(color_page_count, 0)), SUM(COALESCE(total_cost, 0)),
+       SUM(COALESCE(color_savings, 0) + COALESCE(duplex_savings, 0))
+FROM print_jobs
+WHERE timestamp >= CURRENT_DATE - INTERVAL '14 days'
+  AND NOT EXISTS (SELECT 1 FROM print_job_rollups_hour)
+GROUP BY 1, 2, 3, 4;
+
+INSERT INTO print_job_rollup_state (covered_from)
+SELECT '-infinity' WHERE NOT EXISTS (SELECT 1 FROM print_job_rollup_state);
+
+COMMIT;
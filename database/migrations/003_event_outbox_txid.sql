@@ -0,0 +1,14 @@
+-- 003: event_outbox 트랜잭션 id (init.sql 로 만든 기존 DB 에 적용, 002 다음)
+--
+-- - 부서 샤딩 시 모든 샤드에서 실행
+-- - 남아 있는 행은 기본값(이 마이그레이션의 트랜잭션 id)을 받아 기존 id 순서대로 발행된다
+-- - 다시 실행해도 결과 동일
+--
+-- psql -v ON_ERROR_STOP=1 -f database/migrations/003_event_outbox_txid.sql
+
+BEGIN;
+
+ALTER TABLE event_outbox ADD COLUMN IF NOT EXISTS txid XID8 NOT NULL DEFAULT pg_current_xact_id();
+CREATE INDEX IF NOT EXISTS idx_event_outbox_txid ON event_outbox(txid, id);
+
+COMMIT;
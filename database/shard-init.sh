@@ -0,0 +1,23 @@
+#!/bin/bash
+# 부서 샤드 초기화 (docker-compose.sharding.yml 에서 init.sql 다음에 실행)
+# - print_jobs ID 시퀀스를 샤드 수 간격으로 교차 배정하여 샤드 간 ID 가 겹치지 않게 함
+#   (샤드 i 는 i+1, i+1+N, i+1+2N ... 사용)
+# - 0번(홈) 샤드 외에는 프린터/사용자/부서 테이블이 비어 있으므로 참조 제약 제거
+#   할당량도 홈 샤드에만 있으므로 차감 트리거 제거 (애플리케이션이 홈 샤드에 반영)
+set -e
+
+: "${SHARD_INDEX:?SHARD_INDEX 가 필요합니다}"
+: "${SHARD_COUNT:?SHARD_COUNT 가 필요합니다}"
+
+psql -v ON_ERROR_STOP=1 --username "$POSTGRES_USER" --dbname "$POSTGRES_DB" <<-EOSQL
+    ALTER SEQUENCE print_jobs_id_seq INCREMENT BY ${SHARD_COUNT} RESTART WITH $((SHARD_INDEX + 1));
+EOSQL
+
+if [ "$SHARD_INDEX" -gt 0 ]; then
+    psql -v ON_ERROR_STOP=1 --username "$POSTGRES_USER" --dbname "$POSTGRES_DB" <<-EOSQL
+        ALTER TABLE print_jobs DROP CONSTRAINT IF EXISTS print_jobs_printer_id_fkey;
+        ALTER TABLE print_jobs DROP CONSTRAINT IF EXISTS print_jobs_user_id_fkey;
+        ALTER TABLE print_jobs DROP CONSTRAINT IF EXISTS print_jobs_department_id_fkey;
+        DROP TRIGGER IF EXISTS trigger_update_quota_on_print ON print_jobs;
+EOSQL
+fi